@@ -0,0 +1,109 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.primitive.PrimitiveDoubleArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveLongArrayList;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.linkedin.avroutil1.compatibility.ByteBufferEncoder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates serializing a record into a direct {@link ByteBuffer} with a {@link ByteBufferEncoder},
+ * compared to serializing it into a {@link ByteArrayOutputStream} and copying the bytes into the direct buffer.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 3)
+public class ByteBufferEncoderBenchmark {
+  private static final int NUMBER_OF_ITEMS = 1000;
+
+  private GenericRecord record;
+  private FastSerializer<GenericRecord> fastSerializer;
+  private ByteBuffer directBuffer;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(ByteBufferEncoderBenchmark.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    Schema schema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"ByteBufferEncoderBenchmarkRecord\","
+        + "\"fields\":["
+        + "{\"name\":\"id\",\"type\":\"long\"},"
+        + "{\"name\":\"timestamps\",\"type\":{\"type\":\"array\",\"items\":\"long\"}},"
+        + "{\"name\":\"scores\",\"type\":{\"type\":\"array\",\"items\":\"double\"}},"
+        + "{\"name\":\"attributes\",\"type\":{\"type\":\"map\",\"values\":\"string\"}}]}");
+    PrimitiveLongArrayList timestamps = new PrimitiveLongArrayList(NUMBER_OF_ITEMS);
+    PrimitiveDoubleArrayList scores = new PrimitiveDoubleArrayList(NUMBER_OF_ITEMS);
+    Map<String, String> attributes = new HashMap<>();
+    for (int i = 0; i < NUMBER_OF_ITEMS; i++) {
+      timestamps.addPrimitive(1600000000000L + i);
+      scores.addPrimitive(i / 7d);
+      if (i % 10 == 0) {
+        attributes.put("attribute" + i, "value of attribute " + i);
+      }
+    }
+    record = new GenericData.Record(schema);
+    record.put("id", 42L);
+    record.put("timestamps", timestamps);
+    record.put("scores", scores);
+    record.put("attributes", attributes);
+
+    ClassLoader classLoader = new InMemoryClassLoader(ByteBufferEncoderBenchmark.class.getClassLoader());
+    fastSerializer =
+        new FastGenericSerializerGenerator<GenericRecord>(schema, null, classLoader, null).generateSerializer();
+    directBuffer = ByteBuffer.allocateDirect(fastSerializer.computeSerializedSize(record));
+  }
+
+  @Benchmark
+  public ByteBuffer serializeWithByteBufferEncoder() throws IOException {
+    directBuffer.clear();
+    fastSerializer.serialize(record, AvroCompatibilityHelper.newByteBufferEncoder(directBuffer));
+    return directBuffer;
+  }
+
+  @Benchmark
+  public ByteBuffer serializeWithBinaryEncoder() throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    BinaryEncoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    fastSerializer.serialize(record, encoder);
+    encoder.flush();
+    directBuffer.clear();
+    directBuffer.put(baos.toByteArray());
+    return directBuffer;
+  }
+}
@@ -0,0 +1,112 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.Encoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates deserializing the records of a buffer into the columns of a {@link ColumnBatch} with a
+ * generated {@link FastColumnarDeserializer}, compared to deserializing them into a reused record with a generated
+ * {@link FastDeserializer}.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 3)
+public class ColumnarDeserializerBenchmark {
+  private static final int NUMBER_OF_RECORDS = 1000;
+
+  private byte[] serializedBytes;
+  private FastColumnarDeserializer fastColumnarDeserializer;
+  private FastDeserializer<GenericRecord> fastDeserializer;
+  private ColumnBatch batch;
+  private BinaryDecoder decoder;
+  private GenericRecord reuse;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(ColumnarDeserializerBenchmark.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    Schema schema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"ColumnarBenchmarkRecord\",\"fields\":["
+        + "{\"name\":\"id\",\"type\":\"long\"},"
+        + "{\"name\":\"count\",\"type\":\"int\"},"
+        + "{\"name\":\"score\",\"type\":[\"null\",\"double\"]},"
+        + "{\"name\":\"active\",\"type\":\"boolean\"},"
+        + "{\"name\":\"name\",\"type\":\"string\"},"
+        + "{\"name\":\"country\",\"type\":[\"null\",\"string\"]}]}");
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    GenericDatumWriter<GenericRecord> writer = new GenericDatumWriter<>(schema);
+    for (int i = 0; i < NUMBER_OF_RECORDS; i++) {
+      GenericData.Record record = new GenericData.Record(schema);
+      record.put("id", (long) i);
+      record.put("count", i % 100);
+      record.put("score", i % 10 == 0 ? null : i * 0.5);
+      record.put("active", i % 2 == 0);
+      record.put("name", "record" + i);
+      record.put("country", i % 3 == 0 ? null : "country" + i % 20);
+      writer.write(record, encoder);
+    }
+    encoder.flush();
+    serializedBytes = baos.toByteArray();
+
+    ClassLoader classLoader = new InMemoryClassLoader(ColumnarDeserializerBenchmark.class.getClassLoader());
+    fastColumnarDeserializer =
+        new FastColumnarDeserializerGenerator(schema, null, classLoader, null).generateColumnarDeserializer();
+    fastDeserializer =
+        new FastGenericDeserializerGenerator<GenericRecord>(schema, schema, null, classLoader, null).generateDeserializer();
+    batch = new ColumnBatch(schema);
+  }
+
+  @Benchmark
+  public int deserializeIntoColumns() throws IOException {
+    batch.clear();
+    return fastColumnarDeserializer.deserializeAll(batch, serializedBytes, 0, serializedBytes.length);
+  }
+
+  @Benchmark
+  public int deserializeIntoRecords() throws IOException {
+    decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, 0, serializedBytes.length, decoder);
+    int count = 0;
+    while (!decoder.isEnd()) {
+      reuse = fastDeserializer.deserialize(reuse, decoder);
+      count++;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,88 @@
+package com.linkedin.avro.fastserde;
+
+import static com.linkedin.avro.fastserde.Utils.getSchemaFingerprint;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates the cost of looking up an already compiled serde in {@link FastSerdeCache} from
+ * several threads at once, compared to the string key the cache used to build on every lookup.
+ *
+ * Run it with the {@link GCProfiler} (as {@link #main(String[])} does) to see the allocation rate per lookup.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class FastSerdeCacheLookupBenchmark {
+  private final Schema schema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"LookupBenchmarkRecord\","
+      + "\"fields\":[{\"name\":\"id\",\"type\":\"long\"},{\"name\":\"name\",\"type\":\"string\"}]}");
+
+  private FastSerdeCache cache;
+  private final ConcurrentHashMap<String, FastDeserializer<?>> stringKeyCache = new ConcurrentHashMap<>();
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(FastSerdeCacheLookupBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() {
+    cache = new FastSerdeCache.Builder().setExecutor(Runnable::run).setCompileThreshold(0).build();
+    cache.getFastGenericDeserializer(schema, schema);
+    FastDeserializer<?> deserializer = cache.getFastGenericDeserializer(schema, schema);
+    if (deserializer instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl) {
+      throw new IllegalStateException("Fast deserializer was not compiled");
+    }
+    stringKeyCache.put(getStringSchemaKey(schema, schema), deserializer);
+  }
+
+  @Benchmark
+  public FastDeserializer<?> schemaKeyLookup() {
+    return cache.getFastGenericDeserializer(schema, schema);
+  }
+
+  @Benchmark
+  public FastDeserializer<?> stringKeyLookup() {
+    return stringKeyCache.get(getStringSchemaKey(schema, schema));
+  }
+
+  /**
+   * Key previously used by {@link FastSerdeCache}, kept here as the baseline.
+   */
+  private static String getStringSchemaKey(Schema writerSchema, Schema readerSchema) {
+    return String.valueOf(Math.abs(getSchemaFingerprint(writerSchema))) + Math.abs(
+        getSchemaFingerprint(readerSchema));
+  }
+}
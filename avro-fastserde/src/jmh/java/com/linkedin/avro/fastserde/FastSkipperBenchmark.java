@@ -0,0 +1,108 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.Encoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates counting the records of a buffer with a generated {@link FastSkipper}, compared to
+ * deserializing them with a generated {@link FastDeserializer}.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 3)
+public class FastSkipperBenchmark {
+  private static final int NUMBER_OF_RECORDS = 100;
+  private static final int NUMBER_OF_SCORES = 100;
+
+  private byte[] serializedBytes;
+  private FastSkipper fastSkipper;
+  private FastDeserializer<GenericRecord> fastDeserializer;
+  private BinaryDecoder decoder;
+  private GenericRecord reuse;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(FastSkipperBenchmark.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    Schema schema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"SkipperBenchmarkRecord\",\"fields\":["
+        + "{\"name\":\"id\",\"type\":\"long\"},"
+        + "{\"name\":\"name\",\"type\":\"string\"},"
+        + "{\"name\":\"scores\",\"type\":{\"type\":\"array\",\"items\":\"float\"}}]}");
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    GenericDatumWriter<GenericRecord> writer = new GenericDatumWriter<>(schema);
+    for (int i = 0; i < NUMBER_OF_RECORDS; i++) {
+      GenericData.Record record = new GenericData.Record(schema);
+      record.put("id", (long) i);
+      record.put("name", "record" + i);
+      List<Float> scores = new ArrayList<>();
+      for (int j = 0; j < NUMBER_OF_SCORES; j++) {
+        scores.add((float) i / (j + 1));
+      }
+      record.put("scores", scores);
+      writer.write(record, encoder);
+    }
+    encoder.flush();
+    serializedBytes = baos.toByteArray();
+
+    ClassLoader classLoader = new InMemoryClassLoader(FastSkipperBenchmark.class.getClassLoader());
+    fastSkipper = new FastSkipperGenerator(schema, null, classLoader, null).generateSkipper();
+    fastDeserializer =
+        new FastGenericDeserializerGenerator<GenericRecord>(schema, schema, null, classLoader, null).generateDeserializer();
+  }
+
+  @Benchmark
+  public int skip() throws IOException {
+    return fastSkipper.count(serializedBytes, 0, serializedBytes.length);
+  }
+
+  @Benchmark
+  public int deserialize() throws IOException {
+    decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, 0, serializedBytes.length, decoder);
+    int count = 0;
+    while (!decoder.isEnd()) {
+      reuse = fastDeserializer.deserialize(reuse, decoder);
+      count++;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,129 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.Encoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates routing records by one of their fields, i.e. reading that field and writing the
+ * records as they are, with {@link LazyGenericRecord}s compared to records deserialized and serialized again.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 3)
+public class LazyGenericRecordBenchmark {
+  private static final int NUMBER_OF_FIELDS = 50;
+
+  private byte[] serializedBytes;
+  private FastDeserializer<GenericRecord> fastDeserializer;
+  private FastSerializer<GenericRecord> fastSerializer;
+  private LazyGenericRecordReader lazyRecordReader;
+  private FastGenericDatumWriter<GenericRecord> fastDatumWriter;
+  private ByteArrayOutputStream output = new ByteArrayOutputStream();
+  private BinaryEncoder encoder;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(LazyGenericRecordBenchmark.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    StringBuilder fields = new StringBuilder();
+    for (int i = 0; i < NUMBER_OF_FIELDS; i++) {
+      fields.append(i == 0 ? "" : ",").append("{\"name\":\"field").append(i).append("\",\"type\":")
+          .append(i % 2 == 0 ? "\"long\"" : "{\"type\":\"array\",\"items\":\"string\"}").append("}");
+    }
+    Schema schema = AvroCompatibilityHelper.parse(
+        "{\"type\":\"record\",\"name\":\"LazyBenchmarkRecord\",\"fields\":[" + fields + "]}");
+
+    GenericData.Record record = new GenericData.Record(schema);
+    for (int i = 0; i < NUMBER_OF_FIELDS; i++) {
+      List<String> strings = new ArrayList<>();
+      for (int j = 0; j < 4; j++) {
+        strings.add("value" + i + "_" + j);
+      }
+      record.put(i, i % 2 == 0 ? (Object) (long) i : strings);
+    }
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder recordEncoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    new GenericDatumWriter<GenericRecord>(schema).write(record, recordEncoder);
+    recordEncoder.flush();
+    serializedBytes = baos.toByteArray();
+
+    ClassLoader classLoader = new InMemoryClassLoader(LazyGenericRecordBenchmark.class.getClassLoader());
+    fastDeserializer =
+        new FastGenericDeserializerGenerator<GenericRecord>(schema, schema, null, classLoader, null).generateDeserializer();
+    fastSerializer = new FastGenericSerializerGenerator<GenericRecord>(schema, null, classLoader, null).generateSerializer();
+
+    // compiles the fast classes synchronously, once the cold ones have been used enough
+    FastSerdeCache cache = new FastSerdeCache(Runnable::run);
+    lazyRecordReader = new LazyGenericRecordReader(schema, cache);
+    fastDatumWriter = new FastGenericDatumWriter<>(schema, cache);
+    for (int i = 0; i < 10_000; i++) {
+      readLazilyAndWrite();
+    }
+  }
+
+  @Benchmark
+  public byte[] deserializeAndSerialize() throws IOException {
+    BinaryDecoder decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, 0, serializedBytes.length, null);
+    GenericRecord record = fastDeserializer.deserialize(null, decoder);
+    route(record);
+    output.reset();
+    encoder = AvroCompatibilityHelper.newBinaryEncoder(output, true, encoder);
+    fastSerializer.serialize(record, encoder);
+    encoder.flush();
+    return output.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] readLazilyAndWrite() throws IOException {
+    GenericRecord record = lazyRecordReader.read(serializedBytes);
+    route(record);
+    output.reset();
+    encoder = AvroCompatibilityHelper.newBinaryEncoder(output, true, encoder);
+    fastDatumWriter.write(record, encoder);
+    encoder.flush();
+    return output.toByteArray();
+  }
+
+  private static Object route(GenericRecord record) {
+    return record.get(NUMBER_OF_FIELDS / 2);
+  }
+}
@@ -0,0 +1,225 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.api.PrimitiveDoubleList;
+import com.linkedin.avro.api.PrimitiveIntList;
+import com.linkedin.avro.api.PrimitiveLongList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveDoubleArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveIntArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveLongArrayList;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates the block-wise reading of primitive arrays done by the generated deserializers,
+ * compared to the element by element reading into a {@link PrimitiveIntArrayList} (or its long and double
+ * counterparts) they used to do, and likewise the bulk writes of the generated serializers with
+ * {@link PrimitiveArrayWriter} compared to their element by element writes.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class PrimitiveArrayBenchmark {
+  @Param({"INT", "LONG", "DOUBLE"})
+  private String elementType;
+
+  private final Random random = new Random();
+
+  private byte[] serializedBytes;
+  private BinaryDecoder decoder;
+  private Object blockWiseList;
+  private Object elementWiseList;
+  private Object writtenList;
+  private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+  private BinaryEncoder encoder;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(PrimitiveArrayBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void prepare() throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    encoder.writeArrayStart();
+    encoder.setItemCount(BenchmarkConstants.FLOAT_ARRAY_SIZE);
+    for (int i = 0; i < BenchmarkConstants.FLOAT_ARRAY_SIZE; i++) {
+      encoder.startItem();
+      switch (elementType) {
+        case "INT": encoder.writeInt(random.nextInt()); break;
+        case "LONG": encoder.writeLong(random.nextLong()); break;
+        default: encoder.writeDouble(random.nextDouble());
+      }
+    }
+    encoder.writeArrayEnd();
+    encoder.flush();
+    serializedBytes = baos.toByteArray();
+    switch (elementType) {
+      case "INT": writtenList = PrimitiveIntArrayList.readPrimitiveIntArray(null, newDecoder()); break;
+      case "LONG": writtenList = PrimitiveLongArrayList.readPrimitiveLongArray(null, newDecoder()); break;
+      default: writtenList = ByteBufferBackedPrimitiveDoubleList.readPrimitiveDoubleArray(null, newDecoder());
+    }
+  }
+
+  @Benchmark
+  public void readBlockWise(Blackhole bh) throws IOException {
+    Decoder in = newDecoder();
+    switch (elementType) {
+      case "INT": blockWiseList = PrimitiveIntArrayList.readPrimitiveIntArray(blockWiseList, in); break;
+      case "LONG": blockWiseList = PrimitiveLongArrayList.readPrimitiveLongArray(blockWiseList, in); break;
+      default: blockWiseList = ByteBufferBackedPrimitiveDoubleList.readPrimitiveDoubleArray(blockWiseList, in);
+    }
+    bh.consume(blockWiseList);
+  }
+
+  @Benchmark
+  public void readElementWise(Blackhole bh) throws IOException {
+    Decoder in = newDecoder();
+    switch (elementType) {
+      case "INT": elementWiseList = readIntsElementWise((PrimitiveIntArrayList) elementWiseList, in); break;
+      case "LONG": elementWiseList = readLongsElementWise((PrimitiveLongArrayList) elementWiseList, in); break;
+      default: elementWiseList = readDoublesElementWise((PrimitiveDoubleArrayList) elementWiseList, in);
+    }
+    bh.consume(elementWiseList);
+  }
+
+  @Benchmark
+  public void writeBulk(Blackhole bh) throws IOException {
+    Encoder out = newEncoder();
+    out.writeArrayStart();
+    out.setItemCount(((List<?>) writtenList).size());
+    switch (elementType) {
+      case "INT": PrimitiveArrayWriter.writeInts((PrimitiveIntList) writtenList, out); break;
+      case "LONG": PrimitiveArrayWriter.writeLongs((PrimitiveLongList) writtenList, out); break;
+      default: PrimitiveArrayWriter.writeDoubles((PrimitiveDoubleList) writtenList, out);
+    }
+    out.writeArrayEnd();
+    out.flush();
+    bh.consume(outputStream);
+  }
+
+  @Benchmark
+  public void writeElementWise(Blackhole bh) throws IOException {
+    Encoder out = newEncoder();
+    out.writeArrayStart();
+    out.setItemCount(((List<?>) writtenList).size());
+    switch (elementType) {
+      case "INT":
+        PrimitiveIntList ints = (PrimitiveIntList) writtenList;
+        for (int i = 0; i < ints.size(); i++) {
+          out.startItem();
+          out.writeInt(ints.getPrimitive(i));
+        }
+        break;
+      case "LONG":
+        PrimitiveLongList longs = (PrimitiveLongList) writtenList;
+        for (int i = 0; i < longs.size(); i++) {
+          out.startItem();
+          out.writeLong(longs.getPrimitive(i));
+        }
+        break;
+      default:
+        PrimitiveDoubleList doubles = (PrimitiveDoubleList) writtenList;
+        for (int i = 0; i < doubles.size(); i++) {
+          out.startItem();
+          out.writeDouble(doubles.getPrimitive(i));
+        }
+    }
+    out.writeArrayEnd();
+    out.flush();
+    bh.consume(outputStream);
+  }
+
+  /*
+   * The following methods mirror the code the deserializers used to generate for arrays of primitives.
+   */
+
+  private static PrimitiveIntArrayList readIntsElementWise(PrimitiveIntArrayList old, Decoder in) throws IOException {
+    long chunkLen = in.readArrayStart();
+    PrimitiveIntArrayList list = old != null ? old : new PrimitiveIntArrayList((int) chunkLen);
+    list.clear();
+    while (chunkLen > 0) {
+      for (int counter = 0; counter < chunkLen; counter++) {
+        list.addPrimitive(in.readInt());
+      }
+      chunkLen = in.arrayNext();
+    }
+    return list;
+  }
+
+  private static PrimitiveLongArrayList readLongsElementWise(PrimitiveLongArrayList old, Decoder in) throws IOException {
+    long chunkLen = in.readArrayStart();
+    PrimitiveLongArrayList list = old != null ? old : new PrimitiveLongArrayList((int) chunkLen);
+    list.clear();
+    while (chunkLen > 0) {
+      for (int counter = 0; counter < chunkLen; counter++) {
+        list.addPrimitive(in.readLong());
+      }
+      chunkLen = in.arrayNext();
+    }
+    return list;
+  }
+
+  private static PrimitiveDoubleArrayList readDoublesElementWise(PrimitiveDoubleArrayList old, Decoder in)
+      throws IOException {
+    long chunkLen = in.readArrayStart();
+    PrimitiveDoubleArrayList list = old != null ? old : new PrimitiveDoubleArrayList((int) chunkLen);
+    list.clear();
+    while (chunkLen > 0) {
+      for (int counter = 0; counter < chunkLen; counter++) {
+        list.addPrimitive(in.readDouble());
+      }
+      chunkLen = in.arrayNext();
+    }
+    return list;
+  }
+
+  private Encoder newEncoder() {
+    outputStream.reset();
+    encoder = AvroCompatibilityHelper.newBinaryEncoder(outputStream, true, encoder);
+    return encoder;
+  }
+
+  private Decoder newDecoder() {
+    decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, 0, serializedBytes.length, decoder);
+    return decoder;
+  }
+}
@@ -0,0 +1,108 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.Encoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates the deserialization of a few fields out of a wide record (see
+ * {@link FastSerdeProjection}), compared to the deserialization of the whole record.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+// the generated methods need a while to get compiled by C2
+@Warmup(iterations = 6, time = 5)
+@Measurement(iterations = 3)
+public class ProjectionBenchmark {
+  private static final int NUMBER_OF_FIELDS = 200;
+
+  /**
+   * Number of projected fields, 0 to deserialize the whole record.
+   */
+  @Param({"0", "5", "50"})
+  private int projectedFieldCount;
+
+  private byte[] serializedBytes;
+  private FastDeserializer<GenericRecord> fastDeserializer;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(ProjectionBenchmark.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    StringBuilder fields = new StringBuilder();
+    for (int i = 0; i < NUMBER_OF_FIELDS; i++) {
+      fields.append(i == 0 ? "" : ",").append("{\"name\":\"field").append(i).append("\",\"type\":")
+          .append(i % 2 == 0 ? "\"long\"" : "{\"type\":\"array\",\"items\":\"string\"}").append("}");
+    }
+    Schema schema = AvroCompatibilityHelper.parse(
+        "{\"type\":\"record\",\"name\":\"ProjectionBenchmarkRecord\",\"fields\":[" + fields + "]}");
+
+    GenericData.Record record = new GenericData.Record(schema);
+    for (int i = 0; i < NUMBER_OF_FIELDS; i++) {
+      List<String> strings = new ArrayList<>();
+      for (int j = 0; j < 4; j++) {
+        strings.add("value" + i + "_" + j);
+      }
+      record.put(i, i % 2 == 0 ? (Object) (long) i : strings);
+    }
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+    encoder.flush();
+    serializedBytes = baos.toByteArray();
+
+    Schema readerSchema = schema;
+    if (projectedFieldCount > 0) {
+      List<String> fieldPaths = new ArrayList<>();
+      for (int i = 0; i < projectedFieldCount; i++) {
+        fieldPaths.add("field" + (i * NUMBER_OF_FIELDS / projectedFieldCount));
+      }
+      readerSchema = FastSerdeProjection.project(schema, fieldPaths);
+    }
+    fastDeserializer = new FastGenericDeserializerGenerator<GenericRecord>(schema, readerSchema, null,
+        new InMemoryClassLoader(ProjectionBenchmark.class.getClassLoader()), null).generateDeserializer();
+  }
+
+  @Benchmark
+  public GenericRecord deserialize() throws IOException {
+    BinaryDecoder decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, 0, serializedBytes.length, null);
+    return fastDeserializer.deserialize(null, decoder);
+  }
+}
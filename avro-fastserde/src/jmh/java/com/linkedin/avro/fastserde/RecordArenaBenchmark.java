@@ -0,0 +1,123 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.Encoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates the deserialization of records with nested records, arrays and maps into a
+ * {@link RecordArena}, compared to the deserialization into new records and into a reused record.
+ * Run it with the {@link GCProfiler} to compare the allocation rates.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 3)
+public class RecordArenaBenchmark {
+  private static final int NUMBER_OF_ITEMS = 50;
+
+  @Param({"NEW", "REUSE", "ARENA"})
+  private String mode;
+
+  private byte[] serializedBytes;
+  private FastDeserializer<GenericRecord> fastDeserializer;
+  private BinaryDecoder decoder;
+  private GenericRecord reuse;
+  private final RecordArena arena = new RecordArena();
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(RecordArenaBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    Schema schema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"ArenaBenchmarkRecord\",\"fields\":["
+        + "{\"name\":\"id\",\"type\":\"long\"},"
+        + "{\"name\":\"items\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\","
+        + "\"name\":\"ArenaBenchmarkItem\",\"fields\":[{\"name\":\"count\",\"type\":\"int\"},"
+        + "{\"name\":\"scores\",\"type\":{\"type\":\"array\",\"items\":\"float\"}},"
+        + "{\"name\":\"attributes\",\"type\":{\"type\":\"map\",\"values\":\"long\"}}]}}}]}");
+    Schema itemSchema = schema.getField("items").schema().getElementType();
+
+    GenericData.Record record = new GenericData.Record(schema);
+    record.put("id", 42L);
+    List<GenericRecord> items = new ArrayList<>();
+    for (int i = 0; i < NUMBER_OF_ITEMS; i++) {
+      GenericData.Record item = new GenericData.Record(itemSchema);
+      item.put("count", i);
+      List<Float> scores = new ArrayList<>();
+      for (int j = 0; j < 4; j++) {
+        scores.add((float) i / (j + 1));
+      }
+      item.put("scores", scores);
+      Map<String, Long> attributes = new HashMap<>();
+      attributes.put("attribute" + (i % 3), (long) i);
+      item.put("attributes", attributes);
+      items.add(item);
+    }
+    record.put("items", items);
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+    encoder.flush();
+    serializedBytes = baos.toByteArray();
+
+    fastDeserializer = new FastGenericDeserializerGenerator<GenericRecord>(schema, schema, null,
+        new InMemoryClassLoader(RecordArenaBenchmark.class.getClassLoader()), null).generateDeserializer();
+  }
+
+  @Benchmark
+  public GenericRecord deserialize() throws IOException {
+    decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, 0, serializedBytes.length, decoder);
+    switch (mode) {
+      case "NEW":
+        return fastDeserializer.deserialize(null, decoder);
+      case "REUSE":
+        reuse = fastDeserializer.deserialize(reuse, decoder);
+        return reuse;
+      default:
+        arena.reset();
+        return fastDeserializer.deserialize(null, decoder, arena);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates serializing a record holding large byte buffers into a byte array of its precomputed size with
+ * {@link FastSerializer#serializeToBytes(Object)}, compared to serializing it into a {@link ByteArrayOutputStream}.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 3)
+public class SerializedSizeBenchmark {
+  private static final int PAYLOAD_SIZE = 256 * 1024;
+  private static final int NUMBER_OF_ITEMS = 16;
+
+  private GenericRecord record;
+  private FastSerializer<GenericRecord> fastSerializer;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(SerializedSizeBenchmark.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() {
+    Schema schema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"SerializedSizeBenchmarkRecord\","
+        + "\"fields\":["
+        + "{\"name\":\"id\",\"type\":\"long\"},"
+        + "{\"name\":\"payload\",\"type\":\"bytes\"},"
+        + "{\"name\":\"chunks\",\"type\":{\"type\":\"array\",\"items\":\"bytes\"}},"
+        + "{\"name\":\"attributes\",\"type\":{\"type\":\"map\",\"values\":\"string\"}}]}");
+    record = new GenericData.Record(schema);
+    record.put("id", 42L);
+    record.put("payload", ByteBuffer.wrap(new byte[PAYLOAD_SIZE]));
+    List<ByteBuffer> chunks = new ArrayList<>();
+    Map<String, String> attributes = new HashMap<>();
+    for (int i = 0; i < NUMBER_OF_ITEMS; i++) {
+      chunks.add(ByteBuffer.wrap(new byte[PAYLOAD_SIZE / NUMBER_OF_ITEMS]));
+      attributes.put("attribute" + i, "value of attribute " + i);
+    }
+    record.put("chunks", chunks);
+    record.put("attributes", attributes);
+
+    ClassLoader classLoader = new InMemoryClassLoader(SerializedSizeBenchmark.class.getClassLoader());
+    fastSerializer =
+        new FastGenericSerializerGenerator<GenericRecord>(schema, null, classLoader, null).generateSerializer();
+  }
+
+  @Benchmark
+  public int computeSerializedSize() throws IOException {
+    return fastSerializer.computeSerializedSize(record);
+  }
+
+  @Benchmark
+  public byte[] serializeToBytes() throws IOException {
+    return fastSerializer.serializeToBytes(record);
+  }
+
+  @Benchmark
+  public byte[] serializeToByteArrayOutputStream() throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    BinaryEncoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    fastSerializer.serialize(record, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+}
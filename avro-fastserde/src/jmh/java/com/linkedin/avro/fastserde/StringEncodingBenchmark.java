@@ -0,0 +1,107 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates serializing records whose string fields only take a few distinct values, with the
+ * encodings of the values cached by a {@link StringEncodingCache}, compared to encoding them on every write.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 3)
+public class StringEncodingBenchmark {
+  private static final int NUMBER_OF_RECORDS = 100;
+  private static final String[] COUNTRIES = {"United States", "Canada", "France", "Deutschland", "Espa\u00f1a"};
+  private static final String[] DEVICES = {"mobile-android", "mobile-ios", "desktop-web", "tablet"};
+
+  private GenericRecord[] records;
+  private FastSerializer<GenericRecord> cachedEncodingSerializer;
+  private FastSerializer<GenericRecord> serializer;
+  private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+  private BinaryEncoder encoder;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(StringEncodingBenchmark.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() {
+    Schema cachedEncodingSchema = createSchema(",\"avro.fastserde.dedup\":true");
+    Schema schema = createSchema("");
+    records = new GenericRecord[NUMBER_OF_RECORDS];
+    for (int i = 0; i < NUMBER_OF_RECORDS; i++) {
+      GenericData.Record record = new GenericData.Record(schema);
+      record.put("country", COUNTRIES[i % COUNTRIES.length]);
+      record.put("device", DEVICES[i % DEVICES.length]);
+      record.put("locale", COUNTRIES[(i + 1) % COUNTRIES.length] + "/" + DEVICES[i % DEVICES.length]);
+      records[i] = record;
+    }
+
+    ClassLoader classLoader = new InMemoryClassLoader(StringEncodingBenchmark.class.getClassLoader());
+    cachedEncodingSerializer =
+        new FastGenericSerializerGenerator<GenericRecord>(cachedEncodingSchema, null, classLoader, null).generateSerializer();
+    serializer = new FastGenericSerializerGenerator<GenericRecord>(schema, null, classLoader, null).generateSerializer();
+  }
+
+  private static Schema createSchema(String stringProps) {
+    String stringType = "{\"type\":\"string\"" + stringProps + "}";
+    return AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"StringEncodingBenchmarkRecord"
+        + (stringProps.isEmpty() ? "" : "Cached") + "\",\"fields\":["
+        + "{\"name\":\"country\",\"type\":" + stringType + "},"
+        + "{\"name\":\"device\",\"type\":" + stringType + "},"
+        + "{\"name\":\"locale\",\"type\":" + stringType + "}]}");
+  }
+
+  @Benchmark
+  public int writeWithCachedEncodings() throws IOException {
+    return write(cachedEncodingSerializer);
+  }
+
+  @Benchmark
+  public int writeWithEncoding() throws IOException {
+    return write(serializer);
+  }
+
+  private int write(FastSerializer<GenericRecord> fastSerializer) throws IOException {
+    baos.reset();
+    encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, encoder);
+    for (GenericRecord record : records) {
+      fastSerializer.serialize(record, encoder);
+    }
+    encoder.flush();
+    return baos.size();
+  }
+}
@@ -0,0 +1,98 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.Encoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates the deserialization of a synthetic record with a thousand fields, with and without
+ * splitting the generated code into methods small enough to be JIT-compiled (see {@link FastSerdeMethodSplitter}).
+ *
+ * Without splitting, the generated method reading the record is over the 8000 bytes HotSpot compiles, so it stays
+ * interpreted; run with -XX:+PrintCompilation (as {@link #main(String[])} does) to see the generated methods getting
+ * compiled by C2 (tier 4) only when splitting is enabled.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+// C2 needs a while to get to the many generated methods
+@Warmup(iterations = 8, time = 5)
+@Measurement(iterations = 3)
+public class WideRecordBenchmark {
+  private static final int NUMBER_OF_FIELDS = 1000;
+
+  @Param({"0", "6000"})
+  private int methodSizeBudget;
+
+  private byte[] serializedBytes;
+  private FastDeserializer<GenericRecord> fastDeserializer;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(WideRecordBenchmark.class.getSimpleName())
+        .jvmArgsAppend("-XX:+PrintCompilation")
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    StringBuilder fields = new StringBuilder();
+    for (int i = 0; i < NUMBER_OF_FIELDS; i++) {
+      fields.append(i == 0 ? "" : ",").append("{\"name\":\"field").append(i).append("\",\"type\":")
+          .append(i % 2 == 0 ? "\"long\"" : "[\"null\",\"string\"]").append("}");
+    }
+    Schema schema = AvroCompatibilityHelper.parse(
+        "{\"type\":\"record\",\"name\":\"WideBenchmarkRecord\",\"fields\":[" + fields + "]}");
+
+    GenericData.Record record = new GenericData.Record(schema);
+    for (int i = 0; i < NUMBER_OF_FIELDS; i++) {
+      record.put(i, i % 2 == 0 ? (Object) (long) i : "value" + i);
+    }
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+    encoder.flush();
+    serializedBytes = baos.toByteArray();
+
+    FastGenericDeserializerGenerator<GenericRecord> generator = new FastGenericDeserializerGenerator<>(schema, schema,
+        null, new InMemoryClassLoader(WideRecordBenchmark.class.getClassLoader()), null);
+    generator.setMethodSizeBudget(methodSizeBudget);
+    fastDeserializer = generator.generateDeserializer();
+  }
+
+  @Benchmark
+  public GenericRecord deserialize() throws IOException {
+    BinaryDecoder decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes);
+    return fastDeserializer.deserialize(null, decoder);
+  }
+}
@@ -0,0 +1,189 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.api.PrimitiveDoubleList;
+import java.io.IOException;
+import java.util.Collection;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericArray;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.Decoder;
+
+
+/**
+ * This is a re-implementation of Avro's {@link GenericData.Array} class.
+ *
+ * Compared to the Avro implementation, it offers the following GC-related optimizations:
+ *
+ * - It does not, by default, box primitive doubles into Object Doubles, though it will still do so if the
+ *   regular functions are called (e.g.: {@link #get(int)}, for compatibility purposes. In order to avoid
+ *   boxing, the {@link #getPrimitive(int)} function can be used instead.
+ *
+ * - It does not maintain a reference to a {@link Schema} instance, since that schema would always be the
+ *   same. Instead, it defines a static {@link #SCHEMA} which is used by all instances.
+ *
+ * - It re-implements {@link #compareTo(GenericArray)}, {@link #equals(Object)} and {@link #hashCode()}
+ *   in order to leverage the primitive types, rather than causing unintended boxing.
+ *
+ *   Using ByteBuffer to speed up double-array deserialization: We allocate ByteBuffer to store the raw bytes from
+ *   BinaryDecoder and deserialize them only during array element access. We cache the results into the elements array
+ *   after the first get access of the array so that sub-sequent array access are fast. For reuse case, we try to reuse
+ *   the existing ByteBuffers as long as their capacity can hold the array. Float arrays get the same treatment
+ *   from {@link ByteBufferBackedPrimitiveFloatList}, see {@link ByteBufferBackedPrimitiveList}.
+ */
+public class ByteBufferBackedPrimitiveDoubleList extends ByteBufferBackedPrimitiveList<Double, double[]>
+    implements PrimitiveDoubleList {
+  private static final double[] EMPTY = new double[0];
+  private static final Schema DOUBLE_SCHEMA = Schema.create(Schema.Type.DOUBLE);
+  private static final Schema SCHEMA = Schema.createArray(DOUBLE_SCHEMA);
+
+  public ByteBufferBackedPrimitiveDoubleList(int capacity) {
+    // create empty ByteBuffer if capacity != 0 ( List<Double> interface usage case)
+    super(Double.BYTES, capacity, capacity != 0);
+  }
+
+  public ByteBufferBackedPrimitiveDoubleList(Collection<Double> c) {
+    super(Double.BYTES, c == null ? 0 : c.size(), c != null);
+    if (c != null) {
+      addAll(c);
+    }
+  }
+
+  /**
+   * Instantiate (or re-use) and populate a {@link ByteBufferBackedPrimitiveDoubleList} from a {@link org.apache.avro.io.Decoder}.
+   *
+   * N.B.: the caller must ensure the data is of the appropriate type by calling {@link #isDoubleArray(Schema)}.
+   *
+   * @param old old {@link ByteBufferBackedPrimitiveDoubleList} to reuse
+   * @param in {@link org.apache.avro.io.Decoder} to read new list from
+   * @return a {@link ByteBufferBackedPrimitiveDoubleList} with data, possibly the old argument reused
+   * @throws IOException on io errors
+   */
+  public static Object readPrimitiveDoubleArray(Object old, Decoder in) throws IOException {
+    long length = in.readArrayStart();
+    if (length <= 0) {
+      return new ByteBufferBackedPrimitiveDoubleList(0);
+    }
+    ByteBufferBackedPrimitiveDoubleList array = old instanceof ByteBufferBackedPrimitiveDoubleList
+        ? (ByteBufferBackedPrimitiveDoubleList) old : new ByteBufferBackedPrimitiveDoubleList(0);
+    array.readBlocks(length, in);
+    return array;
+  }
+
+  /**
+     * @param expected {@link Schema} to inspect
+     * @return true if the {@code expected} SCHEMA is of the right type to decode as a {@link ByteBufferBackedPrimitiveDoubleList}
+     *         false otherwise
+     */
+  public static boolean isDoubleArray(Schema expected) {
+    return expected != null && Schema.Type.ARRAY.equals(expected.getType()) && DOUBLE_SCHEMA.equals(
+        expected.getElementType());
+  }
+
+  @Override
+  public Schema getSchema() {
+    return SCHEMA;
+  }
+
+  @Override
+  public double getPrimitive(int i) {
+    checkIfLargerThanSize(i);
+    if (isCached()) {
+      return elementsArray[i];
+    }
+    return byteBuffer.getDoubleElement(i);
+  }
+
+  @Override
+  public Double get(int i) {
+    return getPrimitive(i);
+  }
+
+  /**
+   * Add a primitive double inside the list, without boxing.
+   *
+   * @param o new double to add
+   * @return true
+   */
+  @Override
+  public boolean addPrimitive(double o) {
+    elementsArray[getAndIncrementSize()] = o;
+    return true;
+  }
+
+  @Override
+  public boolean add(Double o) {
+    return addPrimitive(o);
+  }
+
+  @Override
+  public void add(int location, Double o) {
+    addInternal(location);
+    elementsArray[location] = o;
+  }
+
+  @Override
+  public Double set(int i, Double o) {
+    return setPrimitive(i, o);
+  }
+
+  @Override
+  public double setPrimitive(int i, double o) {
+    checkIfLargerThanSize(i);
+    cacheFromByteBuffer();
+    double response = elementsArray[i];
+    elementsArray[i] = o;
+    return response;
+  }
+
+  @Override
+  public Double peek() {
+    cacheFromByteBuffer();
+    return (size() < elementsArray.length) ? elementsArray[size()] : null;
+  }
+
+  @Override
+  public void reverse() {
+    cacheFromByteBuffer();
+    int left = 0;
+    int right = size() - 1;
+
+    while (left < right) {
+      double tmp = elementsArray[left];
+      elementsArray[left] = elementsArray[right];
+      elementsArray[right] = tmp;
+
+      left++;
+      right--;
+    }
+  }
+
+  @Override
+  protected int capacity() {
+    return elementsArray.length;
+  }
+
+  @Override
+  protected double[] newArray(int capacity) {
+    return capacity == 0 ? EMPTY : new double[capacity];
+  }
+
+  @Override
+  protected void decodeElements(double[] array) {
+    byteBuffer.setArray(array);
+  }
+
+  @Override
+  protected int compareElementAtIndex(Object that, int index) {
+    return Double.compare(getPrimitive(index), ((PrimitiveDoubleList) that).getPrimitive(index));
+  }
+
+  @Override
+  protected boolean isInstanceOfCorrectPrimitiveList(Object object) {
+    return object instanceof PrimitiveDoubleList;
+  }
+
+  @Override
+  protected int hashCodeOfElementAtIndex(int index) {
+    return Double.hashCode(getPrimitive(index));
+  }
+}
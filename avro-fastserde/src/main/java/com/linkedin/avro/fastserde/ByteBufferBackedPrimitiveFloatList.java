@@ -2,10 +2,7 @@ package com.linkedin.avro.fastserde;
 
 import com.linkedin.avro.api.PrimitiveFloatList;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.util.AbstractList;
 import java.util.Collection;
-import java.util.Iterator;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericArray;
 import org.apache.avro.generic.GenericData;
@@ -30,35 +27,25 @@ import org.apache.avro.io.Decoder;
  *   Using ByteBuffer to speed up float-array deserialization: We allocate ByteBuffer to store the raw bytes from
  *   BinaryDecoder and deserialize them only during array element access. We cache the results into the elements array
  *   after the first get access of the array so that sub-sequent array access are fast. For reuse case, we try to reuse
- *   the existing ByteBuffers as long as their capacity can hold the array.
- *
- *   TODO: Provide arrays for other primitive types.
+ *   the existing ByteBuffers as long as their capacity can hold the array. Double arrays get the same treatment
+ *   from {@link ByteBufferBackedPrimitiveDoubleList}, see {@link ByteBufferBackedPrimitiveList}.
  */
-public class ByteBufferBackedPrimitiveFloatList extends AbstractList<Float>
-    implements GenericArray<Float>, Comparable<GenericArray<Float>>, PrimitiveFloatList {
+public class ByteBufferBackedPrimitiveFloatList extends ByteBufferBackedPrimitiveList<Float, float[]>
+    implements PrimitiveFloatList {
   private static final float[] EMPTY = new float[0];
-  private static final int FLOAT_SIZE = Float.BYTES;
   private static final Schema FLOAT_SCHEMA = Schema.create(Schema.Type.FLOAT);
   private static final Schema SCHEMA = Schema.createArray(FLOAT_SCHEMA);
-  private int size;
-  private float[] elements = EMPTY;
-  private boolean isCached = false;
-  private CompositeByteBuffer byteBuffer;
 
   public ByteBufferBackedPrimitiveFloatList(int capacity) {
-    if (capacity != 0) {
-      elements = new float[capacity];
-    }
     // create empty ByteBuffer if capacity != 0 ( List<Float> interface usage case)
-    byteBuffer = new CompositeByteBuffer(capacity != 0);
+    super(Float.BYTES, capacity, capacity != 0);
   }
 
   public ByteBufferBackedPrimitiveFloatList(Collection<Float> c) {
+    super(Float.BYTES, c == null ? 0 : c.size(), c != null);
     if (c != null) {
-      elements = new float[c.size()];
       addAll(c);
     }
-    byteBuffer = new CompositeByteBuffer(c != null);
   }
 
   /**
@@ -73,47 +60,13 @@ public class ByteBufferBackedPrimitiveFloatList extends AbstractList<Float>
    */
   public static Object readPrimitiveFloatArray(Object old, Decoder in) throws IOException {
     long length = in.readArrayStart();
-    long totalLength = 0;
-
-    if (length > 0) {
-      ByteBufferBackedPrimitiveFloatList array = (ByteBufferBackedPrimitiveFloatList) newPrimitiveFloatArray(old);
-      int index = 0;
-
-      do {
-        long byteSize = length * FLOAT_SIZE;
-        ByteBuffer byteBuffer = array.byteBuffer.allocate(index++, (int)byteSize);
-        in.readFixed(byteBuffer.array(), 0, (int)byteSize);
-        totalLength += length;
-        length = in.arrayNext();
-      } while (length > 0);
-
-      array.byteBuffer.setByteBufferCount(index);
-      array.size = (int) totalLength;
-      return array;
-    } else {
+    if (length <= 0) {
       return new ByteBufferBackedPrimitiveFloatList(0);
     }
-  }
-
-  /**
-   *  The primitive float array `elements` will only be used when the interface user calls a mutating operation.
-   *  eg add/remove else for read-only use case this will not be called.
-   * @param list
-   * @param totalSize
-   */
-  private static void setupElements(ByteBufferBackedPrimitiveFloatList list, int totalSize) {
-    if (list.elements.length != 0) {
-      if (totalSize <= list.getCapacity()) {
-        // reuse the float array directly
-        list.clear();
-      } else {
-        list.resizeAndClear(totalSize);
-      }
-      list.size = totalSize;
-      return;
-    }
-    list.elements = new float[totalSize];
-    list.size = totalSize;
+    ByteBufferBackedPrimitiveFloatList array = old instanceof ByteBufferBackedPrimitiveFloatList
+        ? (ByteBufferBackedPrimitiveFloatList) old : new ByteBufferBackedPrimitiveFloatList(0);
+    array.readBlocks(length, in);
+    return array;
   }
 
   /**
@@ -126,73 +79,16 @@ public class ByteBufferBackedPrimitiveFloatList extends AbstractList<Float>
         expected.getElementType());
   }
 
-  private static Object newPrimitiveFloatArray(Object old) {
-    if (old instanceof ByteBufferBackedPrimitiveFloatList) {
-      ByteBufferBackedPrimitiveFloatList oldFloatList = (ByteBufferBackedPrimitiveFloatList) old;
-      oldFloatList.byteBuffer.clear();
-      oldFloatList.isCached = false;
-      oldFloatList.size = 0;
-      return oldFloatList;
-    } else {
-      // Just a place holder, will set up the elements later.
-      return new ByteBufferBackedPrimitiveFloatList(0);
-    }
-  }
-
   @Override
   public Schema getSchema() {
     return SCHEMA;
   }
 
   @Override
-  public int size() {
-    return size;
-  }
-
-  @Override
-  public void clear() {
-    size = 0;
-  }
-
-  private int getCapacity() {
-    return elements.length;
-  }
-
-  private void resizeAndClear(int newSize) {
-    elements = new float[newSize];
-    clear();
-  }
-
-  @Override
-  public Iterator<Float> iterator() {
-    return new Iterator<Float>() {
-      private int position = 0;
-
-      @Override
-      public boolean hasNext() {
-        return position < size;
-      }
-
-      @Override
-      public Float next() {
-        float f = getPrimitive(position);
-        position++;
-        return f;
-      }
-
-      @Override
-      public void remove() {
-        throw new UnsupportedOperationException();
-      }
-    };
-  }
-
   public float getPrimitive(int i) {
-    if (i >= size) {
-      throw new IndexOutOfBoundsException("Index " + i + " out of bounds.");
-    }
-    if (isCached) {
-      return elements[i];
+    checkIfLargerThanSize(i);
+    if (isCached()) {
+      return elementsArray[i];
     }
     return byteBuffer.getElement(i);
   }
@@ -205,18 +101,12 @@ public class ByteBufferBackedPrimitiveFloatList extends AbstractList<Float>
   /**
    * Add a primitive float inside the list, without boxing.
    *
-   * TODO: verify if it's enough to simply store the data as primitives in order to benefit from the GC optimization.
    * @param o new float to add
-   * @return true?
+   * @return true
    */
+  @Override
   public boolean addPrimitive(float o) {
-    cacheFromByteBuffer();
-    if (size == elements.length) {
-      float[] newElements = new float[(size * 3) / 2 + 1];
-      System.arraycopy(elements, 0, newElements, 0, size);
-      elements = newElements;
-    }
-    elements[size++] = o;
+    elementsArray[getAndIncrementSize()] = o;
     return true;
   }
 
@@ -227,66 +117,27 @@ public class ByteBufferBackedPrimitiveFloatList extends AbstractList<Float>
 
   @Override
   public void add(int location, Float o) {
-    if (location > size || location < 0) {
-      throw new IndexOutOfBoundsException("Index " + location + " out of bounds.");
-    }
-    cacheFromByteBuffer();
-    if (size == elements.length) {
-      float[] newElements = new float[(size * 3) / 2 + 1];
-      System.arraycopy(elements, 0, newElements, 0, size);
-      elements = newElements;
-    }
-    System.arraycopy(elements, location, elements, location + 1, size - location);
-    elements[location] = o;
-    size++;
+    addInternal(location);
+    elementsArray[location] = o;
   }
 
   @Override
   public Float set(int i, Float o) {
-    return set(i, o);
+    return setPrimitive(i, o);
   }
 
   @Override
   public float setPrimitive(int i, float o) {
-    if (i >= size) {
-      throw new IndexOutOfBoundsException("Index " + i + " out of bounds.");
-    }
+    checkIfLargerThanSize(i);
     cacheFromByteBuffer();
-    float response = elements[i];
-    elements[i] = o;
-
+    float response = elementsArray[i];
+    elementsArray[i] = o;
     return response;
   }
 
-  @Override
-  public Float remove(int i) {
-    if (i >= size) {
-      throw new IndexOutOfBoundsException("Index " + i + " out of bounds.");
-    }
-    cacheFromByteBuffer();
-    Float result = elements[i];
-    --size;
-    System.arraycopy(elements, i + 1, elements, i, (size - i));
-    elements[size] = 0;
-    return result;
-  }
-
-  private void cacheFromByteBuffer() {
-    if (isCached) {
-      return;
-    }
-    synchronized (this) {
-      if (!isCached) {
-        setupElements(this, this.size);
-        byteBuffer.setArray(elements);
-        isCached = true;
-      }
-    }
-  }
-
   public float peekPrimitive() {
     cacheFromByteBuffer();
-    return (size < elements.length) ? elements[size] : null;
+    return (size() < elementsArray.length) ? elementsArray[size()] : null;
   }
 
   @Override
@@ -294,40 +145,16 @@ public class ByteBufferBackedPrimitiveFloatList extends AbstractList<Float>
     return peekPrimitive();
   }
 
-  @Override
-  public int compareTo(GenericArray<Float> that) {
-    cacheFromByteBuffer();
-    if (that instanceof ByteBufferBackedPrimitiveFloatList) {
-      ByteBufferBackedPrimitiveFloatList thatPrimitiveList = (ByteBufferBackedPrimitiveFloatList) that;
-      if (this.size == thatPrimitiveList.size) {
-        for (int i = 0; i < this.size; i++) {
-          int compare = Float.compare(this.elements[i], thatPrimitiveList.elements[i]);
-          if (compare != 0) {
-            return compare;
-          }
-        }
-        return 0;
-      } else if (this.size > thatPrimitiveList.size) {
-        return 1;
-      } else {
-        return -1;
-      }
-    } else {
-      // Not our own type of primitive list, so we will delegate to the regular implementation, which will do boxing
-      return GenericData.get().compare(this, that, this.getSchema());
-    }
-  }
-
   @Override
   public void reverse() {
     cacheFromByteBuffer();
     int left = 0;
-    int right = elements.length - 1;
+    int right = size() - 1;
 
     while (left < right) {
-      float tmp = elements[left];
-      elements[left] = elements[right];
-      elements[right] = tmp;
+      float tmp = elementsArray[left];
+      elementsArray[left] = elementsArray[right];
+      elementsArray[right] = tmp;
 
       left++;
       right--;
@@ -335,37 +162,32 @@ public class ByteBufferBackedPrimitiveFloatList extends AbstractList<Float>
   }
 
   @Override
-  public String toString() {
-    StringBuilder buffer = new StringBuilder();
-    buffer.append("[");
-    int count = 0;
-    for (Float e : this) {
-      buffer.append(e == null ? "null" : e.toString());
-      if (++count < size()) {
-        buffer.append(", ");
-      }
-    }
-    buffer.append("]");
-    return buffer.toString();
+  protected int capacity() {
+    return elementsArray.length;
   }
 
   @Override
-  public boolean equals(Object o) {
-    cacheFromByteBuffer();
-    if (o instanceof GenericArray) {
-      return compareTo((GenericArray) o) == 0;
-    } else {
-      return super.equals(o);
-    }
+  protected float[] newArray(int capacity) {
+    return capacity == 0 ? EMPTY : new float[capacity];
   }
 
   @Override
-  public int hashCode() {
-    cacheFromByteBuffer();
-    int hashCode = 1;
-    for (int i = 0; i < this.size; i++) {
-      hashCode = 31 * hashCode + Float.hashCode(elements[i]);
-    }
-    return hashCode;
+  protected void decodeElements(float[] array) {
+    byteBuffer.setArray(array);
+  }
+
+  @Override
+  protected int compareElementAtIndex(Object that, int index) {
+    return Float.compare(getPrimitive(index), ((PrimitiveFloatList) that).getPrimitive(index));
+  }
+
+  @Override
+  protected boolean isInstanceOfCorrectPrimitiveList(Object object) {
+    return object instanceof PrimitiveFloatList;
+  }
+
+  @Override
+  protected int hashCodeOfElementAtIndex(int index) {
+    return Float.hashCode(getPrimitive(index));
   }
 }
@@ -0,0 +1,297 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Iterator;
+import org.apache.avro.generic.GenericArray;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+
+
+/**
+ * Base of the lists of fixed-size primitives, i.e. floats and doubles, which keep the raw bytes read from a
+ * {@link Decoder} in a {@link CompositeByteBuffer} and only decode an element when it is accessed.
+ *
+ * The primitive array of the elements is only filled when the list is mutated, e.g. by add/remove. Until then, the
+ * elements are read straight from the byte buffers, which can also be written as they are by
+ * {@link PrimitiveArrayWriter}. For the reuse case, the existing byte buffers are reused as long as their capacity
+ * can hold the new blocks.
+ *
+ * @param <T> boxed type of the elements
+ * @param <A> type of the primitive array of the elements
+ */
+public abstract class ByteBufferBackedPrimitiveList<T, A> extends AbstractList<T>
+    implements GenericArray<T>, Comparable<GenericArray<T>> {
+  private final int elementSize;
+  protected final CompositeByteBuffer byteBuffer;
+  protected A elementsArray;
+  private int size;
+  private boolean isCached = false;
+
+  /**
+   * @param elementSize number of bytes of the encoding of an element
+   * @param capacity capacity of the primitive array
+   * @param createEmptyBuffer true if the list is created to be used through the {@link java.util.List} interface,
+   *                          rather than to be read into
+   */
+  protected ByteBufferBackedPrimitiveList(int elementSize, int capacity, boolean createEmptyBuffer) {
+    this.elementSize = elementSize;
+    this.byteBuffer = new CompositeByteBuffer(createEmptyBuffer);
+    this.elementsArray = newArray(capacity);
+  }
+
+  // Abstract functions required by child classes
+
+  /**
+   * @return the size of the primitive array maintained by the child class, which could be larger than {@link #size}.
+   */
+  protected abstract int capacity();
+
+  /**
+   * @param capacity of the new primitive array
+   * @return an instance of the right type of primitive array used by the child class
+   */
+  protected abstract A newArray(int capacity);
+
+  /**
+   * Decodes all the elements from {@link #byteBuffer} into the given array.
+   */
+  protected abstract void decodeElements(A array);
+
+  /**
+   * @param that an instance of the primitive list type accepted by {@link #isInstanceOfCorrectPrimitiveList(Object)}
+   * @param index the index of the element to compare
+   * @return the comparison result between element of this and that list at the provided index
+   */
+  protected abstract int compareElementAtIndex(Object that, int index);
+
+  /**
+   * @param object instance of an Object that may or may not be a primitive list
+   * @return true if the passed in object is an instance of the right type of primitive list for comparison
+   */
+  protected abstract boolean isInstanceOfCorrectPrimitiveList(Object object);
+
+  /**
+   * @return the hash code of the boxed element at the provided index, computed without boxing
+   */
+  protected abstract int hashCodeOfElementAtIndex(int index);
+
+  /**
+   * Reads all the blocks of an array into this list, replacing its elements.
+   *
+   * @param firstBlockLength number of elements of the first block, already read from the decoder and positive
+   * @param in {@link Decoder} positioned at the start of the first block
+   * @throws IOException on io errors
+   */
+  void readBlocks(long firstBlockLength, Decoder in) throws IOException {
+    byteBuffer.clear();
+    isCached = false;
+    long length = firstBlockLength;
+    long totalLength = 0;
+    int index = 0;
+    do {
+      int byteSize = (int) (length * elementSize);
+      ByteBuffer block = byteBuffer.allocate(index++, byteSize);
+      in.readFixed(block.array(), 0, byteSize);
+      totalLength += length;
+      length = in.arrayNext();
+    } while (length > 0);
+    byteBuffer.setByteBufferCount(index);
+    size = (int) totalLength;
+  }
+
+  // Public API
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void clear() {
+    size = 0;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<T>() {
+      private int position = 0;
+
+      @Override
+      public boolean hasNext() {
+        return position < size;
+      }
+
+      @Override
+      public T next() {
+        return get(position++);
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @Override
+  public T remove(int i) {
+    checkIfLargerThanSize(i);
+    T result = get(i);
+    cacheFromByteBuffer();
+    --size;
+    System.arraycopy(elementsArray, i + 1, elementsArray, i, size - i);
+    return result;
+  }
+
+  /**
+   * Writes the elements as the raw bytes they were read from, as long as no mutating operation copied them into the
+   * primitive array.
+   *
+   * @param out {@link Encoder} writing the elements without any per-item framing
+   * @return false if nothing was written, in which case the elements have to be written one by one
+   * @throws IOException on io errors
+   */
+  boolean writeUncachedBytes(Encoder out) throws IOException {
+    if (isCached) {
+      return false;
+    }
+    byteBuffer.writeTo(out);
+    return true;
+  }
+
+  @Override
+  public int compareTo(GenericArray<T> that) {
+    return compare(that);
+  }
+
+  private int compare(GenericArray<?> that) {
+    if (isInstanceOfCorrectPrimitiveList(that)) {
+      if (this.size == that.size()) {
+        for (int i = 0; i < this.size; i++) {
+          int compare = compareElementAtIndex(that, i);
+          if (compare != 0) {
+            return compare;
+          }
+        }
+        return 0;
+      } else if (this.size > that.size()) {
+        return 1;
+      } else {
+        return -1;
+      }
+    } else {
+      // Not our own type of primitive list, so we will delegate to the regular implementation, which will do boxing
+      return GenericData.get().compare(this, that, this.getSchema());
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buffer = new StringBuilder();
+    buffer.append("[");
+    int count = 0;
+    for (T e : this) {
+      buffer.append(e == null ? "null" : e.toString());
+      if (++count < size()) {
+        buffer.append(", ");
+      }
+    }
+    buffer.append("]");
+    return buffer.toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof GenericArray) {
+      return compare((GenericArray<?>) o) == 0;
+    } else {
+      return super.equals(o);
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 1;
+    for (int i = 0; i < this.size; i++) {
+      hashCode = 31 * hashCode + hashCodeOfElementAtIndex(i);
+    }
+    return hashCode;
+  }
+
+  // Utilities for child classes
+
+  /**
+   * @return true once the elements have been decoded into the primitive array, which then holds them
+   */
+  protected boolean isCached() {
+    return isCached;
+  }
+
+  /**
+   * Decodes the elements into the primitive array, if not done yet, before a mutating operation.
+   */
+  protected void cacheFromByteBuffer() {
+    if (isCached) {
+      return;
+    }
+    synchronized (this) {
+      if (!isCached) {
+        if (capacity() < size) {
+          elementsArray = newArray(size);
+        }
+        decodeElements(elementsArray);
+        isCached = true;
+      }
+    }
+  }
+
+  /**
+   * @param index an index position which may or may not be within bound of the current list
+   * @throws IndexOutOfBoundsException if the index param is larger than the index of the last valid element
+   */
+  protected void checkIfLargerThanSize(int index) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds.");
+    }
+  }
+
+  /**
+   * A function used when appending an element to the end of the list, which decodes the elements and resizes the
+   * primitive array to 1.5x + 1 if needed. It increments the size as a side-effect.
+   *
+   * @return the index of the appended element
+   */
+  protected int getAndIncrementSize() {
+    cacheFromByteBuffer();
+    if (size == capacity()) {
+      resize();
+    }
+    return size++;
+  }
+
+  /**
+   * Create an empty space in the primitive array at the index specified by shifting the elements to the right.
+   *
+   * @param location index where the element will be added
+   */
+  protected void addInternal(int location) {
+    if (location > size || location < 0) {
+      throw new IndexOutOfBoundsException("Index " + location + " out of bounds.");
+    }
+    cacheFromByteBuffer();
+    if (size == capacity()) {
+      resize();
+    }
+    System.arraycopy(elementsArray, location, elementsArray, location + 1, size - location);
+    size++;
+  }
+
+  private void resize() {
+    A newElements = newArray((size * 3) / 2 + 1);
+    System.arraycopy(elementsArray, 0, newElements, 0, size);
+    elementsArray = newElements;
+  }
+}
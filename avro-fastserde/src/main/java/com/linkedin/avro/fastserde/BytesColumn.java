@@ -0,0 +1,166 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.primitive.PrimitiveIntArrayList;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Column of the string, bytes or fixed values of a field in a {@link ColumnBatch}: the values of all the rows are
+ * appended one after the other into a single byte array, and the end offset of each row is kept in a primitive int
+ * list. Null values are empty.
+ */
+public final class BytesColumn {
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final PrimitiveIntArrayList ends = new PrimitiveIntArrayList();
+  private byte[] bytes = new byte[INITIAL_CAPACITY];
+  private int length;
+
+  /**
+   * @return number of rows
+   */
+  public int size() {
+    return ends.size();
+  }
+
+  /**
+   * @return backing array of this column, holding the values of all the rows up to {@link #getOffset(int)} of
+   *         {@link #size()}
+   */
+  public byte[] getBuffer() {
+    return bytes;
+  }
+
+  /**
+   * @param row row index
+   * @return position of the value of the given row in {@link #getBuffer()}
+   */
+  public int getOffset(int row) {
+    return row == 0 ? 0 : ends.getPrimitive(row - 1);
+  }
+
+  /**
+   * @param row row index
+   * @return number of bytes of the value of the given row
+   */
+  public int getLength(int row) {
+    return ends.getPrimitive(row) - getOffset(row);
+  }
+
+  /**
+   * @param row row index
+   * @return value of the given row, decoded as a UTF-8 string
+   */
+  public String getString(int row) {
+    return new String(bytes, getOffset(row), getLength(row), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * @param row row index
+   * @return copy of the value of the given row
+   */
+  public byte[] getBytes(int row) {
+    int offset = getOffset(row);
+    return Arrays.copyOfRange(bytes, offset, offset + getLength(row));
+  }
+
+  /**
+   * @param value bytes to append as a new row
+   * @param offset position of the value in the given array
+   * @param valueLength number of bytes of the value
+   */
+  public void add(byte[] value, int offset, int valueLength) {
+    ensureCapacity(valueLength);
+    System.arraycopy(value, offset, bytes, length, valueLength);
+    length += valueLength;
+    ends.addPrimitive(length);
+  }
+
+  /**
+   * Appends an empty row, e.g. for a null value.
+   */
+  public void addEmpty() {
+    ends.addPrimitive(length);
+  }
+
+  /**
+   * Called by generated deserializers to append a string read from a decoder.
+   *
+   * @param decoder decoder positioned at a string
+   * @throws IOException on io errors
+   */
+  public void readString(Decoder decoder) throws IOException {
+    readLengthPrefixed(decoder);
+  }
+
+  /**
+   * Called by generated deserializers to append bytes read from a decoder.
+   *
+   * @param decoder decoder positioned at bytes
+   * @throws IOException on io errors
+   */
+  public void readBytes(Decoder decoder) throws IOException {
+    readLengthPrefixed(decoder);
+  }
+
+  /**
+   * Reads a string or bytes straight into this column, rather than into a {@link Utf8} or a {@link ByteBuffer} then
+   * copied into this column.
+   */
+  private void readLengthPrefixed(Decoder decoder) throws IOException {
+    int valueLength = decoder.readInt();
+    if (valueLength < 0) {
+      throw new AvroRuntimeException("Malformed data. Length is negative: " + valueLength);
+    }
+    ensureCapacity(valueLength);
+    decoder.readFixed(bytes, length, valueLength);
+    length += valueLength;
+    ends.addPrimitive(length);
+  }
+
+  /**
+   * Called by generated deserializers to append a fixed read straight from a decoder into this column.
+   *
+   * @param decoder decoder positioned at a fixed
+   * @param size size of the fixed
+   * @throws IOException on io errors
+   */
+  public void readFixed(Decoder decoder, int size) throws IOException {
+    ensureCapacity(size);
+    decoder.readFixed(bytes, length, size);
+    length += size;
+    ends.addPrimitive(length);
+  }
+
+  /**
+   * Removes all the rows, keeping the allocated arrays.
+   */
+  public void clear() {
+    ends.clear();
+    length = 0;
+  }
+
+  /**
+   * Removes the rows after the given number of rows, keeping the allocated arrays.
+   *
+   * @param rows number of rows to keep
+   */
+  void truncate(int rows) {
+    while (ends.size() > rows) {
+      ends.remove(ends.size() - 1);
+    }
+    length = getOffset(rows);
+  }
+
+  private void ensureCapacity(int valueLength) {
+    if (length + valueLength > bytes.length) {
+      bytes = Arrays.copyOf(bytes, Math.max(length + valueLength, bytes.length * 2));
+    }
+  }
+}
@@ -0,0 +1,353 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.api.PrimitiveBooleanList;
+import com.linkedin.avro.api.PrimitiveDoubleList;
+import com.linkedin.avro.api.PrimitiveFloatList;
+import com.linkedin.avro.api.PrimitiveIntList;
+import com.linkedin.avro.api.PrimitiveLongList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveBooleanArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveDoubleArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveFloatArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveIntArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveLongArrayList;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.List;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Batch of records stored as one column per top level field, filled by a {@link FastColumnarDeserializer}.
+ *
+ * Int and enum fields go into a {@link PrimitiveIntList}, holding the ordinals of the enum symbols, long, float,
+ * double and boolean fields into the primitive list of their type, and string, bytes and fixed fields into a
+ * {@link BytesColumn}. The fields whose schema is a union of null and one of these types are columns too, whose
+ * null rows are marked in a {@link BitSet} and hold 0, false or an empty value. The other fields are skipped.
+ *
+ * After a {@link #clear()}, the batch is filled again into the same arrays. Like the lists it holds, a batch is not
+ * thread-safe.
+ */
+public final class ColumnBatch {
+  private final Schema schema;
+  /**
+   * Type of the values of each column by field position, null for the fields which are not columns.
+   */
+  private final Schema.Type[] columnTypes;
+  private final Object[] columns;
+  private final BitSet[] nulls;
+  private int size;
+
+  /**
+   * @param schema record schema of the deserialized data
+   * @throws IllegalArgumentException if the schema isn't a record schema
+   */
+  public ColumnBatch(Schema schema) {
+    if (!Schema.Type.RECORD.equals(schema.getType())) {
+      throw new IllegalArgumentException("Only records can be deserialized into columns, got: " + schema.getType());
+    }
+    this.schema = schema;
+    List<Schema.Field> fields = schema.getFields();
+    this.columnTypes = new Schema.Type[fields.size()];
+    this.columns = new Object[fields.size()];
+    this.nulls = new BitSet[fields.size()];
+    for (Schema.Field field : fields) {
+      Schema columnSchema = getColumnSchema(field.schema());
+      if (columnSchema == null) {
+        continue;
+      }
+      int pos = field.pos();
+      columnTypes[pos] = columnSchema.getType();
+      columns[pos] = newColumn(columnSchema.getType());
+      if (Schema.Type.UNION.equals(field.schema().getType())) {
+        nulls[pos] = new BitSet();
+      }
+    }
+  }
+
+  /**
+   * @param fieldSchema schema of a top level field
+   * @return schema of the values of the column of the given field, without null, or null if the field isn't a column
+   */
+  static Schema getColumnSchema(Schema fieldSchema) {
+    Schema valueSchema = fieldSchema;
+    if (Schema.Type.UNION.equals(fieldSchema.getType())) {
+      List<Schema> types = fieldSchema.getTypes();
+      if (types.size() != 2 || getNullIndex(fieldSchema) < 0) {
+        return null;
+      }
+      valueSchema = types.get(1 - getNullIndex(fieldSchema));
+    }
+    switch (valueSchema.getType()) {
+      case INT:
+      case ENUM:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+      case BOOLEAN:
+      case STRING:
+      case BYTES:
+      case FIXED:
+        return valueSchema;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * @param unionSchema union schema
+   * @return index of the null branch of the given union, -1 if there is none
+   */
+  static int getNullIndex(Schema unionSchema) {
+    List<Schema> types = unionSchema.getTypes();
+    for (int i = 0; i < types.size(); i++) {
+      if (Schema.Type.NULL.equals(types.get(i).getType())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static Object newColumn(Schema.Type type) {
+    switch (type) {
+      case INT:
+      case ENUM:
+        return new PrimitiveIntArrayList();
+      case LONG:
+        return new PrimitiveLongArrayList();
+      case FLOAT:
+        return new PrimitiveFloatArrayList();
+      case DOUBLE:
+        return new PrimitiveDoubleArrayList();
+      case BOOLEAN:
+        return new PrimitiveBooleanArrayList();
+      default:
+        return new BytesColumn();
+    }
+  }
+
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * @return number of rows
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Removes all the rows, keeping the allocated arrays.
+   */
+  public void clear() {
+    for (int pos = 0; pos < columns.length; pos++) {
+      if (columns[pos] instanceof BytesColumn) {
+        ((BytesColumn) columns[pos]).clear();
+      } else if (columns[pos] != null) {
+        ((PrimitiveArrayList<?, ?, ?>) columns[pos]).clear();
+      }
+      if (nulls[pos] != null) {
+        nulls[pos].clear();
+      }
+    }
+    size = 0;
+  }
+
+  /**
+   * @param field name of a top level field
+   * @return whether the given field is stored in a column
+   */
+  public boolean hasColumn(String field) {
+    Schema.Field schemaField = schema.getField(field);
+    return schemaField != null && columns[schemaField.pos()] != null;
+  }
+
+  public PrimitiveIntList getIntColumn(String field) {
+    return (PrimitiveIntList) getColumn(field, Schema.Type.INT, Schema.Type.ENUM);
+  }
+
+  public PrimitiveLongList getLongColumn(String field) {
+    return (PrimitiveLongList) getColumn(field, Schema.Type.LONG);
+  }
+
+  public PrimitiveFloatList getFloatColumn(String field) {
+    return (PrimitiveFloatList) getColumn(field, Schema.Type.FLOAT);
+  }
+
+  public PrimitiveDoubleList getDoubleColumn(String field) {
+    return (PrimitiveDoubleList) getColumn(field, Schema.Type.DOUBLE);
+  }
+
+  public PrimitiveBooleanList getBooleanColumn(String field) {
+    return (PrimitiveBooleanList) getColumn(field, Schema.Type.BOOLEAN);
+  }
+
+  public BytesColumn getBytesColumn(String field) {
+    return (BytesColumn) getColumn(field, Schema.Type.STRING, Schema.Type.BYTES, Schema.Type.FIXED);
+  }
+
+  /**
+   * @param field name of a top level field
+   * @param row row index
+   * @return whether the value of the given field is null in the given row
+   */
+  public boolean isNull(String field, int row) {
+    BitSet fieldNulls = nulls[getColumnPosition(field)];
+    return fieldNulls != null && fieldNulls.get(row);
+  }
+
+  private Object getColumn(String field, Schema.Type... types) {
+    int pos = getColumnPosition(field);
+    for (Schema.Type type : types) {
+      if (type.equals(columnTypes[pos])) {
+        return columns[pos];
+      }
+    }
+    throw new IllegalArgumentException("Column of field: " + field + " holds values of type: " + columnTypes[pos]);
+  }
+
+  private int getColumnPosition(String field) {
+    Schema.Field schemaField = schema.getField(field);
+    if (schemaField == null || columns[schemaField.pos()] == null) {
+      throw new IllegalArgumentException("Field: " + field + " has no column in schema: " + schema.getFullName());
+    }
+    return schemaField.pos();
+  }
+
+  /**
+   * Called by generated deserializers once the values of a row were appended to all the columns.
+   */
+  public void commitRow() {
+    size++;
+  }
+
+  /**
+   * Called by generated deserializers when they fail to append the values of a row, to remove the values already
+   * appended to some of the columns, so that all the columns keep holding {@link #size()} rows.
+   */
+  public void discardRow() {
+    for (int pos = 0; pos < columns.length; pos++) {
+      if (columns[pos] instanceof BytesColumn) {
+        ((BytesColumn) columns[pos]).truncate(size);
+      } else if (columns[pos] != null) {
+        PrimitiveArrayList<?, ?, ?> column = (PrimitiveArrayList<?, ?, ?>) columns[pos];
+        while (column.size() > size) {
+          column.remove(column.size() - 1);
+        }
+      }
+      if (nulls[pos] != null) {
+        nulls[pos].clear(size);
+      }
+    }
+  }
+
+  /**
+   * Called by generated deserializers to get the column of a field.
+   *
+   * @param pos position of a top level field
+   * @return column of the given field
+   */
+  public Object getColumn(int pos) {
+    return columns[pos];
+  }
+
+  /**
+   * Called by generated deserializers to append a null value to the column of a field, in the row being appended.
+   *
+   * @param pos position of a top level field
+   */
+  public void addNull(int pos) {
+    nulls[pos].set(size);
+    switch (columnTypes[pos]) {
+      case INT:
+      case ENUM:
+        ((PrimitiveIntArrayList) columns[pos]).addPrimitive(0);
+        break;
+      case LONG:
+        ((PrimitiveLongArrayList) columns[pos]).addPrimitive(0L);
+        break;
+      case FLOAT:
+        ((PrimitiveFloatArrayList) columns[pos]).addPrimitive(0f);
+        break;
+      case DOUBLE:
+        ((PrimitiveDoubleArrayList) columns[pos]).addPrimitive(0d);
+        break;
+      case BOOLEAN:
+        ((PrimitiveBooleanArrayList) columns[pos]).addPrimitive(false);
+        break;
+      default:
+        ((BytesColumn) columns[pos]).addEmpty();
+    }
+  }
+
+  /**
+   * Appends a record which was fully deserialized as a new row, e.g. by vanilla avro before the fast columnar
+   * deserializer is generated.
+   *
+   * @param record record of the schema of this batch
+   */
+  public void add(IndexedRecord record) {
+    try {
+      appendValues(record);
+    } catch (RuntimeException e) {
+      discardRow();
+      throw e;
+    }
+    commitRow();
+  }
+
+  private void appendValues(IndexedRecord record) {
+    for (int pos = 0; pos < columns.length; pos++) {
+      if (columns[pos] == null) {
+        continue;
+      }
+      Object value = record.get(pos);
+      if (value == null) {
+        addNull(pos);
+        continue;
+      }
+      switch (columnTypes[pos]) {
+        case INT:
+          ((PrimitiveIntArrayList) columns[pos]).addPrimitive((Integer) value);
+          break;
+        case ENUM:
+          ((PrimitiveIntArrayList) columns[pos]).addPrimitive(
+              getColumnSchema(schema.getFields().get(pos).schema()).getEnumOrdinal(value.toString()));
+          break;
+        case LONG:
+          ((PrimitiveLongArrayList) columns[pos]).addPrimitive((Long) value);
+          break;
+        case FLOAT:
+          ((PrimitiveFloatArrayList) columns[pos]).addPrimitive((Float) value);
+          break;
+        case DOUBLE:
+          ((PrimitiveDoubleArrayList) columns[pos]).addPrimitive((Double) value);
+          break;
+        case BOOLEAN:
+          ((PrimitiveBooleanArrayList) columns[pos]).addPrimitive((Boolean) value);
+          break;
+        case STRING:
+          if (value instanceof Utf8) {
+            ((BytesColumn) columns[pos]).add(((Utf8) value).getBytes(), 0, ((Utf8) value).getByteLength());
+          } else {
+            byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+            ((BytesColumn) columns[pos]).add(bytes, 0, bytes.length);
+          }
+          break;
+        case BYTES:
+          ByteBuffer byteBuffer = (ByteBuffer) value;
+          ((BytesColumn) columns[pos]).add(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(),
+              byteBuffer.remaining());
+          break;
+        default:
+          byte[] fixedBytes = ((GenericFixed) value).bytes();
+          ((BytesColumn) columns[pos]).add(fixedBytes, 0, fixedBytes.length);
+      }
+    }
+  }
+}
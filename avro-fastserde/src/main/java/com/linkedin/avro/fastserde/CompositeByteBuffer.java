@@ -1,10 +1,12 @@
 package com.linkedin.avro.fastserde;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import org.apache.avro.io.Encoder;
 
 
 public class CompositeByteBuffer {
@@ -22,6 +24,8 @@ public class CompositeByteBuffer {
     if (byteBuffers.size() > index && byteBuffers.get(index).capacity() >= size) {
       byteBuffer = byteBuffers.get(index);
       byteBuffer.clear();
+      // the elements are located from the limits of the byteBuffers, which must only cover the bytes read into them
+      byteBuffer.limit(size);
     } else {
       byteBuffer = ByteBuffer.allocate((int)size).order(ByteOrder.LITTLE_ENDIAN);
     }
@@ -44,21 +48,46 @@ public class CompositeByteBuffer {
   }
 
   public float getElement(int i) {
-    int index = i * 4;
+    int index = i * Float.BYTES;
     // most common case:
     if (byteBufferCount == 1) {
       return byteBuffers.get(0).getFloat(index);
     }
 
-    int k = 0, size = 0;
-    // find which byteBuffer holds the i-th item
-    while (index >= size) {
-      size += byteBuffers.get(k++).limit();
+    int k = 0;
+    // find which byteBuffer holds the i-th item, and the index on that byteBuffer
+    while (index >= byteBuffers.get(k).limit()) {
+      index -= byteBuffers.get(k++).limit();
+    }
+    return byteBuffers.get(k).getFloat(index);
+  }
+
+  public double getDoubleElement(int i) {
+    int index = i * Double.BYTES;
+    // most common case:
+    if (byteBufferCount == 1) {
+      return byteBuffers.get(0).getDouble(index);
+    }
+
+    int k = 0;
+    // find which byteBuffer holds the i-th item, and the index on that byteBuffer
+    while (index >= byteBuffers.get(k).limit()) {
+      index -= byteBuffers.get(k++).limit();
+    }
+    return byteBuffers.get(k).getDouble(index);
+  }
+
+  /**
+   * Writes the bytes of all the buffers, up to their limits, as fixed bytes.
+   *
+   * @param out {@link Encoder} to write the bytes to
+   * @throws IOException on io errors
+   */
+  public void writeTo(Encoder out) throws IOException {
+    for (int i = 0; i < byteBufferCount; i++) {
+      ByteBuffer byteBuffer = byteBuffers.get(i);
+      out.writeFixed(byteBuffer.array(), byteBuffer.arrayOffset(), byteBuffer.limit());
     }
-    k--;
-    // find the index on the byte buffer
-    int j = i - (size - byteBuffers.get(k).limit());
-    return byteBuffers.get(k).getFloat(j);
   }
 
   public void setArray(float[] array) {
@@ -70,4 +99,14 @@ public class CompositeByteBuffer {
       }
     }
   }
+
+  public void setArray(double[] array) {
+    int k = 0;
+    for (int i = 0; i < byteBufferCount; i++) {
+      ByteBuffer byteBuffer = byteBuffers.get(i);
+      for (int j = 0; j < byteBuffer.limit(); j += Double.BYTES) {
+        array[k++] = byteBuffer.getDouble(j);
+      }
+    }
+  }
 }
@@ -0,0 +1,195 @@
+package com.linkedin.avro.fastserde;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+
+/**
+ * Concurrent cache which can optionally be bounded, in which case approximately the least recently used entries are
+ * evicted once the cache grows over its maximum size.
+ *
+ * Lookups never lock, and only record the access time of the entry when the cache is bounded, at most once per
+ * {@link #ACCESS_TIME_GRANULARITY_NANOS} and without any memory barrier, so hot entries don't keep writing to
+ * shared memory.
+ *
+ * Evictions happen on insertion, which is expected to be much rarer than lookups for serde caches. They don't scan
+ * the whole cache: each of them evicts the least recently used entry out of the next {@link #EVICTION_SAMPLE_SIZE}
+ * keys of a queue holding the keys in insertion order, putting the other keys of the sample back at the end of the
+ * queue. A single thread evicts at a time, the others go on without waiting, so the cache can briefly hold a few more
+ * entries than its maximum size.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+class FastAvroLruCache<K, V> {
+  /**
+   * Number of keys compared to find the entry to evict.
+   */
+  static final int EVICTION_SAMPLE_SIZE = 8;
+
+  /**
+   * Minimum time between two updates of the access time of an entry.
+   */
+  static final long ACCESS_TIME_GRANULARITY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final ConcurrentHashMap<K, Entry<V>> entries = new FastAvroConcurrentHashMap<>();
+  /**
+   * Keys of a bounded cache from which the entries to evict are sampled. The keys of removed entries are only dropped
+   * once they reach the head of the queue.
+   */
+  private final Queue<K> evictionQueue = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean evicting = new AtomicBoolean();
+  private final int maxSize;
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+
+  /**
+   * @param maxSize maximum number of entries, or 0 for an unbounded cache
+   */
+  FastAvroLruCache(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  V get(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      missCount.increment();
+      return null;
+    }
+    hitCount.increment();
+    if (maxSize > 0) {
+      long now = System.nanoTime();
+      if (now - entry.lastAccessTime > ACCESS_TIME_GRANULARITY_NANOS) {
+        entry.lastAccessTime = now;
+      }
+    }
+    return entry.value;
+  }
+
+  V putIfAbsent(K key, V value) {
+    Entry<V> previousEntry = entries.putIfAbsent(key, new Entry<>(value));
+    if (previousEntry != null) {
+      return previousEntry.value;
+    }
+    onInsertion(key);
+    return null;
+  }
+
+  void put(K key, V value) {
+    if (entries.put(key, new Entry<>(value)) == null) {
+      onInsertion(key);
+    }
+  }
+
+  V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    V value = get(key);
+    if (value != null) {
+      return value;
+    }
+    boolean[] inserted = new boolean[1];
+    value = entries.computeIfAbsent(key, k -> {
+      inserted[0] = true;
+      return new Entry<>(mappingFunction.apply(k));
+    }).value;
+    if (inserted[0]) {
+      onInsertion(key);
+    }
+    return value;
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  long getHitCount() {
+    return hitCount.sum();
+  }
+
+  long getMissCount() {
+    return missCount.sum();
+  }
+
+  long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  private void onInsertion(K key) {
+    if (maxSize <= 0) {
+      return;
+    }
+    evictionQueue.offer(key);
+    while (entries.size() > maxSize && evicting.compareAndSet(false, true)) {
+      try {
+        while (entries.size() > maxSize) {
+          if (!evictSampledEntry()) {
+            break;
+          }
+        }
+      } finally {
+        evicting.set(false);
+      }
+    }
+  }
+
+  /**
+   * Evicts the least recently used entry out of the next {@link #EVICTION_SAMPLE_SIZE} keys of the eviction queue.
+   *
+   * @return false if the eviction queue holds no key of the cache
+   */
+  private boolean evictSampledEntry() {
+    List<K> sample = new ArrayList<>(EVICTION_SAMPLE_SIZE);
+    K leastRecentlyUsedKey = null;
+    Entry<V> leastRecentlyUsed = null;
+    while (sample.size() < EVICTION_SAMPLE_SIZE) {
+      K key = evictionQueue.poll();
+      if (key == null) {
+        break;
+      }
+      Entry<V> entry = entries.get(key);
+      if (entry == null) {
+        // already removed
+        continue;
+      }
+      sample.add(key);
+      if (leastRecentlyUsed == null || entry.lastAccessTime - leastRecentlyUsed.lastAccessTime < 0) {
+        leastRecentlyUsedKey = key;
+        leastRecentlyUsed = entry;
+      }
+    }
+    if (leastRecentlyUsed == null) {
+      return false;
+    }
+    for (K key : sample) {
+      if (key != leastRecentlyUsedKey) {
+        evictionQueue.offer(key);
+      }
+    }
+    if (entries.remove(leastRecentlyUsedKey, leastRecentlyUsed)) {
+      evictionCount.increment();
+    } else {
+      // replaced in the meantime
+      evictionQueue.offer(leastRecentlyUsedKey);
+    }
+    return true;
+  }
+
+  private static final class Entry<V> {
+    private final V value;
+    /**
+     * Not volatile: a late or lost update only makes the eviction a bit less accurate.
+     */
+    private long lastAccessTime = System.nanoTime();
+
+    private Entry(V value) {
+      this.value = value;
+    }
+  }
+}
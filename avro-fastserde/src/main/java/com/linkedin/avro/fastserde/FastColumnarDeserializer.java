@@ -0,0 +1,44 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.IOException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.Decoder;
+
+
+/**
+ * Deserializes records into the columns of a {@link ColumnBatch} rather than into record objects, see
+ * {@link FastSerdeCache#getFastColumnarDeserializer(Schema)}.
+ */
+public interface FastColumnarDeserializer {
+
+  /**
+   * Appends the next record of a decoder to a batch, as a new row. The batch is left unchanged if the record fails
+   * to be deserialized.
+   *
+   * @param batch batch of the schema of written data
+   * @param d decoder positioned at the start of a record
+   * @throws IOException on io errors
+   */
+  void deserialize(ColumnBatch batch, Decoder d) throws IOException;
+
+  /**
+   * Appends the records encoded one after the other in a byte array to a batch.
+   *
+   * @param batch batch of the schema of written data
+   * @param bytes encoded records
+   * @param offset position of the first record
+   * @param length number of bytes of all the records
+   * @return number of appended rows
+   * @throws IOException on io errors
+   */
+  default int deserializeAll(ColumnBatch batch, byte[] bytes, int offset, int length) throws IOException {
+    BinaryDecoder decoder = AvroCompatibilityHelper.newBinaryDecoder(bytes, offset, length, null);
+    int sizeBefore = batch.size();
+    while (!decoder.isEnd()) {
+      deserialize(batch, decoder);
+    }
+    return batch.size() - sizeBefore;
+  }
+}
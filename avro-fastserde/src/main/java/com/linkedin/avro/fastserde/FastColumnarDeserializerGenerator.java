@@ -0,0 +1,25 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.File;
+import org.apache.avro.Schema;
+
+
+/**
+ * Generates a {@link FastColumnarDeserializer} for a writer record schema.
+ */
+public final class FastColumnarDeserializerGenerator extends FastDeserializerGenerator<Object> {
+
+  FastColumnarDeserializerGenerator(Schema writer, File destination, ClassLoader classLoader, String compileClassPath) {
+    super(true, writer, writer, destination, classLoader, compileClassPath, Variant.COLUMNAR);
+  }
+
+  public FastColumnarDeserializer generateColumnarDeserializer() {
+    String className = generateClassCode();
+    try {
+      Class<?> clazz = compileClass(className, schemaAssistant.getUsedFullyQualifiedClassNameSet());
+      return (FastColumnarDeserializer) newGeneratedInstance(clazz);
+    } catch (Exception e) {
+      throw new FastDeserializerGeneratorException(e);
+    }
+  }
+}
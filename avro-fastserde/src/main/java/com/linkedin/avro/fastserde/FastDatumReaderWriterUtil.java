@@ -11,9 +11,14 @@ import org.apache.avro.Schema;
  * Pre-requisite to use this util:
  * 1. Schema object will not be changed on-the-FLY, or the changes do NOT require new DatumReader/Writer;
  * 2. Your application will always use the same Schema object for the same schema;
+ *
+ * The DatumReader caches are unbounded unless the {@value #CACHE_SIZE} system property is set, in which case
+ * the least recently used DatumReaders get evicted once the given number of DatumReaders is reached.
  */
 public class FastDatumReaderWriterUtil {
 
+  public static final String CACHE_SIZE = "avro.fast.serde.datum.reader.cache.size";
+
   protected static class SchemaPair {
     private final Schema writerSchema;
     private final Schema readerSchema;
@@ -45,11 +50,12 @@ public class FastDatumReaderWriterUtil {
 
   private static final ReentrantReadWriteLock reentrantReadWriteLock = new ReentrantReadWriteLock();
 
-  //TODO :  LRU cache
-  private static final Map<SchemaPair, FastGenericDatumReader<?>> fastGenericDatumReaderCache = new FastAvroConcurrentHashMap<>();
+  private static final FastAvroLruCache<SchemaPair, FastGenericDatumReader<?>> fastGenericDatumReaderCache =
+      new FastAvroLruCache<>(Integer.getInteger(CACHE_SIZE, 0));
   private static final Map<Schema, FastGenericDatumWriter<?>> fastGenericDatumWriterCache = new WeakIdentityHashMap<>();
 
-  private static final Map<SchemaPair, FastSpecificDatumReader<?>> fastSpecificDatumReaderCache = new FastAvroConcurrentHashMap<>();
+  private static final FastAvroLruCache<SchemaPair, FastSpecificDatumReader<?>> fastSpecificDatumReaderCache =
+      new FastAvroLruCache<>(Integer.getInteger(CACHE_SIZE, 0));
   private static final Map<Schema, FastSpecificDatumWriter<?>> fastSpecificDatumWriterCache = new WeakIdentityHashMap<>();
 
   private FastDatumReaderWriterUtil() {
@@ -11,4 +11,18 @@ public interface FastDeserializer<T> {
   }
 
   T deserialize(T reuse, Decoder d) throws IOException;
+
+  /**
+   * Deserializes a value out of the records, arrays and maps of the given arena, see {@link RecordArena}.
+   * Deserializers which are not generated ignore the arena, and allocate as usual.
+   *
+   * @param reuse value to reuse
+   * @param d decoder to read from
+   * @param arena arena to take the objects from, or null to allocate them
+   * @return deserialized value
+   * @throws IOException on io errors
+   */
+  default T deserialize(T reuse, Decoder d, RecordArena arena) throws IOException {
+    return deserialize(reuse, d);
+  }
 }
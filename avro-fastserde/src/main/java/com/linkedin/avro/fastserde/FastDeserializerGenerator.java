@@ -1,8 +1,17 @@
 package com.linkedin.avro.fastserde;
 
+import com.linkedin.avro.api.PrimitiveBooleanList;
+import com.linkedin.avro.api.PrimitiveDoubleList;
 import com.linkedin.avro.api.PrimitiveFloatList;
+import com.linkedin.avro.api.PrimitiveIntList;
+import com.linkedin.avro.api.PrimitiveLongList;
 import com.linkedin.avro.fastserde.backport.ResolvingGrammarGenerator;
 import com.linkedin.avro.fastserde.backport.Symbol;
+import com.linkedin.avro.fastserde.primitive.PrimitiveBooleanArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveDoubleArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveFloatArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveIntArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveLongArrayList;
 import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
 import com.sun.codemodel.JArray;
 import com.sun.codemodel.JBlock;
@@ -27,12 +36,16 @@ import com.sun.codemodel.JWhileLoop;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -55,6 +68,8 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
   private static final Logger LOGGER = LoggerFactory.getLogger(FastDeserializerGenerator.class);
   private static final String DECODER = "decoder";
   private static final String VAR_NAME_FOR_REUSE = "reuse";
+  private static final String ARENA = "arena";
+  private static final String FILTER = "filter";
 
   /**
    * This is sometimes passed into the reuse parameter,
@@ -64,19 +79,87 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
   private static final Supplier<JExpression> EMPTY_SUPPLIER = () -> JExpr._null();
 
   private JMethod constructor;
+  /**
+   * Number of places in the generated code creating records, arrays or maps, see {@link RecordArena}.
+   */
+  private int arenaSiteCount;
   private Map<Long, Schema> schemaMap = new HashMap<>();
   private Map<Long, JVar> schemaVarMap = new HashMap<>();
   private Map<String, JMethod> deserializeMethodMap = new HashMap<>();
   private Map<String, JMethod> skipMethodMap = new HashMap<>();
   private Map<JMethod, Set<Class<? extends Exception>>> exceptionFromMethodMap = new HashMap<>();
 
+  /**
+   * Filter of the top level records, see {@link FastSerdeFilter}, or null to deserialize all of them.
+   */
+  private final FastSerdeFilter filter;
+  /**
+   * Filter still to be applied to the top level record, null once its method is generated.
+   */
+  private FastSerdeFilter pendingFilter;
+
+  /**
+   * Kinds of classes generated out of the same schema walk.
+   */
+  enum Variant {
+    DESERIALIZER,
+    /**
+     * Deserializer also implementing {@link FastFieldDeserializer}, to skip or read a single field of the top level
+     * record.
+     */
+    FIELD_DESERIALIZER,
+    /**
+     * {@link FastSkipper}, which skips everything and validates what it skips.
+     */
+    SKIPPER,
+    /**
+     * {@link FastColumnarDeserializer}, which appends the fields of the records to the columns of a
+     * {@link ColumnBatch} and skips the others.
+     */
+    COLUMNAR;
+
+    /**
+     * @return true if the variant goes through the data with the skipping code only, which then skips the blocks of
+     *         arrays and maps with {@link Decoder#skipArray()} and {@link Decoder#skipMap()}
+     */
+    boolean isSkipOnly() {
+      return SKIPPER.equals(this) || COLUMNAR.equals(this);
+    }
+  }
+
+  private final Variant variant;
+
   FastDeserializerGenerator(boolean useGenericTypes, Schema writer, Schema reader, File destination,
       ClassLoader classLoader, String compileClassPath) {
+    this(useGenericTypes, writer, reader, destination, classLoader, compileClassPath, Variant.DESERIALIZER, null);
+  }
+
+  FastDeserializerGenerator(boolean useGenericTypes, Schema writer, Schema reader, File destination,
+      ClassLoader classLoader, String compileClassPath, Variant variant) {
+    this(useGenericTypes, writer, reader, destination, classLoader, compileClassPath, variant, null);
+  }
+
+  FastDeserializerGenerator(boolean useGenericTypes, Schema writer, Schema reader, File destination,
+      ClassLoader classLoader, String compileClassPath, Variant variant, FastSerdeFilter filter) {
     super(useGenericTypes, writer, reader, destination, classLoader, compileClassPath);
+    this.variant = variant;
+    this.filter = filter;
   }
 
+  @SuppressWarnings("unchecked")
   public FastDeserializer<T> generateDeserializer() {
-    String className = getClassName(writer, reader, useGenericTypes ? "Generic" : "Specific");
+    String className = generateClassCode();
+    try {
+      Class<FastDeserializer<T>> clazz = compileClass(className, schemaAssistant.getUsedFullyQualifiedClassNameSet());
+      return (FastDeserializer<T>) newGeneratedInstance(clazz);
+    } catch (Exception e) {
+      throw new FastDeserializerGeneratorException(e);
+    }
+  }
+
+  @Override
+  String generateClassCode() {
+    String className = getClassName(writer, reader, getClassNameDescription());
     JPackage classPackage = codeModel._package(generatedPackageName);
 
     try {
@@ -86,6 +169,30 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       constructor = generatedClass.constructor(JMod.PUBLIC);
       JVar constructorParam = constructor.param(Schema.class, "readerSchema");
       constructor.body().assign(JExpr.refthis(readerSchemaVar.name()), constructorParam);
+      if (filter != null) {
+        if (!Schema.Type.RECORD.equals(writer.getType()) || !Variant.DESERIALIZER.equals(variant)) {
+          throw new FastDeserializerGeneratorException("Only deserializers of records can be filtered");
+        }
+        JVar filterVar = generatedClass.field(JMod.PRIVATE | JMod.FINAL, FastSerdeFilter.class, FILTER);
+        JVar filterParam = constructor.param(FastSerdeFilter.class, FILTER);
+        // the class name only tells apart the filters by their hash code, the generated code must match the fields
+        JInvocation expectedFieldNames = codeModel.ref(Arrays.class).staticInvoke("asList");
+        filter.getFieldNames().forEach(fieldName -> expectedFieldNames.arg(JExpr.lit(fieldName)));
+        ifCodeGen(constructor.body(), filterParam.invoke("getFieldNames").invoke("equals").arg(expectedFieldNames).not(),
+            thenBlock -> thenBlock._throw(JExpr._new(codeModel.ref(IllegalArgumentException.class))
+                .arg(JExpr.lit("Unexpected filtered fields: ").plus(filterParam.invoke("getFieldNames")))));
+        constructor.body().assign(JExpr.refthis(filterVar.name()), filterParam);
+        pendingFilter = filter;
+      }
+
+      if (Variant.SKIPPER.equals(variant)) {
+        generateSkipMethod();
+        return className;
+      }
+      if (Variant.COLUMNAR.equals(variant)) {
+        generateColumnarDeserializeMethod();
+        return className;
+      }
 
       Schema aliasedWriterSchema = writer;
       /**
@@ -107,10 +214,13 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
        * Writer schema could be using a different namespace from the reader schema, so we should always
        * use the reader schema class for generic type.
        */
-      generatedClass._implements(codeModel.ref(FastDeserializer.class).narrow(readerSchemaClass));
+      generatedClass._implements(codeModel.ref(Variant.FIELD_DESERIALIZER.equals(variant) ? FastFieldDeserializer.class : FastDeserializer.class)
+          .narrow(readerSchemaClass));
       JMethod deserializeMethod = generatedClass.method(JMod.PUBLIC, readerSchemaClass, "deserialize");
 
       JBlock topLevelDeserializeBlock = new JBlock();
+      ifCodeGen(topLevelDeserializeBlock, JExpr.direct(ARENA).ne(JExpr._null()),
+          thenBlock -> thenBlock.invoke(JExpr.direct(ARENA), "attach").arg(JExpr._this()));
 
       final Supplier<JExpression> reuseSupplier = () -> JExpr.direct(VAR_NAME_FOR_REUSE);
       switch (aliasedWriterSchema.getType()) {
@@ -131,25 +241,30 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
               "Incorrect top-level writer schema: " + aliasedWriterSchema.getType());
       }
 
-      if (schemaAssistant.getExceptionsFromStringable().isEmpty()) {
-        assignBlockToBody(deserializeMethod, topLevelDeserializeBlock);
-      } else {
-        JTryBlock tryBlock = deserializeMethod.body()._try();
-        assignBlockToBody(tryBlock, topLevelDeserializeBlock);
-
-        for (Class<? extends Exception> classException : schemaAssistant.getExceptionsFromStringable()) {
-          JCatchBlock catchBlock = tryBlock._catch(codeModel.ref(classException));
-          JVar exceptionVar = catchBlock.param("e");
-          catchBlock.body()._throw(JExpr._new(codeModel.ref(AvroRuntimeException.class)).arg(exceptionVar));
-        }
-      }
+      assignBlockCatchingStringableExceptions(deserializeMethod, topLevelDeserializeBlock,
+          schemaAssistant.getExceptionsFromStringable());
 
       deserializeMethod._throws(codeModel.ref(IOException.class));
       deserializeMethod.param(readerSchemaClass, VAR_NAME_FOR_REUSE);
       deserializeMethod.param(Decoder.class, DECODER);
+      deserializeMethod.param(RecordArena.class, ARENA);
 
-      Class<FastDeserializer<T>> clazz = compileClass(className, schemaAssistant.getUsedFullyQualifiedClassNameSet());
-      return clazz.getConstructor(Schema.class).newInstance(reader);
+      JMethod deserializeWithoutArenaMethod = generatedClass.method(JMod.PUBLIC, readerSchemaClass, "deserialize");
+      deserializeWithoutArenaMethod._throws(codeModel.ref(IOException.class));
+      deserializeWithoutArenaMethod.param(readerSchemaClass, VAR_NAME_FOR_REUSE);
+      deserializeWithoutArenaMethod.param(Decoder.class, DECODER);
+      deserializeWithoutArenaMethod.body()._return(JExpr.invoke(deserializeMethod)
+          .arg(JExpr.direct(VAR_NAME_FOR_REUSE)).arg(JExpr.direct(DECODER)).arg(JExpr._null()));
+
+      if (Variant.FIELD_DESERIALIZER.equals(variant)) {
+        if (!Schema.Type.RECORD.equals(aliasedWriterSchema.getType())) {
+          throw new FastDeserializerGeneratorException(
+              "Field deserializers are only generated for records, not for: " + aliasedWriterSchema.getType());
+        }
+        generateFieldMethods(readerSchemaVar, aliasedWriterSchema, fieldAction);
+      }
+
+      return className;
     } catch (JClassAlreadyExistsException e) {
       throw new FastDeserializerGeneratorException("Class: " + className + " already exists");
     } catch (Exception e) {
@@ -157,6 +272,311 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     }
   }
 
+  private String getClassNameDescription() {
+    switch (variant) {
+      case SKIPPER:
+        return "Skipper";
+      case COLUMNAR:
+        return "Columnar";
+      default:
+        return (useGenericTypes ? "Generic" : "Specific") + (Variant.FIELD_DESERIALIZER.equals(variant) ? "Field" : "")
+            + (filter != null ? "Filtered" + Math.abs((long) filter.hashCode()) : "");
+    }
+  }
+
+  /**
+   * Generates the method of {@link FastColumnarDeserializer}, appending the values of the fields with a column to
+   * the batch without boxing them, and skipping the other fields.
+   */
+  private void generateColumnarDeserializeMethod() {
+    if (!Schema.Type.RECORD.equals(writer.getType())) {
+      throw new FastDeserializerGeneratorException("Only records can be deserialized into columns, got: "
+          + writer.getType());
+    }
+    generatedClass._implements(FastColumnarDeserializer.class);
+    JMethod deserializeMethod = generatedClass.method(JMod.PUBLIC, codeModel.VOID, "deserialize");
+    JVar batchParam = deserializeMethod.param(ColumnBatch.class, "batch");
+    deserializeMethod.param(Decoder.class, DECODER);
+    deserializeMethod._throws(IOException.class);
+    JBlock body = deserializeMethod.body();
+    body.decl(codeModel.ref(RecordArena.class), ARENA, JExpr._null());
+
+    // comparing the schemas is cheap when the batch was created with the schema of the cache, as it should be
+    JExpression batchSchema = batchParam.invoke("getSchema");
+    ifCodeGen(body, batchSchema.ne(JExpr.refthis("readerSchema"))
+            .cand(batchSchema.invoke("equals").arg(JExpr.refthis("readerSchema")).not()),
+        thenBlock -> thenBlock._throw(JExpr._new(codeModel.ref(IllegalArgumentException.class))
+            .arg(JExpr.lit("Unexpected schema of batch: ").plus(batchSchema.invoke("getFullName")))));
+    // the row is only committed once all its columns are appended, and discarded if any of them fails
+    JTryBlock rowTryBlock = body._try();
+    JCatchBlock rowCatchBlock = rowTryBlock._catch(codeModel.ref(Throwable.class));
+    JVar rowExceptionVar = rowCatchBlock.param("e");
+    rowCatchBlock.body().invoke(batchParam, "discardRow");
+    rowCatchBlock.body()._throw(rowExceptionVar);
+    JBlock rowBody = rowTryBlock.body();
+
+    for (Schema.Field field : writer.getFields()) {
+      Schema columnSchema = ColumnBatch.getColumnSchema(field.schema());
+      if (columnSchema == null) {
+        processField(null, field, null, rowBody, FieldAction.fromValues(field.schema().getType(), false, EMPTY_SYMBOL),
+            null, EMPTY_SUPPLIER);
+        continue;
+      }
+      JExpression column = batchParam.invoke("getColumn").arg(JExpr.lit(field.pos()));
+      if (!Schema.Type.UNION.equals(field.schema().getType())) {
+        appendToColumn(columnSchema, column, rowBody);
+        continue;
+      }
+      int nullIndex = ColumnBatch.getNullIndex(field.schema());
+      JVar unionIndex = rowBody.decl(codeModel.INT, getUniqueName("unionIndex"), JExpr.direct(DECODER + ".readIndex()"));
+      ifCodeGen(rowBody, unionIndex.eq(JExpr.lit(nullIndex)), thenBlock -> {
+        thenBlock.directStatement(DECODER + ".readNull();");
+        thenBlock.invoke(batchParam, "addNull").arg(JExpr.lit(field.pos()));
+      }, elseBlock -> {
+        ifCodeGen(elseBlock, unionIndex.ne(JExpr.lit(1 - nullIndex)),
+            thenBlock -> thenBlock._throw(JExpr._new(codeModel.ref(RuntimeException.class))
+                .arg(JExpr.lit("Illegal union index for '" + field.name() + "': ").plus(unionIndex))));
+        appendToColumn(columnSchema, column, elseBlock);
+      });
+    }
+    rowBody.invoke(batchParam, "commitRow");
+  }
+
+  private void appendToColumn(Schema columnSchema, JExpression column, JBlock body) {
+    switch (columnSchema.getType()) {
+      case INT:
+        body.invoke(JExpr.cast(codeModel.ref(PrimitiveIntArrayList.class), column), "addPrimitive")
+            .arg(JExpr.direct(DECODER + ".readInt()"));
+        break;
+      case ENUM:
+        body.invoke(JExpr.cast(codeModel.ref(PrimitiveIntArrayList.class), column), "addPrimitive")
+            .arg(JExpr.direct(DECODER + ".readEnum()"));
+        break;
+      case LONG:
+        body.invoke(JExpr.cast(codeModel.ref(PrimitiveLongArrayList.class), column), "addPrimitive")
+            .arg(JExpr.direct(DECODER + ".readLong()"));
+        break;
+      case FLOAT:
+        body.invoke(JExpr.cast(codeModel.ref(PrimitiveFloatArrayList.class), column), "addPrimitive")
+            .arg(JExpr.direct(DECODER + ".readFloat()"));
+        break;
+      case DOUBLE:
+        body.invoke(JExpr.cast(codeModel.ref(PrimitiveDoubleArrayList.class), column), "addPrimitive")
+            .arg(JExpr.direct(DECODER + ".readDouble()"));
+        break;
+      case BOOLEAN:
+        body.invoke(JExpr.cast(codeModel.ref(PrimitiveBooleanArrayList.class), column), "addPrimitive")
+            .arg(JExpr.direct(DECODER + ".readBoolean()"));
+        break;
+      case STRING:
+        body.invoke(JExpr.cast(codeModel.ref(BytesColumn.class), column), "readString").arg(JExpr.direct(DECODER));
+        break;
+      case BYTES:
+        body.invoke(JExpr.cast(codeModel.ref(BytesColumn.class), column), "readBytes").arg(JExpr.direct(DECODER));
+        break;
+      default:
+        body.invoke(JExpr.cast(codeModel.ref(BytesColumn.class), column), "readFixed").arg(JExpr.direct(DECODER))
+            .arg(JExpr.lit(columnSchema.getFixedSize()));
+    }
+  }
+
+  /**
+   * Generates the method of {@link FastSkipper}, skipping a whole datum of the writer schema.
+   */
+  private void generateSkipMethod() {
+    generatedClass._implements(FastSkipper.class);
+    JMethod skipMethod = generatedClass.method(JMod.PUBLIC, codeModel.VOID, "skip");
+    skipMethod.param(Decoder.class, DECODER);
+    skipMethod._throws(IOException.class);
+    JBlock body = skipMethod.body();
+    body.decl(codeModel.ref(RecordArena.class), ARENA, JExpr._null());
+
+    FieldAction skipAction = FieldAction.fromValues(writer.getType(), false, EMPTY_SYMBOL);
+    switch (writer.getType()) {
+      case RECORD:
+        processRecord(null, writer.getName(), writer, null, body, skipAction, null, EMPTY_SUPPLIER);
+        break;
+      case ARRAY:
+        processArray(null, "array", writer, null, body, skipAction, null, EMPTY_SUPPLIER);
+        break;
+      case MAP:
+        processMap(null, "map", writer, null, body, skipAction, null, EMPTY_SUPPLIER);
+        break;
+      default:
+        throw new FastDeserializerGeneratorException("Incorrect top-level writer schema: " + writer.getType());
+    }
+  }
+
+  /**
+   * Assigns the given block to the body of the given method, converting the given exceptions to
+   * {@link AvroRuntimeException}.
+   */
+  private void assignBlockCatchingStringableExceptions(JMethod method, JBlock block,
+      Set<Class<? extends Exception>> exceptions) {
+    if (exceptions.isEmpty()) {
+      assignBlockToBody(method, block);
+    } else {
+      JTryBlock tryBlock = method.body()._try();
+      assignBlockToBody(tryBlock, block);
+
+      for (Class<? extends Exception> classException : exceptions) {
+        JCatchBlock catchBlock = tryBlock._catch(codeModel.ref(classException));
+        JVar exceptionVar = catchBlock.param("e");
+        catchBlock.body()._throw(JExpr._new(codeModel.ref(AvroRuntimeException.class)).arg(exceptionVar));
+      }
+    }
+  }
+
+  /**
+   * Generates the methods of {@link FastFieldDeserializer}, skipping or reading a single field of the top level
+   * record. The code of arrays, maps and unions goes to a method per field, and the switches on the field position
+   * are spread over several methods for wide records, see {@link #generateFieldSwitch}.
+   */
+  private void generateFieldMethods(JVar readerSchemaVar, Schema recordWriterSchema, FieldAction recordAction) {
+    JMethod skipFieldMethod = generatedClass.method(JMod.PUBLIC, codeModel.VOID, "skipField");
+    JVar skipPosVar = skipFieldMethod.param(codeModel.INT, "pos");
+    skipFieldMethod.param(Decoder.class, DECODER);
+    skipFieldMethod._throws(IOException.class);
+
+    JMethod deserializeFieldMethod = generatedClass.method(JMod.PUBLIC, Object.class, "deserializeField");
+    JVar deserializePosVar = deserializeFieldMethod.param(codeModel.INT, "pos");
+    deserializeFieldMethod.param(Object.class, VAR_NAME_FOR_REUSE);
+    deserializeFieldMethod.param(Decoder.class, DECODER);
+    deserializeFieldMethod._throws(IOException.class);
+
+    Set<Class<? extends Exception>> exceptionsOnHigherLevel = schemaAssistant.getExceptionsFromStringable();
+    schemaAssistant.resetExceptionsFromStringable();
+    Supplier<JExpression> reuseSupplier = () -> JExpr.direct(VAR_NAME_FOR_REUSE);
+    List<JMethod> fieldMethods = new ArrayList<>();
+    SortedMap<Integer, JBlock> skipCases = new TreeMap<>();
+    SortedMap<Integer, JBlock> deserializeCases = new TreeMap<>();
+    ListIterator<Symbol> actionIterator = actionIterator(recordAction);
+    for (Schema.Field field : recordWriterSchema.getFields()) {
+      FieldAction action = seekFieldAction(true, field, actionIterator);
+      FieldAction skipAction = FieldAction.fromValues(field.schema().getType(), false, EMPTY_SYMBOL);
+      Schema readerFieldSchema = reader.getField(field.name()).schema();
+      JVar fieldSchemaVar = declareSchemaVar(readerFieldSchema, field.name(),
+          readerSchemaVar.invoke("getField").arg(field.name()).invoke("schema"));
+      boolean ownMethod = SchemaAssistant.isComplexType(field.schema())
+          && !Schema.Type.RECORD.equals(field.schema().getType());
+
+      JBlock skipCase = FastSerdeMethodSplitter.newFieldBlock();
+      JBlock deserializeCase = FastSerdeMethodSplitter.newFieldBlock();
+      JVar valueVar = deserializeCase.decl(codeModel.ref(Object.class), getUniqueName("value"), JExpr._null());
+      if (ownMethod) {
+        JMethod skipMethod = generatedClass.method(JMod.PRIVATE, codeModel.VOID, getUniqueName("skipField"));
+        skipMethod.param(Decoder.class, DECODER);
+        skipMethod.param(RecordArena.class, ARENA);
+        skipMethod._throws(IOException.class);
+        processField(null, field, null, skipMethod.body(), skipAction, null, EMPTY_SUPPLIER);
+        skipCase.invoke(skipMethod).arg(JExpr.direct(DECODER)).arg(JExpr.direct(ARENA));
+
+        JMethod deserializeMethod = generatedClass.method(JMod.PRIVATE, Object.class, getUniqueName("deserializeField"));
+        deserializeMethod.param(Object.class, VAR_NAME_FOR_REUSE);
+        deserializeMethod.param(Decoder.class, DECODER);
+        deserializeMethod.param(RecordArena.class, ARENA);
+        deserializeMethod._throws(IOException.class);
+        JVar fieldValueVar =
+            deserializeMethod.body().decl(codeModel.ref(Object.class), getUniqueName("value"), JExpr._null());
+        processField(fieldSchemaVar, field, readerFieldSchema, deserializeMethod.body(), action,
+            (block, expression) -> block.assign(fieldValueVar, expression), reuseSupplier);
+        deserializeMethod.body()._return(fieldValueVar);
+        fieldMethods.add(deserializeMethod);
+        deserializeCase.assign(valueVar,
+            JExpr.invoke(deserializeMethod).arg(JExpr.direct(VAR_NAME_FOR_REUSE)).arg(JExpr.direct(DECODER))
+                .arg(JExpr.direct(ARENA)));
+      } else {
+        processField(null, field, null, skipCase, skipAction, null, EMPTY_SUPPLIER);
+        processField(fieldSchemaVar, field, readerFieldSchema, deserializeCase, action,
+            (block, expression) -> block.assign(valueVar, expression), reuseSupplier);
+      }
+      skipCase._break();
+      deserializeCase._return(valueVar);
+      skipCases.put(field.pos(), skipCase);
+      deserializeCases.put(field.pos(), deserializeCase);
+    }
+
+    generateFieldSwitch(skipFieldMethod, skipFieldMethod.body(), skipPosVar, skipCases, fieldMethods);
+    JBlock deserializeFieldBlock = new JBlock();
+    generateFieldSwitch(deserializeFieldMethod, deserializeFieldBlock, deserializePosVar, deserializeCases,
+        fieldMethods);
+
+    for (JMethod fieldMethod : fieldMethods) {
+      for (Class<? extends Exception> exceptionClass : schemaAssistant.getExceptionsFromStringable()) {
+        fieldMethod._throws(exceptionClass);
+      }
+    }
+    assignBlockCatchingStringableExceptions(deserializeFieldMethod, deserializeFieldBlock,
+        schemaAssistant.getExceptionsFromStringable());
+    schemaAssistant.setExceptionsFromStringable(exceptionsOnHigherLevel);
+  }
+
+  /**
+   * Generates the switch on the field position of a method of {@link FastFieldDeserializer}. The switch is spread
+   * over several helper methods taking a range of positions each if it would go over the method size budget, see
+   * {@link FastSerdeMethodSplitter#splitSwitch}, and the method only dispatches to them.
+   *
+   * @param fieldMethods methods which can throw the exceptions of the stringable types, to which the helper methods
+   *                     reading the fields are added
+   */
+  private void generateFieldSwitch(JMethod method, JBlock body, JVar posVar, SortedMap<Integer, JBlock> cases,
+      List<JMethod> fieldMethods) {
+    boolean read = !codeModel.VOID.equals(method.type());
+    SortedMap<Integer, JBlock> switchBlocks = FastSerdeMethodSplitter.splitSwitch(posVar, cases, methodSizeBudget,
+        defaultBlock -> defaultBlock._throw(JExpr._new(codeModel.ref(IndexOutOfBoundsException.class))
+            .arg(JExpr.lit("Invalid field position: ").plus(posVar))));
+    if (switchBlocks.size() == 1) {
+      // field deserializers don't support arenas, the records they read from are not deserialized in one go
+      body.decl(codeModel.ref(RecordArena.class), ARENA, JExpr._null());
+      body.add(switchBlocks.get(switchBlocks.firstKey()));
+      return;
+    }
+
+    List<Map.Entry<Integer, JBlock>> switchEntries = new ArrayList<>(switchBlocks.entrySet());
+    for (int i = 0; i < switchEntries.size(); i++) {
+      JMethod helperMethod = generatedClass.method(JMod.PRIVATE, method.type(), getUniqueName(method.name() + "s"));
+      helperMethod.param(codeModel.INT, posVar.name());
+      JInvocation invocation = JExpr.invoke(helperMethod).arg(posVar);
+      if (read) {
+        helperMethod.param(Object.class, VAR_NAME_FOR_REUSE);
+        invocation.arg(JExpr.direct(VAR_NAME_FOR_REUSE));
+        fieldMethods.add(helperMethod);
+      }
+      helperMethod.param(Decoder.class, DECODER);
+      invocation.arg(JExpr.direct(DECODER));
+      helperMethod._throws(IOException.class);
+      helperMethod.body().decl(codeModel.ref(RecordArena.class), ARENA, JExpr._null());
+      helperMethod.body().add(switchEntries.get(i).getValue());
+
+      JBlock dispatchBlock = i + 1 < switchEntries.size()
+          ? body._if(posVar.lt(JExpr.lit(switchEntries.get(i + 1).getKey())))._then() : body;
+      if (read) {
+        dispatchBlock._return(invocation);
+      } else {
+        dispatchBlock.add(invocation);
+        dispatchBlock._return();
+      }
+    }
+  }
+
+  private void processField(JVar fieldSchemaVar, Schema.Field field, Schema readerFieldSchema, JBlock body,
+      FieldAction action, BiConsumer<JBlock, JExpression> putExpressionIntoParent, Supplier<JExpression> reuseSupplier) {
+    if (SchemaAssistant.isComplexType(field.schema())) {
+      processComplexType(fieldSchemaVar, field.name(), field.schema(), readerFieldSchema, body, action,
+          putExpressionIntoParent, reuseSupplier);
+    } else {
+      processSimpleType(field.schema(), readerFieldSchema, body, action, putExpressionIntoParent, reuseSupplier);
+    }
+  }
+
+  @Override
+  Object newGeneratedInstance(Class<?> generatedClass) throws ReflectiveOperationException {
+    if (filter != null) {
+      return generatedClass.getConstructor(Schema.class, FastSerdeFilter.class).newInstance(reader, filter);
+    }
+    return generatedClass.getConstructor(Schema.class).newInstance(reader);
+  }
+
   private void processComplexType(JVar fieldSchemaVar, String name, Schema schema, Schema readerFieldSchema,
       JBlock methodBody, FieldAction action, BiConsumer<JBlock, JExpression> putExpressionIntoParent,
       Supplier<JExpression> reuseSupplier) {
@@ -186,14 +606,15 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       BiConsumer<JBlock, JExpression> putExpressionIntoParent, Supplier<JExpression> reuseSupplier) {
     switch (schema.getType()) {
       case ENUM:
-        processEnum(readerSchema, methodBody, action, putExpressionIntoParent);
+        processEnum(action.getShouldRead() ? readerSchema : schema, methodBody, action, putExpressionIntoParent);
         break;
       case FIXED:
         processFixed(schema, methodBody, action, putExpressionIntoParent, reuseSupplier);
         break;
       default:
-        // to preserve reader string specific options use reader field schema
-        if (action.getShouldRead() && readerSchema != null && Schema.Type.STRING.equals(readerSchema.getType())) {
+        // to preserve reader string and bytes specific options use reader field schema
+        if (action.getShouldRead() && readerSchema != null && (Schema.Type.STRING.equals(readerSchema.getType())
+            || Schema.Type.BYTES.equals(readerSchema.getType()))) {
           processPrimitive(readerSchema, methodBody, action, putExpressionIntoParent, reuseSupplier);
         } else {
           processPrimitive(schema, methodBody, action, putExpressionIntoParent, reuseSupplier);
@@ -211,7 +632,8 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     if (methodAlreadyDefined(recordWriterSchema, recordReaderSchema, recordAction.getShouldRead())) {
       JMethod method = getMethod(recordWriterSchema, recordReaderSchema, recordAction.getShouldRead());
       updateActualExceptions(method);
-      JExpression readingExpression = JExpr.invoke(method).arg(reuseSupplier.get()).arg(JExpr.direct(DECODER));
+      JExpression readingExpression =
+          JExpr.invoke(method).arg(reuseSupplier.get()).arg(JExpr.direct(DECODER)).arg(JExpr.direct(ARENA));
       if (recordAction.getShouldRead()) {
         putRecordIntoParent.accept(parentBody, readingExpression);
       } else {
@@ -240,15 +662,20 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       return;
     }
 
-    JMethod method = createMethod(recordWriterSchema, recordReaderSchema, recordAction.getShouldRead());
+    // only the top level record is filtered, so its method isn't shared with the records nested in it
+    FastSerdeFilter recordFilter = pendingFilter;
+    pendingFilter = null;
+    JMethod method = createMethod(recordWriterSchema, recordReaderSchema, recordAction.getShouldRead(),
+        recordFilter == null);
 
     Set<Class<? extends Exception>> exceptionsOnHigherLevel = schemaAssistant.getExceptionsFromStringable();
     schemaAssistant.resetExceptionsFromStringable();
 
     if (recordAction.getShouldRead()) {
-      putRecordIntoParent.accept(parentBody, JExpr.invoke(method).arg(reuseSupplier.get()).arg(JExpr.direct(DECODER)));
+      putRecordIntoParent.accept(parentBody,
+          JExpr.invoke(method).arg(reuseSupplier.get()).arg(JExpr.direct(DECODER)).arg(JExpr.direct(ARENA)));
     } else {
-      parentBody.invoke(method).arg(reuseSupplier.get()).arg(JExpr.direct(DECODER));
+      parentBody.invoke(method).arg(reuseSupplier.get()).arg(JExpr.direct(DECODER)).arg(JExpr.direct(ARENA));
     }
 
     final JBlock methodBody = method.body();
@@ -266,33 +693,42 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
         newRecord = newRecord.arg(recordSchema);
         JInvocation finalNewRecordInvocation = newRecord;
 
-        ifCodeGen(methodBody,
-            // Check whether schema matches
-            reuseVar.ne(JExpr._null()).
-                cand(reuseVar._instanceof(indexedRecordClass)).
-                cand(
-                    // The following statement will produce the equality check by "==", so that the comparison is
-                    // not trying to compare the schema content, but just the reference, which should be very fast.
-                    JExpr.invoke(JExpr.cast(indexedRecordClass, reuseVar), "getSchema").eq(recordSchema)),
-            thenBlock -> thenBlock.assign(result, JExpr.cast(indexedRecordClass, reuseVar)),
-            elseBlock -> elseBlock.assign(result, finalNewRecordInvocation)
-        );
+        ifCodeGen(methodBody, JExpr.direct(ARENA).ne(JExpr._null()),
+            arenaBlock -> assignFromArena(arenaBlock, result, recordClass, finalNewRecordInvocation, false),
+            noArenaBlock -> ifCodeGen(noArenaBlock,
+                // Check whether schema matches
+                reuseVar.ne(JExpr._null()).
+                    cand(reuseVar._instanceof(indexedRecordClass)).
+                    cand(
+                        // The following statement will produce the equality check by "==", so that the comparison is
+                        // not trying to compare the schema content, but just the reference, which should be very fast.
+                        JExpr.invoke(JExpr.cast(indexedRecordClass, reuseVar), "getSchema").eq(recordSchema)),
+                thenBlock -> thenBlock.assign(result, JExpr.cast(indexedRecordClass, reuseVar)),
+                elseBlock -> elseBlock.assign(result, finalNewRecordInvocation)
+            ));
       } else {
         JInvocation finalNewRecordInvocation = newRecord;
-        ifCodeGen(methodBody,
-            reuseVar.ne(JExpr._null()),
-            thenBlock -> thenBlock.assign(result, JExpr.cast(recordClass, reuseVar)),
-            elseBlock -> elseBlock.assign(result, finalNewRecordInvocation)
-        );
+        ifCodeGen(methodBody, JExpr.direct(ARENA).ne(JExpr._null()),
+            arenaBlock -> assignFromArena(arenaBlock, result, recordClass, finalNewRecordInvocation, false),
+            noArenaBlock -> ifCodeGen(noArenaBlock,
+                reuseVar.ne(JExpr._null()),
+                thenBlock -> thenBlock.assign(result, JExpr.cast(recordClass, reuseVar)),
+                elseBlock -> elseBlock.assign(result, finalNewRecordInvocation)
+            ));
       }
     } else {
       result = null;
     }
+    FastSerdeMethodSplitter methodSplitter = new FastSerdeMethodSplitter(methodBody, methodSizeBudget,
+        () -> createHelperMethod(method, recordReaderSchema, result, recordAction.getShouldRead()));
+    List<String> uncheckedFilterFields =
+        recordFilter != null ? new ArrayList<>(recordFilter.getFieldNames()) : Collections.emptyList();
     for (Schema.Field field : recordWriterSchema.getFields()) {
       FieldAction action = seekFieldAction(recordAction.getShouldRead(), field, actionIterator);
       if (action.getSymbol() == END_SYMBOL) {
         break;
       }
+      JBlock fieldBody = FastSerdeMethodSplitter.newFieldBlock();
 
       Schema readerFieldSchema = null;
       JVar fieldSchemaVar = null;
@@ -310,11 +746,12 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
         }
         fieldReuseSupplier = () -> result.invoke("get").arg(JExpr.lit(readerFieldPos));
       }
-      if (SchemaAssistant.isComplexType(field.schema())) {
-        processComplexType(fieldSchemaVar, field.name(), field.schema(), readerFieldSchema, methodBody, action,
-            putExpressionInRecord, fieldReuseSupplier);
-      } else {
-        processSimpleType(field.schema(), readerFieldSchema, methodBody, action, putExpressionInRecord, fieldReuseSupplier);
+      processField(fieldSchemaVar, field, readerFieldSchema, fieldBody, action, putExpressionInRecord,
+          fieldReuseSupplier);
+      methodSplitter.add(fieldBody);
+      if (action.getShouldRead() && uncheckedFilterFields.remove(field.name())) {
+        methodSplitter.addToOriginalMethod(generateFilterCheck(recordFilter, recordWriterSchema, field, result,
+            recordReaderSchema.getField(field.name()).pos()));
       }
     }
 
@@ -330,20 +767,33 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
           if (useGenericTypes) {
             schemaVar = declareSchemaVariableForRecordField(readerField.name(), readerField.schema(), recordSchemaVar);
           }
+          JBlock fieldBody = FastSerdeMethodSplitter.newFieldBlock();
           JExpression value = parseDefaultValue(
               readerField.schema(),
               AvroCompatibilityHelper.getGenericDefaultValue(readerField),
-              methodBody,
+              fieldBody,
               schemaVar,
               readerField.name());
-          methodBody.invoke(result, "put").arg(JExpr.lit(readerField.pos())).arg(value);
+          fieldBody.invoke(result, "put").arg(JExpr.lit(readerField.pos())).arg(value);
+          methodSplitter.add(fieldBody);
         }
       }
     }
 
+    // the filtered fields missing from the writer schema hold their default value
+    for (String fieldName : uncheckedFilterFields) {
+      methodSplitter.addToOriginalMethod(generateFilterCheck(recordFilter, recordWriterSchema, null, result,
+          FastSerdeFilter.getField(recordReaderSchema, fieldName).pos()));
+    }
+
     if (recordAction.getShouldRead()) {
       methodBody._return(result);
     }
+    for (JMethod helperMethod : methodSplitter.getHelperMethods()) {
+      for (Class<? extends Exception> exceptionClass : schemaAssistant.getExceptionsFromStringable()) {
+        helperMethod._throws(exceptionClass);
+      }
+    }
     exceptionFromMethodMap.put(method, schemaAssistant.getExceptionsFromStringable());
     schemaAssistant.setExceptionsFromStringable(exceptionsOnHigherLevel);
     updateActualExceptions(method);
@@ -525,6 +975,10 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
 
       if (Schema.Type.NULL.equals(optionSchema.getType())) {
         caseBody.directStatement(DECODER + ".readNull();");
+        if (action.getShouldRead() && putValueIntoParent != null) {
+          // the parent may be a reused record still holding the value of another branch
+          putValueIntoParent.accept(caseBody, JExpr._null());
+        }
         caseBody._break();
         continue;
       }
@@ -602,6 +1056,11 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       final Schema readerArraySchema, JBlock parentBody, FieldAction action,
       BiConsumer<JBlock, JExpression> putArrayIntoParent, Supplier<JExpression> reuseSupplier) {
 
+    if (!action.getShouldRead() && variant.isSkipOnly()) {
+      skipArrayOrMap(name, arraySchema, parentBody);
+      return;
+    }
+
     if (action.getShouldRead()) {
       Symbol valuesActionSymbol = null;
       for (Symbol symbol : action.getSymbol().production) {
@@ -624,20 +1083,51 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
 
     final JVar arrayVar = action.getShouldRead() ? declareValueVar(name, readerArraySchema, parentBody, true, false, true) : null;
     /**
-     * Special optimization for float array by leveraging {@link ByteBufferBackedPrimitiveFloatList}.
-     *
-     * TODO: Handle other primitive element types here.
+     * Special optimization for arrays of primitives, which are read a whole block at a time: the fixed-size floats
+     * and doubles are copied as they are into a {@link ByteBufferBackedPrimitiveFloatList} or
+     * {@link ByteBufferBackedPrimitiveDoubleList}, and the other primitives are decoded straight into the
+     * primitive array of their list.
      */
-    if (action.getShouldRead() && arraySchema.getElementType().getType().equals(Schema.Type.FLOAT)) {
-      JClass primitiveFloatList = codeModel.ref(ByteBufferBackedPrimitiveFloatList.class);
-      JExpression readPrimitiveFloatArrayInvocation = primitiveFloatList.staticInvoke("readPrimitiveFloatArray").
-          arg(reuseSupplier.get()).arg(JExpr.direct(DECODER));
-      JExpression castedResult =
-          JExpr.cast(codeModel.ref(PrimitiveFloatList.class), readPrimitiveFloatArrayInvocation);
-
-      parentBody.assign(arrayVar, castedResult);
-      putArrayIntoParent.accept(parentBody, arrayVar);
-      return;
+    if (action.getShouldRead()) {
+      Schema.Type elementType = arraySchema.getElementType().getType();
+      Class<?> readingClass = null;
+      Class<?> primitiveListClass = null;
+      switch (elementType) {
+        case FLOAT:
+          readingClass = ByteBufferBackedPrimitiveFloatList.class;
+          primitiveListClass = PrimitiveFloatList.class;
+          break;
+        case DOUBLE:
+          readingClass = ByteBufferBackedPrimitiveDoubleList.class;
+          primitiveListClass = PrimitiveDoubleList.class;
+          break;
+        case INT:
+          readingClass = PrimitiveIntArrayList.class;
+          primitiveListClass = PrimitiveIntList.class;
+          break;
+        case LONG:
+          readingClass = PrimitiveLongArrayList.class;
+          primitiveListClass = PrimitiveLongList.class;
+          break;
+        case BOOLEAN:
+          readingClass = PrimitiveBooleanArrayList.class;
+          primitiveListClass = PrimitiveBooleanList.class;
+          break;
+        default:
+          // no-op
+      }
+      // promoted elements, e.g. ints read as longs, go through the regular path
+      if (readingClass != null && (elementType == Schema.Type.FLOAT
+          || elementType == readerArraySchema.getElementType().getType())) {
+        String readingMethod = "readPrimitive" + StringUtils.capitalize(elementType.getName()) + "Array";
+        JExpression readPrimitiveArrayInvocation = codeModel.ref(readingClass).staticInvoke(readingMethod)
+            .arg(reuseSupplier.get()).arg(JExpr.direct(DECODER));
+        JExpression castedResult = JExpr.cast(codeModel.ref(primitiveListClass), readPrimitiveArrayInvocation);
+
+        parentBody.assign(arrayVar, castedResult);
+        putArrayIntoParent.accept(parentBody, arrayVar);
+        return;
+      }
     }
 
     JVar chunkLen =
@@ -661,13 +1151,17 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       }
       JInvocation finalNewArrayExp = newArrayExp;
 
-      /** N.B.: Need to use the erasure because instanceof does not support generic types */
-      ifCodeGen(parentBody, finalReuseSupplier.get()._instanceof(abstractErasedArrayClass), then2 -> {
-        then2.assign(arrayVar, JExpr.cast(abstractErasedArrayClass, finalReuseSupplier.get()));
-        then2.invoke(arrayVar, "clear");
-      }, else2 -> {
-        else2.assign(arrayVar, finalNewArrayExp);
-      });
+      ifCodeGen(parentBody, JExpr.direct(ARENA).ne(JExpr._null()),
+          arenaBlock -> assignFromArena(arenaBlock, arrayVar, abstractErasedArrayClass, finalNewArrayExp, true),
+          noArenaBlock -> {
+            /** N.B.: Need to use the erasure because instanceof does not support generic types */
+            ifCodeGen(noArenaBlock, finalReuseSupplier.get()._instanceof(abstractErasedArrayClass), then2 -> {
+              then2.assign(arrayVar, JExpr.cast(abstractErasedArrayClass, finalReuseSupplier.get()));
+              then2.invoke(arrayVar, "clear");
+            }, else2 -> {
+              else2.assign(arrayVar, finalNewArrayExp);
+            });
+          });
     }
 
     JExpression chunkLengthGreaterThanZero = chunkLen.gt(JExpr.lit(0));
@@ -722,6 +1216,63 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     }
   }
 
+  /**
+   * Skips an array or a map with {@link Decoder#skipArray()} or {@link Decoder#skipMap()}, which skip the blocks
+   * whose size in bytes was written without looking at their items. Arrays of fixed-size items are skipped a block
+   * at a time too, and map keys are skipped without being decoded. Only used by the variants going through the data
+   * with the skipping code alone, see {@link Variant#isSkipOnly()}.
+   */
+  private void skipArrayOrMap(String name, Schema schema, JBlock body) {
+    boolean array = Schema.Type.ARRAY.equals(schema.getType());
+    String skipMethod = array ? "skipArray" : "skipMap";
+    Schema itemSchema = array ? schema.getElementType() : schema.getValueType();
+    FieldAction itemAction = FieldAction.fromValues(itemSchema.getType(), false, EMPTY_SYMBOL);
+
+    JVar chunkLen = body.decl(codeModel.LONG, getUniqueName("chunkLen"), JExpr.direct(DECODER).invoke(skipMethod));
+    JBlock blockBody = body._while(chunkLen.gt(JExpr.lit(0))).body();
+    int itemSize = array ? getEncodedSize(itemSchema) : -1;
+    if (itemSize > 0) {
+      // the block count comes from the data, a corrupt one must fail rather than skip a truncated number of bytes
+      JClass math = codeModel.ref(Math.class);
+      JExpression blockSize = math.staticInvoke("multiplyExact").arg(chunkLen).arg(JExpr.lit((long) itemSize));
+      blockBody.invoke(JExpr.direct(DECODER), "skipFixed").arg(math.staticInvoke("toIntExact").arg(blockSize));
+    } else if (itemSize < 0) {
+      JForLoop forLoop = blockBody._for();
+      JVar counter = forLoop.init(codeModel.INT, getUniqueName("counter"), JExpr.lit(0));
+      forLoop.test(counter.lt(chunkLen));
+      forLoop.update(counter.incr());
+      JBlock forBody = forLoop.body();
+      if (!array) {
+        forBody.directStatement(DECODER + ".skipString();");
+      }
+      if (SchemaAssistant.isComplexType(itemSchema)) {
+        processComplexType(null, name + (array ? "Elem" : "Value"), itemSchema, null, forBody, itemAction, null,
+            EMPTY_SUPPLIER);
+      } else {
+        processSimpleType(itemSchema, null, forBody, itemAction, null, EMPTY_SUPPLIER);
+      }
+    }
+    blockBody.assign(chunkLen, JExpr.direct(DECODER).invoke(skipMethod));
+  }
+
+  /**
+   * @return size of the binary encoding of the values of the given schema if they all have the same, -1 otherwise
+   */
+  private static int getEncodedSize(Schema schema) {
+    switch (schema.getType()) {
+      case NULL:
+        return 0;
+      case FLOAT:
+        return 4;
+      case DOUBLE:
+        return 8;
+      case FIXED:
+        return schema.getFixedSize();
+      default:
+        return -1;
+    }
+  }
+
   /**
    * Return a JExpression, which will read a string from decoder and construct a stringable object.
    *
@@ -746,6 +1297,11 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       JBlock parentBody, FieldAction action, BiConsumer<JBlock, JExpression> putMapIntoParent,
       Supplier<JExpression> reuseSupplier) {
 
+    if (!action.getShouldRead() && variant.isSkipOnly()) {
+      skipArrayOrMap(name, mapSchema, parentBody);
+      return;
+    }
+
     /**
      * Determine the action symbol for Map value. {@link ResolvingGrammarGenerator} generates
      * resolving grammar symbols with reversed order of production sequence. If this symbol is
@@ -792,22 +1348,31 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
           finalReuseSupplier.get()._instanceof(codeModel.ref(Map.class)),
           thenBlock -> thenBlock.assign(reuse, JExpr.cast(codeModel.ref(Map.class), finalReuseSupplier.get())));
 
+      // Pure integer arithmetic equivalent of (int) Math.ceil(expectedSize / 0.75).
+      // The default load factor of HashMap is 0.75 and HashMap internally ensures size is always a power of two.
+      JExpression newMapExpression = JExpr._new(schemaAssistant.classFromSchema(readerMapSchema, false))
+          .arg(JExpr.cast(codeModel.INT, chunkLen.mul(JExpr.lit(4)).plus(JExpr.lit(2)).div(JExpr.lit(3))));
+      JExpression newEmptyMapExpression = JExpr._new(schemaAssistant.classFromSchema(readerMapSchema, false))
+          .arg(JExpr.lit(0));
+      int mapArenaSite = arenaSiteCount++;
+
       // Check whether the reuse is null or not
-      ifCodeGen(ifBlockForChunkLenCheck,
-          reuse.ne(JExpr.direct("null")),
-          thenBlock -> {
-            thenBlock.invoke(reuse, "clear");
-            thenBlock.assign(mapVar, reuse);
-          },
-          // Pure integer arithmetic equivalent of (int) Math.ceil(expectedSize / 0.75).
-          // The default load factor of HashMap is 0.75 and HashMap internally ensures size is always a power of two.
-          elseBlock -> elseBlock.assign(mapVar, JExpr._new(schemaAssistant.classFromSchema(readerMapSchema, false))
-              .arg(JExpr.cast(codeModel.INT, chunkLen.mul(JExpr.lit(4)).plus(JExpr.lit(2)).div(JExpr.lit(3)))))
-      );
-
-      JBlock elseBlock = conditional._else();
-      elseBlock.assign(mapVar, JExpr._new(schemaAssistant.classFromSchema(readerMapSchema, false))
-          .arg(JExpr.lit(0)));
+      ifCodeGen(ifBlockForChunkLenCheck, JExpr.direct(ARENA).ne(JExpr._null()),
+          arenaBlock -> assignFromArena(arenaBlock, mapVar, codeModel.ref(Map.class), mapArenaSite, newMapExpression,
+              true),
+          noArenaBlock -> ifCodeGen(noArenaBlock,
+              reuse.ne(JExpr.direct("null")),
+              thenBlock -> {
+                thenBlock.invoke(reuse, "clear");
+                thenBlock.assign(mapVar, reuse);
+              },
+              elseBlock -> elseBlock.assign(mapVar, newMapExpression)
+          ));
+
+      ifCodeGen(conditional._else(), JExpr.direct(ARENA).ne(JExpr._null()),
+          arenaBlock -> assignFromArena(arenaBlock, mapVar, codeModel.ref(Map.class), mapArenaSite,
+              newEmptyMapExpression, true),
+          noArenaBlock -> noArenaBlock.assign(mapVar, newEmptyMapExpression));
     }
 
     JDoLoop doLoop = ifBlockForChunkLenCheck._do(chunkLen.gt(JExpr.lit(0)));
@@ -949,15 +1514,24 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
         }
       }
       putEnumIntoParent.accept(body, newEnum);
+    } else if (Variant.SKIPPER.equals(variant)) {
+      JVar enumIndex = body.decl(codeModel.INT, getUniqueName("enumIndex"), JExpr.direct(DECODER + ".readEnum()"));
+      ifCodeGen(body, enumIndex.lt(JExpr.lit(0)).cor(enumIndex.gte(JExpr.lit(schema.getEnumSymbols().size()))),
+          thenBlock -> thenBlock._throw(JExpr._new(codeModel.ref(AvroTypeException.class))
+              .arg(JExpr.lit("Illegal enum index for '" + schema.getName() + "': ").plus(enumIndex))));
     } else {
       body.directStatement(DECODER + ".readEnum();");
     }
   }
 
-  private void processBytes(JBlock body, FieldAction action, BiConsumer<JBlock, JExpression> putValueIntoParent,
-      Supplier<JExpression> reuseSupplier) {
+  private void processBytes(Schema schema, JBlock body, FieldAction action,
+      BiConsumer<JBlock, JExpression> putValueIntoParent, Supplier<JExpression> reuseSupplier) {
     if (action.getShouldRead()) {
-      if (reuseSupplier.get().equals(JExpr._null())) {
+      if (SchemaAssistant.isSliced(schema)) {
+        // slices share the array being decoded, so there is nothing to reuse
+        putValueIntoParent.accept(body,
+            codeModel.ref(AvroCompatibilityHelper.class).staticInvoke("readBytesSlice").arg(JExpr.direct(DECODER)));
+      } else if (reuseSupplier.get().equals(JExpr._null())) {
         putValueIntoParent.accept(body, JExpr.invoke(JExpr.direct(DECODER), "readBytes").arg(JExpr.direct("null")));
       } else {
         final Supplier<JExpression> finalReuseSupplier = potentiallyCacheInvocation(reuseSupplier, body, "oldBytes");
@@ -978,7 +1552,16 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       BiConsumer<JBlock, JExpression> putValueIntoParent, Supplier<JExpression> reuseSupplier) {
     if (action.getShouldRead()) {
       JClass stringClass = schemaAssistant.findStringClass(schema);
-      if (stringClass.equals(codeModel.ref(Utf8.class))) {
+      int dedupCapacity = SchemaAssistant.getDedupCapacity(schema);
+      boolean isUtf8 = stringClass.equals(codeModel.ref(Utf8.class));
+      if (dedupCapacity > 0 && (isUtf8 || stringClass.equals(codeModel.ref(String.class)))) {
+        /*
+         * The values are shared by all the records, so the reused one, if any, must not be overwritten.
+         */
+        JVar dedupCacheVar = generatedClass.field(JMod.PRIVATE | JMod.FINAL, StringDedupCache.class,
+            getUniqueName("stringDedupCache"), JExpr._new(codeModel.ref(StringDedupCache.class)).arg(JExpr.lit(dedupCapacity)));
+        putValueIntoParent.accept(body, dedupCacheVar.invoke(isUtf8 ? "readUtf8" : "readString").arg(JExpr.direct(DECODER)));
+      } else if (isUtf8) {
         if (reuseSupplier.equals(EMPTY_SUPPLIER)) {
           putValueIntoParent.accept(body, JExpr.invoke(JExpr.direct(DECODER), "readString").arg(JExpr._null()));
         } else {
@@ -1007,7 +1590,7 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
         processString(schema, body, action, putValueIntoParent, reuseSupplier);
         return;
       case BYTES:
-        processBytes(body, action, putValueIntoParent, reuseSupplier);
+        processBytes(schema, body, action, putValueIntoParent, reuseSupplier);
         return;
       case INT:
         readFunction = "readInt()";
@@ -1108,6 +1691,13 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
   }
 
   private JMethod createMethod(final Schema writerSchema, final Schema readerSchema, boolean read) {
+    return createMethod(writerSchema, readerSchema, read, true);
+  }
+
+  /**
+   * @param shared whether other records of the same schemas can be read by the created method
+   */
+  private JMethod createMethod(final Schema writerSchema, final Schema readerSchema, boolean read, boolean shared) {
     if (!Schema.Type.RECORD.equals(writerSchema.getType())) {
       throw new FastDeserializerGeneratorException("Methods are defined only for records, not for " + writerSchema.getType());
     }
@@ -1124,12 +1714,91 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     method._throws(IOException.class);
     method.param(Object.class, VAR_NAME_FOR_REUSE);
     method.param(Decoder.class, DECODER);
+    method.param(RecordArena.class, ARENA);
 
-    (read ? deserializeMethodMap : skipMethodMap).put(getEffectiveMethodName(writerSchema, readerSchema), method);
+    if (shared) {
+      (read ? deserializeMethodMap : skipMethodMap).put(getEffectiveMethodName(writerSchema, readerSchema), method);
+    }
 
     return method;
   }
 
+  /**
+   * Creates a helper method receiving part of the fields of a record too wide to be read or skipped by a single
+   * method, and invokes it from the method reading or skipping the record.
+   */
+  private JMethod createHelperMethod(JMethod recordMethod, Schema readerSchema, JVar result, boolean read) {
+    JMethod helperMethod = generatedClass.method(JMod.PRIVATE, codeModel.VOID,
+        getUniqueName((read ? "deserialize" : "skip") + readerSchema.getName() + "Fields"));
+    helperMethod._throws(IOException.class);
+    JInvocation invocation = recordMethod.body().invoke(helperMethod);
+    if (read) {
+      helperMethod.param(result.type(), result.name());
+      invocation.arg(result);
+    }
+    helperMethod.param(Decoder.class, DECODER);
+    invocation.arg(JExpr.direct(DECODER));
+    helperMethod.param(RecordArena.class, ARENA);
+    invocation.arg(JExpr.direct(ARENA));
+    return helperMethod;
+  }
+
+  /**
+   * Generates the test of the filter conditions on a field of the top level record, which skips the rest of the
+   * record and returns null if they are not satisfied.
+   *
+   * @param field writer field just read, or null for a field missing from the writer schema, tested once the whole
+   *              record is read
+   */
+  private JBlock generateFilterCheck(FastSerdeFilter recordFilter, Schema recordWriterSchema, Schema.Field field,
+      JVar result, int readerFieldPos) {
+    JBlock checkBlock = FastSerdeMethodSplitter.newFieldBlock();
+    String fieldName = reader.getFields().get(readerFieldPos).name();
+    JBlock rejectedBlock = checkBlock._if(JExpr.refthis(FILTER).invoke("test")
+        .arg(JExpr.lit(recordFilter.getFieldNames().indexOf(fieldName)))
+        .arg(result.invoke("get").arg(JExpr.lit(readerFieldPos))).not())._then();
+
+    List<Schema.Field> remainingFields = field != null
+        ? recordWriterSchema.getFields().subList(field.pos() + 1, recordWriterSchema.getFields().size())
+        : Collections.emptyList();
+    if (!remainingFields.isEmpty()) {
+      JMethod skipMethod = generatedClass.method(JMod.PRIVATE, codeModel.VOID,
+          getUniqueName("skip" + recordWriterSchema.getName() + "FieldsAfter" + field.name()));
+      skipMethod.param(Decoder.class, DECODER);
+      skipMethod.param(RecordArena.class, ARENA);
+      skipMethod._throws(IOException.class);
+      FastSerdeMethodSplitter methodSplitter = new FastSerdeMethodSplitter(skipMethod.body(), methodSizeBudget,
+          () -> createHelperMethod(skipMethod, recordWriterSchema, null, false));
+      for (Schema.Field remainingField : remainingFields) {
+        JBlock fieldBody = FastSerdeMethodSplitter.newFieldBlock();
+        processField(null, remainingField, null, fieldBody,
+            FieldAction.fromValues(remainingField.schema().getType(), false, EMPTY_SYMBOL), null, EMPTY_SUPPLIER);
+        methodSplitter.add(fieldBody);
+      }
+      rejectedBlock.invoke(skipMethod).arg(JExpr.direct(DECODER)).arg(JExpr.direct(ARENA));
+    }
+    rejectedBlock._return(JExpr._null());
+    return checkBlock;
+  }
+
+  private void assignFromArena(JBlock body, JVar var, JClass varClass, JExpression newExpression, boolean clear) {
+    assignFromArena(body, var, varClass, arenaSiteCount++, newExpression, clear);
+  }
+
+  /**
+   * Assigns to the given variable the next object of the given place in the code from the arena, or a new object
+   * added to the arena if there is none left.
+   */
+  private void assignFromArena(JBlock body, JVar var, JClass varClass, int site, JExpression newExpression,
+      boolean clear) {
+    body.assign(var, JExpr.cast(varClass, JExpr.direct(ARENA).invoke("take").arg(JExpr.lit(site))));
+    JConditional ifNull = body._if(var.eq(JExpr._null()));
+    ifNull._then().assign(var, JExpr.direct(ARENA).invoke("add").arg(JExpr.lit(site)).arg(newExpression));
+    if (clear) {
+      ifNull._else().invoke(var, "clear");
+    }
+  }
+
   private JExpression getSchemaExpr(Schema schema) {
     Long index = Utils.getSchemaFingerprint(schema);
     return (useGenericTypes && schemaVarMap.containsKey(index)) ? schemaVarMap.get(index) : JExpr._null();
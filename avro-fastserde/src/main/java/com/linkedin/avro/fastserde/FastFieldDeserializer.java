@@ -0,0 +1,29 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.IOException;
+import org.apache.avro.io.Decoder;
+
+
+/**
+ * {@link FastDeserializer} of records which can also skip or deserialize their top level fields one at a time,
+ * see {@link LazyGenericRecord}. The writer and reader schemas of such a deserializer are the same, so positions are
+ * the same in both.
+ */
+public interface FastFieldDeserializer<T> extends FastDeserializer<T> {
+
+  /**
+   * @param pos position of the field to skip, which must be the next one in the decoder
+   * @param d decoder positioned at the start of the field
+   * @throws IOException on io errors
+   */
+  void skipField(int pos, Decoder d) throws IOException;
+
+  /**
+   * @param pos position of the field to deserialize, which must be the next one in the decoder
+   * @param reuse previous value of the field to reuse, or null
+   * @param d decoder positioned at the start of the field
+   * @return deserialized value of the field
+   * @throws IOException on io errors
+   */
+  Object deserializeField(int pos, Object reuse, Decoder d) throws IOException;
+}
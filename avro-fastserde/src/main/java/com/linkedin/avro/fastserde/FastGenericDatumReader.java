@@ -1,6 +1,7 @@
 package com.linkedin.avro.fastserde;
 
 import java.io.IOException;
+import java.util.Set;
 import org.apache.avro.Schema;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.Decoder;
@@ -32,6 +33,21 @@ public class FastGenericDatumReader<T> implements DatumReader<T> {
     this(schema, schema, cache);
   }
 
+  /**
+   * Creates a reader decoding only the given fields, see {@link FastSerdeProjection}. The records it reads only have
+   * the projected fields.
+   *
+   * @param writerSchema {@link Schema} of written data
+   * @param readerSchema {@link Schema} to project
+   * @param projectedFieldPaths dotted paths of the fields to decode
+   * @param cache cache of the fast deserializers, or null to use the default one
+   */
+  public FastGenericDatumReader(Schema writerSchema, Schema readerSchema, Set<String> projectedFieldPaths,
+      FastSerdeCache cache) {
+    this(writerSchema, (cache != null ? cache : FastSerdeCache.getDefaultInstance())
+        .getProjectedSchema(readerSchema, projectedFieldPaths), cache);
+  }
+
   public FastGenericDatumReader(Schema writerSchema, Schema readerSchema, FastSerdeCache cache) {
     this.writerSchema = writerSchema;
     this.readerSchema = readerSchema;
@@ -67,8 +83,19 @@ public class FastGenericDatumReader<T> implements DatumReader<T> {
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public T read(T reuse, Decoder in) throws IOException {
+    return getFastDeserializer().deserialize(reuse, in);
+  }
+
+  /**
+   * Reads a datum into the records, arrays and maps of the given arena, see {@link RecordArena}.
+   * The arena is ignored until the fast deserializer is generated.
+   */
+  public T read(T reuse, Decoder in, RecordArena arena) throws IOException {
+    return getFastDeserializer().deserialize(reuse, in, arena);
+  }
+
+  private FastDeserializer<T> getFastDeserializer() {
     FastDeserializer<T> fastDeserializer = null;
 
     if (cachedFastDeserializer != null) {
@@ -86,7 +113,7 @@ public class FastGenericDatumReader<T> implements DatumReader<T> {
       }
     }
 
-    return fastDeserializer.deserialize(reuse, in);
+    return fastDeserializer;
   }
 
   protected FastDeserializer<T> getFastDeserializerFromCache(FastSerdeCache fastSerdeCache, Schema writerSchema,
@@ -50,6 +50,9 @@ public class FastGenericDatumWriter<T> implements DatumWriter<T> {
   @Override
   @SuppressWarnings("unchecked")
   public void write(T data, Encoder out) throws IOException {
+    if (data instanceof LazyGenericRecord && ((LazyGenericRecord) data).writeOriginalBytes(writerSchema, out)) {
+      return;
+    }
     FastSerializer<T> fastSerializer;
     if (cachedFastSerializer != null) {
       fastSerializer = cachedFastSerializer;
@@ -0,0 +1,21 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.File;
+import org.apache.avro.Schema;
+
+
+/**
+ * Generates a {@link FastFieldDeserializer} for a record schema, which skips or reads a single field of the record at
+ * a time for the {@link LazyGenericRecord}s of {@link LazyGenericRecordReader}.
+ */
+public final class FastGenericFieldDeserializerGenerator<T> extends FastDeserializerGenerator<T> {
+
+  FastGenericFieldDeserializerGenerator(Schema schema, File destination, ClassLoader classLoader,
+      String compileClassPath) {
+    super(true, schema, schema, destination, classLoader, compileClassPath, Variant.FIELD_DESERIALIZER);
+  }
+
+  public FastFieldDeserializer<T> generateFieldDeserializer() {
+    return (FastFieldDeserializer<T>) generateDeserializer();
+  }
+}
@@ -0,0 +1,175 @@
+package com.linkedin.avro.fastserde;
+
+import static com.linkedin.avro.fastserde.Utils.getSchemaFingerprint;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Build-time (ahead of time) generator of fast serializers/deserializers.
+ *
+ * Generates and compiles the fast serdes of a known set of schemas and packages them into a jar together with
+ * a {@link FastSerdeAotIndex}. When that jar is on the classpath, {@link FastSerdeCache} picks the classes up
+ * from the index instead of compiling them at runtime, so no system java compiler is needed and the cold
+ * (vanilla avro) serdes are never used for the indexed schemas.
+ *
+ * Since the generated code depends on the avro version, the generator has to run with the same avro version
+ * the application runs with.
+ *
+ * Usage: {@code FastSerdeAotGenerator -dest <jar> [-cp <compile classpath>] [-specific] <schema files or folders>}
+ */
+public class FastSerdeAotGenerator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FastSerdeAotGenerator.class);
+
+  private final String compileClassPath;
+  private final Map<String, byte[]> classes = new TreeMap<>();
+  private final Map<String, String> classNames = new TreeMap<>();
+
+  /**
+   * @param compileClassPath classpath used to compile the generated classes, or null to infer it
+   */
+  public FastSerdeAotGenerator(String compileClassPath) {
+    this.compileClassPath = compileClassPath;
+  }
+
+  public static void main(String[] args) throws IOException {
+    File dest = null;
+    String compileClassPath = null;
+    boolean specific = false;
+    List<File> sources = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "-dest":
+          dest = new File(args[++i]);
+          break;
+        case "-cp":
+          compileClassPath = args[++i];
+          break;
+        case "-specific":
+          specific = true;
+          break;
+        default:
+          sources.add(new File(args[i]));
+      }
+    }
+    if (dest == null || sources.isEmpty()) {
+      throw new IllegalArgumentException(
+          "Usage: FastSerdeAotGenerator -dest <jar> [-cp <compile classpath>] [-specific] <schema files or folders>");
+    }
+
+    FastSerdeAotGenerator generator = new FastSerdeAotGenerator(compileClassPath);
+    for (File source : sources) {
+      for (Path schemaFile : findSchemaFiles(source)) {
+        Schema schema = AvroCompatibilityHelper.parse(new String(Files.readAllBytes(schemaFile), StandardCharsets.UTF_8));
+        generator.addSchema(schema, specific);
+      }
+    }
+    generator.writeJar(dest);
+  }
+
+  private static List<Path> findSchemaFiles(File source) throws IOException {
+    if (source.isFile()) {
+      return Collections.singletonList(source.toPath());
+    }
+    try (Stream<Path> files = Files.walk(source.toPath())) {
+      return files.filter(path -> path.toString().endsWith(".avsc")).sorted().collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Generates the deserializer and, if supported by the avro version, the serializer of the given schema.
+   *
+   * @param schema schema used both as writer and reader schema
+   * @param specific whether to generate specific-class aware serdes in addition to the generic ones
+   */
+  public void addSchema(Schema schema, boolean specific) {
+    addDeserializer(schema, schema, specific);
+    if (!FastSerdeCache.isSupportedForFastSerializer(schema.getType()) || !Utils.isSupportedAvroVersionsForSerializer()) {
+      LOGGER.info("Skipping FastSerializer generation for schema: {}", schema.getFullName());
+      return;
+    }
+    generate(FastSerdeCache.GENERIC_SERIALIZER, schema, schema,
+        new FastGenericSerializerGenerator<>(schema, null, newClassLoader(), compileClassPath));
+    if (specific) {
+      generate(FastSerdeCache.SPECIFIC_SERIALIZER, schema, schema,
+          new FastSpecificSerializerGenerator<>(schema, null, newClassLoader(), compileClassPath));
+    }
+  }
+
+  /**
+   * Generates the deserializer of the given writer and reader schemas.
+   *
+   * @param writerSchema {@link Schema} of written data
+   * @param readerSchema {@link Schema} intended to be used during deserialization
+   * @param specific whether to generate a specific-class aware deserializer in addition to the generic one
+   */
+  public void addDeserializer(Schema writerSchema, Schema readerSchema, boolean specific) {
+    if (!FastSerdeCache.isSupportedForFastDeserializer(readerSchema.getType())) {
+      LOGGER.info("Skipping FastDeserializer generation for schema: {}", readerSchema.getFullName());
+      return;
+    }
+    generate(FastSerdeCache.GENERIC_DESERIALIZER, writerSchema, readerSchema,
+        new FastGenericDeserializerGenerator<>(writerSchema, readerSchema, null, newClassLoader(), compileClassPath));
+    if (specific) {
+      generate(FastSerdeCache.SPECIFIC_DESERIALIZER, writerSchema, readerSchema,
+          new FastSpecificDeserializerGenerator<>(writerSchema, readerSchema, null, newClassLoader(), compileClassPath));
+    }
+  }
+
+  /**
+   * Writes all the generated classes and their index into a jar.
+   *
+   * @param jarFile destination jar
+   * @throws IOException on write errors
+   */
+  public void writeJar(File jarFile) throws IOException {
+    Properties index = new Properties();
+    index.setProperty(FastSerdeAotIndex.AVRO_VERSION_PROPERTY, Utils.getRuntimeAvroVersion().name());
+    index.setProperty(FastSerdeAotIndex.GENERATOR_VERSION_PROPERTY, FastSerdeClassStore.getGeneratorVersion());
+    index.putAll(classNames);
+
+    try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(jarFile))) {
+      for (Map.Entry<String, byte[]> classEntry : classes.entrySet()) {
+        jar.putNextEntry(new JarEntry(classEntry.getKey().replace('.', '/') + ".class"));
+        jar.write(classEntry.getValue());
+        jar.closeEntry();
+      }
+      jar.putNextEntry(new JarEntry(FastSerdeAotIndex.INDEX_RESOURCE));
+      index.store(jar, null);
+      jar.closeEntry();
+    }
+    LOGGER.info("Wrote {} fast serde classes to: {}", classNames.size(), jarFile);
+  }
+
+  private void generate(String kind, Schema writerSchema, Schema readerSchema, FastSerdeBase generator) {
+    Object generatedInstance = generator instanceof FastDeserializerGenerator
+        ? ((FastDeserializerGenerator<?>) generator).generateDeserializer()
+        : ((FastSerializerGenerator<?>) generator).generateSerializer();
+    classes.putAll(generator.getCompiledClasses());
+    classNames.put(FastSerdeClassStore.getEntryKey(kind, getSchemaFingerprint(writerSchema),
+        getSchemaFingerprint(readerSchema)), generatedInstance.getClass().getName());
+  }
+
+  private InMemoryClassLoader newClassLoader() {
+    return new InMemoryClassLoader(FastSerdeAotGenerator.class.getClassLoader());
+  }
+}
@@ -0,0 +1,103 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Index of fast serializer/deserializer classes generated at build time by {@link FastSerdeAotGenerator}.
+ *
+ * The index is made of all the {@value #INDEX_RESOURCE} resources visible to a {@link ClassLoader}. Each of them maps
+ * the key of a generated class (see {@link FastSerdeClassStore#getEntryKey(String, long, long)}) to its fully
+ * qualified name, and records the Avro version and the {@link FastSerdeClassStore#getGeneratorVersion() generator
+ * version} the classes were generated with. Indexes generated for a different Avro version or generator version
+ * are ignored, since the generated code wouldn't match what the runtime generators produce.
+ */
+public class FastSerdeAotIndex {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FastSerdeAotIndex.class);
+
+  public static final String INDEX_RESOURCE = "META-INF/avro-fastserde/index.properties";
+  static final String AVRO_VERSION_PROPERTY = "avro.version";
+  static final String GENERATOR_VERSION_PROPERTY = "generator.version";
+
+  private final ClassLoader classLoader;
+  private final Map<String, String> classNames;
+
+  private FastSerdeAotIndex(ClassLoader classLoader, Map<String, String> classNames) {
+    this.classLoader = classLoader;
+    this.classNames = classNames;
+  }
+
+  /**
+   * Reads all the indexes visible to the given {@link ClassLoader}.
+   *
+   * @param classLoader class loader used to look up the indexes and to load the indexed classes
+   * @return the merged index, empty if no usable index was found
+   */
+  public static FastSerdeAotIndex load(ClassLoader classLoader) {
+    Map<String, String> classNames = new HashMap<>();
+    String avroVersion = Utils.getRuntimeAvroVersion().name();
+    try {
+      Enumeration<URL> indexUrls = classLoader.getResources(INDEX_RESOURCE);
+      while (indexUrls.hasMoreElements()) {
+        URL indexUrl = indexUrls.nextElement();
+        Properties index = new Properties();
+        try (InputStream indexStream = indexUrl.openStream()) {
+          index.load(indexStream);
+        }
+        if (!avroVersion.equals(index.getProperty(AVRO_VERSION_PROPERTY))
+            || !FastSerdeClassStore.getGeneratorVersion().equals(index.getProperty(GENERATOR_VERSION_PROPERTY))) {
+          LOGGER.warn("Ignoring fast serde index {} generated for avro version {} and generator version {}", indexUrl,
+              index.getProperty(AVRO_VERSION_PROPERTY), index.getProperty(GENERATOR_VERSION_PROPERTY));
+          continue;
+        }
+        for (String key : index.stringPropertyNames()) {
+          if (!AVRO_VERSION_PROPERTY.equals(key) && !GENERATOR_VERSION_PROPERTY.equals(key)) {
+            classNames.put(key, index.getProperty(key));
+          }
+        }
+        LOGGER.info("Loaded fast serde index: {}", indexUrl);
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Unable to read fast serde indexes", e);
+    }
+    return new FastSerdeAotIndex(classLoader, classNames.isEmpty() ? Collections.emptyMap() : classNames);
+  }
+
+  /**
+   * @return true if no class is indexed
+   */
+  public boolean isEmpty() {
+    return classNames.isEmpty();
+  }
+
+  /**
+   * Loads a class generated at build time.
+   *
+   * @param kind kind of the generated class, e.g. "GenericDeserializer"
+   * @param writerSchemaFingerprint fingerprint of the writer schema
+   * @param readerSchemaFingerprint fingerprint of the reader schema
+   * @return indexed class, or null if the class isn't indexed or can't be loaded
+   */
+  public Class<?> loadClass(String kind, long writerSchemaFingerprint, long readerSchemaFingerprint) {
+    String className =
+        classNames.get(FastSerdeClassStore.getEntryKey(kind, writerSchemaFingerprint, readerSchemaFingerprint));
+    if (className == null) {
+      return null;
+    }
+    try {
+      return Class.forName(className, true, classLoader);
+    } catch (ClassNotFoundException | LinkageError e) {
+      LOGGER.warn("Unable to load indexed class: " + className, e);
+      return null;
+    }
+  }
+}
@@ -10,11 +10,21 @@ import com.sun.codemodel.JExpression;
 import com.sun.codemodel.JVar;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import javax.tools.DiagnosticCollector;
 import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
 import javax.tools.ToolProvider;
 import org.apache.avro.Schema;
 import org.apache.commons.lang3.StringUtils;
@@ -32,6 +42,13 @@ public abstract class FastSerdeBase {
   protected static final String SEP = "_";
   public static final String GENERATED_PACKAGE_NAME_PREFIX = "com.linkedin.avro.fastserde.generated.";
 
+  /**
+   * javac options shared by both compilation paths and by {@link FastSerdeBatchCompiler}, see
+   * {@link #compileClass(String, Set)} for details.
+   */
+  static final List<String> COMPILER_OPTIONS = Collections.unmodifiableList(
+      Arrays.asList("-XDuseUnsharedTable"));
+
   /**
    * A repository of how many times a given name was used.
    * N.B.: Does not actually need to be threadsafe, but it is made so just for defensive coding reasons.
@@ -46,6 +63,11 @@ public abstract class FastSerdeBase {
   protected final ClassLoader classLoader;
   protected final String compileClassPath;
   protected JDefinedClass generatedClass;
+  /**
+   * Estimated byte code size budget of the generated methods, see {@link FastSerdeMethodSplitter}.
+   */
+  protected int methodSizeBudget = FastSerdeMethodSplitter.getDefaultBudget();
+  private Map<String, byte[]> compiledClasses = Collections.emptyMap();
 
   public FastSerdeBase(String description, boolean useGenericTypes, Class defaultStringClass, File destination, ClassLoader classLoader,
       String compileClassPath, boolean isForSerializer) {
@@ -75,6 +97,47 @@ public abstract class FastSerdeBase {
     return counterPerName.computeIfAbsent(name, k -> new AtomicInteger(0)).getAndIncrement();
   }
 
+  /**
+   * @return byte code of the classes produced by the last successful {@link #compileClass(String, Set)} call,
+   *         keyed by fully qualified class name
+   */
+  public Map<String, byte[]> getCompiledClasses() {
+    return compiledClasses;
+  }
+
+  void setCompiledClasses(Map<String, byte[]> compiledClasses) {
+    this.compiledClasses = compiledClasses;
+  }
+
+  /**
+   * @param methodSizeBudget estimated byte code size budget of the generated methods, 0 or less to never split them
+   */
+  void setMethodSizeBudget(int methodSizeBudget) {
+    this.methodSizeBudget = methodSizeBudget;
+  }
+
+  /**
+   * Generates the code of the serializer/deserializer class into {@link #codeModel}, without compiling it.
+   *
+   * @return simple name of the generated class
+   */
+  abstract String generateClassCode();
+
+  /**
+   * @param generatedClass compiled class whose code was generated by {@link #generateClassCode()}
+   * @return new instance of the generated class
+   * @throws ReflectiveOperationException if the class can't be instantiated
+   */
+  abstract Object newGeneratedInstance(Class<?> generatedClass) throws ReflectiveOperationException;
+
+  String getGeneratedPackageName() {
+    return generatedPackageName;
+  }
+
+  Set<String> getUsedFullyQualifiedClassNameSet() {
+    return schemaAssistant.getUsedFullyQualifiedClassNameSet();
+  }
+
   protected void ifCodeGen(JBlock parentBody, JExpression condition, Consumer<JBlock> thenClosure) {
     JConditional ifCondition = parentBody._if(condition);
     thenClosure.accept(ifCondition._then());
@@ -103,18 +166,15 @@ public abstract class FastSerdeBase {
   @SuppressWarnings("unchecked")
   protected Class compileClass(final String className, Set<String> knownUsedFullyQualifiedClassNameSet)
       throws IOException, ClassNotFoundException {
+    if (classLoader instanceof InMemoryClassLoader) {
+      return compileClassInMemory(className, knownUsedFullyQualifiedClassNameSet);
+    }
+    long startTime = System.nanoTime();
     codeModel.build(destination);
 
     String filePath = destination.getAbsolutePath() + generatedSourcesPath + className + ".java";
 
-    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-    if (null == compiler) {
-      /**
-       * If the above function returns null, it is very likely that the env setting: "JAVA_HOME" is not being setup properly.
-       */
-      throw new FastSerdeGeneratorException("Couldn't locate java compiler at runtime, please double check your env "
-          + "setting for 'JAVA_HOME', and here is the value for 'System.getProperty(\"java.home\")': " + System.getProperty("java.home"));
-    }
+    JavaCompiler compiler = getSystemJavaCompiler();
     String compileClassPathForCurrentFile = Utils.inferCompileDependencies(compileClassPath, filePath, knownUsedFullyQualifiedClassNameSet);
     int compileResult;
     try {
@@ -134,17 +194,90 @@ public abstract class FastSerdeBase {
        */
       LOGGER.info("Starting compilation for the generated source file: {} ", filePath);
       LOGGER.debug("The inferred compile class path for file: {} : {}", filePath, compileClassPathForCurrentFile);
-      compileResult = compiler.run(null, null, null, "-cp", compileClassPathForCurrentFile, filePath, "-XDuseUnsharedTable");
+      List<String> compilerArgs = new ArrayList<>(COMPILER_OPTIONS);
+      compilerArgs.addAll(Arrays.asList("-cp", compileClassPathForCurrentFile, filePath));
+      compileResult = compiler.run(null, null, null, compilerArgs.toArray(new String[0]));
     } catch (Exception e) {
       throw new FastSerdeGeneratorException("Unable to compile:" + className + " from source file: " + filePath, e);
     }
 
     if (compileResult != 0) {
       throw new FastSerdeGeneratorException("Unable to compile:" + className + " from source file: " + filePath);
-    } else {
-      LOGGER.info("Successfully compiled class {} defined at source file: {}", className, filePath);
     }
 
-    return classLoader.loadClass(generatedPackageName + "." + className);
+    Class generatedClass = classLoader.loadClass(generatedPackageName + "." + className);
+    compiledClasses = readCompiledClasses(new File(filePath).getParentFile(), className);
+    LOGGER.info("Successfully compiled class {} defined at source file: {} in {} ms", className, filePath,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    return generatedClass;
+  }
+
+  /**
+   * Compiles the generated class without touching the file system: the source is rendered into memory, javac
+   * writes the class bytes through an {@link InMemoryJavaFileManager}, and the class gets defined straight into
+   * the {@link InMemoryClassLoader}.
+   */
+  private Class compileClassInMemory(final String className, Set<String> knownUsedFullyQualifiedClassNameSet)
+      throws IOException, ClassNotFoundException {
+    long startTime = System.nanoTime();
+    JavaCompiler compiler = getSystemJavaCompiler();
+    List<InMemoryJavaFileManager.SourceFileObject> sources = InMemoryJavaFileManager.buildSources(codeModel);
+
+    String compileClassPathForCurrentClass = compileClassPath;
+    for (InMemoryJavaFileManager.SourceFileObject source : sources) {
+      compileClassPathForCurrentClass = Utils.inferCompileDependencies(compileClassPathForCurrentClass,
+          source.openReader(false), knownUsedFullyQualifiedClassNameSet);
+    }
+
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    boolean compileResult;
+    try (InMemoryJavaFileManager fileManager = new InMemoryJavaFileManager(
+        compiler.getStandardFileManager(diagnostics, null, null), (InMemoryClassLoader) classLoader)) {
+      LOGGER.info("Starting in-memory compilation for the generated class: {} ", className);
+      LOGGER.debug("The inferred compile class path for class: {} : {}", className, compileClassPathForCurrentClass);
+      // See compileClass for the reason of the compiler options
+      List<String> compilerArgs = new ArrayList<>(COMPILER_OPTIONS);
+      compilerArgs.addAll(Arrays.asList("-cp", compileClassPathForCurrentClass));
+      compileResult = compiler.getTask(null, fileManager, diagnostics, compilerArgs, null, sources).call();
+      compiledClasses = fileManager.getCompiledClasses();
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException("Unable to compile in memory:" + className, e);
+    }
+
+    if (!compileResult) {
+      throw new FastSerdeGeneratorException("Unable to compile in memory:" + className + ", diagnostics: "
+          + diagnostics.getDiagnostics());
+    }
+
+    Class generatedClass = classLoader.loadClass(generatedPackageName + "." + className);
+    LOGGER.info("Successfully compiled class {} in memory in {} ms", className,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    return generatedClass;
+  }
+
+  private Map<String, byte[]> readCompiledClasses(File classDir, String className) throws IOException {
+    Map<String, byte[]> classes = new LinkedHashMap<>();
+    File[] classFiles = classDir.listFiles(
+        (dir, name) -> name.equals(className + ".class") || (name.startsWith(className + "$") && name.endsWith(".class")));
+    if (classFiles != null) {
+      for (File classFile : classFiles) {
+        String fileName = classFile.getName();
+        classes.put(generatedPackageName + "." + fileName.substring(0, fileName.length() - ".class".length()),
+            Files.readAllBytes(classFile.toPath()));
+      }
+    }
+    return classes;
+  }
+
+  static JavaCompiler getSystemJavaCompiler() {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (null == compiler) {
+      /**
+       * If the above function returns null, it is very likely that the env setting: "JAVA_HOME" is not being setup properly.
+       */
+      throw new FastSerdeGeneratorException("Couldn't locate java compiler at runtime, please double check your env "
+          + "setting for 'JAVA_HOME', and here is the value for 'System.getProperty(\"java.home\")': " + System.getProperty("java.home"));
+    }
+    return compiler;
   }
 }
@@ -0,0 +1,248 @@
+package com.linkedin.avro.fastserde;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Coalesces the generation requests submitted over a short window and compiles all of them with a single javac
+ * invocation, instead of spinning up the compiler once per schema.
+ *
+ * Batches are generated and compiled on the executor of the {@link FastSerdeCompileScheduler} of the cache, so they
+ * are scheduled hottest-first along with the other compilation tasks; the timer of the window only hands them over.
+ * A batch takes the hottest pending requests first when more than {@code maxBatchSize} of them are pending.
+ *
+ * Generated classes are compiled in memory, each batch into its own {@link InMemoryClassLoader} so that the classes
+ * of a batch can be unloaded once none of them is used anymore. Each request completes
+ * individually: a request whose code can't be generated, compiled or instantiated fails on its own, and the rest
+ * of the batch is compiled again without it.
+ */
+class FastSerdeBatchCompiler {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FastSerdeBatchCompiler.class);
+
+  private final ClassLoader parentClassLoader;
+  private final String compileClassPath;
+  private final long windowMs;
+  private final int maxBatchSize;
+  private final FastSerdeCompileScheduler compileScheduler;
+  private final ScheduledExecutorService windowTimer;
+
+  private List<PendingRequest> pendingRequests = new ArrayList<>();
+
+  /**
+   * @param parentClassLoader parent of the class loaders receiving the compiled classes
+   * @param compileClassPath custom classpath as string, or null
+   * @param windowMs how long the first request of a batch waits for other requests before the batch gets compiled
+   * @param maxBatchSize number of pending requests which triggers the compilation before the end of the window, and
+   *                     maximum number of requests compiled together
+   * @param compileScheduler scheduler running the generation and compilation of the batches
+   */
+  FastSerdeBatchCompiler(ClassLoader parentClassLoader, String compileClassPath, long windowMs, int maxBatchSize,
+      FastSerdeCompileScheduler compileScheduler) {
+    this.parentClassLoader = parentClassLoader;
+    this.compileClassPath = compileClassPath == null ? "" : compileClassPath;
+    this.windowMs = windowMs;
+    this.maxBatchSize = maxBatchSize;
+    this.compileScheduler = compileScheduler;
+    this.windowTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "avro-fastserde-batch-window-thread");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Schedules the generation and compilation of the class of the given generator.
+   *
+   * @param generator generator whose code hasn't been generated yet
+   * @param hotness current hotness of the generated serde, see {@link FastSerdeCompileScheduler#executorFor(LongSupplier)}
+   * @param <T> type of the generated instance
+   * @return future completed with a new instance of the generated class
+   */
+  @SuppressWarnings("unchecked")
+  <T> CompletableFuture<T> submit(FastSerdeBase generator, LongSupplier hotness) {
+    PendingRequest request = new PendingRequest(generator, hotness);
+    boolean firstOfBatch;
+    boolean batchFull;
+    synchronized (this) {
+      pendingRequests.add(request);
+      firstOfBatch = pendingRequests.size() == 1;
+      batchFull = pendingRequests.size() >= maxBatchSize;
+    }
+    if (batchFull) {
+      scheduleBatch();
+    } else if (firstOfBatch) {
+      windowTimer.schedule(this::scheduleBatch, windowMs, TimeUnit.MILLISECONDS);
+    }
+    return (CompletableFuture<T>) request.future;
+  }
+
+  private void scheduleBatch() {
+    compileScheduler.executorFor(this::getPendingHotness).execute(this::compilePendingRequests);
+  }
+
+  /**
+   * @return hotness of the hottest pending request, which is the hotness of the next batch
+   */
+  private synchronized long getPendingHotness() {
+    long hotness = Long.MIN_VALUE;
+    for (PendingRequest request : pendingRequests) {
+      hotness = Math.max(hotness, request.hotness.getAsLong());
+    }
+    return hotness;
+  }
+
+  private void compilePendingRequests() {
+    List<PendingRequest> batch;
+    boolean requestsLeft;
+    synchronized (this) {
+      if (pendingRequests.isEmpty()) {
+        return;
+      }
+      if (pendingRequests.size() <= maxBatchSize) {
+        batch = pendingRequests;
+        pendingRequests = new ArrayList<>();
+      } else {
+        // hotness keeps changing while sorting, so the requests are sorted on a snapshot of it
+        Map<PendingRequest, Long> hotnessSnapshot = new HashMap<>();
+        pendingRequests.forEach(request -> hotnessSnapshot.put(request, request.hotness.getAsLong()));
+        pendingRequests.sort(Comparator.<PendingRequest, Long>comparing(hotnessSnapshot::get).reversed());
+        batch = new ArrayList<>(pendingRequests.subList(0, maxBatchSize));
+        pendingRequests = new ArrayList<>(pendingRequests.subList(maxBatchSize, pendingRequests.size()));
+      }
+      requestsLeft = !pendingRequests.isEmpty();
+    }
+    if (requestsLeft) {
+      scheduleBatch();
+    }
+
+    long startTime = System.nanoTime();
+    Map<InMemoryJavaFileManager.SourceFileObject, PendingRequest> sources = new LinkedHashMap<>();
+    String batchCompileClassPath = compileClassPath;
+    for (PendingRequest request : batch) {
+      try {
+        request.className = request.generator.generateClassCode();
+        for (InMemoryJavaFileManager.SourceFileObject source : InMemoryJavaFileManager.buildSources(request.generator.codeModel)) {
+          sources.put(source, request);
+          batchCompileClassPath = Utils.inferCompileDependencies(batchCompileClassPath, source.openReader(false),
+              request.generator.getUsedFullyQualifiedClassNameSet());
+        }
+      } catch (Exception e) {
+        request.future.completeExceptionally(new FastSerdeGeneratorException("Unable to generate:" + request.className, e));
+      }
+    }
+
+    InMemoryClassLoader classLoader = new InMemoryClassLoader(parentClassLoader);
+    Map<String, byte[]> compiledClasses = compile(sources, batchCompileClassPath, classLoader);
+
+    int compiledCount = 0;
+    for (PendingRequest request : new HashSet<>(sources.values())) {
+      if (request.future.isDone()) {
+        continue;
+      }
+      String fullClassName = request.generator.getGeneratedPackageName() + "." + request.className;
+      try {
+        Map<String, byte[]> requestClasses = new LinkedHashMap<>();
+        compiledClasses.forEach((className, classBytes) -> {
+          if (className.equals(fullClassName) || className.startsWith(fullClassName + "$")) {
+            requestClasses.put(className, classBytes);
+          }
+        });
+        request.generator.setCompiledClasses(requestClasses);
+        request.future.complete(request.generator.newGeneratedInstance(classLoader.loadClass(fullClassName)));
+        compiledCount++;
+      } catch (Exception | LinkageError e) {
+        request.future.completeExceptionally(new FastSerdeGeneratorException("Unable to load class: " + fullClassName, e));
+      }
+    }
+    LOGGER.info("Compiled {} out of {} classes in a single batch in {} ms", compiledCount, batch.size(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+  }
+
+  /**
+   * Compiles all the given sources together. The requests owning sources with compilation errors are failed and
+   * the remaining sources are compiled again, until a compilation succeeds or no source is left.
+   *
+   * @return byte code of the compiled classes, keyed by fully qualified class name
+   */
+  private Map<String, byte[]> compile(Map<InMemoryJavaFileManager.SourceFileObject, PendingRequest> sources,
+      String batchCompileClassPath, InMemoryClassLoader classLoader) {
+    JavaCompiler compiler;
+    try {
+      compiler = FastSerdeBase.getSystemJavaCompiler();
+    } catch (FastSerdeGeneratorException e) {
+      sources.values().forEach(request -> request.future.completeExceptionally(e));
+      return new LinkedHashMap<>();
+    }
+
+    while (!sources.isEmpty()) {
+      DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+      try (InMemoryJavaFileManager fileManager = new InMemoryJavaFileManager(
+          compiler.getStandardFileManager(diagnostics, null, null), classLoader)) {
+        List<String> compilerArgs = new ArrayList<>(FastSerdeBase.COMPILER_OPTIONS);
+        compilerArgs.add("-cp");
+        compilerArgs.add(batchCompileClassPath);
+        if (compiler.getTask(null, fileManager, diagnostics, compilerArgs, null, sources.keySet()).call()) {
+          return fileManager.getCompiledClasses();
+        }
+      } catch (Exception e) {
+        FastSerdeGeneratorException exception = new FastSerdeGeneratorException("Unable to compile batch", e);
+        sources.values().forEach(request -> request.future.completeExceptionally(exception));
+        return new LinkedHashMap<>();
+      }
+
+      Set<PendingRequest> failedRequests = new HashSet<>();
+      for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+        PendingRequest request = sources.get(diagnostic.getSource());
+        if (diagnostic.getKind() == Diagnostic.Kind.ERROR && request != null) {
+          failedRequests.add(request);
+          request.future.completeExceptionally(
+              new FastSerdeGeneratorException("Unable to compile:" + request.className + ", diagnostic: " + diagnostic));
+        }
+      }
+      if (failedRequests.isEmpty()) {
+        FastSerdeGeneratorException exception =
+            new FastSerdeGeneratorException("Unable to compile batch, diagnostics: " + diagnostics.getDiagnostics());
+        sources.values().forEach(request -> request.future.completeExceptionally(exception));
+        return new LinkedHashMap<>();
+      }
+      LOGGER.warn("{} classes failed to compile, compiling the rest of the batch again", failedRequests.size());
+      for (Iterator<PendingRequest> iterator = sources.values().iterator(); iterator.hasNext(); ) {
+        if (failedRequests.contains(iterator.next())) {
+          iterator.remove();
+        }
+      }
+    }
+    return new LinkedHashMap<>();
+  }
+
+  private static final class PendingRequest {
+    private final FastSerdeBase generator;
+    private final LongSupplier hotness;
+    private final CompletableFuture<Object> future = new CompletableFuture<>();
+    private String className;
+
+    private PendingRequest(FastSerdeBase generator, LongSupplier hotness) {
+      this.generator = generator;
+      this.hotness = hotness;
+    }
+  }
+}
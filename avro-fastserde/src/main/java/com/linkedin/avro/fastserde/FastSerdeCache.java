@@ -10,13 +10,16 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Map;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 import org.apache.avro.Schema;
@@ -24,6 +27,7 @@ import org.apache.avro.generic.ColdGenericDatumReader;
 import org.apache.avro.generic.ColdSpecificDatumReader;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.IndexedRecord;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.Decoder;
@@ -46,25 +50,74 @@ public final class FastSerdeCache {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(FastSerdeCache.class);
 
+  static final String SPECIFIC_DESERIALIZER = "SpecificDeserializer";
+  static final String GENERIC_DESERIALIZER = "GenericDeserializer";
+  static final String SPECIFIC_SERIALIZER = "SpecificSerializer";
+  static final String GENERIC_SERIALIZER = "GenericSerializer";
+  static final String GENERIC_FIELD_DESERIALIZER = "GenericFieldDeserializer";
+
   private static volatile FastSerdeCache _INSTANCE;
 
-  private final Map<String, FastDeserializer<?>> fastSpecificRecordDeserializersCache =
-      new FastAvroConcurrentHashMap<>();
-  private final Map<String, FastDeserializer<?>> fastGenericRecordDeserializersCache =
-      new FastAvroConcurrentHashMap<>();
+  private final FastAvroLruCache<SchemaKey, FastDeserializer<?>> fastSpecificRecordDeserializersCache;
+  private final FastAvroLruCache<SchemaKey, FastDeserializer<?>> fastGenericRecordDeserializersCache;
+
+  private final FastAvroLruCache<SchemaKey, FastSerializer<?>> fastSpecificRecordSerializersCache;
+  private final FastAvroLruCache<SchemaKey, FastSerializer<?>> fastGenericRecordSerializersCache;
+
+  private final FastAvroLruCache<SchemaKey, FastFieldDeserializer<?>> fastGenericFieldDeserializersCache;
+
+  private final FastAvroLruCache<FilterKey, FastDeserializer<?>> fastGenericFilteredDeserializersCache;
 
-  private final Map<String, FastSerializer<?>> fastSpecificRecordSerializersCache =
-      new FastAvroConcurrentHashMap<>();
-  private final Map<String, FastSerializer<?>> fastGenericRecordSerializersCache =
-      new FastAvroConcurrentHashMap<>();
+  private final FastAvroLruCache<SchemaKey, FastSkipper> fastSkippersCache;
+
+  private final FastAvroLruCache<SchemaKey, FastColumnarDeserializer> fastColumnarDeserializersCache;
+
+  /**
+   * Projected reader schemas, see {@link #getProjectedSchema(Schema, Set)}.
+   */
+  private final FastAvroLruCache<ProjectionKey, Schema> projectedReaderSchemas;
+
+  /**
+   * Whether the caches above are bounded, in which case every generated class gets its own class loader,
+   * so that evicted serdes can be unloaded.
+   */
+  private final boolean bounded;
 
   private Executor executor;
 
+  /**
+   * Directory holding the generated sources and classes, or null when compiling in memory.
+   */
   private File classesDir;
   private ClassLoader classLoader;
 
   private Optional<String> compileClassPath;
 
+  /**
+   * Persistent store of compiled classes, or null when compiled classes should not outlive the JVM.
+   */
+  private final FastSerdeClassStore classStore;
+
+  /**
+   * Index of the classes generated at build time, looked up before compiling anything.
+   */
+  private final FastSerdeAotIndex aotIndex;
+
+  /**
+   * Compiles the pending generation requests together, or null when each request is compiled on its own.
+   */
+  private final FastSerdeBatchCompiler batchCompiler;
+
+  /**
+   * Runs the compilation tasks on {@link #executor}, hottest serde first.
+   */
+  private final FastSerdeCompileScheduler compileScheduler;
+
+  /**
+   * Number of invocations of a cold serde after which its fast counterpart gets compiled.
+   */
+  private final long compileThreshold;
+
   /**
    *
    * @param compileClassPathSupplier
@@ -102,30 +155,72 @@ public final class FastSerdeCache {
     this.compileClassPath = Optional.ofNullable(compileClassPath);
   }
 
+  /**
+   *
+   * @param executorService
+   *            customized {@link Executor} used by serializer/deserializer compile threads
+   * @param compileClassPath
+   *            custom classpath as string
+   * @param compileInMemory
+   *            whether the generated classes should be compiled in memory and defined straight into a dedicated
+   *            {@link ClassLoader} instead of going through a temporary directory
+   */
+  public FastSerdeCache(Executor executorService, String compileClassPath, boolean compileInMemory) {
+    this(new Builder().setExecutor(executorService).setCompileClassPath(compileClassPath)
+        .setCompileInMemory(compileInMemory));
+  }
+
   /**
    *
    * @param executorService
    *            customized {@link Executor} used by serializer/deserializer compile threads
    */
   public FastSerdeCache(Executor executorService) {
-    this.executor = executorService != null ? executorService : getDefaultExecutor();
-
-    try {
-      Path classesPath = Files.createTempDirectory("generated");
-      classesDir = classesPath.toFile();
-      classLoader =
-          URLClassLoader.newInstance(new URL[]{classesDir.toURI().toURL()}, FastSerdeCache.class.getClassLoader());
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
-
-    this.compileClassPath = Optional.empty();
+    this(new Builder().setExecutor(executorService));
   }
 
   private FastSerdeCache() {
     this((Executor) null);
   }
 
+  private FastSerdeCache(Builder builder) {
+    this.executor = builder.executor != null ? builder.executor : getDefaultExecutor();
+    this.compileScheduler = new FastSerdeCompileScheduler(executor);
+    this.compileThreshold = builder.compileThreshold;
+    this.bounded = builder.maxCacheSize > 0;
+    this.fastSpecificRecordDeserializersCache = new FastAvroLruCache<>(builder.maxCacheSize);
+    this.fastGenericRecordDeserializersCache = new FastAvroLruCache<>(builder.maxCacheSize);
+    this.fastSpecificRecordSerializersCache = new FastAvroLruCache<>(builder.maxCacheSize);
+    this.fastGenericRecordSerializersCache = new FastAvroLruCache<>(builder.maxCacheSize);
+    this.fastGenericFieldDeserializersCache = new FastAvroLruCache<>(builder.maxCacheSize);
+    this.fastGenericFilteredDeserializersCache = new FastAvroLruCache<>(builder.maxCacheSize);
+    this.fastSkippersCache = new FastAvroLruCache<>(builder.maxCacheSize);
+    this.fastColumnarDeserializersCache = new FastAvroLruCache<>(builder.maxCacheSize);
+    this.projectedReaderSchemas = new FastAvroLruCache<>(builder.maxCacheSize);
+
+    if (builder.compileInMemory || builder.batchCompileWindowMs > 0) {
+      classLoader = new InMemoryClassLoader(FastSerdeCache.class.getClassLoader());
+    } else {
+      try {
+        Path classesPath = Files.createTempDirectory("generated");
+        classesDir = classesPath.toFile();
+        classLoader =
+            URLClassLoader.newInstance(new URL[]{classesDir.toURI().toURL()}, FastSerdeCache.class.getClassLoader());
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    this.compileClassPath = Optional.ofNullable(builder.compileClassPath);
+    this.classStore = builder.classStoreDir != null ? new FastSerdeClassStore(builder.classStoreDir) : null;
+    if (classStore != null) {
+      executor.execute(classStore::pruneStaleVersions);
+    }
+    this.aotIndex = FastSerdeAotIndex.load(builder.aotClassLoader);
+    this.batchCompiler = builder.batchCompileWindowMs > 0 ? new FastSerdeBatchCompiler(FastSerdeCache.class.getClassLoader(),
+        builder.compileClassPath, builder.batchCompileWindowMs, builder.batchCompileMaxSize, compileScheduler) : null;
+  }
+
   /**
    * Gets default {@link FastSerdeCache} instance. Default instance classpath can be customized via
    * {@value #CLASSPATH} or {@value #CLASSPATH_SUPPLIER} system properties.
@@ -202,18 +297,21 @@ public final class FastSerdeCache {
    * @return specific-class aware avro {@link FastDeserializer}
    */
   public FastDeserializer<?> getFastSpecificDeserializer(Schema writerSchema, Schema readerSchema) {
-    String schemaKey = getSchemaKey(writerSchema, readerSchema);
+    SchemaKey schemaKey = getSchemaKey(writerSchema, readerSchema);
     FastDeserializer<?> deserializer = fastSpecificRecordDeserializersCache.get(schemaKey);
 
     if (deserializer == null) {
-      deserializer = fastSpecificRecordDeserializersCache.putIfAbsent(schemaKey,
-          new FastDeserializerWithAvroSpecificImpl<>(writerSchema, readerSchema));
+      FastDeserializer<?> indexedDeserializer = loadIndexedDeserializer(SPECIFIC_DESERIALIZER, writerSchema, readerSchema);
+      FastSerdeCompileScheduler.InvocationCounter invocationCounter = new FastSerdeCompileScheduler.InvocationCounter();
+      deserializer = fastSpecificRecordDeserializersCache.putIfAbsent(schemaKey, indexedDeserializer != null ? indexedDeserializer
+          : new FastDeserializerWithAvroSpecificImpl<>(writerSchema, readerSchema, invocationCounter));
       if (deserializer == null) {
         deserializer = fastSpecificRecordDeserializersCache.get(schemaKey);
-        CompletableFuture.supplyAsync(() -> buildSpecificDeserializer(writerSchema, readerSchema), executor)
-            .thenAccept(d -> {
-              fastSpecificRecordDeserializersCache.put(schemaKey, d);
-            });
+        if (indexedDeserializer == null) {
+          replaceColdSerde(fastSpecificRecordDeserializersCache, schemaKey, invocationCounter,
+              () -> loadStoredDeserializer(SPECIFIC_DESERIALIZER, writerSchema, readerSchema),
+              () -> buildSpecificDeserializerAsync(writerSchema, readerSchema, invocationCounter::get));
+        }
       }
     }
 
@@ -230,18 +328,206 @@ public final class FastSerdeCache {
    * @return generic-class aware avro {@link FastDeserializer}
    */
   public FastDeserializer<?> getFastGenericDeserializer(Schema writerSchema, Schema readerSchema) {
-    String schemaKey = getSchemaKey(writerSchema, readerSchema);
+    SchemaKey schemaKey = getSchemaKey(writerSchema, readerSchema);
     FastDeserializer<?> deserializer = fastGenericRecordDeserializersCache.get(schemaKey);
 
     if (deserializer == null) {
-      deserializer = fastGenericRecordDeserializersCache.putIfAbsent(schemaKey,
-          new FastDeserializerWithAvroGenericImpl(writerSchema, readerSchema));
+      FastDeserializer<?> indexedDeserializer = loadIndexedDeserializer(GENERIC_DESERIALIZER, writerSchema, readerSchema);
+      FastSerdeCompileScheduler.InvocationCounter invocationCounter = new FastSerdeCompileScheduler.InvocationCounter();
+      deserializer = fastGenericRecordDeserializersCache.putIfAbsent(schemaKey, indexedDeserializer != null ? indexedDeserializer
+          : new FastDeserializerWithAvroGenericImpl<>(writerSchema, readerSchema, invocationCounter));
       if (deserializer == null) {
         deserializer = fastGenericRecordDeserializersCache.get(schemaKey);
-        CompletableFuture.supplyAsync(() -> buildGenericDeserializer(writerSchema, readerSchema), executor)
-            .thenAccept(d -> {
-              fastGenericRecordDeserializersCache.put(schemaKey, d);
-            });
+        if (indexedDeserializer == null) {
+          replaceColdSerde(fastGenericRecordDeserializersCache, schemaKey, invocationCounter,
+              () -> loadStoredDeserializer(GENERIC_DESERIALIZER, writerSchema, readerSchema),
+              () -> buildGenericDeserializerAsync(writerSchema, readerSchema, invocationCounter::get));
+        }
+      }
+    }
+    return deserializer;
+  }
+
+  /**
+   * Generates if needed and returns generic-class aware avro {@link FastDeserializer} decoding only the given fields,
+   * see {@link FastSerdeProjection}. The other fields are skipped, and missing from the deserialized records.
+   *
+   * @param writerSchema
+   *            {@link Schema} of written data
+   * @param readerSchema
+   *            {@link Schema} intended to be used during deserialization
+   * @param projectedFieldPaths
+   *            dotted paths of the fields to decode
+   * @return generic-class aware avro {@link FastDeserializer}, whose reader schema is the projected one
+   */
+  public FastDeserializer<?> getFastGenericDeserializer(Schema writerSchema, Schema readerSchema,
+      Set<String> projectedFieldPaths) {
+    return getFastGenericDeserializer(writerSchema, getProjectedSchema(readerSchema, projectedFieldPaths));
+  }
+
+  /**
+   * Generates if needed and returns generic-class aware avro {@link FastDeserializer} only returning the records
+   * accepted by the given filter, and null for the others, which are skipped as soon as a condition of the filter
+   * fails. Until it is generated, the records are fully deserialized by vanilla avro and filtered afterwards.
+   *
+   * @param writerSchema
+   *            {@link Schema} of written data
+   * @param readerSchema
+   *            record {@link Schema} intended to be used during deserialization
+   * @param filter
+   *            filter over the top level fields of the reader schema
+   * @return generic-class aware avro {@link FastDeserializer}, returning null for the rejected records
+   * @throws IllegalArgumentException if the reader schema is not a record or a filtered field is missing from it
+   */
+  public FastDeserializer<?> getFastGenericDeserializer(Schema writerSchema, Schema readerSchema,
+      FastSerdeFilter filter) {
+    FilterKey filterKey = new FilterKey(getSchemaKey(writerSchema, readerSchema), filter);
+    FastDeserializer<?> deserializer = fastGenericFilteredDeserializersCache.get(filterKey);
+
+    if (deserializer == null) {
+      if (!Schema.Type.RECORD.equals(readerSchema.getType())) {
+        throw new IllegalArgumentException("Only records can be filtered, got: " + readerSchema.getType());
+      }
+      filter.getFieldNames().forEach(fieldName -> FastSerdeFilter.getField(readerSchema, fieldName));
+      FastSerdeCompileScheduler.InvocationCounter invocationCounter = new FastSerdeCompileScheduler.InvocationCounter();
+      deserializer = fastGenericFilteredDeserializersCache.putIfAbsent(filterKey, new FilteringDeserializer<>(
+          new FastDeserializerWithAvroGenericImpl<>(writerSchema, readerSchema, invocationCounter), filter));
+      if (deserializer == null) {
+        deserializer = fastGenericFilteredDeserializersCache.get(filterKey);
+        invocationCounter.onThreshold(compileThreshold,
+            () -> CompletableFuture.supplyAsync(() -> buildGenericFilteredDeserializer(writerSchema, readerSchema, filter),
+                compileScheduler.executorFor(invocationCounter::get))
+                .thenApply(d -> {
+                  fastGenericFilteredDeserializersCache.put(filterKey, d);
+                  return d;
+                }));
+      }
+    }
+    return deserializer;
+  }
+
+  /**
+   * Returns the projection of the given reader schema, the same instance for a given reader schema and set of field
+   * paths as long as it isn't evicted from a bounded cache, so that its fingerprint is only computed once.
+   *
+   * @param readerSchema
+   *            record {@link Schema} to project
+   * @param projectedFieldPaths
+   *            dotted paths of the fields to keep
+   * @return projected reader schema
+   * @throws IllegalArgumentException if a path doesn't match any field
+   */
+  public Schema getProjectedSchema(Schema readerSchema, Set<String> projectedFieldPaths) {
+    ProjectionKey projectionKey = new ProjectionKey(getSchemaFingerprint(readerSchema), projectedFieldPaths);
+    Schema projectedSchema = projectedReaderSchemas.get(projectionKey);
+    if (projectedSchema == null) {
+      projectedSchema = FastSerdeProjection.project(readerSchema, projectedFieldPaths);
+      // keyed by a copy, the given set could be modified afterwards
+      Schema existingSchema = projectedReaderSchemas.putIfAbsent(
+          new ProjectionKey(projectionKey.readerSchemaFingerprint,
+              Collections.unmodifiableSet(new HashSet<>(projectedFieldPaths))), projectedSchema);
+      if (existingSchema != null) {
+        projectedSchema = existingSchema;
+      }
+    }
+    return projectedSchema;
+  }
+
+  /**
+   * Generates if needed and returns a generic-class aware avro {@link FastFieldDeserializer}, which backs the
+   * {@link LazyGenericRecord}s read with the given schema.
+   *
+   * @param schema
+   *            record {@link Schema} of both written data and deserialized records
+   * @return generic-class aware avro {@link FastFieldDeserializer}
+   */
+  public FastFieldDeserializer<?> getFastGenericFieldDeserializer(Schema schema) {
+    SchemaKey schemaKey = getSchemaKey(schema, schema);
+    FastFieldDeserializer<?> deserializer = fastGenericFieldDeserializersCache.get(schemaKey);
+
+    if (deserializer == null) {
+      FastDeserializer<?> indexedDeserializer = loadIndexedDeserializer(GENERIC_FIELD_DESERIALIZER, schema, schema);
+      FastSerdeCompileScheduler.InvocationCounter invocationCounter = new FastSerdeCompileScheduler.InvocationCounter();
+      deserializer = fastGenericFieldDeserializersCache.putIfAbsent(schemaKey,
+          indexedDeserializer instanceof FastFieldDeserializer ? (FastFieldDeserializer<?>) indexedDeserializer
+              : new FastFieldDeserializerWithAvroGenericImpl<>(schema, invocationCounter));
+      if (deserializer == null) {
+        deserializer = fastGenericFieldDeserializersCache.get(schemaKey);
+        if (!(indexedDeserializer instanceof FastFieldDeserializer)) {
+          replaceColdSerde(fastGenericFieldDeserializersCache, schemaKey, invocationCounter, () -> {
+            FastDeserializer<?> storedDeserializer = loadStoredDeserializer(GENERIC_FIELD_DESERIALIZER, schema, schema);
+            return storedDeserializer instanceof FastFieldDeserializer ? (FastFieldDeserializer<?>) storedDeserializer : null;
+          }, () -> CompletableFuture.supplyAsync(() -> buildGenericFieldDeserializer(schema),
+              compileScheduler.executorFor(invocationCounter::get)));
+        }
+      }
+    }
+    return deserializer;
+  }
+
+  /**
+   * Generates if needed and returns a {@link FastSkipper}, which skips the data written with the given schema
+   * without materializing it, e.g. to validate payloads or to find the boundaries of records in a buffer.
+   *
+   * @param writerSchema
+   *            {@link Schema} of written data
+   * @return {@link FastSkipper} of the given schema
+   */
+  public FastSkipper getFastSkipper(Schema writerSchema) {
+    SchemaKey schemaKey = getSchemaKey(writerSchema, writerSchema);
+    FastSkipper skipper = fastSkippersCache.get(schemaKey);
+
+    if (skipper == null) {
+      FastSerdeCompileScheduler.InvocationCounter invocationCounter = new FastSerdeCompileScheduler.InvocationCounter();
+      skipper = fastSkippersCache.putIfAbsent(schemaKey,
+          new FastSkipperWithAvroGenericImpl(writerSchema, invocationCounter));
+      if (skipper == null) {
+        skipper = fastSkippersCache.get(schemaKey);
+        // the skippers of other types have nothing to gain from being generated
+        if (isSupportedForFastDeserializer(writerSchema.getType())) {
+          invocationCounter.onThreshold(compileThreshold,
+              () -> CompletableFuture.supplyAsync(() -> buildSkipper(writerSchema),
+                  compileScheduler.executorFor(invocationCounter::get))
+                  .thenApply(s -> {
+                    fastSkippersCache.put(schemaKey, s);
+                    return s;
+                  }));
+        }
+      }
+    }
+    return skipper;
+  }
+
+  /**
+   * Generates if needed and returns a {@link FastColumnarDeserializer}, which appends the records written with the
+   * given schema to the columns of a {@link ColumnBatch} rather than materializing them.
+   *
+   * @param writerSchema
+   *            record {@link Schema} of written data, which the batches must be created with
+   * @return {@link FastColumnarDeserializer} of the given schema
+   * @throws IllegalArgumentException if the schema isn't a record schema
+   */
+  public FastColumnarDeserializer getFastColumnarDeserializer(Schema writerSchema) {
+    if (!Schema.Type.RECORD.equals(writerSchema.getType())) {
+      throw new IllegalArgumentException("Only records can be deserialized into columns, got: "
+          + writerSchema.getType());
+    }
+    SchemaKey schemaKey = getSchemaKey(writerSchema, writerSchema);
+    FastColumnarDeserializer deserializer = fastColumnarDeserializersCache.get(schemaKey);
+
+    if (deserializer == null) {
+      FastSerdeCompileScheduler.InvocationCounter invocationCounter = new FastSerdeCompileScheduler.InvocationCounter();
+      deserializer = fastColumnarDeserializersCache.putIfAbsent(schemaKey,
+          new FastColumnarDeserializerWithAvroGenericImpl(writerSchema, invocationCounter));
+      if (deserializer == null) {
+        deserializer = fastColumnarDeserializersCache.get(schemaKey);
+        invocationCounter.onThreshold(compileThreshold,
+            () -> CompletableFuture.supplyAsync(() -> buildColumnarDeserializer(writerSchema),
+                compileScheduler.executorFor(invocationCounter::get))
+                .thenApply(d -> {
+                  fastColumnarDeserializersCache.put(schemaKey, d);
+                  return d;
+                }));
       }
     }
     return deserializer;
@@ -255,16 +541,19 @@ public final class FastSerdeCache {
    * @return specific-class aware avro {@link FastSerializer}
    */
   public FastSerializer<?> getFastSpecificSerializer(Schema schema) {
-    String schemaKey = getSchemaKey(schema, schema);
+    SchemaKey schemaKey = getSchemaKey(schema, schema);
     FastSerializer<?> serializer = fastSpecificRecordSerializersCache.get(schemaKey);
     if (serializer == null) {
-      serializer =
-          fastSpecificRecordSerializersCache.putIfAbsent(schemaKey, new FastSerializerWithAvroSpecificImpl(schema));
+      FastSerializer<?> indexedSerializer = loadIndexedSerializer(SPECIFIC_SERIALIZER, schema);
+      FastSerdeCompileScheduler.InvocationCounter invocationCounter = new FastSerdeCompileScheduler.InvocationCounter();
+      serializer = fastSpecificRecordSerializersCache.putIfAbsent(schemaKey,
+          indexedSerializer != null ? indexedSerializer : new FastSerializerWithAvroSpecificImpl<>(schema, invocationCounter));
       if (serializer == null) {
         serializer = fastSpecificRecordSerializersCache.get(schemaKey);
-        CompletableFuture.supplyAsync(() -> buildSpecificSerializer(schema), executor).thenAccept(s -> {
-          fastSpecificRecordSerializersCache.put(schemaKey, s);
-        });
+        if (indexedSerializer == null) {
+          replaceColdSerde(fastSpecificRecordSerializersCache, schemaKey, invocationCounter,
+              () -> loadStoredSerializer(SPECIFIC_SERIALIZER, schema), () -> buildSpecificSerializerAsync(schema, invocationCounter::get));
+        }
       }
     }
 
@@ -279,25 +568,125 @@ public final class FastSerdeCache {
    * @return generic-class aware avro {@link FastSerializer}
    */
   public FastSerializer<?> getFastGenericSerializer(Schema schema) {
-    String schemaKey = getSchemaKey(schema, schema);
+    SchemaKey schemaKey = getSchemaKey(schema, schema);
 
     FastSerializer<?> serializer = fastGenericRecordSerializersCache.get(schemaKey);
     if (serializer == null) {
-      serializer =
-          fastGenericRecordSerializersCache.putIfAbsent(schemaKey, new FastSerializerWithAvroGenericImpl(schema));
+      FastSerializer<?> indexedSerializer = loadIndexedSerializer(GENERIC_SERIALIZER, schema);
+      FastSerdeCompileScheduler.InvocationCounter invocationCounter = new FastSerdeCompileScheduler.InvocationCounter();
+      serializer = fastGenericRecordSerializersCache.putIfAbsent(schemaKey,
+          indexedSerializer != null ? indexedSerializer : new FastSerializerWithAvroGenericImpl<>(schema, invocationCounter));
       if (serializer == null) {
         serializer = fastGenericRecordSerializersCache.get(schemaKey);
-        CompletableFuture.supplyAsync(() -> buildGenericSerializer(schema), executor).thenAccept(s -> {
-          fastGenericRecordSerializersCache.put(schemaKey, s);
-        });
+        if (indexedSerializer == null) {
+          replaceColdSerde(fastGenericRecordSerializersCache, schemaKey, invocationCounter,
+              () -> loadStoredSerializer(GENERIC_SERIALIZER, schema), () -> buildGenericSerializerAsync(schema, invocationCounter::get));
+        }
       }
     }
     return serializer;
   }
 
-  private String getSchemaKey(Schema writerSchema, Schema readerSchema) {
-    return String.valueOf(Math.abs(getSchemaFingerprint(writerSchema))) + Math.abs(
-        getSchemaFingerprint(readerSchema));
+  private SchemaKey getSchemaKey(Schema writerSchema, Schema readerSchema) {
+    return new SchemaKey(getSchemaFingerprint(writerSchema), getSchemaFingerprint(readerSchema));
+  }
+
+  /**
+   * Cache key made of the fingerprints of the writer and reader schemas.
+   *
+   * Unlike a string concatenation of the fingerprints, building and hashing this key doesn't copy anything, and
+   * since it never escapes a lookup, the JIT can usually scalar-replace it so that hot lookups don't allocate.
+   */
+  static final class SchemaKey {
+    private final long writerSchemaFingerprint;
+    private final long readerSchemaFingerprint;
+    private final int hashCode;
+
+    SchemaKey(long writerSchemaFingerprint, long readerSchemaFingerprint) {
+      this.writerSchemaFingerprint = writerSchemaFingerprint;
+      this.readerSchemaFingerprint = readerSchemaFingerprint;
+      long hash = writerSchemaFingerprint * 0x9E3779B97F4A7C15L + readerSchemaFingerprint;
+      this.hashCode = (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SchemaKey)) {
+        return false;
+      }
+      SchemaKey that = (SchemaKey) o;
+      return writerSchemaFingerprint == that.writerSchemaFingerprint
+          && readerSchemaFingerprint == that.readerSchemaFingerprint;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /**
+   * Key of a filtered deserializer, made of the key of its schemas and of its filter.
+   */
+  private static final class FilterKey {
+    private final SchemaKey schemaKey;
+    private final FastSerdeFilter filter;
+
+    private FilterKey(SchemaKey schemaKey, FastSerdeFilter filter) {
+      this.schemaKey = schemaKey;
+      this.filter = filter;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof FilterKey)) {
+        return false;
+      }
+      FilterKey that = (FilterKey) o;
+      return schemaKey.equals(that.schemaKey) && filter.equals(that.filter);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * schemaKey.hashCode() + filter.hashCode();
+    }
+  }
+
+  /**
+   * Key of a projected reader schema, made of the fingerprint of the original reader schema and of the paths of the
+   * projected fields.
+   */
+  private static final class ProjectionKey {
+    private final long readerSchemaFingerprint;
+    private final Set<String> fieldPaths;
+
+    private ProjectionKey(long readerSchemaFingerprint, Set<String> fieldPaths) {
+      this.readerSchemaFingerprint = readerSchemaFingerprint;
+      this.fieldPaths = fieldPaths;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ProjectionKey)) {
+        return false;
+      }
+      ProjectionKey that = (ProjectionKey) o;
+      return readerSchemaFingerprint == that.readerSchemaFingerprint && fieldPaths.equals(that.fieldPaths);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Long.hashCode(readerSchemaFingerprint) + fieldPaths.hashCode();
+    }
   }
 
   /**
@@ -309,10 +698,15 @@ public final class FastSerdeCache {
    * @return a fast deserializer
    */
   public FastDeserializer<?> buildFastSpecificDeserializer(Schema writerSchema, Schema readerSchema) {
+    FastDeserializer<?> precompiledDeserializer = loadPrecompiledDeserializer(SPECIFIC_DESERIALIZER, writerSchema, readerSchema);
+    if (precompiledDeserializer != null) {
+      return precompiledDeserializer;
+    }
     FastSpecificDeserializerGenerator<?> generator =
-        new FastSpecificDeserializerGenerator<>(writerSchema, readerSchema, classesDir, classLoader,
+        new FastSpecificDeserializerGenerator<>(writerSchema, readerSchema, classesDir, newGeneratorClassLoader(),
             compileClassPath.orElseGet(() -> null));
     FastDeserializer<?> fastDeserializer = generator.generateDeserializer();
+    saveToClassStore(SPECIFIC_DESERIALIZER, writerSchema, readerSchema, fastDeserializer, generator);
 
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Generated classes dir: {} and generation of specific FastDeserializer is done for writer schema of type: {} with fingerprint: {}"
@@ -336,23 +730,44 @@ public final class FastSerdeCache {
    * @return
    */
   private FastDeserializer<?> buildSpecificDeserializer(Schema writerSchema, Schema readerSchema) {
+    Throwable failure = null;
     try {
       return buildFastSpecificDeserializer(writerSchema, readerSchema);
     } catch (FastDeserializerGeneratorException e) {
       LOGGER.warn("Deserializer generation exception when generating specific FastDeserializer for writer schema: "
               + "[\n{}\n] and reader schema: [\n{}\n]", writerSchema.toString(true), readerSchema.toString(true), e);
+      failure = e;
     } catch (Exception e) {
       LOGGER.warn("Deserializer class instantiation exception", e);
+      failure = e;
     }
 
-    return new FastDeserializer<Object>() {
-      private DatumReader datumReader = new SpecificDatumReader<>(writerSchema, readerSchema);
+    return newSpecificDatumReaderDeserializer(writerSchema, readerSchema, failure);
+  }
 
-      @Override
-      public Object deserialize(Object reuse, Decoder d) throws IOException {
-        return datumReader.read(reuse, d);
+  private CompletableFuture<FastDeserializer<?>> buildSpecificDeserializerAsync(Schema writerSchema,
+      Schema readerSchema, LongSupplier hotness) {
+    if (batchCompiler == null) {
+      return CompletableFuture.supplyAsync(() -> buildSpecificDeserializer(writerSchema, readerSchema),
+          compileScheduler.executorFor(hotness));
+    }
+    FastSpecificDeserializerGenerator<?> generator =
+        new FastSpecificDeserializerGenerator<>(writerSchema, readerSchema, classesDir, classLoader,
+            compileClassPath.orElseGet(() -> null));
+    return batchCompiler.<FastDeserializer<?>>submit(generator, hotness).handle((fastDeserializer, e) -> {
+      if (e != null) {
+        LOGGER.warn("Deserializer generation exception when generating specific FastDeserializer for writer schema: "
+            + "[\n{}\n] and reader schema: [\n{}\n]", writerSchema.toString(true), readerSchema.toString(true), e);
+        return newSpecificDatumReaderDeserializer(writerSchema, readerSchema, e);
       }
-    };
+      saveToClassStore(SPECIFIC_DESERIALIZER, writerSchema, readerSchema, fastDeserializer, generator);
+      return fastDeserializer;
+    });
+  }
+
+  private static FastDeserializer<?> newSpecificDatumReaderDeserializer(Schema writerSchema, Schema readerSchema,
+      Throwable failure) {
+    return new FallbackDeserializer(new SpecificDatumReader<>(writerSchema, readerSchema), failure);
   }
 
   /**
@@ -364,11 +779,16 @@ public final class FastSerdeCache {
    * @return a fast deserializer
    */
   public FastDeserializer<?> buildFastGenericDeserializer(Schema writerSchema, Schema readerSchema) {
+    FastDeserializer<?> precompiledDeserializer = loadPrecompiledDeserializer(GENERIC_DESERIALIZER, writerSchema, readerSchema);
+    if (precompiledDeserializer != null) {
+      return precompiledDeserializer;
+    }
     FastGenericDeserializerGenerator<?> generator =
-        new FastGenericDeserializerGenerator<>(writerSchema, readerSchema, classesDir, classLoader,
+        new FastGenericDeserializerGenerator<>(writerSchema, readerSchema, classesDir, newGeneratorClassLoader(),
             compileClassPath.orElseGet(() -> null));
 
     FastDeserializer<?> fastDeserializer = generator.generateDeserializer();
+    saveToClassStore(GENERIC_DESERIALIZER, writerSchema, readerSchema, fastDeserializer, generator);
 
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Generated classes dir: {} and generation of generic FastDeserializer is done for writer schema of type: {} with fingerprint: {}"
@@ -384,6 +804,150 @@ public final class FastSerdeCache {
     return fastDeserializer;
   }
 
+  /**
+   * This function will generate a fast generic field deserializer, and it will throw exception if anything wrong
+   * happens.
+   *
+   * @param schema record schema of both written data and deserialized records
+   * @return a fast field deserializer
+   */
+  public FastFieldDeserializer<?> buildFastGenericFieldDeserializer(Schema schema) {
+    FastDeserializer<?> precompiledDeserializer = loadPrecompiledDeserializer(GENERIC_FIELD_DESERIALIZER, schema, schema);
+    if (precompiledDeserializer instanceof FastFieldDeserializer) {
+      return (FastFieldDeserializer<?>) precompiledDeserializer;
+    }
+    FastGenericFieldDeserializerGenerator<?> generator =
+        new FastGenericFieldDeserializerGenerator<>(schema, classesDir, newGeneratorClassLoader(),
+            compileClassPath.orElseGet(() -> null));
+
+    FastFieldDeserializer<?> fastDeserializer = generator.generateFieldDeserializer();
+    saveToClassStore(GENERIC_FIELD_DESERIALIZER, schema, schema, fastDeserializer, generator);
+
+    LOGGER.info("Generated classes dir: {} and generation of generic FastFieldDeserializer is done for schema of type: {}"
+        + " with fingerprint: {}", classesDir, getSchemaFullName(schema), getSchemaFingerprint(schema));
+
+    return fastDeserializer;
+  }
+
+  /**
+   * This function will generate a fast generic deserializer only returning the records accepted by the given
+   * filter, and it will throw exception if anything wrong happens. Filtered deserializers are neither precompiled
+   * nor stored, since their classes depend on the filter.
+   *
+   * @param writerSchema writer schema
+   * @param readerSchema reader schema
+   * @param filter filter over the top level fields of the reader schema
+   * @return a fast deserializer, returning null for the rejected records
+   */
+  public FastDeserializer<?> buildFastGenericFilteredDeserializer(Schema writerSchema, Schema readerSchema,
+      FastSerdeFilter filter) {
+    FastGenericDeserializerGenerator<?> generator =
+        new FastGenericDeserializerGenerator<>(writerSchema, readerSchema, classesDir, newGeneratorClassLoader(),
+            compileClassPath.orElseGet(() -> null), filter);
+    FastDeserializer<?> fastDeserializer = generator.generateDeserializer();
+
+    LOGGER.info("Generated classes dir: {} and generation of filtered generic FastDeserializer is done for writer schema"
+            + " of type: {} with fingerprint: {} and reader schema of type: {} with fingerprint: {} and filter: {}",
+        classesDir, getSchemaFullName(writerSchema), getSchemaFingerprint(writerSchema),
+        getSchemaFullName(readerSchema), getSchemaFingerprint(readerSchema), filter);
+
+    return fastDeserializer;
+  }
+
+  private FastDeserializer<?> buildGenericFilteredDeserializer(Schema writerSchema, Schema readerSchema,
+      FastSerdeFilter filter) {
+    Throwable failure = null;
+    try {
+      return buildFastGenericFilteredDeserializer(writerSchema, readerSchema, filter);
+    } catch (FastDeserializerGeneratorException e) {
+      LOGGER.warn("Deserializer generation exception when generating filtered generic FastDeserializer for writer schema: [\n"
+          + writerSchema.toString(true) + "\n] and reader schema:[\n" + readerSchema.toString(true) + "\n] and filter: "
+          + filter, e);
+      failure = e;
+    } catch (Exception e) {
+      LOGGER.warn("Deserializer class instantiation exception:" + e);
+      failure = e;
+    }
+
+    return new FilteringDeserializer<>(newGenericDatumReaderDeserializer(writerSchema, readerSchema, failure), filter);
+  }
+
+  /**
+   * This function will generate a fast skipper, and it will throw exception if anything wrong happens. Skippers are
+   * neither precompiled nor stored.
+   *
+   * @param writerSchema record, array or map schema of written data
+   * @return a fast skipper
+   */
+  public FastSkipper buildFastSkipper(Schema writerSchema) {
+    FastSkipperGenerator generator = new FastSkipperGenerator(writerSchema, classesDir, newGeneratorClassLoader(),
+        compileClassPath.orElseGet(() -> null));
+    FastSkipper fastSkipper = generator.generateSkipper();
+
+    LOGGER.info("Generated classes dir: {} and generation of FastSkipper is done for schema of type: {}"
+        + " with fingerprint: {}", classesDir, getSchemaFullName(writerSchema), getSchemaFingerprint(writerSchema));
+
+    return fastSkipper;
+  }
+
+  private FastSkipper buildSkipper(Schema writerSchema) {
+    try {
+      return buildFastSkipper(writerSchema);
+    } catch (FastDeserializerGeneratorException e) {
+      LOGGER.warn("Skipper generation exception when generating FastSkipper for schema: [\n"
+          + writerSchema.toString(true) + "\n]", e);
+    } catch (Exception e) {
+      LOGGER.warn("Skipper class instantiation exception:" + e);
+    }
+    // never compiled again
+    return new FastSkipperWithAvroGenericImpl(writerSchema, new FastSerdeCompileScheduler.InvocationCounter());
+  }
+
+  /**
+   * This function will generate a fast columnar deserializer, and it will throw exception if anything wrong happens.
+   * Columnar deserializers are neither precompiled nor stored.
+   *
+   * @param writerSchema record schema of written data
+   * @return a fast columnar deserializer
+   */
+  public FastColumnarDeserializer buildFastColumnarDeserializer(Schema writerSchema) {
+    FastColumnarDeserializerGenerator generator = new FastColumnarDeserializerGenerator(writerSchema, classesDir,
+        newGeneratorClassLoader(), compileClassPath.orElseGet(() -> null));
+    FastColumnarDeserializer fastDeserializer = generator.generateColumnarDeserializer();
+
+    LOGGER.info("Generated classes dir: {} and generation of FastColumnarDeserializer is done for schema of type: {}"
+        + " with fingerprint: {}", classesDir, getSchemaFullName(writerSchema), getSchemaFingerprint(writerSchema));
+
+    return fastDeserializer;
+  }
+
+  private FastColumnarDeserializer buildColumnarDeserializer(Schema writerSchema) {
+    try {
+      return buildFastColumnarDeserializer(writerSchema);
+    } catch (FastDeserializerGeneratorException e) {
+      LOGGER.warn("Deserializer generation exception when generating FastColumnarDeserializer for schema: [\n"
+          + writerSchema.toString(true) + "\n]", e);
+    } catch (Exception e) {
+      LOGGER.warn("Deserializer class instantiation exception:" + e);
+    }
+    // never compiled again
+    return new FastColumnarDeserializerWithAvroGenericImpl(writerSchema,
+        new FastSerdeCompileScheduler.InvocationCounter());
+  }
+
+  private FastFieldDeserializer<?> buildGenericFieldDeserializer(Schema schema) {
+    try {
+      return buildFastGenericFieldDeserializer(schema);
+    } catch (FastDeserializerGeneratorException e) {
+      LOGGER.warn("Deserializer generation exception when generating generic FastFieldDeserializer for schema: [\n"
+          + schema.toString(true) + "\n]", e);
+    } catch (Exception e) {
+      LOGGER.warn("Deserializer class instantiation exception:" + e);
+    }
+    // never compiled again
+    return new FastFieldDeserializerWithAvroGenericImpl<>(schema, new FastSerdeCompileScheduler.InvocationCounter());
+  }
+
   /**
    * This function is used to generate a fast generic deserializer, and it will fail back to use
    * {@link GenericDatumReader} if anything wrong happens.
@@ -393,23 +957,44 @@ public final class FastSerdeCache {
    * @return
    */
   private FastDeserializer<?> buildGenericDeserializer(Schema writerSchema, Schema readerSchema) {
+    Throwable failure = null;
     try {
       return buildFastGenericDeserializer(writerSchema, readerSchema);
     } catch (FastDeserializerGeneratorException e) {
       LOGGER.warn("Deserializer generation exception when generating generic FastDeserializer for writer schema: [\n"
           + writerSchema.toString(true) + "\n] and reader schema:[\n" + readerSchema.toString(true) + "\n]", e);
+      failure = e;
     } catch (Exception e) {
       LOGGER.warn("Deserializer class instantiation exception:" + e);
+      failure = e;
     }
 
-    return new FastDeserializer<Object>() {
-      private DatumReader datumReader = new GenericDatumReader<>(writerSchema, readerSchema);
+    return newGenericDatumReaderDeserializer(writerSchema, readerSchema, failure);
+  }
 
-      @Override
-      public Object deserialize(Object reuse, Decoder d) throws IOException {
-        return datumReader.read(reuse, d);
+  private CompletableFuture<FastDeserializer<?>> buildGenericDeserializerAsync(Schema writerSchema,
+      Schema readerSchema, LongSupplier hotness) {
+    if (batchCompiler == null) {
+      return CompletableFuture.supplyAsync(() -> buildGenericDeserializer(writerSchema, readerSchema),
+          compileScheduler.executorFor(hotness));
+    }
+    FastGenericDeserializerGenerator<?> generator =
+        new FastGenericDeserializerGenerator<>(writerSchema, readerSchema, classesDir, classLoader,
+            compileClassPath.orElseGet(() -> null));
+    return batchCompiler.<FastDeserializer<?>>submit(generator, hotness).handle((fastDeserializer, e) -> {
+      if (e != null) {
+        LOGGER.warn("Deserializer generation exception when generating generic FastDeserializer for writer schema: [\n"
+            + writerSchema.toString(true) + "\n] and reader schema:[\n" + readerSchema.toString(true) + "\n]", e);
+        return newGenericDatumReaderDeserializer(writerSchema, readerSchema, e);
       }
-    };
+      saveToClassStore(GENERIC_DESERIALIZER, writerSchema, readerSchema, fastDeserializer, generator);
+      return fastDeserializer;
+    });
+  }
+
+  private static FastDeserializer<?> newGenericDatumReaderDeserializer(Schema writerSchema, Schema readerSchema,
+      Throwable failure) {
+    return new FallbackDeserializer(new GenericDatumReader<>(writerSchema, readerSchema), failure);
   }
 
   public FastSerializer<?> buildFastSpecificSerializer(Schema schema) {
@@ -418,8 +1003,12 @@ public final class FastSerdeCache {
       throw new FastDeserializerGeneratorException("Specific FastSerializer is only supported in following Avro versions: " +
           Utils.getAvroVersionsSupportedForSerializer());
     }
+    FastSerializer<?> precompiledSerializer = loadPrecompiledSerializer(SPECIFIC_SERIALIZER, schema);
+    if (precompiledSerializer != null) {
+      return precompiledSerializer;
+    }
     FastSpecificSerializerGenerator<?> generator =
-        new FastSpecificSerializerGenerator<>(schema, classesDir, classLoader, compileClassPath.orElseGet(() -> null));
+        new FastSpecificSerializerGenerator<>(schema, classesDir, newGeneratorClassLoader(), compileClassPath.orElseGet(() -> null));
 
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Generated classes dir: {} and generation of specific FastSerializer is done for schema of type: {}" +
@@ -430,10 +1019,13 @@ public final class FastSerdeCache {
               " and fingerprint: {}", classesDir, getSchemaFullName(schema), getSchemaFingerprint(schema));
     }
 
-    return generator.generateSerializer();
+    FastSerializer<?> fastSerializer = generator.generateSerializer();
+    saveToClassStore(SPECIFIC_SERIALIZER, schema, schema, fastSerializer, generator);
+    return fastSerializer;
   }
 
   private FastSerializer<?> buildSpecificSerializer(Schema schema) {
+    Throwable failure = null;
     if (Utils.isSupportedAvroVersionsForSerializer()) {
       // Only build fast specific serializer for supported Avro versions.
       try {
@@ -441,19 +1033,35 @@ public final class FastSerdeCache {
       } catch (FastDeserializerGeneratorException e) {
         LOGGER.warn("Serializer generation exception when generating specific FastSerializer for schema: [\n{}\n]",
             schema.toString(true), e);
+        failure = e;
       } catch (Exception e) {
         LOGGER.warn("Serializer class instantiation exception", e);
+        failure = e;
       }
     }
 
-    return new FastSerializer<Object>() {
-      private final DatumWriter datumWriter = new SpecificDatumWriter(schema);
+    return newSpecificDatumWriterSerializer(schema, failure);
+  }
 
-      @Override
-      public void serialize(Object data, Encoder e) throws IOException {
-        datumWriter.write(data, e);
+  private CompletableFuture<FastSerializer<?>> buildSpecificSerializerAsync(Schema schema, LongSupplier hotness) {
+    if (batchCompiler == null || !Utils.isSupportedAvroVersionsForSerializer()) {
+      return CompletableFuture.supplyAsync(() -> buildSpecificSerializer(schema), compileScheduler.executorFor(hotness));
+    }
+    FastSpecificSerializerGenerator<?> generator =
+        new FastSpecificSerializerGenerator<>(schema, classesDir, classLoader, compileClassPath.orElseGet(() -> null));
+    return batchCompiler.<FastSerializer<?>>submit(generator, hotness).handle((fastSerializer, e) -> {
+      if (e != null) {
+        LOGGER.warn("Serializer generation exception when generating specific FastSerializer for schema: [\n{}\n]",
+            schema.toString(true), e);
+        return newSpecificDatumWriterSerializer(schema, e);
       }
-    };
+      saveToClassStore(SPECIFIC_SERIALIZER, schema, schema, fastSerializer, generator);
+      return fastSerializer;
+    });
+  }
+
+  private static FastSerializer<?> newSpecificDatumWriterSerializer(Schema schema, Throwable failure) {
+    return new FallbackSerializer(new SpecificDatumWriter(schema), failure);
   }
 
   public FastSerializer<?> buildFastGenericSerializer(Schema schema) {
@@ -462,8 +1070,12 @@ public final class FastSerdeCache {
       throw new FastDeserializerGeneratorException("Generic FastSerializer is only supported in following avro versions:"
           + Utils.getAvroVersionsSupportedForSerializer());
     }
+    FastSerializer<?> precompiledSerializer = loadPrecompiledSerializer(GENERIC_SERIALIZER, schema);
+    if (precompiledSerializer != null) {
+      return precompiledSerializer;
+    }
     FastGenericSerializerGenerator<?> generator =
-        new FastGenericSerializerGenerator<>(schema, classesDir, classLoader, compileClassPath.orElseGet(() -> null));
+        new FastGenericSerializerGenerator<>(schema, classesDir, newGeneratorClassLoader(), compileClassPath.orElseGet(() -> null));
 
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Generated classes dir: {} and generation of generic FastSerializer is done for schema of type: {}" +
@@ -474,10 +1086,13 @@ public final class FastSerdeCache {
               " and fingerprint: {}", classesDir, getSchemaFullName(schema), getSchemaFingerprint(schema));
     }
 
-    return generator.generateSerializer();
+    FastSerializer<?> fastSerializer = generator.generateSerializer();
+    saveToClassStore(GENERIC_SERIALIZER, schema, schema, fastSerializer, generator);
+    return fastSerializer;
   }
 
   private FastSerializer<?> buildGenericSerializer(Schema schema) {
+    Throwable failure = null;
     if (Utils.isSupportedAvroVersionsForSerializer()) {
       // Only build fast generic serializer for supported Avro versions.
       try {
@@ -485,19 +1100,198 @@ public final class FastSerdeCache {
       } catch (FastDeserializerGeneratorException e) {
         LOGGER.warn("Serializer generation exception when generating generic FastSerializer for schema: [\n{}\n]",
             schema.toString(true), e);
+        failure = e;
       } catch (Exception e) {
         LOGGER.warn("Serializer class instantiation exception", e);
+        failure = e;
       }
     }
 
-    return new FastSerializer<Object>() {
-      private final DatumWriter datumWriter = new GenericDatumWriter(schema);
+    return newGenericDatumWriterSerializer(schema, failure);
+  }
 
-      @Override
-      public void serialize(Object data, Encoder e) throws IOException {
-        datumWriter.write(data, e);
+  private CompletableFuture<FastSerializer<?>> buildGenericSerializerAsync(Schema schema, LongSupplier hotness) {
+    if (batchCompiler == null || !Utils.isSupportedAvroVersionsForSerializer()) {
+      return CompletableFuture.supplyAsync(() -> buildGenericSerializer(schema), compileScheduler.executorFor(hotness));
+    }
+    FastGenericSerializerGenerator<?> generator =
+        new FastGenericSerializerGenerator<>(schema, classesDir, classLoader, compileClassPath.orElseGet(() -> null));
+    return batchCompiler.<FastSerializer<?>>submit(generator, hotness).handle((fastSerializer, e) -> {
+      if (e != null) {
+        LOGGER.warn("Serializer generation exception when generating generic FastSerializer for schema: [\n{}\n]",
+            schema.toString(true), e);
+        return newGenericDatumWriterSerializer(schema, e);
+      }
+      saveToClassStore(GENERIC_SERIALIZER, schema, schema, fastSerializer, generator);
+      return fastSerializer;
+    });
+  }
+
+  private static FastSerializer<?> newGenericDatumWriterSerializer(Schema schema, Throwable failure) {
+    return new FallbackSerializer(new GenericDatumWriter(schema), failure);
+  }
+
+  private FastDeserializer<?> loadPrecompiledDeserializer(String kind, Schema writerSchema, Schema readerSchema) {
+    FastDeserializer<?> indexedDeserializer = loadIndexedDeserializer(kind, writerSchema, readerSchema);
+    return indexedDeserializer != null ? indexedDeserializer : loadStoredDeserializer(kind, writerSchema, readerSchema);
+  }
+
+  private FastSerializer<?> loadPrecompiledSerializer(String kind, Schema schema) {
+    FastSerializer<?> indexedSerializer = loadIndexedSerializer(kind, schema);
+    return indexedSerializer != null ? indexedSerializer : loadStoredSerializer(kind, schema);
+  }
+
+  private FastDeserializer<?> loadIndexedDeserializer(String kind, Schema writerSchema, Schema readerSchema) {
+    Class<?> indexedClass =
+        aotIndex.loadClass(kind, getSchemaFingerprint(writerSchema), getSchemaFingerprint(readerSchema));
+    return indexedClass != null ? newDeserializerInstance(indexedClass, readerSchema) : null;
+  }
+
+  private FastSerializer<?> loadIndexedSerializer(String kind, Schema schema) {
+    long schemaFingerprint = getSchemaFingerprint(schema);
+    Class<?> indexedClass = aotIndex.loadClass(kind, schemaFingerprint, schemaFingerprint);
+    return indexedClass != null ? newSerializerInstance(indexedClass) : null;
+  }
+
+  private FastDeserializer<?> loadStoredDeserializer(String kind, Schema writerSchema, Schema readerSchema) {
+    if (classStore == null) {
+      return null;
+    }
+    long writerSchemaFingerprint = getSchemaFingerprint(writerSchema);
+    long readerSchemaFingerprint = getSchemaFingerprint(readerSchema);
+    Class<?> storedClass = classStore.loadClass(kind, writerSchemaFingerprint, readerSchemaFingerprint);
+    if (storedClass == null) {
+      return null;
+    }
+    FastDeserializer<?> deserializer = newDeserializerInstance(storedClass, readerSchema);
+    if (deserializer == null) {
+      classStore.removeClass(kind, writerSchemaFingerprint, readerSchemaFingerprint);
+    }
+    return deserializer;
+  }
+
+  private FastSerializer<?> loadStoredSerializer(String kind, Schema schema) {
+    if (classStore == null) {
+      return null;
+    }
+    long schemaFingerprint = getSchemaFingerprint(schema);
+    Class<?> storedClass = classStore.loadClass(kind, schemaFingerprint, schemaFingerprint);
+    if (storedClass == null) {
+      return null;
+    }
+    FastSerializer<?> serializer = newSerializerInstance(storedClass);
+    if (serializer == null) {
+      classStore.removeClass(kind, schemaFingerprint, schemaFingerprint);
+    }
+    return serializer;
+  }
+
+  /**
+   * Replaces the cold serde of the given key by its stored class as soon as it is loaded from the class store, or else
+   * by a newly compiled serde once the cold one reached the compile threshold.
+   */
+  private <K, T> void replaceColdSerde(FastAvroLruCache<K, T> cache, K key,
+      FastSerdeCompileScheduler.InvocationCounter invocationCounter, Supplier<T> storedSerdeLoader,
+      Supplier<CompletableFuture<T>> serdeCompiler) {
+    CompletableFuture<T> storedSerde = loadFromClassStoreAsync(storedSerdeLoader).thenApply(serde -> {
+      if (serde != null) {
+        cache.put(key, serde);
       }
-    };
+      return serde;
+    });
+    invocationCounter.onThreshold(compileThreshold, () -> storedSerde.thenCompose(serde -> serde != null
+        ? CompletableFuture.completedFuture(serde) : serdeCompiler.get().thenApply(compiledSerde -> {
+          cache.put(key, compiledSerde);
+          return compiledSerde;
+        })));
+  }
+
+  /**
+   * Loads a class from the class store on {@link #executor}, so the caller doesn't wait for the disk.
+   *
+   * @return future completed with the loaded serde, or with null if there is none
+   */
+  private <T> CompletableFuture<T> loadFromClassStoreAsync(Supplier<T> loader) {
+    if (classStore == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return CompletableFuture.supplyAsync(loader, executor).exceptionally(e -> {
+      LOGGER.warn("Unable to load class from class store, it will be compiled again", e);
+      return null;
+    });
+  }
+
+  private static FastDeserializer<?> newDeserializerInstance(Class<?> precompiledClass, Schema readerSchema) {
+    try {
+      return (FastDeserializer<?>) precompiledClass.getConstructor(Schema.class).newInstance(readerSchema);
+    } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+      LOGGER.warn("Unable to instantiate precompiled class: " + precompiledClass.getName() + ", it will be compiled again", e);
+      return null;
+    }
+  }
+
+  private static FastSerializer<?> newSerializerInstance(Class<?> precompiledClass) {
+    try {
+      return (FastSerializer<?>) precompiledClass.newInstance();
+    } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+      LOGGER.warn("Unable to instantiate precompiled class: " + precompiledClass.getName() + ", it will be compiled again", e);
+      return null;
+    }
+  }
+
+  private void saveToClassStore(String kind, Schema writerSchema, Schema readerSchema, Object generatedInstance,
+      FastSerdeBase generator) {
+    if (classStore != null) {
+      classStore.storeClasses(kind, getSchemaFingerprint(writerSchema), getSchemaFingerprint(readerSchema),
+          generatedInstance.getClass().getName(), generator.getCompiledClasses());
+    }
+  }
+
+  /**
+   * @return number of lookups which found a serde in this cache, cold ones included
+   */
+  public long getHitCount() {
+    return fastSpecificRecordDeserializersCache.getHitCount() + fastGenericRecordDeserializersCache.getHitCount()
+        + fastSpecificRecordSerializersCache.getHitCount() + fastGenericRecordSerializersCache.getHitCount()
+        + fastGenericFieldDeserializersCache.getHitCount() + fastGenericFilteredDeserializersCache.getHitCount()
+        + fastSkippersCache.getHitCount() + fastColumnarDeserializersCache.getHitCount();
+  }
+
+  /**
+   * @return number of lookups which didn't find any serde in this cache
+   */
+  public long getMissCount() {
+    return fastSpecificRecordDeserializersCache.getMissCount() + fastGenericRecordDeserializersCache.getMissCount()
+        + fastSpecificRecordSerializersCache.getMissCount() + fastGenericRecordSerializersCache.getMissCount()
+        + fastGenericFieldDeserializersCache.getMissCount() + fastGenericFilteredDeserializersCache.getMissCount()
+        + fastSkippersCache.getMissCount() + fastColumnarDeserializersCache.getMissCount();
+  }
+
+  /**
+   * @return number of serdes evicted from this cache, always 0 unless {@link Builder#setMaxCacheSize(int)} is set
+   */
+  public long getEvictionCount() {
+    return fastSpecificRecordDeserializersCache.getEvictionCount() + fastGenericRecordDeserializersCache.getEvictionCount()
+        + fastSpecificRecordSerializersCache.getEvictionCount() + fastGenericRecordSerializersCache.getEvictionCount()
+        + fastGenericFieldDeserializersCache.getEvictionCount() + fastGenericFilteredDeserializersCache.getEvictionCount()
+        + fastSkippersCache.getEvictionCount() + fastColumnarDeserializersCache.getEvictionCount();
+  }
+
+  /**
+   * @return class loader of the next generated class: the shared one, or a dedicated one if this cache is bounded
+   */
+  private ClassLoader newGeneratorClassLoader() {
+    if (!bounded) {
+      return classLoader;
+    }
+    if (classLoader instanceof InMemoryClassLoader) {
+      return new InMemoryClassLoader(FastSerdeCache.class.getClassLoader());
+    }
+    try {
+      return URLClassLoader.newInstance(new URL[]{classesDir.toURI().toURL()}, FastSerdeCache.class.getClassLoader());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
   }
 
   private Executor getDefaultExecutor() {
@@ -514,54 +1308,454 @@ public final class FastSerdeCache {
     });
   }
 
+  /**
+   * Triggers the compilation of the serde of the given kind right away, regardless of the compile threshold.
+   *
+   * @param kind kind of the serde, e.g. {@value #GENERIC_DESERIALIZER}
+   * @param writerSchema writer schema, same as the reader schema for serializers
+   * @param readerSchema reader schema
+   * @return future completed with the serde eventually cached: a generated one, or the vanilla avro one it has
+   *         fallen back to, see {@link #getFallbackFailure(Object)}
+   */
+  CompletableFuture<Object> compileNow(String kind, Schema writerSchema, Schema readerSchema) {
+    Object serde;
+    FastSerdeCompileScheduler.InvocationCounter invocationCounter;
+    switch (kind) {
+      case SPECIFIC_DESERIALIZER:
+        serde = getFastSpecificDeserializer(writerSchema, readerSchema);
+        invocationCounter = serde instanceof FastDeserializerWithAvroSpecificImpl
+            ? ((FastDeserializerWithAvroSpecificImpl<?>) serde).invocationCounter : null;
+        break;
+      case GENERIC_DESERIALIZER:
+        serde = getFastGenericDeserializer(writerSchema, readerSchema);
+        invocationCounter = serde instanceof FastDeserializerWithAvroGenericImpl
+            ? ((FastDeserializerWithAvroGenericImpl<?>) serde).invocationCounter : null;
+        break;
+      case SPECIFIC_SERIALIZER:
+        serde = getFastSpecificSerializer(writerSchema);
+        invocationCounter = serde instanceof FastSerializerWithAvroSpecificImpl
+            ? ((FastSerializerWithAvroSpecificImpl<?>) serde).invocationCounter : null;
+        break;
+      case GENERIC_SERIALIZER:
+        serde = getFastGenericSerializer(writerSchema);
+        invocationCounter = serde instanceof FastSerializerWithAvroGenericImpl
+            ? ((FastSerializerWithAvroGenericImpl<?>) serde).invocationCounter : null;
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown serde kind: " + kind);
+    }
+    return invocationCounter != null ? invocationCounter.triggerNow() : CompletableFuture.completedFuture(serde);
+  }
+
+  /**
+   * @param serde serde returned by this cache
+   * @return why the fast counterpart of the given serde couldn't be generated, or null if it isn't a fallback
+   */
+  static Throwable getFallbackFailure(Object serde) {
+    if (serde instanceof FallbackDeserializer) {
+      return ((FallbackDeserializer) serde).failure;
+    }
+    if (serde instanceof FallbackSerializer) {
+      return ((FallbackSerializer) serde).failure;
+    }
+    return null;
+  }
+
+  /**
+   * @param serde serde returned by this cache
+   * @return true if the given serde is a vanilla avro one used in place of a fast serde which couldn't be generated
+   */
+  static boolean isFallback(Object serde) {
+    return serde instanceof FallbackDeserializer || serde instanceof FallbackSerializer;
+  }
+
+  Executor getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Builder of {@link FastSerdeCache} instances, which exposes the options not covered by the constructors.
+   */
+  public static class Builder {
+    private Executor executor;
+    private String compileClassPath;
+    private boolean compileInMemory;
+    private File classStoreDir;
+    private ClassLoader aotClassLoader = FastSerdeCache.class.getClassLoader();
+    private long batchCompileWindowMs;
+    private int batchCompileMaxSize;
+    private long compileThreshold;
+    private int maxCacheSize;
+
+    /**
+     * @param executor {@link Executor} used by serializer/deserializer compile threads
+     * @return this builder
+     */
+    public Builder setExecutor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * @param compileClassPath custom classpath as string
+     * @return this builder
+     */
+    public Builder setCompileClassPath(String compileClassPath) {
+      this.compileClassPath = compileClassPath;
+      return this;
+    }
+
+    /**
+     * @param compileInMemory whether the generated classes should be compiled in memory, see
+     *                        {@link FastSerdeCache#FastSerdeCache(Executor, String, boolean)}
+     * @return this builder
+     */
+    public Builder setCompileInMemory(boolean compileInMemory) {
+      this.compileInMemory = compileInMemory;
+      return this;
+    }
+
+    /**
+     * The stored classes are loaded on the executor, the cold serdes being used in the meantime, and the directories
+     * of the previous generator versions are deleted on it when the cache is built.
+     *
+     * @param classStoreDir directory of a {@link FastSerdeClassStore} keeping the compiled classes across JVM
+     *                      restarts, or null to disable it
+     * @return this builder
+     */
+    public Builder setClassStoreDir(File classStoreDir) {
+      this.classStoreDir = classStoreDir;
+      return this;
+    }
+
+    /**
+     * @param aotClassLoader {@link ClassLoader} used to look up the classes generated at build time by
+     *                       {@link FastSerdeAotGenerator}, defaults to the class loader of {@link FastSerdeCache}
+     * @return this builder
+     */
+    public Builder setAotClassLoader(ClassLoader aotClassLoader) {
+      this.aotClassLoader = aotClassLoader;
+      return this;
+    }
+
+    /**
+     * Enables batch compilation: the generation requests made by the get* methods are coalesced over the given
+     * window and compiled in memory with a single javac invocation. A request which fails to compile falls back
+     * to the vanilla avro serde without affecting the rest of its batch.
+     *
+     * @param windowMs how long the first request of a batch waits for other requests, or 0 to disable batching
+     * @param maxBatchSize number of pending requests which triggers the compilation before the end of the window
+     * @return this builder
+     */
+    public Builder setBatchCompilation(long windowMs, int maxBatchSize) {
+      this.batchCompileWindowMs = windowMs;
+      this.batchCompileMaxSize = maxBatchSize;
+      return this;
+    }
+
+    /**
+     * @param compileThreshold number of invocations of a cold serde after which its fast counterpart gets compiled,
+     *                         0 (the default) to compile it as soon as it is requested. Pending compilations are
+     *                         always run hottest first.
+     * @return this builder
+     */
+    public Builder setCompileThreshold(long compileThreshold) {
+      this.compileThreshold = compileThreshold;
+      return this;
+    }
+
+    /**
+     * @param maxCacheSize maximum number of serdes of each kind (generic/specific, serializer/deserializer), and of
+     *                     projected reader schemas, kept by the cache, the least recently used ones getting evicted
+     *                     first. Every generated class gets its own class loader so that evicted classes can be
+     *                     unloaded. 0 (the default) keeps all of them.
+     * @return this builder
+     */
+    public Builder setMaxCacheSize(int maxCacheSize) {
+      this.maxCacheSize = maxCacheSize;
+      return this;
+    }
+
+    public FastSerdeCache build() {
+      return new FastSerdeCache(this);
+    }
+  }
+
+  /**
+   * Vanilla avro deserializer used in place of a fast deserializer which couldn't be generated.
+   */
+  private static final class FallbackDeserializer implements FastDeserializer<Object> {
+    private final DatumReader datumReader;
+    final Throwable failure;
+
+    private FallbackDeserializer(DatumReader datumReader, Throwable failure) {
+      this.datumReader = datumReader;
+      this.failure = failure;
+    }
+
+    @Override
+    public Object deserialize(Object reuse, Decoder d) throws IOException {
+      return datumReader.read(reuse, d);
+    }
+  }
+
+  /**
+   * Filters the records deserialized by a deserializer which doesn't apply the filter itself, e.g. a vanilla avro
+   * one used until the filtered deserializer is generated.
+   */
+  static final class FilteringDeserializer<V> implements FastDeserializer<V> {
+    private final FastDeserializer<V> deserializer;
+    private final FastSerdeFilter filter;
+
+    FilteringDeserializer(FastDeserializer<V> deserializer, FastSerdeFilter filter) {
+      this.deserializer = deserializer;
+      this.filter = filter;
+    }
+
+    @Override
+    public V deserialize(V reuse, Decoder d) throws IOException {
+      V record = deserializer.deserialize(reuse, d);
+      return filter.test((IndexedRecord) record) ? record : null;
+    }
+  }
+
+  /**
+   * Vanilla avro serializer used in place of a fast serializer which couldn't be generated.
+   */
+  private static final class FallbackSerializer implements FastSerializer<Object> {
+    private final DatumWriter datumWriter;
+    final Throwable failure;
+
+    private FallbackSerializer(DatumWriter datumWriter, Throwable failure) {
+      this.datumWriter = datumWriter;
+      this.failure = failure;
+    }
+
+    @Override
+    public void serialize(Object data, Encoder e) throws IOException {
+      datumWriter.write(data, e);
+    }
+  }
+
   public static class FastDeserializerWithAvroSpecificImpl<V> implements FastDeserializer<V> {
     private final SpecificDatumReader<V> datumReader;
+    private final FastSerdeCompileScheduler.InvocationCounter invocationCounter;
 
     public FastDeserializerWithAvroSpecificImpl(Schema writerSchema, Schema readerSchema) {
+      this(writerSchema, readerSchema, new FastSerdeCompileScheduler.InvocationCounter());
+    }
+
+    FastDeserializerWithAvroSpecificImpl(Schema writerSchema, Schema readerSchema, FastSerdeCompileScheduler.InvocationCounter invocationCounter) {
       this.datumReader = new ColdSpecificDatumReader<>(writerSchema, readerSchema);
+      this.invocationCounter = invocationCounter;
+    }
+
+    /**
+     * @return number of times this cold deserializer has been invoked
+     */
+    public long getInvocationCount() {
+      return invocationCounter.get();
     }
 
     @Override
     public V deserialize(V reuse, Decoder d) throws IOException {
+      invocationCounter.increment();
       return datumReader.read(reuse, d);
     }
   }
 
   public static class FastDeserializerWithAvroGenericImpl<V> implements FastDeserializer<V> {
     private final GenericDatumReader<V> datumReader;
+    private final FastSerdeCompileScheduler.InvocationCounter invocationCounter;
 
     public FastDeserializerWithAvroGenericImpl(Schema writerSchema, Schema readerSchema) {
+      this(writerSchema, readerSchema, new FastSerdeCompileScheduler.InvocationCounter());
+    }
+
+    FastDeserializerWithAvroGenericImpl(Schema writerSchema, Schema readerSchema, FastSerdeCompileScheduler.InvocationCounter invocationCounter) {
       this.datumReader = new ColdGenericDatumReader<>(writerSchema, readerSchema);
+      this.invocationCounter = invocationCounter;
+    }
+
+    /**
+     * @return number of times this cold deserializer has been invoked
+     */
+    public long getInvocationCount() {
+      return invocationCounter.get();
+    }
+
+    @Override
+    public V deserialize(V reuse, Decoder d) throws IOException {
+      invocationCounter.increment();
+      return datumReader.read(reuse, d);
+    }
+  }
+
+  public static class FastFieldDeserializerWithAvroGenericImpl<V> implements FastFieldDeserializer<V> {
+    private final Schema schema;
+    private final GenericDatumReader<V> datumReader;
+    private final GenericDatumReader<Object>[] fieldDatumReaders;
+    private final FastSerdeCompileScheduler.InvocationCounter invocationCounter;
+
+    public FastFieldDeserializerWithAvroGenericImpl(Schema schema) {
+      this(schema, new FastSerdeCompileScheduler.InvocationCounter());
+    }
+
+    FastFieldDeserializerWithAvroGenericImpl(Schema schema, FastSerdeCompileScheduler.InvocationCounter invocationCounter) {
+      this.schema = schema;
+      this.datumReader = new ColdGenericDatumReader<>(schema, schema);
+      this.fieldDatumReaders = new GenericDatumReader[schema.getFields().size()];
+      this.invocationCounter = invocationCounter;
+    }
+
+    /**
+     * @return number of times this cold deserializer has been invoked
+     */
+    public long getInvocationCount() {
+      return invocationCounter.get();
     }
 
     @Override
     public V deserialize(V reuse, Decoder d) throws IOException {
+      invocationCounter.increment();
       return datumReader.read(reuse, d);
     }
+
+    @Override
+    public void skipField(int pos, Decoder d) throws IOException {
+      GenericDatumReader.skip(schema.getFields().get(pos).schema(), d);
+    }
+
+    @Override
+    public Object deserializeField(int pos, Object reuse, Decoder d) throws IOException {
+      invocationCounter.increment();
+      GenericDatumReader<Object> fieldDatumReader = fieldDatumReaders[pos];
+      if (fieldDatumReader == null) {
+        Schema fieldSchema = schema.getFields().get(pos).schema();
+        fieldDatumReader = new GenericDatumReader<>(fieldSchema, fieldSchema);
+        fieldDatumReaders[pos] = fieldDatumReader;
+      }
+      return fieldDatumReader.read(reuse, d);
+    }
+  }
+
+  /**
+   * Skips by reading with vanilla avro and discarding what was read, which validates the data the same way as the
+   * generated skippers.
+   */
+  public static class FastSkipperWithAvroGenericImpl implements FastSkipper {
+    private final GenericDatumReader<Object> datumReader;
+    private final FastSerdeCompileScheduler.InvocationCounter invocationCounter;
+
+    public FastSkipperWithAvroGenericImpl(Schema writerSchema) {
+      this(writerSchema, new FastSerdeCompileScheduler.InvocationCounter());
+    }
+
+    FastSkipperWithAvroGenericImpl(Schema writerSchema, FastSerdeCompileScheduler.InvocationCounter invocationCounter) {
+      this.datumReader = new ColdGenericDatumReader<>(writerSchema, writerSchema);
+      this.invocationCounter = invocationCounter;
+    }
+
+    /**
+     * @return number of times this cold skipper has been invoked
+     */
+    public long getInvocationCount() {
+      return invocationCounter.get();
+    }
+
+    @Override
+    public void skip(Decoder d) throws IOException {
+      invocationCounter.increment();
+      datumReader.read(null, d);
+    }
+  }
+
+  /**
+   * Deserializes records with vanilla avro before appending their fields to the columns of the batch.
+   */
+  public static class FastColumnarDeserializerWithAvroGenericImpl implements FastColumnarDeserializer {
+    private final Schema writerSchema;
+    private final GenericDatumReader<IndexedRecord> datumReader;
+    private final FastSerdeCompileScheduler.InvocationCounter invocationCounter;
+
+    public FastColumnarDeserializerWithAvroGenericImpl(Schema writerSchema) {
+      this(writerSchema, new FastSerdeCompileScheduler.InvocationCounter());
+    }
+
+    FastColumnarDeserializerWithAvroGenericImpl(Schema writerSchema,
+        FastSerdeCompileScheduler.InvocationCounter invocationCounter) {
+      this.writerSchema = writerSchema;
+      this.datumReader = new ColdGenericDatumReader<>(writerSchema, writerSchema);
+      this.invocationCounter = invocationCounter;
+    }
+
+    /**
+     * @return number of times this cold deserializer has been invoked
+     */
+    public long getInvocationCount() {
+      return invocationCounter.get();
+    }
+
+    @Override
+    public void deserialize(ColumnBatch batch, Decoder d) throws IOException {
+      invocationCounter.increment();
+      if (batch.getSchema() != writerSchema && !batch.getSchema().equals(writerSchema)) {
+        throw new IllegalArgumentException("Unexpected schema of batch: " + batch.getSchema().getFullName());
+      }
+      batch.add(datumReader.read(null, d));
+    }
   }
 
   public static class FastSerializerWithAvroSpecificImpl<V> implements FastSerializer<V> {
     private final SpecificDatumWriter<V> datumWriter;
+    private final FastSerdeCompileScheduler.InvocationCounter invocationCounter;
 
     public FastSerializerWithAvroSpecificImpl(Schema schema) {
+      this(schema, new FastSerdeCompileScheduler.InvocationCounter());
+    }
+
+    FastSerializerWithAvroSpecificImpl(Schema schema, FastSerdeCompileScheduler.InvocationCounter invocationCounter) {
       this.datumWriter = new SpecificDatumWriter<>(schema);
+      this.invocationCounter = invocationCounter;
+    }
+
+    /**
+     * @return number of times this cold serializer has been invoked
+     */
+    public long getInvocationCount() {
+      return invocationCounter.get();
     }
 
     @Override
     public void serialize(V data, Encoder e) throws IOException {
+      invocationCounter.increment();
       datumWriter.write(data, e);
     }
   }
 
   public static class FastSerializerWithAvroGenericImpl<V> implements FastSerializer<V> {
     private final DatumWriter<V> datumWriter;
+    private final FastSerdeCompileScheduler.InvocationCounter invocationCounter;
 
     public FastSerializerWithAvroGenericImpl(Schema schema) {
+      this(schema, new FastSerdeCompileScheduler.InvocationCounter());
+    }
+
+    FastSerializerWithAvroGenericImpl(Schema schema, FastSerdeCompileScheduler.InvocationCounter invocationCounter) {
       this.datumWriter = new GenericDatumWriter<>(schema);
+      this.invocationCounter = invocationCounter;
+    }
+
+    /**
+     * @return number of times this cold serializer has been invoked
+     */
+    public long getInvocationCount() {
+      return invocationCounter.get();
     }
 
     @Override
     public void serialize(V data, Encoder e) throws IOException {
+      invocationCounter.increment();
       datumWriter.write(data, e);
     }
   }
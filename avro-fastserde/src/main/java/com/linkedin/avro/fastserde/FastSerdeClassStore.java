@@ -0,0 +1,380 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.linkedin.avroutil1.compatibility.AvroVersion;
+import com.linkedin.avroutil1.compatibility.ByteBufferEncoder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Persistent store of compiled fast serializer/deserializer classes, which allows to skip the java compilation
+ * of the generated code for schemas already seen before a JVM restart.
+ *
+ * Entries are keyed by the kind of the generated class, the writer and reader schema fingerprints
+ * ({@link Utils#getSchemaFingerprint(org.apache.avro.Schema)}), the runtime {@link AvroVersion} and the
+ * {@link #getGeneratorVersion() generator version}, which changes with any change to avro-fastserde or the helper. Each entry is written to a temporary file first and then moved
+ * in place, so concurrent writers (threads or JVMs sharing the same directory) never expose a partial entry.
+ * Every entry carries its key and a checksum: entries which don't match the expected key are considered stale,
+ * entries which can't be read back are considered corrupt, and both are discarded so the caller falls back
+ * to compiling the class again. The directories of the previous generator versions can be deleted with
+ * {@link #pruneStaleVersions()}.
+ */
+public class FastSerdeClassStore {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FastSerdeClassStore.class);
+
+  private static final int MAGIC = 0xFA57A7C0;
+  private static final int FORMAT_VERSION = 1;
+  private static final String ENTRY_SUFFIX = ".entry";
+
+  private static final String GENERATED_CLASS_PATH = FastSerdeBase.GENERATED_PACKAGE_NAME_PREFIX.replace('.', '/');
+
+  private static volatile String generatorVersion;
+
+  private final Path storeDir;
+  private final AvroVersion avroVersion;
+
+  /**
+   * @param storeDir root directory of the store, created if missing
+   */
+  public FastSerdeClassStore(File storeDir) {
+    this.avroVersion = Utils.getRuntimeAvroVersion();
+    this.storeDir = storeDir.toPath().resolve(avroVersion.name()).resolve(getGeneratorVersion());
+    try {
+      Files.createDirectories(this.storeDir);
+    } catch (IOException e) {
+      throw new FastSerdeGeneratorException("Unable to create class store directory: " + this.storeDir, e);
+    }
+  }
+
+  /**
+   * The generator version is derived from the byte code of all the classes of avro-fastserde and of the helper, which
+   * hold both the code generators and the runtime APIs called by the generated code, so any change to either of them
+   * invalidates previously stored classes. The classes are read the same way from jars and from class directories,
+   * so classes generated at build time from the latter match the jars they are packaged with.
+   *
+   * @return version of the code generators
+   */
+  public static String getGeneratorVersion() {
+    if (generatorVersion == null) {
+      // checksum of each class by name, whether the modules are in separate jars, in an uber jar or in directories
+      SortedMap<String, Long> classChecksums = new TreeMap<>();
+      Set<Path> readLocations = new HashSet<>();
+      for (Class<?> moduleClass : Arrays.asList(FastSerdeClassStore.class, AvroCompatibilityHelper.class,
+          ByteBufferEncoder.class)) {
+        try {
+          Path location = getLocation(moduleClass);
+          if (location == null) {
+            // e.g. a class loader without code source, only the class itself can be read
+            classChecksums.put(moduleClass.getName(),
+                getChecksum(moduleClass.getResourceAsStream(moduleClass.getSimpleName() + ".class")));
+          } else if (readLocations.add(location)) {
+            readClassChecksums(location, classChecksums);
+          }
+        } catch (IOException e) {
+          throw new FastSerdeGeneratorException("Unable to read the classes of: " + moduleClass.getName(), e);
+        }
+      }
+      CRC32 crc = new CRC32();
+      for (Map.Entry<String, Long> classChecksum : classChecksums.entrySet()) {
+        crc.update(classChecksum.getKey().getBytes(StandardCharsets.UTF_8));
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(classChecksum.getValue()).array());
+      }
+      generatorVersion = Long.toHexString(crc.getValue());
+    }
+    return generatorVersion;
+  }
+
+  /**
+   * @return jar or class directory the given class was loaded from, null if unknown
+   */
+  private static Path getLocation(Class<?> moduleClass) {
+    try {
+      CodeSource codeSource = moduleClass.getProtectionDomain().getCodeSource();
+      if (codeSource == null || codeSource.getLocation() == null
+          || !"file".equals(codeSource.getLocation().getProtocol())) {
+        return null;
+      }
+      Path location = Paths.get(codeSource.getLocation().toURI());
+      return Files.exists(location) ? location : null;
+    } catch (URISyntaxException | SecurityException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Reads the checksums of the classes of avro-fastserde and of the helper from a jar or class directory.
+   */
+  private static void readClassChecksums(Path location, Map<String, Long> classChecksums) throws IOException {
+    if (Files.isDirectory(location)) {
+      List<Path> classFiles;
+      try (Stream<Path> files = Files.walk(location)) {
+        classFiles = files.filter(Files::isRegularFile).collect(Collectors.toList());
+      }
+      for (Path classFile : classFiles) {
+        String name = location.relativize(classFile).toString().replace(File.separatorChar, '/');
+        if (isVersionedClass(name)) {
+          classChecksums.put(name, getChecksum(Files.newInputStream(classFile)));
+        }
+      }
+    } else {
+      try (JarFile jarFile = new JarFile(location.toFile())) {
+        for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
+          JarEntry entry = entries.nextElement();
+          if (isVersionedClass(entry.getName())) {
+            classChecksums.put(entry.getName(), getChecksum(jarFile.getInputStream(entry)));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Only the classes of avro-fastserde and of the helper make the version, not the classes generated by
+   * avro-fastserde, which build time generation packages with them, nor the other classes of uber jars.
+   */
+  private static boolean isVersionedClass(String name) {
+    return name.endsWith(".class") && !name.startsWith(GENERATED_CLASS_PATH)
+        && (name.startsWith("com/linkedin/avro/") || name.startsWith("com/linkedin/avroutil1/"));
+  }
+
+  private static long getChecksum(InputStream classStream) throws IOException {
+    CRC32 crc = new CRC32();
+    if (classStream == null) {
+      return crc.getValue();
+    }
+    try (InputStream input = classStream) {
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = input.read(buffer)) > 0) {
+        crc.update(buffer, 0, read);
+      }
+    }
+    return crc.getValue();
+  }
+
+  /**
+   * Loads a previously stored class.
+   *
+   * @param kind kind of the generated class, e.g. "GenericDeserializer"
+   * @param writerSchemaFingerprint fingerprint of the writer schema
+   * @param readerSchemaFingerprint fingerprint of the reader schema
+   * @return stored class, or null if the entry is missing, stale or corrupt
+   */
+  public Class<?> loadClass(String kind, long writerSchemaFingerprint, long readerSchemaFingerprint) {
+    Path entryPath = getEntryPath(kind, writerSchemaFingerprint, readerSchemaFingerprint);
+    if (!Files.exists(entryPath)) {
+      return null;
+    }
+
+    String mainClassName;
+    Map<String, byte[]> classes = new LinkedHashMap<>();
+    try {
+      byte[] entry = Files.readAllBytes(entryPath);
+      if (entry.length < Long.BYTES) {
+        throw new IOException("Truncated entry");
+      }
+      CRC32 crc = new CRC32();
+      crc.update(entry, 0, entry.length - Long.BYTES);
+
+      DataInputStream input = new DataInputStream(new ByteArrayInputStream(entry));
+      if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unknown entry format");
+      }
+      String entryAvroVersion = input.readUTF();
+      String entryGeneratorVersion = input.readUTF();
+      String entryKind = input.readUTF();
+      long entryWriterSchemaFingerprint = input.readLong();
+      long entryReaderSchemaFingerprint = input.readLong();
+      mainClassName = input.readUTF();
+      int classCount = input.readInt();
+      for (int i = 0; i < classCount; i++) {
+        String className = input.readUTF();
+        byte[] classBytes = new byte[input.readInt()];
+        input.readFully(classBytes);
+        classes.put(className, classBytes);
+      }
+      if (input.readLong() != crc.getValue()) {
+        throw new IOException("Checksum mismatch");
+      }
+
+      if (!avroVersion.name().equals(entryAvroVersion) || !getGeneratorVersion().equals(entryGeneratorVersion)
+          || !kind.equals(entryKind) || writerSchemaFingerprint != entryWriterSchemaFingerprint
+          || readerSchemaFingerprint != entryReaderSchemaFingerprint) {
+        LOGGER.info("Discarding stale class store entry: {}", entryPath);
+        deleteEntry(entryPath);
+        return null;
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Discarding corrupt class store entry: {}", entryPath, e);
+      deleteEntry(entryPath);
+      return null;
+    }
+
+    try {
+      // one class loader per entry, so that the class can be unloaded once it's not used anymore
+      InMemoryClassLoader classLoader = new InMemoryClassLoader(FastSerdeClassStore.class.getClassLoader());
+      for (Map.Entry<String, byte[]> classEntry : classes.entrySet()) {
+        classLoader.addClass(classEntry.getKey(), classEntry.getValue());
+      }
+      Class<?> storedClass = classLoader.loadClass(mainClassName);
+      LOGGER.info("Loaded class {} from class store entry: {}", mainClassName, entryPath);
+      return storedClass;
+    } catch (ClassNotFoundException | LinkageError e) {
+      LOGGER.warn("Discarding class store entry which could not be loaded: {}", entryPath, e);
+      deleteEntry(entryPath);
+      return null;
+    }
+  }
+
+  /**
+   * Stores compiled classes, replacing any existing entry for the same key.
+   *
+   * @param kind kind of the generated class, e.g. "GenericDeserializer"
+   * @param writerSchemaFingerprint fingerprint of the writer schema
+   * @param readerSchemaFingerprint fingerprint of the reader schema
+   * @param mainClassName fully qualified name of the generated class
+   * @param classes byte code of the generated class and its inner classes, keyed by fully qualified class name
+   */
+  public void storeClasses(String kind, long writerSchemaFingerprint, long readerSchemaFingerprint,
+      String mainClassName, Map<String, byte[]> classes) {
+    if (classes.isEmpty()) {
+      return;
+    }
+    Path entryPath = getEntryPath(kind, writerSchemaFingerprint, readerSchemaFingerprint);
+    Path tempPath = null;
+    try {
+      ByteArrayOutputStream entry = new ByteArrayOutputStream();
+      DataOutputStream output = new DataOutputStream(entry);
+      output.writeInt(MAGIC);
+      output.writeInt(FORMAT_VERSION);
+      output.writeUTF(avroVersion.name());
+      output.writeUTF(getGeneratorVersion());
+      output.writeUTF(kind);
+      output.writeLong(writerSchemaFingerprint);
+      output.writeLong(readerSchemaFingerprint);
+      output.writeUTF(mainClassName);
+      output.writeInt(classes.size());
+      for (Map.Entry<String, byte[]> classEntry : classes.entrySet()) {
+        output.writeUTF(classEntry.getKey());
+        output.writeInt(classEntry.getValue().length);
+        output.write(classEntry.getValue());
+      }
+      output.flush();
+      CRC32 crc = new CRC32();
+      crc.update(entry.toByteArray());
+      output.writeLong(crc.getValue());
+      output.flush();
+
+      tempPath = Files.createTempFile(storeDir, entryPath.getFileName().toString(), ".tmp");
+      Files.write(tempPath, entry.toByteArray());
+      try {
+        Files.move(tempPath, entryPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempPath, entryPath, StandardCopyOption.REPLACE_EXISTING);
+      }
+      LOGGER.info("Stored class {} in class store entry: {}", mainClassName, entryPath);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to store class {} in class store entry: {}", mainClassName, entryPath, e);
+      if (tempPath != null) {
+        deleteEntry(tempPath);
+      }
+    }
+  }
+
+  /**
+   * Deletes the directories of the other generator versions of the runtime avro version, whose entries can't be
+   * loaded anymore. JVMs still running a previous version of avro-fastserde on the same directory just fall back to
+   * compiling their classes again.
+   */
+  public void pruneStaleVersions() {
+    Path versionsDir = storeDir.getParent();
+    List<Path> staleVersionDirs;
+    try (DirectoryStream<Path> versionDirs = Files.newDirectoryStream(versionsDir, Files::isDirectory)) {
+      staleVersionDirs = new ArrayList<>();
+      for (Path versionDir : versionDirs) {
+        if (!versionDir.equals(storeDir)) {
+          staleVersionDirs.add(versionDir);
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Unable to list class store directory: {}", versionsDir, e);
+      return;
+    }
+    for (Path staleVersionDir : staleVersionDirs) {
+      LOGGER.info("Deleting stale class store directory: {}", staleVersionDir);
+      List<Path> staleFiles;
+      try (Stream<Path> files = Files.walk(staleVersionDir)) {
+        // children first
+        staleFiles = files.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+      } catch (IOException e) {
+        LOGGER.warn("Unable to list stale class store directory: {}", staleVersionDir, e);
+        continue;
+      }
+      staleFiles.forEach(FastSerdeClassStore::deleteEntry);
+    }
+  }
+
+  /**
+   * Removes the entry for the given key, if any.
+   *
+   * @param kind kind of the generated class, e.g. "GenericDeserializer"
+   * @param writerSchemaFingerprint fingerprint of the writer schema
+   * @param readerSchemaFingerprint fingerprint of the reader schema
+   */
+  public void removeClass(String kind, long writerSchemaFingerprint, long readerSchemaFingerprint) {
+    deleteEntry(getEntryPath(kind, writerSchemaFingerprint, readerSchemaFingerprint));
+  }
+
+  /**
+   * @return key identifying a generated class, shared by the class store and {@link FastSerdeAotIndex}
+   */
+  static String getEntryKey(String kind, long writerSchemaFingerprint, long readerSchemaFingerprint) {
+    return kind + "_" + Long.toHexString(writerSchemaFingerprint) + "_" + Long.toHexString(readerSchemaFingerprint);
+  }
+
+  private Path getEntryPath(String kind, long writerSchemaFingerprint, long readerSchemaFingerprint) {
+    return storeDir.resolve(getEntryKey(kind, writerSchemaFingerprint, readerSchemaFingerprint) + ENTRY_SUFFIX);
+  }
+
+  private static void deleteEntry(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to delete class store file: {}", path, e);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package com.linkedin.avro.fastserde;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+
+/**
+ * Schedules the compilation tasks of {@link FastSerdeCache} hottest-first: whenever a thread of the underlying
+ * {@link Executor} becomes available, it runs the pending task whose serde has been invoked the most so far,
+ * instead of the oldest one.
+ */
+class FastSerdeCompileScheduler {
+  private final Executor executor;
+  private final List<PendingTask> pendingTasks = new ArrayList<>();
+
+  FastSerdeCompileScheduler(Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * @param hotness current hotness of the serde compiled by the tasks submitted to the returned executor
+   * @return {@link Executor} scheduling its tasks according to the given hotness
+   */
+  Executor executorFor(LongSupplier hotness) {
+    return task -> schedule(hotness, task);
+  }
+
+  private void schedule(LongSupplier hotness, Runnable task) {
+    synchronized (pendingTasks) {
+      pendingTasks.add(new PendingTask(hotness, task));
+    }
+    executor.execute(this::runHottestTask);
+  }
+
+  private void runHottestTask() {
+    PendingTask hottestTask = null;
+    synchronized (pendingTasks) {
+      long maxHotness = Long.MIN_VALUE;
+      int hottestIndex = -1;
+      for (int i = 0; i < pendingTasks.size(); i++) {
+        long hotness = pendingTasks.get(i).hotness.getAsLong();
+        if (hotness > maxHotness) {
+          maxHotness = hotness;
+          hottestIndex = i;
+        }
+      }
+      if (hottestIndex >= 0) {
+        hottestTask = pendingTasks.remove(hottestIndex);
+      }
+    }
+    if (hottestTask != null) {
+      hottestTask.task.run();
+    }
+  }
+
+  private static final class PendingTask {
+    private final LongSupplier hotness;
+    private final Runnable task;
+
+    private PendingTask(LongSupplier hotness, Runnable task) {
+      this.hotness = hotness;
+      this.task = task;
+    }
+  }
+
+  /**
+   * Counts the invocations of a cold serde, and triggers the compilation of its fast counterpart once
+   * the compile threshold is reached.
+   */
+  static final class InvocationCounter {
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicBoolean triggered = new AtomicBoolean();
+    private final CompletableFuture<Object> completion = new CompletableFuture<>();
+    private volatile long threshold = Long.MAX_VALUE;
+    private volatile boolean forced;
+    private volatile Supplier<? extends CompletionStage<?>> action;
+
+    void increment() {
+      if (count.incrementAndGet() >= threshold) {
+        trigger();
+      }
+    }
+
+    long get() {
+      return count.get();
+    }
+
+    /**
+     * @param threshold number of invocations after which the action runs, 0 to run it right away
+     * @param action action to run once the threshold is reached, returning the completion of the compilation
+     */
+    void onThreshold(long threshold, Supplier<? extends CompletionStage<?>> action) {
+      this.action = action;
+      this.threshold = threshold;
+      if (forced || count.get() >= threshold) {
+        trigger();
+      }
+    }
+
+    /**
+     * Runs the action right away, or as soon as it is set, regardless of the threshold.
+     *
+     * @return future completed with the result of the action
+     */
+    CompletableFuture<Object> triggerNow() {
+      forced = true;
+      if (action != null) {
+        trigger();
+      }
+      return completion;
+    }
+
+    private void trigger() {
+      if (triggered.compareAndSet(false, true)) {
+        try {
+          action.get().whenComplete((result, e) -> {
+            if (e != null) {
+              completion.completeExceptionally(e);
+            } else {
+              completion.complete(result);
+            }
+          });
+        } catch (RuntimeException e) {
+          completion.completeExceptionally(e);
+          throw e;
+        }
+      }
+    }
+  }
+}
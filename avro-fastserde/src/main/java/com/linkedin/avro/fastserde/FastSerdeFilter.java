@@ -0,0 +1,329 @@
+package com.linkedin.avro.fastserde;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Predicate over the top level fields of records, which deserializers can evaluate while decoding so that the
+ * records it rejects are skipped rather than materialized, see
+ * {@link FastSerdeCache#getFastGenericDeserializer(Schema, Schema, FastSerdeFilter)}.
+ *
+ * A filter is a conjunction of conditions on single fields: equality, membership in a set of values, numeric range
+ * and null checks. Strings match whether they are read as {@link Utf8} or {@link String}, enum symbols match by
+ * name, and numbers match by value among integral types or among floating point types.
+ *
+ * The generated deserializers test each condition right after decoding its field, and skip the rest of the record
+ * as soon as one fails. Fields are decoded in the order of the writer schema, so the earlier the filtered fields
+ * come in it, the less is decoded for the rejected records.
+ *
+ * Filters are immutable, and equal filters share the same generated deserializer.
+ */
+public final class FastSerdeFilter {
+  private enum Kind {
+    IN, RANGE, NULL, NOT_NULL
+  }
+
+  /**
+   * Conditions by field name, in the order they were added.
+   */
+  private final Map<String, List<Condition>> conditions;
+  private final String[] fieldNames;
+  private final Condition[][] conditionsByField;
+
+  private FastSerdeFilter(Map<String, List<Condition>> conditions) {
+    this.conditions = conditions;
+    this.fieldNames = conditions.keySet().toArray(new String[0]);
+    this.conditionsByField = new Condition[fieldNames.length][];
+    for (int i = 0; i < fieldNames.length; i++) {
+      conditionsByField[i] = conditions.get(fieldNames[i]).toArray(new Condition[0]);
+    }
+  }
+
+  private static FastSerdeFilter of(Condition condition) {
+    Map<String, List<Condition>> conditions = new LinkedHashMap<>();
+    conditions.put(condition.field, Collections.singletonList(condition));
+    return new FastSerdeFilter(conditions);
+  }
+
+  /**
+   * @param field name of a top level field
+   * @param value expected value, null included
+   * @return filter accepting the records whose field is equal to the given value
+   */
+  public static FastSerdeFilter equalTo(String field, Object value) {
+    return in(field, Collections.singleton(value));
+  }
+
+  /**
+   * @param field name of a top level field
+   * @param values accepted values, null included
+   * @return filter accepting the records whose field is equal to one of the given values
+   */
+  public static FastSerdeFilter in(String field, Collection<?> values) {
+    Set<Object> normalizedValues = new HashSet<>();
+    for (Object value : values) {
+      normalizedValues.add(normalizeExpectedValue(field, value));
+    }
+    return of(new Condition(field, Kind.IN, normalizedValues, null, null));
+  }
+
+  /**
+   * @param field name of a top level numeric field
+   * @param min minimum value, inclusive
+   * @param max maximum value, inclusive
+   * @return filter accepting the records whose field is within the given range
+   */
+  public static FastSerdeFilter between(String field, Number min, Number max) {
+    return of(new Condition(field, Kind.RANGE, Collections.emptySet(), (Number) normalizeExpectedValue(field, min),
+        (Number) normalizeExpectedValue(field, max)));
+  }
+
+  /**
+   * @param field name of a top level field
+   * @return filter accepting the records whose field is null
+   */
+  public static FastSerdeFilter isNull(String field) {
+    return of(new Condition(field, Kind.NULL, Collections.emptySet(), null, null));
+  }
+
+  /**
+   * @param field name of a top level field
+   * @return filter accepting the records whose field is not null
+   */
+  public static FastSerdeFilter isNotNull(String field) {
+    return of(new Condition(field, Kind.NOT_NULL, Collections.emptySet(), null, null));
+  }
+
+  /**
+   * @param other another filter
+   * @return filter accepting the records accepted by both this filter and the given one
+   */
+  public FastSerdeFilter and(FastSerdeFilter other) {
+    Map<String, List<Condition>> combined = new LinkedHashMap<>();
+    for (FastSerdeFilter filter : Arrays.asList(this, other)) {
+      for (Map.Entry<String, List<Condition>> entry : filter.conditions.entrySet()) {
+        List<Condition> fieldConditions = combined.computeIfAbsent(entry.getKey(), k -> new ArrayList<>());
+        for (Condition condition : entry.getValue()) {
+          if (!fieldConditions.contains(condition)) {
+            fieldConditions.add(condition);
+          }
+        }
+      }
+    }
+    return new FastSerdeFilter(combined);
+  }
+
+  /**
+   * @return names of the filtered fields, in the order of the positions passed to {@link #test(int, Object)}
+   */
+  public List<String> getFieldNames() {
+    return Collections.unmodifiableList(Arrays.asList(fieldNames));
+  }
+
+  /**
+   * Tests the conditions on a single field, called by the generated deserializers right after decoding it.
+   *
+   * @param fieldIndex position of the field in {@link #getFieldNames()}
+   * @param value decoded value of the field
+   * @return whether the value satisfies all the conditions on that field
+   */
+  public boolean test(int fieldIndex, Object value) {
+    for (Condition condition : conditionsByField[fieldIndex]) {
+      if (!condition.test(value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Tests a record which was fully deserialized, e.g. by vanilla avro before the fast deserializer is generated.
+   *
+   * @param record record with all the filtered fields
+   * @return whether the record satisfies all the conditions of this filter
+   * @throws IllegalArgumentException if a filtered field is missing from the schema of the record
+   */
+  public boolean test(IndexedRecord record) {
+    Schema schema = record.getSchema();
+    for (int i = 0; i < fieldNames.length; i++) {
+      if (!test(i, record.get(getField(schema, fieldNames[i]).pos()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param recordSchema top level record schema
+   * @param fieldName name of a filtered field
+   * @return field of the given schema
+   * @throws IllegalArgumentException if the field is missing
+   */
+  static Schema.Field getField(Schema recordSchema, String fieldName) {
+    Schema.Field field = recordSchema.getField(fieldName);
+    if (field == null) {
+      throw new IllegalArgumentException("Filtered field: " + fieldName + " is missing from schema: "
+          + recordSchema.getFullName());
+    }
+    return field;
+  }
+
+  private static Object normalizeExpectedValue(String field, Object value) {
+    if (value instanceof CharSequence) {
+      // kept as a String, including a Utf8, so that it is found among the values and the Utf8 values
+      return value.toString();
+    }
+    if (value == null || value instanceof Number || value instanceof Boolean || value instanceof Enum) {
+      return normalize(value);
+    }
+    throw new IllegalArgumentException("Unsupported value to filter field: " + field + " on: " + value.getClass());
+  }
+
+  /**
+   * Converts a value to the instance it is compared with, without allocating anything for the values of the usual
+   * types, except for the strings which are neither {@link Utf8} nor {@link String}.
+   */
+  private static Object normalize(Object value) {
+    if (value instanceof Utf8 || value instanceof Boolean || value == null) {
+      return value;
+    }
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue();
+    }
+    if (value instanceof Float || value instanceof Double) {
+      return ((Number) value).doubleValue();
+    }
+    // strings, generic enum symbols and java enums
+    return value.toString();
+  }
+
+  private static boolean isIntegral(Object value) {
+    return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+  }
+
+  private static final class Condition {
+    private final String field;
+    private final Kind kind;
+    /**
+     * Normalized accepted values, with strings as {@link String}s.
+     */
+    private final Set<Object> values;
+    /**
+     * The string values as {@link Utf8}s, which are only equal to {@link Utf8}s.
+     */
+    private final Set<Utf8> utf8Values = new HashSet<>();
+    private final Number min;
+    private final Number max;
+
+    private Condition(String field, Kind kind, Set<Object> values, Number min, Number max) {
+      this.field = Objects.requireNonNull(field, "field");
+      this.kind = kind;
+      this.values = values;
+      this.min = min;
+      this.max = max;
+      for (Object value : values) {
+        if (value instanceof String) {
+          utf8Values.add(new Utf8((String) value));
+        }
+      }
+      if (kind == Kind.RANGE && (min == null || max == null)) {
+        throw new IllegalArgumentException("Range of field: " + field + " should have a minimum and a maximum");
+      }
+    }
+
+    private boolean test(Object value) {
+      switch (kind) {
+        case NULL:
+          return value == null;
+        case NOT_NULL:
+          return value != null;
+        case RANGE:
+          if (!(value instanceof Number)) {
+            return false;
+          }
+          if (isIntegral(value) && min instanceof Long && max instanceof Long) {
+            long longValue = ((Number) value).longValue();
+            return longValue >= (Long) min && longValue <= (Long) max;
+          }
+          double doubleValue = ((Number) value).doubleValue();
+          return doubleValue >= min.doubleValue() && doubleValue <= max.doubleValue();
+        default:
+          if (value instanceof Utf8) {
+            return utf8Values.contains(value);
+          }
+          return values.contains(normalize(value));
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Condition)) {
+        return false;
+      }
+      Condition that = (Condition) o;
+      return field.equals(that.field) && kind == that.kind && values.equals(that.values) && Objects.equals(min,
+          that.min) && Objects.equals(max, that.max);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(field, kind, values, min, max);
+    }
+
+    @Override
+    public String toString() {
+      switch (kind) {
+        case NULL:
+          return field + " is null";
+        case NOT_NULL:
+          return field + " is not null";
+        case RANGE:
+          return field + " between " + min + " and " + max;
+        default:
+          return field + " in " + values;
+      }
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof FastSerdeFilter)) {
+      return false;
+    }
+    return conditions.equals(((FastSerdeFilter) o).conditions);
+  }
+
+  @Override
+  public int hashCode() {
+    return conditions.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (List<Condition> fieldConditions : conditions.values()) {
+      for (Condition condition : fieldConditions) {
+        builder.append(builder.length() == 0 ? "" : " and ").append(condition);
+      }
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,175 @@
+package com.linkedin.avro.fastserde;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFormatter;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JSwitch;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+
+/**
+ * Spreads the code generated for the fields of a record over as many methods as needed to keep the byte code of
+ * each of them under a budget.
+ *
+ * HotSpot doesn't JIT-compile methods whose byte code is larger than 8000 bytes (unless -XX:-DontCompileHugeMethods is set),
+ * and javac rejects methods larger than 64KB, so generating all the fields of a very wide record into a single
+ * method would either run it interpreted forever or make the generation fail.
+ *
+ * The generated code isn't compiled yet when it gets split, so its byte code size is estimated from the length of
+ * its source, see {@link #estimateByteCodeSize(JBlock)}.
+ */
+class FastSerdeMethodSplitter {
+  /**
+   * System property overriding {@link #DEFAULT_METHOD_SIZE_BUDGET}. A value of 0 or less disables the splitting.
+   */
+  public static final String METHOD_SIZE_BUDGET = "avro.fast.serde.method.size.budget";
+
+  /**
+   * Default estimated byte code size budget per generated method, leaving some room under the 8000 bytes limit of
+   * HotSpot for the estimation error and for the invocations of the helper methods.
+   */
+  static final int DEFAULT_METHOD_SIZE_BUDGET = 6000;
+
+  /**
+   * Ratio between the length of the generated source of a statement and the size of its byte code. The source
+   * refers to classes by their fully qualified names, so it is much longer than its byte code; this ratio errs on
+   * the side of overestimating the byte code size.
+   */
+  private static final int SOURCE_CHARS_PER_BYTE_CODE_BYTE = 2;
+
+  private final int budget;
+  private final Supplier<JMethod> helperMethodFactory;
+  private final List<JMethod> helperMethods = new ArrayList<>();
+  private final JBlock originalBody;
+  private JBlock currentBody;
+  private int currentSize;
+
+  /**
+   * @param body body receiving the code until it reaches the budget
+   * @param budget estimated byte code size budget of each method, 0 or less to never split
+   * @param helperMethodFactory creates a new helper method receiving the code once the current one is full, and
+   *                            generates its invocation from the original method
+   */
+  FastSerdeMethodSplitter(JBlock body, int budget, Supplier<JMethod> helperMethodFactory) {
+    this.originalBody = body;
+    this.currentBody = body;
+    this.budget = budget;
+    this.helperMethodFactory = helperMethodFactory;
+  }
+
+  /**
+   * @return estimated byte code size budget per generated method, from the {@value #METHOD_SIZE_BUDGET} system
+   *         property or {@link #DEFAULT_METHOD_SIZE_BUDGET}
+   */
+  static int getDefaultBudget() {
+    return Integer.getInteger(METHOD_SIZE_BUDGET, DEFAULT_METHOD_SIZE_BUDGET);
+  }
+
+  /**
+   * @return new detached block, to be filled with the code of a field and then passed to {@link #add(JBlock)}
+   */
+  static JBlock newFieldBlock() {
+    return new JBlock(false, false);
+  }
+
+  /**
+   * Appends the given code to the current method, or to a new helper method if the current one would go over the
+   * budget.
+   *
+   * @param fieldBlock code of a field, see {@link #newFieldBlock()}
+   */
+  void add(JBlock fieldBlock) {
+    if (fieldBlock.isEmpty()) {
+      return;
+    }
+    int size = budget > 0 ? estimateByteCodeSize(fieldBlock) : 0;
+    if (budget > 0 && currentSize > 0 && currentSize + size > budget) {
+      JMethod helperMethod = helperMethodFactory.get();
+      helperMethods.add(helperMethod);
+      currentBody = helperMethod.body();
+      currentSize = 0;
+    }
+    currentBody.add(fieldBlock);
+    currentSize += size;
+  }
+
+  /**
+   * Appends the given code to the original method, after all the code added so far, e.g. because it returns from
+   * the original method. The code added next goes to the original method too, until it reaches the budget again.
+   *
+   * @param block code to append to the original method
+   */
+  void addToOriginalMethod(JBlock block) {
+    originalBody.add(block);
+    if (currentBody != originalBody) {
+      currentBody = originalBody;
+      currentSize = budget > 0 ? estimateByteCodeSize(originalBody) : 0;
+    } else if (budget > 0) {
+      currentSize += estimateByteCodeSize(block);
+    }
+  }
+
+  /**
+   * @return helper methods created so far
+   */
+  List<JMethod> getHelperMethods() {
+    return helperMethods;
+  }
+
+  /**
+   * Spreads the cases of a switch over as many switches as needed to keep the byte code of each of them under a
+   * budget, each of them taking a contiguous range of the cases, so that they can go to methods of their own.
+   *
+   * @param value value switched on
+   * @param cases code of the cases by their value, see {@link #newFieldBlock()}, each of them ending with a jump out
+   *              of the switch
+   * @param budget estimated byte code size budget of each switch, 0 or less to never split
+   * @param defaultCaseGenerator generates the code of the default case of each switch
+   * @return blocks holding a switch each, by the value of their first case
+   */
+  static SortedMap<Integer, JBlock> splitSwitch(JExpression value, SortedMap<Integer, JBlock> cases, int budget,
+      Consumer<JBlock> defaultCaseGenerator) {
+    SortedMap<Integer, JBlock> switchBlocks = new TreeMap<>();
+    List<JSwitch> switches = new ArrayList<>();
+    int currentSize = 0;
+    for (Map.Entry<Integer, JBlock> caseEntry : cases.entrySet()) {
+      int size = budget > 0 ? estimateByteCodeSize(caseEntry.getValue()) : 0;
+      if (switches.isEmpty() || (currentSize > 0 && currentSize + size > budget)) {
+        JBlock switchBlock = newFieldBlock();
+        switches.add(switchBlock._switch(value));
+        switchBlocks.put(caseEntry.getKey(), switchBlock);
+        currentSize = 0;
+      }
+      switches.get(switches.size() - 1)._case(JExpr.lit(caseEntry.getKey())).body().add(caseEntry.getValue());
+      currentSize += size;
+    }
+    if (switches.isEmpty()) {
+      JBlock switchBlock = newFieldBlock();
+      switches.add(switchBlock._switch(value));
+      switchBlocks.put(0, switchBlock);
+    }
+    for (JSwitch jSwitch : switches) {
+      defaultCaseGenerator.accept(jSwitch._default().body());
+    }
+    return switchBlocks;
+  }
+
+  /**
+   * @param block generated code
+   * @return estimated size of the byte code of the given code
+   */
+  static int estimateByteCodeSize(JBlock block) {
+    StringWriter source = new StringWriter();
+    block.state(new JFormatter(source));
+    return source.getBuffer().length() / SOURCE_CHARS_PER_BYTE_CODE_BYTE;
+  }
+}
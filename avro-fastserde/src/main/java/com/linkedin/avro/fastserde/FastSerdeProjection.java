@@ -0,0 +1,179 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.avro.Schema;
+
+
+/**
+ * Derives projected reader schemas, which only keep the fields a reader is interested in.
+ *
+ * Fields are selected by dotted paths from the top level record, e.g. "header.time" selects the "time" field of
+ * the record(s) held by the "header" field, which may be nested in unions, arrays or maps. Selecting a field
+ * selects everything below it.
+ *
+ * Deserializing with a projected reader schema decodes only the selected fields: the generated code skips all the
+ * fields of the writer schema which are missing from the reader schema without materializing them. Records are
+ * projected by type rather than by location, so a record type selected through several paths (or recursively)
+ * keeps the union of the fields selected through each of them.
+ */
+public final class FastSerdeProjection {
+  private static final String PATH_SEPARATOR = "\\.";
+
+  private FastSerdeProjection() {
+  }
+
+  /**
+   * @param readerSchema record {@link Schema} to project
+   * @param fieldPaths dotted paths of the fields to keep
+   * @return projected reader schema, keeping only the selected fields
+   * @throws IllegalArgumentException if the reader schema is not a record or a path doesn't match any field
+   */
+  public static Schema project(Schema readerSchema, Collection<String> fieldPaths) {
+    if (readerSchema.getType() != Schema.Type.RECORD) {
+      throw new IllegalArgumentException("Only record schemas can be projected, got: " + readerSchema.getType());
+    }
+    Map<String, Set<String>> selectedFields = new HashMap<>();
+    selectedFields.put(readerSchema.getFullName(), new LinkedHashSet<>());
+    for (String fieldPath : fieldPaths) {
+      selectPath(readerSchema, fieldPath.split(PATH_SEPARATOR), 0, fieldPath, selectedFields);
+    }
+    return projectSchema(readerSchema, selectedFields, new HashMap<>());
+  }
+
+  /**
+   * Selects the field matching the given path part in all the records reachable from the given schema.
+   */
+  private static void selectPath(Schema schema, String[] pathParts, int index, String fieldPath,
+      Map<String, Set<String>> selectedFields) {
+    List<Schema> records = new ArrayList<>();
+    collectRecords(schema, records);
+    boolean matched = false;
+    for (Schema record : records) {
+      if (!selectedFields.containsKey(record.getFullName())) {
+        selectedFields.put(record.getFullName(), new LinkedHashSet<>());
+      }
+      Set<String> recordFields = selectedFields.get(record.getFullName());
+      Schema.Field field = record.getField(pathParts[index]);
+      if (field == null) {
+        continue;
+      }
+      matched = true;
+      if (recordFields != null) {
+        recordFields.add(field.name());
+      }
+      if (index == pathParts.length - 1) {
+        selectAll(field.schema(), selectedFields);
+      } else {
+        selectPath(field.schema(), pathParts, index + 1, fieldPath, selectedFields);
+      }
+    }
+    if (!matched) {
+      throw new IllegalArgumentException("Field path: " + fieldPath + " doesn't match any field of the reader schema");
+    }
+  }
+
+  /**
+   * Selects all the fields of all the records reachable from the given schema, which is recorded as a null set.
+   */
+  private static void selectAll(Schema schema, Map<String, Set<String>> selectedFields) {
+    List<Schema> records = new ArrayList<>();
+    collectRecords(schema, records);
+    for (Schema record : records) {
+      if (selectedFields.containsKey(record.getFullName()) && selectedFields.get(record.getFullName()) == null) {
+        continue;
+      }
+      selectedFields.put(record.getFullName(), null);
+      for (Schema.Field field : record.getFields()) {
+        selectAll(field.schema(), selectedFields);
+      }
+    }
+  }
+
+  /**
+   * Collects the records directly held by the given schema, looking through unions, arrays and maps.
+   */
+  private static void collectRecords(Schema schema, List<Schema> records) {
+    switch (schema.getType()) {
+      case RECORD:
+        records.add(schema);
+        break;
+      case UNION:
+        for (Schema type : schema.getTypes()) {
+          collectRecords(type, records);
+        }
+        break;
+      case ARRAY:
+        collectRecords(schema.getElementType(), records);
+        break;
+      case MAP:
+        collectRecords(schema.getValueType(), records);
+        break;
+      default:
+        break;
+    }
+  }
+
+  private static Schema projectSchema(Schema schema, Map<String, Set<String>> selectedFields,
+      Map<String, Schema> projectedRecords) {
+    switch (schema.getType()) {
+      case RECORD:
+        return projectRecord(schema, selectedFields, projectedRecords);
+      case UNION:
+        List<Schema> types = new ArrayList<>(schema.getTypes().size());
+        boolean unionChanged = false;
+        for (Schema type : schema.getTypes()) {
+          Schema projectedType = projectSchema(type, selectedFields, projectedRecords);
+          unionChanged |= projectedType != type;
+          types.add(projectedType);
+        }
+        return unionChanged ? Schema.createUnion(types) : schema;
+      case ARRAY:
+        Schema elementType = projectSchema(schema.getElementType(), selectedFields, projectedRecords);
+        return elementType != schema.getElementType() ? Schema.createArray(elementType) : schema;
+      case MAP:
+        Schema valueType = projectSchema(schema.getValueType(), selectedFields, projectedRecords);
+        return valueType != schema.getValueType() ? Schema.createMap(valueType) : schema;
+      default:
+        return schema;
+    }
+  }
+
+  private static Schema projectRecord(Schema record, Map<String, Set<String>> selectedFields,
+      Map<String, Schema> projectedRecords) {
+    Set<String> recordFields = selectedFields.get(record.getFullName());
+    if (recordFields == null) {
+      // every field is selected, and so is everything below them
+      return record;
+    }
+    Schema projectedRecord = projectedRecords.get(record.getFullName());
+    if (projectedRecord != null) {
+      return projectedRecord;
+    }
+    projectedRecord = Schema.createRecord(record.getName(), record.getDoc(), record.getNamespace(), record.isError());
+    // registered before projecting the fields, in case of recursion
+    projectedRecords.put(record.getFullName(), projectedRecord);
+    for (String alias : record.getAliases()) {
+      projectedRecord.addAlias(alias);
+    }
+    List<Schema.Field> fields = new ArrayList<>(recordFields.size());
+    for (Schema.Field field : record.getFields()) {
+      if (recordFields.contains(field.name())) {
+        Schema fieldSchema = projectSchema(field.schema(), selectedFields, projectedRecords);
+        Schema.Field projectedField = AvroCompatibilityHelper.cloneSchemaField(field).setSchema(fieldSchema).build();
+        for (String alias : field.aliases()) {
+          projectedField.addAlias(alias);
+        }
+        fields.add(projectedField);
+      }
+    }
+    projectedRecord.setFields(fields);
+    return projectedRecord;
+  }
+}
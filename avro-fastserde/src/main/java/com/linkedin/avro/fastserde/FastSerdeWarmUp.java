@@ -0,0 +1,278 @@
+package com.linkedin.avro.fastserde;
+
+import static com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper.getSchemaFullName;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Warms a {@link FastSerdeCache} up: compiles the fast serdes of a known set of schemas right away, regardless of
+ * the compile threshold of the cache, and tells when all of them are ready.
+ *
+ * Usage:
+ * <pre>
+ *   new FastSerdeWarmUp(cache)
+ *       .addGenericDeserializer(writerSchema, readerSchema)
+ *       .addGenericSerializer(schema)
+ *       .setProgressListener((entry, completedCount, totalCount) -&gt; ...)
+ *       .start()
+ *       .get(5, TimeUnit.MINUTES);
+ * </pre>
+ *
+ * The compilations run on the executor of the cache, so the returned future can be awaited in parallel with other
+ * startup work. It completes once every serde is either compiled or has fallen back to the vanilla avro one, and
+ * never completes exceptionally: the failures are reported by the {@link Entry entries} of the {@link Result}.
+ */
+public class FastSerdeWarmUp {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FastSerdeWarmUp.class);
+
+  /**
+   * Kind of serde to warm up.
+   */
+  public enum Kind {
+    SPECIFIC_DESERIALIZER(FastSerdeCache.SPECIFIC_DESERIALIZER),
+    GENERIC_DESERIALIZER(FastSerdeCache.GENERIC_DESERIALIZER),
+    SPECIFIC_SERIALIZER(FastSerdeCache.SPECIFIC_SERIALIZER),
+    GENERIC_SERIALIZER(FastSerdeCache.GENERIC_SERIALIZER);
+
+    private final String cacheKind;
+
+    Kind(String cacheKind) {
+      this.cacheKind = cacheKind;
+    }
+
+    public boolean isSerializer() {
+      return this == SPECIFIC_SERIALIZER || this == GENERIC_SERIALIZER;
+    }
+  }
+
+  /**
+   * Outcome of the warm up of a serde.
+   */
+  public enum Status {
+    /** A fast serde is in use, either generated or precompiled. */
+    FAST,
+    /** The fast serde couldn't be generated, the vanilla avro serde is used instead. */
+    FALLBACK,
+    /** No fast serde can be generated for this schema type or avro version. */
+    UNSUPPORTED
+  }
+
+  /**
+   * Listener notified every time the warm up of a serde completes.
+   */
+  public interface ProgressListener {
+    /**
+     * @param entry serde whose warm up just completed
+     * @param completedCount number of serdes warmed up so far, the given one included
+     * @param totalCount number of serdes to warm up
+     */
+    void onProgress(Entry entry, int completedCount, int totalCount);
+  }
+
+  private final FastSerdeCache cache;
+  private final List<Entry> entries = new ArrayList<>();
+  private ProgressListener progressListener;
+
+  /**
+   * @param cache cache to warm up
+   */
+  public FastSerdeWarmUp(FastSerdeCache cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * @param writerSchema {@link Schema} of written data
+   * @param readerSchema {@link Schema} intended to be used during deserialization
+   * @return this warm up
+   */
+  public FastSerdeWarmUp addSpecificDeserializer(Schema writerSchema, Schema readerSchema) {
+    entries.add(new Entry(Kind.SPECIFIC_DESERIALIZER, writerSchema, readerSchema));
+    return this;
+  }
+
+  /**
+   * @param writerSchema {@link Schema} of written data
+   * @param readerSchema {@link Schema} intended to be used during deserialization
+   * @return this warm up
+   */
+  public FastSerdeWarmUp addGenericDeserializer(Schema writerSchema, Schema readerSchema) {
+    entries.add(new Entry(Kind.GENERIC_DESERIALIZER, writerSchema, readerSchema));
+    return this;
+  }
+
+  /**
+   * @param schema {@link Schema} of data to write
+   * @return this warm up
+   */
+  public FastSerdeWarmUp addSpecificSerializer(Schema schema) {
+    entries.add(new Entry(Kind.SPECIFIC_SERIALIZER, schema, schema));
+    return this;
+  }
+
+  /**
+   * @param schema {@link Schema} of data to write
+   * @return this warm up
+   */
+  public FastSerdeWarmUp addGenericSerializer(Schema schema) {
+    entries.add(new Entry(Kind.GENERIC_SERIALIZER, schema, schema));
+    return this;
+  }
+
+  /**
+   * @param progressListener listener notified every time the warm up of a serde completes, from the thread which
+   *                         completed it
+   * @return this warm up
+   */
+  public FastSerdeWarmUp setProgressListener(ProgressListener progressListener) {
+    this.progressListener = progressListener;
+    return this;
+  }
+
+  /**
+   * Starts compiling all the added serdes.
+   *
+   * @return future completed once every serde is either compiled or has fallen back to the vanilla avro one
+   */
+  public CompletableFuture<Result> start() {
+    List<Entry> startedEntries = new ArrayList<>(entries);
+    AtomicInteger completedCount = new AtomicInteger();
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[startedEntries.size()];
+    for (int i = 0; i < futures.length; i++) {
+      Entry entry = startedEntries.get(i);
+      futures[i] = warmUp(entry).whenComplete((ignored, e) -> {
+        int completed = completedCount.incrementAndGet();
+        if (progressListener != null) {
+          try {
+            progressListener.onProgress(entry, completed, futures.length);
+          } catch (RuntimeException listenerException) {
+            LOGGER.warn("Warm up progress listener failed", listenerException);
+          }
+        }
+      });
+    }
+    return CompletableFuture.allOf(futures).handle((ignored, e) -> new Result(startedEntries));
+  }
+
+  private CompletableFuture<Void> warmUp(Entry entry) {
+    boolean supported = entry.kind.isSerializer()
+        ? FastSerdeCache.isSupportedForFastSerializer(entry.readerSchema.getType())
+            && Utils.isSupportedAvroVersionsForSerializer()
+        : FastSerdeCache.isSupportedForFastDeserializer(entry.readerSchema.getType());
+    if (!supported) {
+      entry.status = Status.UNSUPPORTED;
+      return CompletableFuture.completedFuture(null);
+    }
+    return CompletableFuture.supplyAsync(() -> cache.compileNow(entry.kind.cacheKind, entry.writerSchema, entry.readerSchema),
+        cache.getExecutor())
+        .thenCompose(future -> future)
+        .handle((serde, e) -> {
+          if (e != null) {
+            entry.status = Status.FALLBACK;
+            entry.failure = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+          } else if (FastSerdeCache.isFallback(serde)) {
+            entry.status = Status.FALLBACK;
+            entry.failure = FastSerdeCache.getFallbackFailure(serde);
+          } else {
+            entry.status = Status.FAST;
+          }
+          if (entry.status == Status.FALLBACK) {
+            LOGGER.warn("Warm up of {} for writer schema: {} and reader schema: {} has fallen back to vanilla avro",
+                entry.kind, getSchemaFullName(entry.writerSchema), getSchemaFullName(entry.readerSchema), entry.failure);
+          }
+          return null;
+        });
+  }
+
+  /**
+   * Serde to warm up.
+   */
+  public static final class Entry {
+    private final Kind kind;
+    private final Schema writerSchema;
+    private final Schema readerSchema;
+    private volatile Status status;
+    private volatile Throwable failure;
+
+    private Entry(Kind kind, Schema writerSchema, Schema readerSchema) {
+      this.kind = kind;
+      this.writerSchema = writerSchema;
+      this.readerSchema = readerSchema;
+    }
+
+    public Kind getKind() {
+      return kind;
+    }
+
+    public Schema getWriterSchema() {
+      return writerSchema;
+    }
+
+    public Schema getReaderSchema() {
+      return readerSchema;
+    }
+
+    /**
+     * @return outcome of the warm up, null while it is in progress
+     */
+    public Status getStatus() {
+      return status;
+    }
+
+    /**
+     * @return why the fast serde couldn't be generated, if known, or null
+     */
+    public Throwable getFailure() {
+      return failure;
+    }
+
+    @Override
+    public String toString() {
+      return kind + "[" + getSchemaFullName(writerSchema) + " -> " + getSchemaFullName(readerSchema) + "]: " + status;
+    }
+  }
+
+  /**
+   * Outcome of a warm up.
+   */
+  public static final class Result {
+    private final List<Entry> entries;
+
+    private Result(List<Entry> entries) {
+      this.entries = Collections.unmodifiableList(entries);
+    }
+
+    public List<Entry> getEntries() {
+      return entries;
+    }
+
+    /**
+     * @param status status to look for
+     * @return entries with the given status
+     */
+    public List<Entry> getEntries(Status status) {
+      List<Entry> matchingEntries = new ArrayList<>();
+      for (Entry entry : entries) {
+        if (entry.status == status) {
+          matchingEntries.add(entry);
+        }
+      }
+      return matchingEntries;
+    }
+
+    /**
+     * @return true if a fast serde is in use for every entry
+     */
+    public boolean isAllFast() {
+      return getEntries(Status.FAST).size() == entries.size();
+    }
+  }
+}
@@ -1,10 +1,51 @@
 package com.linkedin.avro.fastserde;
 
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.linkedin.avroutil1.compatibility.ByteBufferEncoder;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import org.apache.avro.io.Encoder;
 
 
 public interface FastSerializer<T> {
 
   void serialize(T data, Encoder e) throws IOException;
+
+  /**
+   * Walks the data like {@link #serialize(Object, Encoder)} does, counting the bytes of its binary encoding rather
+   * than encoding it.
+   *
+   * @param data data to serialize
+   * @return exact number of bytes of the binary encoding of the given data
+   * @throws IOException on io errors
+   * @throws ArithmeticException if the encoding is larger than a byte array can be
+   */
+  default int computeSerializedSize(T data) throws IOException {
+    SerializedSizeCounter counter = new SerializedSizeCounter();
+    serialize(data, counter);
+    return Math.toIntExact(counter.getSize());
+  }
+
+  /**
+   * Serializes data into a byte array allocated once, with the size given by {@link #computeSerializedSize(Object)},
+   * rather than into a growing buffer which gets copied at the end.
+   *
+   * Computing the size is cheap for bytes, fixed and primitives, but the length of the UTF-8 encoding of
+   * {@link String}s takes a pass over their characters: this pays off for data holding large buffers, less so for
+   * data made of many short strings.
+   *
+   * @param data data to serialize
+   * @return binary encoding of the given data
+   * @throws IOException on io errors
+   */
+  default byte[] serializeToBytes(T data) throws IOException {
+    byte[] bytes = new byte[computeSerializedSize(data)];
+    ByteBufferEncoder encoder = AvroCompatibilityHelper.newByteBufferEncoder(ByteBuffer.wrap(bytes));
+    serialize(data, encoder);
+    if (encoder.getBytesWritten() != bytes.length) {
+      throw new IOException(
+          "Serialized " + encoder.getBytesWritten() + " bytes instead of the computed " + bytes.length);
+    }
+    return bytes;
+  }
 }
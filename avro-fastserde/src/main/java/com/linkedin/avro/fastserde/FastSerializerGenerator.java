@@ -9,6 +9,7 @@ import com.sun.codemodel.JExpr;
 import com.sun.codemodel.JExpression;
 import com.sun.codemodel.JForEach;
 import com.sun.codemodel.JForLoop;
+import com.sun.codemodel.JInvocation;
 import com.sun.codemodel.JMethod;
 import com.sun.codemodel.JMod;
 import com.sun.codemodel.JPackage;
@@ -50,6 +51,17 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
   }
 
   public FastSerializer<T> generateSerializer() {
+    final String className = generateClassCode();
+    try {
+      final Class<FastSerializer<T>> clazz = compileClass(className, schemaAssistant.getUsedFullyQualifiedClassNameSet());
+      return newGeneratedInstance(clazz);
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+  }
+
+  @Override
+  String generateClassCode() {
     final String className = getClassName(schema, useGenericTypes ? "Generic" : "Specific");
     final JPackage classPackage = codeModel._package(generatedPackageName);
 
@@ -80,8 +92,7 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
       serializeMethod.param(codeModel.ref(Encoder.class), ENCODER);
       serializeMethod._throws(codeModel.ref(IOException.class));
 
-      final Class<FastSerializer<T>> clazz = compileClass(className, schemaAssistant.getUsedFullyQualifiedClassNameSet());
-      return clazz.newInstance();
+      return className;
     } catch (JClassAlreadyExistsException e) {
       throw new FastSerdeGeneratorException("Class: " + className + " already exists");
     } catch (Exception e) {
@@ -89,6 +100,12 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
     }
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  FastSerializer<T> newGeneratedInstance(Class<?> generatedClass) throws ReflectiveOperationException {
+    return (FastSerializer<T>) generatedClass.newInstance();
+  }
+
   private void processComplexType(Schema schema, JExpression valueExpr, JBlock body) {
     switch (schema.getType()) {
       case RECORD:
@@ -134,11 +151,31 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
     JMethod method = createMethod(recordSchema);
     containerBody.invoke(getMethod(recordSchema)).arg(recordExpr).arg(JExpr.direct(ENCODER));
 
-    JBlock body = method.body();
     recordExpr = method.listParams()[0];
+    JVar lazyRecordVar = null;
+    if (useGenericTypes) {
+      // unmodified lazy records are written as their original bytes, once their schema is checked
+      JClass lazyRecordClass = codeModel.ref(LazyGenericRecord.class);
+      lazyRecordVar = method.body().decl(lazyRecordClass, getUniqueName("lazyRecord"),
+          lazyRecordClass.staticInvoke("withSchema").arg(recordExpr)
+              .arg(JExpr.lit(Utils.getSchemaFingerprint(recordSchema).longValue())));
+      method.body()._if(lazyRecordVar.ne(JExpr._null())
+          .cand(lazyRecordVar.invoke("writeOriginalBytes").arg(JExpr.direct(ENCODER))))._then()._return();
+    }
+    JVar finalLazyRecordVar = lazyRecordVar;
+    FastSerdeMethodSplitter methodSplitter = new FastSerdeMethodSplitter(method.body(), methodSizeBudget,
+        () -> createHelperMethod(method, recordSchema, finalLazyRecordVar));
 
     for (Schema.Field field : recordSchema.getFields()) {
       Schema fieldSchema = field.schema();
+      JBlock fieldBlock = FastSerdeMethodSplitter.newFieldBlock();
+      JBlock body = fieldBlock;
+      if (lazyRecordVar != null) {
+        // and so are the unmodified fields of modified ones
+        body = fieldBlock._if(lazyRecordVar.eq(JExpr._null())
+            .cor(lazyRecordVar.invoke("writeOriginalField").arg(JExpr.lit(field.pos())).arg(JExpr.direct(ENCODER))
+                .not()))._then();
+      }
       if (SchemaAssistant.isComplexType(fieldSchema)) {
         JClass fieldClass = schemaAssistant.classFromSchema(fieldSchema);
         JVar containerVar = declareValueVar(field.name(), fieldSchema, body);
@@ -149,7 +186,32 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
       } else {
         processSimpleType(fieldSchema, recordExpr.invoke("get").arg(JExpr.lit(field.pos())), body);
       }
+      methodSplitter.add(fieldBlock);
+    }
+  }
+
+  /**
+   * Creates a helper method receiving part of the fields of a record too wide to be written by a single method, and
+   * invokes it from the method writing the record.
+   *
+   * @param lazyRecordVar variable holding the record as a lazy record of its schema, passed on to the helper method,
+   *                      or null for specific records
+   */
+  private JMethod createHelperMethod(JMethod recordMethod, Schema recordSchema, JVar lazyRecordVar) {
+    JMethod helperMethod = generatedClass.method(JMod.PRIVATE, codeModel.VOID,
+        getUniqueName("serialize" + StringUtils.capitalize(recordSchema.getName()) + "Fields"));
+    helperMethod._throws(IOException.class);
+    JVar recordParam = recordMethod.listParams()[0];
+    helperMethod.param(recordParam.type(), recordParam.name());
+    JInvocation invocation = recordMethod.body().invoke(helperMethod).arg(recordParam);
+    if (lazyRecordVar != null) {
+      helperMethod.param(lazyRecordVar.type(), lazyRecordVar.name());
+      invocation.arg(lazyRecordVar);
     }
+    helperMethod.param(Encoder.class, ENCODER);
+    invocation.arg(JExpr.direct(ENCODER));
+    helperMethod.annotate(SuppressWarnings.class).param("value", "unchecked");
+    return helperMethod;
   }
 
   private void processArray(final Schema arraySchema, JExpression arrayExpr, JBlock body) {
@@ -169,7 +231,13 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
         ifCodeGen(else1, primitiveListCondition, then2 -> {
           final JVar primitiveList = declareValueVar("primitiveList", arraySchema, then2, true, false, true);
           then2.assign(primitiveList, JExpr.cast(primitiveListInterface, arrayExpr));
-          processArrayElementLoop(arraySchema, arrayClass, primitiveList, then2, "getPrimitive");
+          String writeMethodName = getPrimitiveArrayWriteMethodName(arraySchema.getElementType());
+          if (writeMethodName != null) {
+            then2.staticInvoke(codeModel.ref(PrimitiveArrayWriter.class), writeMethodName).arg(primitiveList)
+                .arg(JExpr.direct(ENCODER));
+          } else {
+            processArrayElementLoop(arraySchema, arrayClass, primitiveList, then2, "getPrimitive");
+          }
         }, else2 -> {
           processArrayElementLoop(arraySchema, arrayClass, arrayExpr, else2, "get");
         });
@@ -180,6 +248,25 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
     body.invoke(JExpr.direct(ENCODER), "writeArrayEnd");
   }
 
+  /**
+   * @return method of {@link PrimitiveArrayWriter} writing all the elements of a primitive list of the given type,
+   *         null if they are written one by one
+   */
+  private static String getPrimitiveArrayWriteMethodName(Schema elementSchema) {
+    switch (elementSchema.getType()) {
+      case FLOAT:
+        return "writeFloats";
+      case DOUBLE:
+        return "writeDoubles";
+      case INT:
+        return "writeInts";
+      case LONG:
+        return "writeLongs";
+      default:
+        return null;
+    }
+  }
+
   private void processArrayElementLoop(final Schema arraySchema, final JClass arrayClass, JExpression arrayExpr, JBlock body, String getMethodName) {
     final JForLoop forLoop = body._for();
     final JVar counter = forLoop.init(codeModel.INT, getUniqueName("counter"), JExpr.lit(0));
@@ -375,21 +462,37 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
   }
 
   private void processString(final Schema primitiveSchema, JExpression primitiveValueExpression, JBlock body) {
-    String writeFunction = "writeString";
-    JExpression encodeVar = JExpr.direct(ENCODER);
+    JVar encodingCacheVar = null;
+    int encodingCacheCapacity = SchemaAssistant.getDedupCapacity(primitiveSchema);
+    if (encodingCacheCapacity > 0) {
+      encodingCacheVar = generatedClass.field(JMod.PRIVATE | JMod.FINAL, StringEncodingCache.class,
+          getUniqueName("stringEncodingCache"),
+          JExpr._new(codeModel.ref(StringEncodingCache.class)).arg(JExpr.lit(encodingCacheCapacity)));
+    }
     if (!useGenericTypes && SchemaAssistant.isStringable(primitiveSchema)) {
       if (primitiveValueExpression instanceof JVar
           && ((JVar) primitiveValueExpression).type().equals(codeModel.ref(String.class))) {
-        body.invoke(encodeVar, writeFunction).arg(primitiveValueExpression);
+        writeString(primitiveValueExpression, encodingCacheVar, body);
       } else {
-        body.invoke(encodeVar, writeFunction).arg(primitiveValueExpression.invoke("toString"));
+        writeString(primitiveValueExpression.invoke("toString"), encodingCacheVar, body);
       }
     } else {
       JConditional stringTypeCheck = body._if(primitiveValueExpression._instanceof(codeModel.ref(Utf8.class)));
       stringTypeCheck._then()
-          .invoke(encodeVar, writeFunction)
+          .invoke(JExpr.direct(ENCODER), "writeString")
           .arg(JExpr.cast(codeModel.ref(Utf8.class), primitiveValueExpression));
-      stringTypeCheck._else().invoke(encodeVar, writeFunction).arg(primitiveValueExpression.invoke("toString"));
+      writeString(primitiveValueExpression.invoke("toString"), encodingCacheVar, stringTypeCheck._else());
+    }
+  }
+
+  /**
+   * Writes a {@link String} with the encoder, or with the given {@link StringEncodingCache} if not null.
+   */
+  private void writeString(JExpression stringExpression, JVar encodingCacheVar, JBlock body) {
+    if (encodingCacheVar != null) {
+      body.invoke(encodingCacheVar, "writeString").arg(stringExpression).arg(JExpr.direct(ENCODER));
+    } else {
+      body.invoke(JExpr.direct(ENCODER), "writeString").arg(stringExpression);
     }
   }
 
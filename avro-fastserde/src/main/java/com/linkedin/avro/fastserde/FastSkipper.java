@@ -0,0 +1,58 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.EOFException;
+import java.io.IOException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.Decoder;
+
+
+/**
+ * Walks the binary encoding of data written with a given schema without materializing anything, e.g. to validate
+ * payloads or to find the boundaries of the records of a buffer, see {@link FastSerdeCache#getFastSkipper(Schema)}.
+ *
+ * Skipping checks the structure of the encoding: lengths, union branches and enum symbols must be within their
+ * bounds, and the data must not end in the middle of a datum. It doesn't check the content of strings.
+ */
+public interface FastSkipper {
+
+  /**
+   * @param d decoder positioned at the start of a datum
+   * @throws IOException on io errors, or if the data doesn't match the writer schema
+   */
+  void skip(Decoder d) throws IOException;
+
+  /**
+   * Skips the next datum of a decoder reading from a byte array.
+   *
+   * @param d decoder reading from a byte array, positioned at the start of a datum
+   * @return number of bytes of the encoded datum
+   * @throws IOException on io errors, or if the data doesn't match the writer schema
+   */
+  default int skipAndGetLength(BinaryDecoder d) throws IOException {
+    int available = d.inputStream().available();
+    skip(d);
+    return available - d.inputStream().available();
+  }
+
+  /**
+   * Counts the datums encoded one after the other in a byte array.
+   *
+   * @param bytes encoded datums
+   * @param offset position of the first datum
+   * @param length number of bytes of all the datums
+   * @return number of datums
+   * @throws EOFException if the last datum is truncated
+   * @throws IOException if the data doesn't match the writer schema
+   */
+  default int count(byte[] bytes, int offset, int length) throws IOException {
+    BinaryDecoder decoder = AvroCompatibilityHelper.newBinaryDecoder(bytes, offset, length, null);
+    int count = 0;
+    while (!decoder.isEnd()) {
+      skip(decoder);
+      count++;
+    }
+    return count;
+  }
+}
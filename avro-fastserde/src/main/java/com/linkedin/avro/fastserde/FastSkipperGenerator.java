@@ -0,0 +1,25 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.File;
+import org.apache.avro.Schema;
+
+
+/**
+ * Generates a {@link FastSkipper} for a writer schema, out of the skipping code of the deserializers.
+ */
+public final class FastSkipperGenerator extends FastDeserializerGenerator<Object> {
+
+  FastSkipperGenerator(Schema writer, File destination, ClassLoader classLoader, String compileClassPath) {
+    super(true, writer, writer, destination, classLoader, compileClassPath, Variant.SKIPPER);
+  }
+
+  public FastSkipper generateSkipper() {
+    String className = generateClassCode();
+    try {
+      Class<?> clazz = compileClass(className, schemaAssistant.getUsedFullyQualifiedClassNameSet());
+      return (FastSkipper) newGeneratedInstance(clazz);
+    } catch (Exception e) {
+      throw new FastDeserializerGeneratorException(e);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.linkedin.avro.fastserde;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * {@link ClassLoader} holding classes compiled by {@link InMemoryJavaFileManager}. Compiled class bytes are kept
+ * until the corresponding class is defined, so generated classes never need to be written to disk.
+ *
+ * Passing an instance of this class loader to the generators switches them to in-memory compilation,
+ * see {@link FastSerdeBase#compileClass(String, java.util.Set)}.
+ */
+public class InMemoryClassLoader extends ClassLoader {
+
+  static {
+    registerAsParallelCapable();
+  }
+
+  private final Map<String, byte[]> classBytesMap = new ConcurrentHashMap<>();
+
+  public InMemoryClassLoader(ClassLoader parent) {
+    super(parent);
+  }
+
+  void addClass(String className, byte[] classBytes) {
+    classBytesMap.put(className, classBytes);
+  }
+
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    byte[] classBytes = classBytesMap.remove(name);
+    if (classBytes == null) {
+      throw new ClassNotFoundException(name);
+    }
+    return defineClass(name, classBytes, 0, classBytes.length);
+  }
+}
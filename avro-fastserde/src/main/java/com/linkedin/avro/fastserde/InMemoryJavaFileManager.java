@@ -0,0 +1,124 @@
+package com.linkedin.avro.fastserde;
+
+import com.sun.codemodel.CodeWriter;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JPackage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+
+
+/**
+ * {@link javax.tools.JavaFileManager} which keeps both the generated sources and the compiled class bytes in memory.
+ * Compiled classes are handed over to the given {@link InMemoryClassLoader} as soon as javac finishes writing them.
+ */
+class InMemoryJavaFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+  private final InMemoryClassLoader classLoader;
+  private final Map<String, byte[]> compiledClasses = new LinkedHashMap<>();
+
+  InMemoryJavaFileManager(StandardJavaFileManager fileManager, InMemoryClassLoader classLoader) {
+    super(fileManager);
+    this.classLoader = classLoader;
+  }
+
+  /**
+   * Renders all the classes defined in the given {@link JCodeModel} as in-memory source files.
+   *
+   * @param codeModel code model to render
+   * @return in-memory source files, one per generated class
+   * @throws IOException on rendering errors
+   */
+  static List<SourceFileObject> buildSources(JCodeModel codeModel) throws IOException {
+    List<SourceFileObject> sources = new ArrayList<>();
+    codeModel.build(new CodeWriter() {
+      @Override
+      public OutputStream openBinary(JPackage pkg, String fileName) {
+        String className = fileName.substring(0, fileName.length() - JavaFileObject.Kind.SOURCE.extension.length());
+        String fullClassName = pkg.isUnnamed() ? className : pkg.name() + "." + className;
+        return new ByteArrayOutputStream() {
+          @Override
+          public void close() {
+            sources.add(new SourceFileObject(fullClassName, new String(toByteArray(), StandardCharsets.UTF_8)));
+          }
+        };
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+    return sources;
+  }
+
+  /**
+   * @return byte code of all the classes compiled through this file manager, keyed by fully qualified class name
+   */
+  Map<String, byte[]> getCompiledClasses() {
+    return compiledClasses;
+  }
+
+  @Override
+  public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+      FileObject sibling) throws IOException {
+    if (JavaFileObject.Kind.CLASS.equals(kind)) {
+      return new ClassFileObject(className);
+    }
+    return super.getJavaFileForOutput(location, className, kind, sibling);
+  }
+
+  private static URI uriOf(String className, JavaFileObject.Kind kind) {
+    return URI.create("string:///" + className.replace('.', '/') + kind.extension);
+  }
+
+  static final class SourceFileObject extends SimpleJavaFileObject {
+    private final String className;
+    private final String source;
+
+    private SourceFileObject(String className, String source) {
+      super(uriOf(className, Kind.SOURCE), Kind.SOURCE);
+      this.className = className;
+      this.source = source;
+    }
+
+    String getClassName() {
+      return className;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return source;
+    }
+  }
+
+  private final class ClassFileObject extends SimpleJavaFileObject {
+    private final String className;
+
+    private ClassFileObject(String className) {
+      super(uriOf(className, Kind.CLASS), Kind.CLASS);
+      this.className = className;
+    }
+
+    @Override
+    public OutputStream openOutputStream() {
+      return new ByteArrayOutputStream() {
+        @Override
+        public void close() {
+          byte[] classBytes = toByteArray();
+          compiledClasses.put(className, classBytes);
+          classLoader.addClass(className, classBytes);
+        }
+      };
+    }
+  }
+}
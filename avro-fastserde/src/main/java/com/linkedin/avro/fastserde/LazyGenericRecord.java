@@ -0,0 +1,382 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.IOException;
+import java.util.Objects;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericEnumSymbol;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.Encoder;
+
+
+/**
+ * Generic record backed by its binary encoding, which decodes each field only the first time it is accessed.
+ *
+ * Records are created by {@link LazyGenericRecordReader}. Finding a field requires skipping the ones before it, so
+ * the end of every field skipped or decoded so far is kept in an offset table, and fields are only ever skipped
+ * once. A record whose fields are never accessed costs nothing more than holding on to its bytes.
+ *
+ * As long as no field may have been modified, {@link FastGenericDatumWriter} writes the record by copying its original
+ * bytes instead of encoding it again. A field may have been modified once it has been {@link #put(int, Object) put},
+ * or once {@link #get(int)} has returned a value which can be modified in place, such as a nested record, an array,
+ * a map, a {@link org.apache.avro.util.Utf8} or a {@link java.nio.ByteBuffer}. Strings, numbers, booleans and enum
+ * symbols can't be, so reading them keeps the original bytes valid. Once some fields may have been modified,
+ * generated generic serializers still copy the original bytes of the other fields, and only encode those fields.
+ *
+ * When read by a {@link LazyGenericRecordReader} with lazy nested records, the fields holding a record, or a union
+ * branch which is a record, are lazy records too, backed by the same bytes. Such nested records track their own
+ * modifications: a record with a modified nested record is modified, but the nested record is the only part of it
+ * which gets encoded again.
+ *
+ * Like {@link GenericData.Record}, this class is not thread-safe.
+ */
+public class LazyGenericRecord implements GenericRecord, Comparable<LazyGenericRecord> {
+  private final Schema schema;
+  /**
+   * Fingerprint of {@link #schema}, so that checking whether the original bytes match the schema of a serializer
+   * doesn't look it up for every record.
+   */
+  private final long schemaFingerprint;
+  private final FastFieldDeserializer<?> fieldDeserializer;
+  private final LazyGenericRecordReader nestedRecordReader;
+  private final byte[] bytes;
+  private final int offset;
+  private final int length;
+
+  /**
+   * Offsets in {@link #bytes} of the end of the first {@link #scannedFieldCount} fields.
+   */
+  private final int[] fieldEnds;
+  private int scannedFieldCount;
+
+  private final Object[] values;
+  private final boolean[] decoded;
+  /**
+   * Fields which were put, whose value was returned by {@link #get(int)} and can be modified in place, or whose lazy
+   * nested record is modified.
+   */
+  private final boolean[] modified;
+  private boolean anyFieldModified;
+  /**
+   * Lazy record holding this record in one of its fields, and the position of that field, to be marked as modified
+   * with this record.
+   */
+  private LazyGenericRecord parent;
+  private int posInParent;
+  private BinaryDecoder decoder;
+
+  /**
+   * @param nestedRecordReader reader of the nested records of this record, or null to decode them like the other
+   *                           fields
+   */
+  LazyGenericRecord(Schema schema, FastFieldDeserializer<?> fieldDeserializer, byte[] bytes, int offset, int length,
+      LazyGenericRecordReader nestedRecordReader) {
+    this(schema, Utils.getSchemaFingerprint(schema), fieldDeserializer, bytes, offset, length, nestedRecordReader);
+  }
+
+  /**
+   * @param schemaFingerprint fingerprint of the given schema, see {@link Utils#getSchemaFingerprint(Schema)}
+   * @param nestedRecordReader reader of the nested records of this record, or null to decode them like the other
+   *                           fields
+   */
+  LazyGenericRecord(Schema schema, long schemaFingerprint, FastFieldDeserializer<?> fieldDeserializer, byte[] bytes,
+      int offset, int length, LazyGenericRecordReader nestedRecordReader) {
+    this.schema = schema;
+    this.schemaFingerprint = schemaFingerprint;
+    this.fieldDeserializer = fieldDeserializer;
+    this.nestedRecordReader = nestedRecordReader;
+    this.bytes = bytes;
+    this.offset = offset;
+    this.length = length;
+    int fieldCount = schema.getFields().size();
+    this.fieldEnds = new int[fieldCount];
+    this.values = new Object[fieldCount];
+    this.decoded = new boolean[fieldCount];
+    this.modified = new boolean[fieldCount];
+  }
+
+  @Override
+  public Schema getSchema() {
+    return schema;
+  }
+
+  @Override
+  public void put(String key, Object v) {
+    Schema.Field field = schema.getField(key);
+    if (field == null) {
+      throw new AvroRuntimeException("Not a valid schema field: " + key);
+    }
+    put(field.pos(), v);
+  }
+
+  @Override
+  public void put(int i, Object v) {
+    values[i] = v;
+    decoded[i] = true;
+    markModified(i);
+  }
+
+  @Override
+  public Object get(String key) {
+    Schema.Field field = schema.getField(key);
+    if (field == null) {
+      return null;
+    }
+    return get(field.pos());
+  }
+
+  @Override
+  public Object get(int i) {
+    Object value = getValue(i);
+    if (!modified[i] && !(value instanceof LazyGenericRecord) && !isImmutable(value)) {
+      // the caller may modify the value in place, so its original bytes can't be trusted anymore
+      markModified(i);
+    }
+    return value;
+  }
+
+  private static boolean isImmutable(Object value) {
+    return value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+        || value instanceof GenericEnumSymbol;
+  }
+
+  /**
+   * Gets the value of a field, decoding it if needed, without handing it out.
+   */
+  private Object getValue(int i) {
+    if (!decoded[i]) {
+      try {
+        values[i] = decodeField(i);
+      } catch (IOException e) {
+        throw new AvroRuntimeException("Unable to decode field: " + schema.getFields().get(i).name(), e);
+      }
+      decoded[i] = true;
+    }
+    return values[i];
+  }
+
+  /**
+   * @return true if a field has been put, or a mutable value has been returned by {@link #get(int)}, since this
+   *         record was read, or if one of its lazy nested records is modified
+   */
+  public boolean isModified() {
+    return anyFieldModified;
+  }
+
+  /**
+   * Marks a field as modified, and this record as modified in its parent the first time.
+   */
+  private void markModified(int pos) {
+    modified[pos] = true;
+    if (!anyFieldModified) {
+      anyFieldModified = true;
+      if (parent != null) {
+        parent.markModified(posInParent);
+      }
+    }
+  }
+
+  /**
+   * Writes the original bytes of this record, if they are still a valid encoding of it with the given schema.
+   *
+   * @param writerSchema schema to write this record with
+   * @param encoder encoder to write to
+   * @return true if the original bytes have been written, false if this record needs to be encoded again
+   * @throws IOException on io errors
+   */
+  boolean writeOriginalBytes(Schema writerSchema, Encoder encoder) throws IOException {
+    if (writerSchema != schema && Utils.getSchemaFingerprint(writerSchema) != schemaFingerprint) {
+      return false;
+    }
+    return writeOriginalBytes(encoder);
+  }
+
+  /**
+   * Called by generated serializers, once per record, to find out whether the original bytes of the record or of
+   * its fields are a valid encoding of them with the schema of the serializer.
+   *
+   * @param record record to write
+   * @param writerSchemaFingerprint fingerprint of the schema to write the record with
+   * @return the given record if it is a lazy record of the given schema, null otherwise
+   */
+  public static LazyGenericRecord withSchema(Object record, long writerSchemaFingerprint) {
+    if (record instanceof LazyGenericRecord && ((LazyGenericRecord) record).schemaFingerprint == writerSchemaFingerprint) {
+      return (LazyGenericRecord) record;
+    }
+    return null;
+  }
+
+  /**
+   * Called by generated serializers to write the original bytes of this record, if no field may have been modified.
+   * The schema of the serializer must be the schema of this record, see {@link #withSchema(Object, long)}.
+   *
+   * @param encoder encoder to write to
+   * @return true if the original bytes have been written, false if this record needs to be encoded again
+   * @throws IOException on io errors
+   */
+  public boolean writeOriginalBytes(Encoder encoder) throws IOException {
+    if (anyFieldModified) {
+      return false;
+    }
+    encoder.writeFixed(bytes, offset, length);
+    return true;
+  }
+
+  /**
+   * Called by generated serializers to write the original bytes of a field of a modified record, if the field may
+   * not have been modified. The schema of the serializer must be the schema of this record, see
+   * {@link #withSchema(Object, long)}.
+   *
+   * @param pos position of the field
+   * @param encoder encoder to write to
+   * @return true if the original bytes have been written, false if the field needs to be encoded again
+   * @throws IOException on io errors
+   */
+  public boolean writeOriginalField(int pos, Encoder encoder) throws IOException {
+    if (modified[pos]) {
+      return false;
+    }
+    int fieldStart = getFieldStart(pos);
+    int fieldEnd = getFieldEnd(pos);
+    encoder.writeFixed(bytes, fieldStart, fieldEnd - fieldStart);
+    return true;
+  }
+
+  private Object decodeField(int pos) throws IOException {
+    int fieldStart = getFieldStart(pos);
+    if (nestedRecordReader != null) {
+      Schema valueSchema = schema.getFields().get(pos).schema();
+      int valueStart = fieldStart;
+      if (Schema.Type.UNION.equals(valueSchema.getType())) {
+        decoder = AvroCompatibilityHelper.newBinaryDecoder(bytes, fieldStart, offset + length - fieldStart, decoder);
+        valueSchema = valueSchema.getTypes().get(decoder.readIndex());
+        valueStart = getPosition(decoder);
+      }
+      if (Schema.Type.RECORD.equals(valueSchema.getType())) {
+        LazyGenericRecord nestedRecord =
+            nestedRecordReader.read(valueSchema, bytes, valueStart, getFieldEnd(pos) - valueStart);
+        nestedRecord.parent = this;
+        nestedRecord.posInParent = pos;
+        return nestedRecord;
+      }
+    }
+    decoder = AvroCompatibilityHelper.newBinaryDecoder(bytes, fieldStart, offset + length - fieldStart, decoder);
+    Object value = fieldDeserializer.deserializeField(pos, null, decoder);
+    if (pos == scannedFieldCount) {
+      fieldEnds[scannedFieldCount++] = getPosition(decoder);
+    }
+    return value;
+  }
+
+  private int getFieldStart(int pos) throws IOException {
+    return pos == 0 ? offset : (pos <= scannedFieldCount ? fieldEnds[pos - 1] : skipFieldsBefore(pos));
+  }
+
+  private int getFieldEnd(int pos) throws IOException {
+    return pos < scannedFieldCount ? fieldEnds[pos] : skipFieldsBefore(pos + 1);
+  }
+
+  /**
+   * Skips the fields not scanned yet up to the given one, excluded.
+   *
+   * @return offset in {@link #bytes} of the start of the given field
+   */
+  private int skipFieldsBefore(int pos) throws IOException {
+    int fieldStart = scannedFieldCount == 0 ? offset : fieldEnds[scannedFieldCount - 1];
+    decoder = AvroCompatibilityHelper.newBinaryDecoder(bytes, fieldStart, offset + length - fieldStart, decoder);
+    while (scannedFieldCount < pos) {
+      fieldDeserializer.skipField(scannedFieldCount, decoder);
+      fieldEnds[scannedFieldCount++] = getPosition(decoder);
+    }
+    return fieldEnds[pos - 1];
+  }
+
+  /**
+   * The decoder reads straight from {@link #bytes}, up to the end of this record, so the bytes it hasn't consumed
+   * yet tell where it is.
+   */
+  private int getPosition(BinaryDecoder decoder) throws IOException {
+    return offset + length - decoder.inputStream().available();
+  }
+
+  /**
+   * Lazy records are only equal to other lazy records, since {@link GenericData.Record#equals(Object)} doesn't
+   * consider them equal to generic records, and their values are compared without being handed out.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof LazyGenericRecord)) {
+      return false;
+    }
+    LazyGenericRecord that = (LazyGenericRecord) o;
+    if (!schema.equals(that.schema)) {
+      return false;
+    }
+    // compared field by field, since not all the supported versions of Avro can compare maps
+    for (int i = 0; i < values.length; i++) {
+      if (!Objects.equals(getValue(i), that.getValue(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 1;
+    for (int i = 0; i < values.length; i++) {
+      hashCode = 31 * hashCode + Objects.hashCode(getValue(i));
+    }
+    return hashCode;
+  }
+
+  /**
+   * Compares the fields in the order of the schema, as {@link GenericData#compare(Object, Object, Schema)} does, but
+   * without handing out their values. Nested lazy records are compared the same way.
+   */
+  @Override
+  public int compareTo(LazyGenericRecord that) {
+    for (Schema.Field field : schema.getFields()) {
+      if (Schema.Field.Order.IGNORE.equals(field.order())) {
+        continue;
+      }
+      Object value = getValue(field.pos());
+      Object thatValue = that.getValue(field.pos());
+      int compare;
+      if (value instanceof LazyGenericRecord && thatValue instanceof LazyGenericRecord
+          && ((LazyGenericRecord) value).schema.equals(((LazyGenericRecord) thatValue).schema)) {
+        compare = ((LazyGenericRecord) value).compareTo((LazyGenericRecord) thatValue);
+      } else {
+        compare = GenericData.get().compare(value, thatValue, field.schema());
+      }
+      if (compare != 0) {
+        return Schema.Field.Order.DESCENDING.equals(field.order()) ? -compare : compare;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public String toString() {
+    // printed from a copy, so that printing doesn't hand out the values of the fields
+    return GenericData.get().toString(copyValues());
+  }
+
+  /**
+   * @return shallow copy of this record, whose nested lazy records are copied the same way
+   */
+  private GenericData.Record copyValues() {
+    GenericData.Record copy = new GenericData.Record(schema);
+    for (int i = 0; i < values.length; i++) {
+      Object value = getValue(i);
+      copy.put(i, value instanceof LazyGenericRecord ? ((LazyGenericRecord) value).copyValues() : value);
+    }
+    return copy;
+  }
+}
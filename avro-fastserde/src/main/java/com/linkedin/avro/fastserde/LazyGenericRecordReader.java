@@ -0,0 +1,114 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Reads {@link LazyGenericRecord}s out of their binary encoding, decoding nothing until their fields are accessed.
+ *
+ * The fields are decoded by a {@link FastFieldDeserializer} generated for the schema of the records, which is both
+ * the writer and the reader schema: lazy records don't support schema evolution, since their original bytes must
+ * remain a valid encoding of them.
+ *
+ * With lazy nested records, the records nested in the fields of the read records are lazy records too, so that
+ * modifying a nested record leaves the original bytes of the rest of the record valid, see {@link LazyGenericRecord}.
+ */
+public class LazyGenericRecordReader {
+  private static final Logger LOGGER = LoggerFactory.getLogger(LazyGenericRecordReader.class);
+
+  private final Schema schema;
+  private final long schemaFingerprint;
+  private final FastSerdeCache cache;
+  private final boolean lazyNestedRecords;
+
+  private FastFieldDeserializer<?> cachedFieldDeserializer;
+
+  /**
+   * Generated field deserializers of the nested records, by full name.
+   */
+  private final Map<String, FastFieldDeserializer<?>> nestedFieldDeserializers = new ConcurrentHashMap<>();
+
+  /**
+   * Fingerprints of the schemas of the nested records, by full name.
+   */
+  private final Map<String, Long> nestedSchemaFingerprints = new ConcurrentHashMap<>();
+
+  public LazyGenericRecordReader(Schema schema) {
+    this(schema, FastSerdeCache.getDefaultInstance());
+  }
+
+  public LazyGenericRecordReader(Schema schema, FastSerdeCache cache) {
+    this(schema, cache, false);
+  }
+
+  /**
+   * @param schema schema of the records
+   * @param cache cache providing the field deserializers
+   * @param lazyNestedRecords whether the nested records are read lazily too, rather than decoded with the other fields
+   */
+  public LazyGenericRecordReader(Schema schema, FastSerdeCache cache, boolean lazyNestedRecords) {
+    if (!Schema.Type.RECORD.equals(schema.getType())) {
+      throw new IllegalArgumentException("Only records can be read lazily, got: " + schema.getType());
+    }
+    this.schema = schema;
+    this.schemaFingerprint = Utils.getSchemaFingerprint(schema);
+    this.cache = cache != null ? cache : FastSerdeCache.getDefaultInstance();
+    this.lazyNestedRecords = lazyNestedRecords;
+    if (!Utils.isSupportedAvroVersionsForDeserializer()) {
+      this.cachedFieldDeserializer = new FastSerdeCache.FastFieldDeserializerWithAvroGenericImpl<>(schema);
+    }
+  }
+
+  /**
+   * @param bytes binary encoding of a single record
+   * @return record backed by the given bytes, which must not be modified afterwards
+   */
+  public LazyGenericRecord read(byte[] bytes) {
+    return read(bytes, 0, bytes.length);
+  }
+
+  /**
+   * @param bytes array holding the binary encoding of a single record
+   * @param offset offset of the record in the array
+   * @param length length of the record
+   * @return record backed by the given bytes, which must not be modified afterwards
+   */
+  public LazyGenericRecord read(byte[] bytes, int offset, int length) {
+    FastFieldDeserializer<?> fieldDeserializer = cachedFieldDeserializer;
+    if (fieldDeserializer == null) {
+      fieldDeserializer = cache.getFastGenericFieldDeserializer(schema);
+      if (!(fieldDeserializer instanceof FastSerdeCache.FastFieldDeserializerWithAvroGenericImpl)) {
+        cachedFieldDeserializer = fieldDeserializer;
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("FastFieldDeserializer was generated and cached for schema: [" + schema + "]");
+        }
+      }
+    }
+    return new LazyGenericRecord(schema, schemaFingerprint, fieldDeserializer, bytes, offset, length,
+        lazyNestedRecords ? this : null);
+  }
+
+  /**
+   * Reads a record nested in a record read by this reader.
+   */
+  LazyGenericRecord read(Schema recordSchema, byte[] bytes, int offset, int length) {
+    String name = AvroCompatibilityHelper.getSchemaFullName(recordSchema);
+    FastFieldDeserializer<?> fieldDeserializer = nestedFieldDeserializers.get(name);
+    if (fieldDeserializer == null) {
+      fieldDeserializer = Utils.isSupportedAvroVersionsForDeserializer()
+          ? cache.getFastGenericFieldDeserializer(recordSchema)
+          : new FastSerdeCache.FastFieldDeserializerWithAvroGenericImpl<>(recordSchema);
+      if (!(fieldDeserializer instanceof FastSerdeCache.FastFieldDeserializerWithAvroGenericImpl)) {
+        nestedFieldDeserializers.put(name, fieldDeserializer);
+      }
+    }
+    long recordSchemaFingerprint =
+        nestedSchemaFingerprints.computeIfAbsent(name, key -> Utils.getSchemaFingerprint(recordSchema));
+    return new LazyGenericRecord(recordSchema, recordSchemaFingerprint, fieldDeserializer, bytes, offset, length, this);
+  }
+}
@@ -0,0 +1,193 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.api.PrimitiveDoubleList;
+import com.linkedin.avro.api.PrimitiveFloatList;
+import com.linkedin.avro.api.PrimitiveIntList;
+import com.linkedin.avro.api.PrimitiveLongList;
+import com.linkedin.avroutil1.compatibility.ByteBufferEncoder;
+import java.io.IOException;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.BlockingBinaryEncoder;
+import org.apache.avro.io.Encoder;
+
+
+/**
+ * Writes the elements of primitive lists, called by generated serializers between the item count and the end of an
+ * array.
+ *
+ * Binary encoders, and {@link ByteBufferEncoder}s, don't frame the items of an array, so the elements are encoded
+ * into a scratch buffer which is written as fixed bytes once full, rather than one by one. Floats and doubles read into a
+ * {@link ByteBufferBackedPrimitiveFloatList} or {@link ByteBufferBackedPrimitiveDoubleList} and left untouched are
+ * written straight from the bytes they were read from. The other encoders, which need
+ * {@link Encoder#startItem()} before every element, get the elements one by one.
+ */
+public final class PrimitiveArrayWriter {
+  private static final int SCRATCH_BUFFER_SIZE = 8192;
+
+  /**
+   * Longest encoding of an element, i.e. a varint long.
+   */
+  private static final int MAX_ELEMENT_SIZE = 10;
+
+  private static final ThreadLocal<byte[]> SCRATCH_BUFFER = ThreadLocal.withInitial(() -> new byte[SCRATCH_BUFFER_SIZE]);
+
+  private PrimitiveArrayWriter() {
+  }
+
+  private static boolean isBulkEncoder(Encoder out) {
+    return (out instanceof BinaryEncoder && !(out instanceof BlockingBinaryEncoder))
+        || out instanceof ByteBufferEncoder;
+  }
+
+  public static void writeFloats(PrimitiveFloatList list, Encoder out) throws IOException {
+    int size = list.size();
+    if (!isBulkEncoder(out)) {
+      for (int i = 0; i < size; i++) {
+        out.startItem();
+        out.writeFloat(list.getPrimitive(i));
+      }
+      return;
+    }
+    if (list instanceof ByteBufferBackedPrimitiveFloatList
+        && ((ByteBufferBackedPrimitiveFloatList) list).writeUncachedBytes(out)) {
+      return;
+    }
+    byte[] scratch = SCRATCH_BUFFER.get();
+    int pos = 0;
+    for (int i = 0; i < size; i++) {
+      if (pos > SCRATCH_BUFFER_SIZE - MAX_ELEMENT_SIZE) {
+        out.writeFixed(scratch, 0, pos);
+        pos = 0;
+      }
+      pos = putFixedInt(Float.floatToRawIntBits(list.getPrimitive(i)), scratch, pos);
+    }
+    out.writeFixed(scratch, 0, pos);
+  }
+
+  public static void writeDoubles(PrimitiveDoubleList list, Encoder out) throws IOException {
+    int size = list.size();
+    if (!isBulkEncoder(out)) {
+      for (int i = 0; i < size; i++) {
+        out.startItem();
+        out.writeDouble(list.getPrimitive(i));
+      }
+      return;
+    }
+    if (list instanceof ByteBufferBackedPrimitiveDoubleList
+        && ((ByteBufferBackedPrimitiveDoubleList) list).writeUncachedBytes(out)) {
+      return;
+    }
+    byte[] scratch = SCRATCH_BUFFER.get();
+    int pos = 0;
+    for (int i = 0; i < size; i++) {
+      if (pos > SCRATCH_BUFFER_SIZE - MAX_ELEMENT_SIZE) {
+        out.writeFixed(scratch, 0, pos);
+        pos = 0;
+      }
+      long bits = Double.doubleToRawLongBits(list.getPrimitive(i));
+      pos = putFixedInt((int) bits, scratch, pos);
+      pos = putFixedInt((int) (bits >>> 32), scratch, pos);
+    }
+    out.writeFixed(scratch, 0, pos);
+  }
+
+  public static void writeInts(PrimitiveIntList list, Encoder out) throws IOException {
+    int size = list.size();
+    if (!isBulkEncoder(out)) {
+      for (int i = 0; i < size; i++) {
+        out.startItem();
+        out.writeInt(list.getPrimitive(i));
+      }
+      return;
+    }
+    byte[] scratch = SCRATCH_BUFFER.get();
+    int pos = 0;
+    for (int i = 0; i < size; i++) {
+      if (pos > SCRATCH_BUFFER_SIZE - MAX_ELEMENT_SIZE) {
+        out.writeFixed(scratch, 0, pos);
+        pos = 0;
+      }
+      pos = putVarInt(list.getPrimitive(i), scratch, pos);
+    }
+    out.writeFixed(scratch, 0, pos);
+  }
+
+  public static void writeLongs(PrimitiveLongList list, Encoder out) throws IOException {
+    int size = list.size();
+    if (!isBulkEncoder(out)) {
+      for (int i = 0; i < size; i++) {
+        out.startItem();
+        out.writeLong(list.getPrimitive(i));
+      }
+      return;
+    }
+    byte[] scratch = SCRATCH_BUFFER.get();
+    int pos = 0;
+    for (int i = 0; i < size; i++) {
+      if (pos > SCRATCH_BUFFER_SIZE - MAX_ELEMENT_SIZE) {
+        out.writeFixed(scratch, 0, pos);
+        pos = 0;
+      }
+      pos = putVarLong(list.getPrimitive(i), scratch, pos);
+    }
+    out.writeFixed(scratch, 0, pos);
+  }
+
+  /**
+   * Puts the zig-zag varint encoding of the given int, unrolled like avro's own encoders do.
+   */
+  private static int putVarInt(int value, byte[] buf, int pos) {
+    int n = (value << 1) ^ (value >> 31);
+    if ((n & ~0x7F) != 0) {
+      buf[pos++] = (byte) ((n | 0x80) & 0xFF);
+      n >>>= 7;
+      if (n > 0x7F) {
+        buf[pos++] = (byte) ((n | 0x80) & 0xFF);
+        n >>>= 7;
+        if (n > 0x7F) {
+          buf[pos++] = (byte) ((n | 0x80) & 0xFF);
+          n >>>= 7;
+          if (n > 0x7F) {
+            buf[pos++] = (byte) ((n | 0x80) & 0xFF);
+            n >>>= 7;
+          }
+        }
+      }
+    }
+    buf[pos++] = (byte) n;
+    return pos;
+  }
+
+  /**
+   * Puts the zig-zag varint encoding of the given long, handling the first bytes as an int when they fit in one.
+   */
+  private static int putVarLong(long value, byte[] buf, int pos) {
+    long n = (value << 1) ^ (value >> 63);
+    if ((n & ~0x7FFFFFFFL) == 0) {
+      int i = (int) n;
+      while (i > 0x7F) {
+        buf[pos++] = (byte) ((i | 0x80) & 0xFF);
+        i >>>= 7;
+      }
+      buf[pos++] = (byte) i;
+      return pos;
+    }
+    while ((n & ~0x7FL) != 0) {
+      buf[pos++] = (byte) ((n | 0x80) & 0xFF);
+      n >>>= 7;
+    }
+    buf[pos++] = (byte) n;
+    return pos;
+  }
+
+  /**
+   * Puts the given bits in little-endian order, like avro encodes floats and the halves of doubles.
+   */
+  private static int putFixedInt(int bits, byte[] buf, int pos) {
+    buf[pos] = (byte) bits;
+    buf[pos + 1] = (byte) (bits >>> 8);
+    buf[pos + 2] = (byte) (bits >>> 16);
+    buf[pos + 3] = (byte) (bits >>> 24);
+    return pos + 4;
+  }
+}
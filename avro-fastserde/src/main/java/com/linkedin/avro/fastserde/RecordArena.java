@@ -0,0 +1,89 @@
+package com.linkedin.avro.fastserde;
+
+import java.util.Arrays;
+import org.apache.avro.io.Decoder;
+
+
+/**
+ * Pool of the records, arrays and maps created by a generated {@link FastDeserializer}, so that a consume loop can
+ * deserialize over and over without allocating them again.
+ *
+ * The arena keeps every object the deserializer creates, under the place in the generated code which created it.
+ * After a {@link #reset()}, the deserializations that follow are handed those same objects again, in the same order:
+ * records get their fields overwritten and arrays and maps get cleared, so nothing deserialized before the reset may
+ * be used anymore. Strings, bytes and arrays of primitives are reused in place within those objects. When reading
+ * into an arena, records, arrays and maps only ever come from it, never from the reuse parameter of
+ * {@link FastDeserializer#deserialize(Object, Decoder, RecordArena)}.
+ *
+ * An arena belongs to the first generated deserializer it is used with. Like the objects it holds, it is not
+ * thread-safe.
+ */
+public class RecordArena {
+  private static final int INITIAL_SITE_CAPACITY = 4;
+
+  private Object owner;
+  private Object[][] objects = new Object[0][];
+  private int[] sizes = new int[0];
+  private int[] cursors = new int[0];
+
+  /**
+   * Makes all the objects of this arena available to the next deserializations. The objects deserialized so far
+   * must not be used anymore.
+   */
+  public void reset() {
+    Arrays.fill(cursors, 0);
+  }
+
+  /**
+   * Called by generated deserializers when they start using this arena.
+   *
+   * @param deserializer deserializer using this arena
+   * @throws IllegalStateException if this arena already belongs to another deserializer
+   */
+  public void attach(Object deserializer) {
+    if (owner != deserializer) {
+      if (owner != null) {
+        throw new IllegalStateException("Arena already used by another deserializer: " + owner.getClass().getName());
+      }
+      owner = deserializer;
+    }
+  }
+
+  /**
+   * Called by generated deserializers to get an object created at the given place before the last reset.
+   *
+   * @param site identifier of the place in the generated code creating the object
+   * @return the next object created at that place, or null if the deserializer needs to create a new one
+   */
+  public Object take(int site) {
+    if (site < cursors.length && cursors[site] < sizes[site]) {
+      return objects[site][cursors[site]++];
+    }
+    return null;
+  }
+
+  /**
+   * Called by generated deserializers to keep an object they created, after {@link #take(int)} returned null.
+   *
+   * @param site identifier of the place in the generated code creating the object
+   * @param object new object
+   * @param <T> type of the object
+   * @return the given object
+   */
+  public <T> T add(int site, T object) {
+    if (site >= cursors.length) {
+      objects = Arrays.copyOf(objects, site + 1);
+      sizes = Arrays.copyOf(sizes, site + 1);
+      cursors = Arrays.copyOf(cursors, site + 1);
+    }
+    Object[] siteObjects = objects[site];
+    if (siteObjects == null) {
+      siteObjects = objects[site] = new Object[INITIAL_SITE_CAPACITY];
+    } else if (sizes[site] == siteObjects.length) {
+      siteObjects = objects[site] = Arrays.copyOf(siteObjects, siteObjects.length * 2);
+    }
+    siteObjects[sizes[site]++] = object;
+    cursors[site] = sizes[site];
+    return object;
+  }
+}
@@ -48,6 +48,17 @@ public class SchemaAssistant {
   public static final String KEY_CLASS_PROP = "java-key-class";
   public static final String STRING_PROP = "avro.java.string";
   public static final String STRING_TYPE_STRING = "String";
+  /**
+   * String schema property enabling the deduplication of the decoded values, see {@link StringDedupCache}, and the
+   * caching of the encodings of the serialized values, see {@link StringEncodingCache}. Its value is either true, for
+   * caches of {@link StringDedupCache#DEFAULT_CAPACITY} values, or their capacity.
+   */
+  public static final String DEDUP_PROP = "avro.fastserde.dedup";
+  /**
+   * Bytes schema property which, when true, has the values read as slices of the array being decoded rather than
+   * copied, see {@link AvroCompatibilityHelper#readBytesSlice(org.apache.avro.io.Decoder)}.
+   */
+  public static final String SLICE_PROP = "avro.fastserde.slice";
 
   private final JCodeModel codeModel;
   private final boolean useGenericTypes;
@@ -130,6 +141,86 @@ public class SchemaAssistant {
     }
   }
 
+  /**
+   * @param schema string schema
+   * @return capacity of the {@link StringDedupCache} to read the given schema with, and of the
+   *         {@link StringEncodingCache} to write it with, or 0 if its values shouldn't be deduplicated
+   */
+  public static int getDedupCapacity(Schema schema) {
+    String dedupProp = AvroCompatibilityHelper.getSchemaPropAsJsonString(schema, DEDUP_PROP, false, false);
+    if (dedupProp == null || "false".equals(dedupProp)) {
+      return 0;
+    }
+    if ("true".equals(dedupProp)) {
+      return StringDedupCache.DEFAULT_CAPACITY;
+    }
+    try {
+      int capacity = Integer.parseInt(dedupProp);
+      if (capacity > 0) {
+        return capacity;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new SchemaAssistantException("Invalid value of " + DEDUP_PROP + ": " + dedupProp
+        + ", expected true, false or a positive capacity");
+  }
+
+  /**
+   * @param schema bytes schema
+   * @return true if the values of the given schema should be read as slices of the array being decoded
+   */
+  public static boolean isSliced(Schema schema) {
+    return "true".equals(AvroCompatibilityHelper.getSchemaPropAsJsonString(schema, SLICE_PROP, false, false));
+  }
+
+  /**
+   * The parsing canonical form of schemas, which fast serde classes are keyed by, drops their properties, so the ones
+   * changing the generated code, {@link #DEDUP_PROP} and {@link #SLICE_PROP}, are collected separately.
+   *
+   * @param schema a schema
+   * @return the values of the code generation properties of the given schema and of the schemas it contains, in
+   *         depth-first order, or an empty string if there are none
+   */
+  public static String getCodeGenerationProps(Schema schema) {
+    StringBuilder props = new StringBuilder();
+    appendCodeGenerationProps(schema, new HashSet<>(), new int[1], props);
+    return props.toString();
+  }
+
+  private static void appendCodeGenerationProps(Schema schema, Set<String> visitedNamedSchemas, int[] position,
+      StringBuilder props) {
+    int schemaPosition = position[0]++;
+    for (String prop : new String[]{DEDUP_PROP, SLICE_PROP}) {
+      String value = AvroCompatibilityHelper.getSchemaPropAsJsonString(schema, prop, false, false);
+      if (value != null) {
+        props.append(schemaPosition).append(':').append(prop).append('=').append(value).append(';');
+      }
+    }
+    switch (schema.getType()) {
+      case RECORD:
+        if (visitedNamedSchemas.add(schema.getFullName())) {
+          for (Schema.Field field : schema.getFields()) {
+            appendCodeGenerationProps(field.schema(), visitedNamedSchemas, position, props);
+          }
+        }
+        break;
+      case ARRAY:
+        appendCodeGenerationProps(schema.getElementType(), visitedNamedSchemas, position, props);
+        break;
+      case MAP:
+        appendCodeGenerationProps(schema.getValueType(), visitedNamedSchemas, position, props);
+        break;
+      case UNION:
+        for (Schema type : schema.getTypes()) {
+          appendCodeGenerationProps(type, visitedNamedSchemas, position, props);
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
   public static String getSchemaFullName(Schema schema) {
     return AvroCompatibilityHelper.getSchemaFullName(schema);
   }
@@ -299,7 +390,7 @@ public class SchemaAssistant {
             case BOOLEAN: klass = abstractType ? PrimitiveBooleanList.class : PrimitiveBooleanArrayList.class; break;
             case DOUBLE: klass = abstractType ? PrimitiveDoubleList.class : PrimitiveDoubleArrayList.class; break;
             /**
-             * N.B.: FLOAT will get superseded in
+             * N.B.: FLOAT (and DOUBLE, INT, LONG and BOOLEAN when not promoted) will get superseded in
              * {@link FastDeserializerGenerator#processArray(JVar, String, Schema, Schema, JBlock, FastDeserializerGeneratorBase.FieldAction, BiConsumer, Supplier)}
              */
             case FLOAT: klass = abstractType ? PrimitiveFloatList.class : PrimitiveFloatArrayList.class; break;
@@ -0,0 +1,161 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.ByteBufferEncoder;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Encoder which writes nothing, but counts the bytes a binary encoder would write, see
+ * {@link FastSerializer#computeSerializedSize(Object)}.
+ *
+ * Like a binary encoder, it doesn't frame the items of arrays and maps: blocks are their item count followed by the
+ * items, and arrays and maps end with an empty block. Strings are counted without being encoded.
+ */
+final class SerializedSizeCounter extends Encoder {
+  private long size;
+
+  /**
+   * @return number of bytes counted so far
+   */
+  long getSize() {
+    return size;
+  }
+
+  /**
+   * Abstract in avro 1.4 only.
+   */
+  public void init(OutputStream out) {
+  }
+
+  @Override
+  public void writeNull() {
+  }
+
+  @Override
+  public void writeBoolean(boolean b) {
+    size++;
+  }
+
+  @Override
+  public void writeInt(int n) {
+    size += getVarIntSize((n << 1) ^ (n >> 31));
+  }
+
+  @Override
+  public void writeLong(long n) {
+    size += getVarLongSize((n << 1) ^ (n >> 63));
+  }
+
+  @Override
+  public void writeFloat(float f) {
+    size += 4;
+  }
+
+  @Override
+  public void writeDouble(double d) {
+    size += 8;
+  }
+
+  @Override
+  public void writeString(Utf8 utf8) {
+    writeLength(utf8.getByteLength());
+  }
+
+  @Override
+  public void writeString(String str) {
+    writeLength(ByteBufferEncoder.getUtf8Length(str));
+  }
+
+  @Override
+  public void writeString(CharSequence charSequence) {
+    if (charSequence instanceof Utf8) {
+      writeString((Utf8) charSequence);
+    } else {
+      writeString(charSequence.toString());
+    }
+  }
+
+  @Override
+  public void writeBytes(ByteBuffer bytes) {
+    writeLength(bytes.remaining());
+  }
+
+  @Override
+  public void writeBytes(byte[] bytes, int start, int len) {
+    writeLength(len);
+  }
+
+  @Override
+  public void writeFixed(byte[] bytes, int start, int len) {
+    size += len;
+  }
+
+  @Override
+  public void writeEnum(int e) {
+    writeInt(e);
+  }
+
+  @Override
+  public void writeArrayStart() {
+  }
+
+  @Override
+  public void setItemCount(long itemCount) {
+    if (itemCount > 0) {
+      writeLong(itemCount);
+    }
+  }
+
+  @Override
+  public void startItem() {
+  }
+
+  @Override
+  public void writeArrayEnd() {
+    size++;
+  }
+
+  @Override
+  public void writeMapStart() {
+  }
+
+  @Override
+  public void writeMapEnd() {
+    size++;
+  }
+
+  @Override
+  public void writeIndex(int unionIndex) {
+    writeInt(unionIndex);
+  }
+
+  @Override
+  public void flush() {
+  }
+
+  private void writeLength(int length) {
+    writeInt(length);
+    size += length;
+  }
+
+  private static int getVarIntSize(int n) {
+    int varIntSize = 1;
+    while ((n & ~0x7F) != 0) {
+      n >>>= 7;
+      varIntSize++;
+    }
+    return varIntSize;
+  }
+
+  private static int getVarLongSize(long n) {
+    int varLongSize = 1;
+    while ((n & ~0x7FL) != 0) {
+      n >>>= 7;
+      varLongSize++;
+    }
+    return varLongSize;
+  }
+}
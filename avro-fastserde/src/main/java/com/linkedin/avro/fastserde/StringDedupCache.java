@@ -0,0 +1,114 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Bounded table of canonical {@link String}s or {@link Utf8}s, used by the generated deserializers to read string
+ * schemas with the {@link SchemaAssistant#DEDUP_PROP} property, which are expected to only take a limited number
+ * of distinct values.
+ *
+ * Strings are looked up by their encoded bytes, so a value which is already known is neither decoded nor allocated
+ * again: all the records share its canonical instance, which must therefore never be modified.
+ *
+ * The table is direct-mapped: every string hashes to a single slot, which a new string takes over from the one it
+ * collides with. Slots hold immutable entries, so lookups never lock, and two threads racing to fill the same slot
+ * only cost a duplicate instance.
+ */
+public final class StringDedupCache {
+  public static final int DEFAULT_CAPACITY = 1024;
+  /**
+   * Longer strings are unlikely to repeat, so they are read as usual rather than hashed and kept around.
+   */
+  static final int MAX_LENGTH = 256;
+
+  private static final ThreadLocal<byte[]> SCRATCH_BUFFER = ThreadLocal.withInitial(() -> new byte[MAX_LENGTH]);
+
+  private final Entry[] entries;
+  private final int mask;
+
+  /**
+   * @param capacity maximum number of canonical instances, rounded up to a power of two
+   */
+  public StringDedupCache(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity should be positive, got: " + capacity);
+    }
+    int slotCount = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.entries = new Entry[slotCount];
+    this.mask = slotCount - 1;
+  }
+
+  /**
+   * Reads a string, like {@link Decoder#readString(Utf8)} without a {@link Utf8} to reuse.
+   */
+  public Utf8 readUtf8(Decoder decoder) throws IOException {
+    return (Utf8) read(decoder, true);
+  }
+
+  /**
+   * Reads a string, like {@link Decoder#readString()}.
+   */
+  public String readString(Decoder decoder) throws IOException {
+    return (String) read(decoder, false);
+  }
+
+  private Object read(Decoder decoder, boolean utf8) throws IOException {
+    int length = decoder.readInt();
+    if (length < 0) {
+      throw new AvroRuntimeException("Malformed data. Length is negative: " + length);
+    }
+    if (length > MAX_LENGTH) {
+      byte[] bytes = new byte[length];
+      decoder.readFixed(bytes, 0, length);
+      return utf8 ? new Utf8(bytes) : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    byte[] buffer = SCRATCH_BUFFER.get();
+    decoder.readFixed(buffer, 0, length);
+    int hash = 1;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + buffer[i];
+    }
+    hash ^= hash >>> 16;
+
+    int slot = hash & mask;
+    Entry entry = entries[slot];
+    if (entry != null && entry.matches(hash, buffer, length, utf8)) {
+      return entry.value;
+    }
+    byte[] bytes = new byte[length];
+    System.arraycopy(buffer, 0, bytes, 0, length);
+    Object value = utf8 ? new Utf8(bytes) : new String(bytes, StandardCharsets.UTF_8);
+    entries[slot] = new Entry(hash, bytes, value);
+    return value;
+  }
+
+  private static final class Entry {
+    private final int hash;
+    private final byte[] bytes;
+    private final Object value;
+
+    private Entry(int hash, byte[] bytes, Object value) {
+      this.hash = hash;
+      this.bytes = bytes;
+      this.value = value;
+    }
+
+    private boolean matches(int hash, byte[] buffer, int length, boolean utf8) {
+      if (this.hash != hash || bytes.length != length || (value instanceof Utf8) != utf8) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (bytes[i] != buffer[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
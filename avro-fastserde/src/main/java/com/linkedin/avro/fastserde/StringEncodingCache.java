@@ -0,0 +1,62 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.IOException;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Bounded table of the UTF-8 encodings of {@link String}s, used by the generated serializers to write string schemas
+ * with the {@link SchemaAssistant#DEDUP_PROP} property, which are expected to only take a limited number of distinct
+ * values.
+ *
+ * A string which is already known, either the same instance or an equal one, is written from its cached
+ * {@link Utf8} rather than encoded again. {@link Utf8} values hold their bytes already, so they are never cached.
+ *
+ * Like {@link StringDedupCache}, the table is direct-mapped, on the cached hash code of the strings, and its slots
+ * hold immutable entries, so lookups never lock.
+ */
+public final class StringEncodingCache {
+  private final Entry[] entries;
+  private final int mask;
+
+  /**
+   * @param capacity maximum number of cached encodings, rounded up to a power of two
+   */
+  public StringEncodingCache(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity should be positive, got: " + capacity);
+    }
+    int slotCount = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.entries = new Entry[slotCount];
+    this.mask = slotCount - 1;
+  }
+
+  /**
+   * Writes a string, like {@link Encoder#writeString(String)}.
+   */
+  public void writeString(String value, Encoder encoder) throws IOException {
+    if (value.length() > StringDedupCache.MAX_LENGTH) {
+      encoder.writeString(value);
+      return;
+    }
+    int hash = value.hashCode();
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    Entry entry = entries[slot];
+    if (entry == null || (entry.value != value && !entry.value.equals(value))) {
+      entry = new Entry(value, new Utf8(value));
+      entries[slot] = entry;
+    }
+    encoder.writeString(entry.encoded);
+  }
+
+  private static final class Entry {
+    private final String value;
+    private final Utf8 encoded;
+
+    private Entry(String value, Utf8 encoded) {
+      this.value = value;
+      this.encoded = encoded;
+    }
+  }
+}
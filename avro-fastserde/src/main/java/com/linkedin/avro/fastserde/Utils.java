@@ -7,6 +7,8 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.security.CodeSource;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -81,14 +83,19 @@ public class Utils {
   }
 
   /**
-   * This function will produce a fingerprint for the provided schema.
+   * This function will produce a fingerprint for the provided schema, which also covers the schema properties
+   * changing the generated code (see {@link SchemaAssistant#getCodeGenerationProps(Schema)}), so that schemas only
+   * differing by them get different fast serde classes.
    * @param schema a schema
    * @return fingerprint for the given schema
    */
   public static Long getSchemaFingerprint(Schema schema) {
     Long schemaId = SCHEMA_IDS_CACHE.get(schema);
     if (schemaId == null) {
-      schemaId = SchemaNormalization.parsingFingerprint64(schema);
+      String codeGenerationProps = SchemaAssistant.getCodeGenerationProps(schema);
+      schemaId = codeGenerationProps.isEmpty() ? SchemaNormalization.parsingFingerprint64(schema)
+          : SchemaNormalization.fingerprint64((SchemaNormalization.toParsingForm(schema) + codeGenerationProps)
+              .getBytes(StandardCharsets.UTF_8));
       SCHEMA_IDS_CACHE.put(schema, schemaId);
     }
 
@@ -131,11 +138,28 @@ public class Utils {
    */
   public static String inferCompileDependencies(String existingCompileClasspath, String filePath, Set<String> knownUsedFullyQualifiedClassNameSet)
       throws IOException, ClassNotFoundException {
+    try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+      return inferCompileDependencies(existingCompileClasspath, reader, knownUsedFullyQualifiedClassNameSet);
+    }
+  }
+
+  /**
+   * Same as {@link #inferCompileDependencies(String, String, Set)}, but the java source is provided as a {@link Reader},
+   * which allows to infer the dependencies of sources which are never written to disk.
+   * @param existingCompileClasspath existing compile classpath
+   * @param sourceReader reader of the java source to compile
+   * @param knownUsedFullyQualifiedClassNameSet: known fully qualified class name when generating the serialization/de-serialization classes
+   * @return classpath to compile given source
+   * @throws IOException on io issues
+   * @throws ClassNotFoundException on classloading issues
+   */
+  public static String inferCompileDependencies(String existingCompileClasspath, Reader sourceReader, Set<String> knownUsedFullyQualifiedClassNameSet)
+      throws IOException, ClassNotFoundException {
     Set<String> usedFullyQualifiedClassNameSet = new HashSet<>(knownUsedFullyQualifiedClassNameSet);
     Set<String> libSet = Arrays.stream(existingCompileClasspath.split(":")).collect(Collectors.toSet());
     final String importPrefix = "import ";
     // collect all the necessary dependencies for compilation
-    try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+    try (BufferedReader reader = new BufferedReader(sourceReader)) {
       String line;
       while ((line = reader.readLine()) != null) {
         if (line.startsWith(importPrefix)) {
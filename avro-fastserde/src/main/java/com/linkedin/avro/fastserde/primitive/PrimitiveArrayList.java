@@ -155,6 +155,25 @@ public abstract class PrimitiveArrayList<T, L, A> extends AbstractList<T>
     return size++;
   }
 
+  /**
+   * A function used when appending a block of elements to the end of the list, which resizes the primitive array
+   * at most once for the whole block, to at least 1.5x + 1 so that appending many blocks stays linear. It increases
+   * the size by the number of elements as a side-effect.
+   *
+   * @param count number of elements to append
+   * @return the index of the first appended element
+   */
+  protected int getAndAddSize(int count) {
+    if (size + count > capacity()) {
+      A newElements = newArray(Math.max(size + count, (capacity() * 3) / 2 + 1));
+      System.arraycopy(elementsArray, 0, newElements, 0, size);
+      this.elementsArray = newElements;
+    }
+    int index = size;
+    size += count;
+    return index;
+  }
+
   /** Checks if the primitve array is at capacity, and if so, resizes it to 1.5x + 1. */
   protected void capacityCheck() {
     if (size == capacity()) {
@@ -1,7 +1,9 @@
 package com.linkedin.avro.fastserde.primitive;
 
 import com.linkedin.avro.api.PrimitiveBooleanList;
+import java.io.IOException;
 import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
 
 
 public class PrimitiveBooleanArrayList extends PrimitiveArrayList<Boolean, PrimitiveBooleanList, boolean[]> implements PrimitiveBooleanList {
@@ -15,6 +17,37 @@ public class PrimitiveBooleanArrayList extends PrimitiveArrayList<Boolean, Primi
     super();
   }
 
+  /**
+   * Instantiate (or re-use) and populate a {@link PrimitiveBooleanArrayList} from a {@link Decoder}.
+   *
+   * Each block of the array is decoded straight into the primitive array, which is resized at most once per block
+   * rather than checked for every element.
+   *
+   * @param old old {@link PrimitiveBooleanArrayList} to reuse
+   * @param in {@link Decoder} to read new list from
+   * @return a {@link PrimitiveBooleanArrayList} with data, possibly the old argument reused
+   * @throws IOException on io errors
+   */
+  public static PrimitiveBooleanList readPrimitiveBooleanArray(Object old, Decoder in) throws IOException {
+    long length = in.readArrayStart();
+    PrimitiveBooleanArrayList array;
+    if (old instanceof PrimitiveBooleanArrayList) {
+      array = (PrimitiveBooleanArrayList) old;
+      array.clear();
+    } else {
+      array = new PrimitiveBooleanArrayList((int) length);
+    }
+    while (length > 0) {
+      int index = array.getAndAddSize((int) length);
+      boolean[] elements = array.elementsArray;
+      for (int end = index + (int) length; index < end; index++) {
+        elements[index] = in.readBoolean();
+      }
+      length = in.arrayNext();
+    }
+    return array;
+  }
+
   @Override
   public Boolean get(int index) {
     return getPrimitive(index);
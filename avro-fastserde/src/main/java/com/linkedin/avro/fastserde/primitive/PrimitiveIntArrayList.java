@@ -2,7 +2,10 @@ package com.linkedin.avro.fastserde.primitive;
 
 import com.linkedin.avro.api.PrimitiveBooleanList;
 import com.linkedin.avro.api.PrimitiveIntList;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.IOException;
 import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
 
 
 public class PrimitiveIntArrayList extends PrimitiveArrayList<Integer, PrimitiveIntList, int[]> implements PrimitiveIntList {
@@ -16,6 +19,35 @@ public class PrimitiveIntArrayList extends PrimitiveArrayList<Integer, Primitive
     super();
   }
 
+  /**
+   * Instantiate (or re-use) and populate a {@link PrimitiveIntArrayList} from a {@link Decoder}.
+   *
+   * Each block of the array is decoded straight into the primitive array, which is resized at most once per block
+   * rather than checked for every element. Binary decoders backed by a buffer decode the varints of a block out of
+   * their buffer in one go, see {@link AvroCompatibilityHelper#readInts(Decoder, int[], int, int)}.
+   *
+   * @param old old {@link PrimitiveIntArrayList} to reuse
+   * @param in {@link Decoder} to read new list from
+   * @return a {@link PrimitiveIntArrayList} with data, possibly the old argument reused
+   * @throws IOException on io errors
+   */
+  public static PrimitiveIntList readPrimitiveIntArray(Object old, Decoder in) throws IOException {
+    long length = in.readArrayStart();
+    PrimitiveIntArrayList array;
+    if (old instanceof PrimitiveIntArrayList) {
+      array = (PrimitiveIntArrayList) old;
+      array.clear();
+    } else {
+      array = new PrimitiveIntArrayList((int) length);
+    }
+    while (length > 0) {
+      int index = array.getAndAddSize((int) length);
+      AvroCompatibilityHelper.readInts(in, array.elementsArray, index, (int) length);
+      length = in.arrayNext();
+    }
+    return array;
+  }
+
   @Override
   public Integer get(int index) {
     return getPrimitive(index);
@@ -2,7 +2,10 @@ package com.linkedin.avro.fastserde.primitive;
 
 import com.linkedin.avro.api.PrimitiveBooleanList;
 import com.linkedin.avro.api.PrimitiveLongList;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.IOException;
 import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
 
 
 public class PrimitiveLongArrayList extends PrimitiveArrayList<Long, PrimitiveLongList, long[]> implements PrimitiveLongList {
@@ -16,6 +19,35 @@ public class PrimitiveLongArrayList extends PrimitiveArrayList<Long, PrimitiveLo
     super();
   }
 
+  /**
+   * Instantiate (or re-use) and populate a {@link PrimitiveLongArrayList} from a {@link Decoder}.
+   *
+   * Each block of the array is decoded straight into the primitive array, which is resized at most once per block
+   * rather than checked for every element. Binary decoders backed by a buffer decode the varints of a block out of
+   * their buffer in one go, see {@link AvroCompatibilityHelper#readLongs(Decoder, long[], int, int)}.
+   *
+   * @param old old {@link PrimitiveLongArrayList} to reuse
+   * @param in {@link Decoder} to read new list from
+   * @return a {@link PrimitiveLongArrayList} with data, possibly the old argument reused
+   * @throws IOException on io errors
+   */
+  public static PrimitiveLongList readPrimitiveLongArray(Object old, Decoder in) throws IOException {
+    long length = in.readArrayStart();
+    PrimitiveLongArrayList array;
+    if (old instanceof PrimitiveLongArrayList) {
+      array = (PrimitiveLongArrayList) old;
+      array.clear();
+    } else {
+      array = new PrimitiveLongArrayList((int) length);
+    }
+    while (length > 0) {
+      int index = array.getAndAddSize((int) length);
+      AvroCompatibilityHelper.readLongs(in, array.elementsArray, index, (int) length);
+      length = in.arrayNext();
+    }
+    return array;
+  }
+
   @Override
   public Long get(int index) {
     return getPrimitive(index);
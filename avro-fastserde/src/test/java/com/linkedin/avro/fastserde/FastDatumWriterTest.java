@@ -5,9 +5,14 @@ import com.linkedin.avro.fastserde.generated.avro.TestRecord;
 import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.Encoder;
 import org.apache.avro.util.Utf8;
 import org.testng.Assert;
 import org.testng.annotations.BeforeTest;
@@ -81,4 +86,173 @@ public class FastDatumWriterTest {
     Assert.assertTrue(fastGenericDatumWriter.isFastSerializerUsed(), "FastGenericDatumWriter should be using"
         + " Fast Serializer when the fast deserializer generation is done.");
   }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldWriteOriginalBytesOfUnmodifiedLazyRecord() throws IOException {
+    // given
+    Schema recordSchema = createRecord("LazyTestSchema", createPrimitiveUnionFieldSchema("name", Schema.Type.STRING),
+        createArrayFieldSchema("numbers", Schema.create(Schema.Type.INT)),
+        createPrimitiveFieldSchema("count", Schema.Type.LONG));
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("name", "name");
+    record.put("numbers", Arrays.asList(1, 2, 3));
+    record.put("count", 3L);
+    byte[] bytes = genericDataAsBytes(record);
+    LazyGenericRecordReader lazyRecordReader = new LazyGenericRecordReader(recordSchema, cache);
+    FastGenericDatumWriter<GenericRecord> fastGenericDatumWriter = new FastGenericDatumWriter<>(recordSchema, cache);
+
+    // when
+    LazyGenericRecord lazyRecord = lazyRecordReader.read(bytes);
+    Assert.assertEquals(lazyRecord.get("count"), 3L);
+    byte[] unmodifiedBytes = write(fastGenericDatumWriter, lazyRecord);
+    lazyRecord.put("count", 4L);
+    byte[] modifiedBytes = write(fastGenericDatumWriter, lazyRecord);
+
+    // then
+    Assert.assertEquals(unmodifiedBytes, bytes);
+    Assert.assertTrue(lazyRecord.isModified());
+    record.put("count", 4L);
+    Assert.assertEquals(modifiedBytes, genericDataAsBytes(record));
+    Assert.assertEquals(lazyRecordReader.read(modifiedBytes).toString(), record.toString());
+  }
+
+  @Test(groups = {"serializationTest"})
+  @SuppressWarnings("unchecked")
+  public void shouldWriteOriginalBytesOfUnmodifiedFieldsAndNestedRecords() throws IOException {
+    // given
+    Schema innerSchema = createRecord("LazyInnerSchema", createPrimitiveFieldSchema("id", Schema.Type.INT),
+        createArrayFieldSchema("tags", Schema.create(Schema.Type.STRING)));
+    Schema recordSchema = createRecord("LazyOuterSchema", createPrimitiveUnionFieldSchema("name", Schema.Type.STRING),
+        createField("inner", innerSchema), createUnionFieldWithNull("optionalInner", innerSchema),
+        createMapFieldSchema("scores", Schema.create(Schema.Type.DOUBLE)));
+    GenericRecord inner = new GenericData.Record(innerSchema);
+    inner.put("id", 1);
+    inner.put("tags", Arrays.asList(new Utf8("a"), new Utf8("b")));
+    GenericRecord optionalInner = new GenericData.Record(innerSchema);
+    optionalInner.put("id", 2);
+    optionalInner.put("tags", Arrays.asList(new Utf8("c")));
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("name", new Utf8("name"));
+    record.put("inner", inner);
+    record.put("optionalInner", optionalInner);
+    record.put("scores", Collections.singletonMap(new Utf8("score"), 0.5));
+    byte[] bytes = genericDataAsBytes(record);
+    LazyGenericRecordReader lazyRecordReader = new LazyGenericRecordReader(recordSchema, cache, true);
+    FastSerializer<GenericRecord> fastSerializer =
+        (FastSerializer<GenericRecord>) cache.buildFastGenericSerializer(recordSchema);
+
+    // when
+    LazyGenericRecord lazyRecord = lazyRecordReader.read(bytes);
+    LazyGenericRecord lazyInner = (LazyGenericRecord) lazyRecord.get("inner");
+    LazyGenericRecord lazyOptionalInner = (LazyGenericRecord) lazyRecord.get("optionalInner");
+    byte[] unmodifiedBytes = serialize(fastSerializer, lazyRecord);
+    lazyOptionalInner.put("id", 3);
+    byte[] nestedModifiedBytes = serialize(fastSerializer, lazyRecord);
+    lazyRecord.put("name", new Utf8("other name"));
+    byte[] modifiedBytes = serialize(fastSerializer, lazyRecord);
+
+    // then
+    Assert.assertEquals(unmodifiedBytes, bytes);
+    Assert.assertFalse(lazyInner.isModified());
+    Assert.assertTrue(lazyOptionalInner.isModified());
+    Assert.assertTrue(lazyRecord.isModified());
+    optionalInner.put("id", 3);
+    Assert.assertEquals(nestedModifiedBytes, genericDataAsBytes(record));
+    record.put("name", new Utf8("other name"));
+    Assert.assertEquals(modifiedBytes, genericDataAsBytes(record));
+    Assert.assertEquals(lazyRecordReader.read(modifiedBytes).toString(), record.toString());
+  }
+
+  @Test(groups = {"serializationTest"})
+  @SuppressWarnings("unchecked")
+  public void shouldCompareLazyRecordsWithoutModifyingThem() throws IOException {
+    // given
+    Schema innerSchema = createRecord("LazyComparedInnerSchema", createPrimitiveFieldSchema("id", Schema.Type.INT),
+        createArrayFieldSchema("tags", Schema.create(Schema.Type.STRING)));
+    Schema recordSchema = createRecord("LazyComparedSchema", createPrimitiveUnionFieldSchema("name", Schema.Type.STRING),
+        createField("inner", innerSchema), createArrayFieldSchema("scores", Schema.create(Schema.Type.DOUBLE)));
+    byte[][] bytes = new byte[2][];
+    for (int i = 0; i < bytes.length; i++) {
+      GenericRecord inner = new GenericData.Record(innerSchema);
+      inner.put("id", i);
+      inner.put("tags", Arrays.asList(new Utf8("a"), new Utf8("b")));
+      GenericRecord record = new GenericData.Record(recordSchema);
+      record.put("name", new Utf8("name"));
+      record.put("inner", inner);
+      record.put("scores", Arrays.asList(0.5, 1.5));
+      bytes[i] = genericDataAsBytes(record);
+    }
+    LazyGenericRecordReader lazyRecordReader = new LazyGenericRecordReader(recordSchema, cache, true);
+    FastSerializer<GenericRecord> fastSerializer =
+        (FastSerializer<GenericRecord>) cache.buildFastGenericSerializer(recordSchema);
+
+    // when
+    List<LazyGenericRecord> lazyRecords =
+        new ArrayList<>(Arrays.asList(lazyRecordReader.read(bytes[1]), lazyRecordReader.read(bytes[0])));
+    Collections.sort(lazyRecords);
+
+    // then
+    Assert.assertTrue(lazyRecords.get(0).compareTo(lazyRecords.get(1)) < 0);
+    Assert.assertEquals(lazyRecords.get(0).compareTo(lazyRecordReader.read(bytes[0])), 0);
+    Assert.assertNotEquals(lazyRecords.get(0), lazyRecords.get(1));
+    Assert.assertNotNull(lazyRecords.get(0).toString());
+    for (int i = 0; i < bytes.length; i++) {
+      Assert.assertFalse(lazyRecords.get(i).isModified());
+      Assert.assertEquals(serialize(fastSerializer, lazyRecords.get(i)), bytes[i]);
+    }
+  }
+
+  @Test(groups = {"serializationTest"})
+  @SuppressWarnings("unchecked")
+  public void shouldEncodeAgainFieldsModifiedInPlace() throws IOException {
+    // given
+    Schema headerSchema = createRecord("LazyHeaderSchema", createPrimitiveFieldSchema("ts", Schema.Type.LONG));
+    Schema recordSchema = createRecord("LazyInPlaceSchema", createField("h", headerSchema),
+        createArrayFieldSchema("numbers", Schema.create(Schema.Type.INT)),
+        createPrimitiveFieldSchema("count", Schema.Type.LONG));
+    GenericRecord header = new GenericData.Record(headerSchema);
+    header.put("ts", 1L);
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("h", header);
+    record.put("numbers", Arrays.asList(1, 2, 3));
+    record.put("count", 3L);
+    byte[] bytes = genericDataAsBytes(record);
+    LazyGenericRecordReader lazyRecordReader = new LazyGenericRecordReader(recordSchema, cache);
+    FastGenericDatumWriter<GenericRecord> fastGenericDatumWriter = new FastGenericDatumWriter<>(recordSchema, cache);
+    FastSerializer<GenericRecord> fastSerializer =
+        (FastSerializer<GenericRecord>) cache.buildFastGenericSerializer(recordSchema);
+
+    // when
+    LazyGenericRecord lazyRecord = lazyRecordReader.read(bytes);
+    Assert.assertEquals(lazyRecord.get("count"), 3L);
+    Assert.assertNotNull(lazyRecord.toString());
+    Assert.assertFalse(lazyRecord.isModified());
+    ((GenericRecord) lazyRecord.get("h")).put("ts", 42L);
+    byte[] writtenBytes = write(fastGenericDatumWriter, lazyRecord);
+    ((List<Integer>) lazyRecord.get("numbers")).set(0, 7);
+    byte[] serializedBytes = serialize(fastSerializer, lazyRecord);
+
+    // then
+    Assert.assertTrue(lazyRecord.isModified());
+    header.put("ts", 42L);
+    Assert.assertEquals(writtenBytes, genericDataAsBytes(record));
+    record.put("numbers", Arrays.asList(7, 2, 3));
+    Assert.assertEquals(serializedBytes, genericDataAsBytes(record));
+  }
+
+  private static byte[] write(FastGenericDatumWriter<GenericRecord> writer, GenericRecord record) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    writer.write(record, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+
+  private static byte[] serialize(FastSerializer<GenericRecord> serializer, GenericRecord record) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    serializer.serialize(record, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
 }
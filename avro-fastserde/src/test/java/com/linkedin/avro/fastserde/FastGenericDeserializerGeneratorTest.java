@@ -5,8 +5,10 @@ import com.linkedin.avro.api.PrimitiveDoubleList;
 import com.linkedin.avro.api.PrimitiveFloatList;
 import com.linkedin.avro.api.PrimitiveIntList;
 import com.linkedin.avro.api.PrimitiveLongList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveDoubleArrayList;
 import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
 import com.linkedin.avroutil1.compatibility.AvroVersion;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Method;
@@ -25,8 +27,11 @@ import org.apache.avro.AvroTypeException;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
 import org.apache.avro.util.Utf8;
 import org.testng.Assert;
 import org.testng.SkipException;
@@ -1047,6 +1052,76 @@ public class FastGenericDeserializerGeneratorTest {
     }
   }
 
+  @Test(groups = {"deserializationTest"})
+  public void shouldReadArraysOfPrimitivesSplitInBlocks() throws IOException {
+    // given
+    Schema recordSchema = createRecord(
+        createArrayFieldSchema("booleans", Schema.create(Schema.Type.BOOLEAN)),
+        createArrayFieldSchema("doubles", Schema.create(Schema.Type.DOUBLE)),
+        createArrayFieldSchema("floats", Schema.create(Schema.Type.FLOAT)),
+        createArrayFieldSchema("ints", Schema.create(Schema.Type.INT)),
+        createArrayFieldSchema("longs", Schema.create(Schema.Type.LONG)));
+    FastDeserializer<GenericRecord> deserializer =
+        new FastGenericDeserializerGenerator<GenericRecord>(recordSchema, recordSchema, tempDir, classLoader, null)
+            .generateDeserializer();
+
+    // when
+    GenericRecord record = deserializer.deserialize(null, primitiveArraysInBlocksAsDecoder(2, 3));
+    GenericRecord reusedRecord = deserializer.deserialize(record, primitiveArraysInBlocksAsDecoder(1, 6));
+
+    // then
+    Assert.assertEquals(record.toString(),
+        decodeRecordSlow(recordSchema, recordSchema, primitiveArraysInBlocksAsDecoder(1, 6)).toString());
+    Assert.assertSame(reusedRecord.get("ints"), record.get("ints"));
+    Assert.assertEquals(((PrimitiveDoubleList) reusedRecord.get("doubles")).getPrimitive(5), 5.5D);
+    Assert.assertEquals(((PrimitiveFloatList) reusedRecord.get("floats")).getPrimitive(6), 6.5F);
+    Assert.assertEquals(((PrimitiveLongList) reusedRecord.get("longs")).getPrimitive(4), -4L << 40);
+    Assert.assertEquals(((PrimitiveIntList) reusedRecord.get("ints")).getPrimitive(3), -3000);
+    Assert.assertTrue(((PrimitiveBooleanList) reusedRecord.get("booleans")).getPrimitive(6));
+
+    // the lists backed by the bytes read behave like the lists of the decoded elements
+    PrimitiveDoubleList doubles = (PrimitiveDoubleList) reusedRecord.get("doubles");
+    PrimitiveDoubleArrayList expectedDoubles = new PrimitiveDoubleArrayList();
+    for (int i = 0; i < 7; i++) {
+      expectedDoubles.addPrimitive(i + 0.5D);
+    }
+    Assert.assertTrue(doubles.equals(expectedDoubles));
+    Assert.assertEquals(doubles.hashCode(), expectedDoubles.hashCode());
+    doubles.add(1, 9D);
+    doubles.remove(0);
+    doubles.setPrimitive(6, 8D);
+    doubles.addPrimitive(7D);
+    Assert.assertEquals(doubles, Arrays.asList(9D, 1.5D, 2.5D, 3.5D, 4.5D, 5.5D, 8D, 7D));
+  }
+
+  /**
+   * Encodes the arrays of the record read by {@link #shouldReadArraysOfPrimitivesSplitInBlocks()} in two blocks
+   * each, which the regular encoders never do.
+   */
+  private static Decoder primitiveArraysInBlocksAsDecoder(int firstBlockSize, int secondBlockSize) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    for (Schema.Type type : Arrays.asList(Schema.Type.BOOLEAN, Schema.Type.DOUBLE, Schema.Type.FLOAT, Schema.Type.INT,
+        Schema.Type.LONG)) {
+      int i = 0;
+      for (int blockSize : new int[]{firstBlockSize, secondBlockSize}) {
+        encoder.writeLong(blockSize);
+        for (int end = i + blockSize; i < end; i++) {
+          switch (type) {
+            case BOOLEAN: encoder.writeBoolean(i % 2 == 0); break;
+            case DOUBLE: encoder.writeDouble(i + 0.5D); break;
+            case FLOAT: encoder.writeFloat(i + 0.5F); break;
+            case INT: encoder.writeInt(-1000 * i); break;
+            default: encoder.writeLong(-((long) i) << 40);
+          }
+        }
+      }
+      encoder.writeLong(0);
+    }
+    encoder.flush();
+    return AvroCompatibilityHelper.newBinaryDecoder(baos.toByteArray());
+  }
+
   @Test(groups = {"deserializationTest"}, dataProvider = "Implementation")
   public void shouldReadMapOfRecords(Implementation implementation) {
     // given
@@ -1211,6 +1286,485 @@ public class FastGenericDeserializerGeneratorTest {
     Assert.assertEquals(subRecordSchema.hashCode(), ((GenericRecord) backwardRecord.get("record2")).getSchema().hashCode());
   }
 
+  @Test(groups = {"deserializationTest"})
+  public void shouldReadWideRecordSplitIntoHelperMethods() throws Exception {
+    // given
+    StringBuilder writerFields = new StringBuilder();
+    StringBuilder readerFields = new StringBuilder();
+    for (int i = 0; i < 40; i++) {
+      String field = String.format("{\"name\":\"int%1$d\",\"type\":\"int\"},"
+          + "{\"name\":\"string%1$d\",\"type\":[\"null\",\"string\"]},"
+          + "{\"name\":\"array%1$d\",\"type\":{\"type\":\"array\",\"items\":\"long\"}},", i);
+      writerFields.append(field);
+      readerFields.append(field);
+    }
+    writerFields.append("{\"name\":\"skipped\",\"type\":\"string\"}");
+    readerFields.append("{\"name\":\"defaulted\",\"type\":\"int\",\"default\":42}");
+    Schema writerSchema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"WideRecord\",\"fields\":[" + writerFields + "]}");
+    Schema readerSchema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"WideRecord\",\"fields\":[" + readerFields + "]}");
+
+    GenericData.Record record = new GenericData.Record(writerSchema);
+    for (int i = 0; i < 40; i++) {
+      record.put("int" + i, i);
+      record.put("string" + i, i % 2 == 0 ? null : "string" + i);
+      record.put("array" + i, Arrays.asList((long) i, (long) i + 1));
+    }
+    record.put("skipped", "skipped");
+
+    FastGenericDeserializerGenerator<GenericRecord> generator =
+        new FastGenericDeserializerGenerator<>(writerSchema, readerSchema, tempDir, classLoader, null);
+    generator.setMethodSizeBudget(200);
+
+    // when
+    FastDeserializer<GenericRecord> deserializer = generator.generateDeserializer();
+    GenericRecord fastRecord = decodeRecordFast(deserializer, genericDataAsDecoder(record));
+    GenericRecord slowRecord = decodeRecordSlow(writerSchema, readerSchema, genericDataAsDecoder(record));
+
+    // then
+    long helperMethodCount = Arrays.stream(deserializer.getClass().getDeclaredMethods())
+        .filter(method -> method.getName().startsWith("deserializeWideRecordFields"))
+        .count();
+    Assert.assertTrue(helperMethodCount > 1, "Expected the record to be split, found " + helperMethodCount + " helper methods");
+    Assert.assertEquals(fastRecord.get("defaulted"), 42);
+    Assert.assertEquals(fastRecord.toString(), slowRecord.toString());
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReadFieldsOfWideLazyRecordSplitIntoHelperMethods() throws Exception {
+    // given
+    Schema schema = createWideRecordSchema("WideLazyRecord", 40);
+    GenericRecord record = createWideRecord(schema, 40, 0);
+    byte[] bytes = genericDataAsBytes(record);
+
+    FastGenericFieldDeserializerGenerator<GenericRecord> generator =
+        new FastGenericFieldDeserializerGenerator<>(schema, tempDir, classLoader, null);
+    generator.setMethodSizeBudget(200);
+
+    // when
+    FastFieldDeserializer<GenericRecord> fieldDeserializer = generator.generateFieldDeserializer();
+    LazyGenericRecord lazyRecord = new LazyGenericRecord(schema, fieldDeserializer, bytes, 0, bytes.length, null);
+
+    // then
+    long skipMethodCount = Arrays.stream(fieldDeserializer.getClass().getDeclaredMethods())
+        .filter(method -> method.getName().startsWith("skipFields"))
+        .count();
+    long deserializeMethodCount = Arrays.stream(fieldDeserializer.getClass().getDeclaredMethods())
+        .filter(method -> method.getName().startsWith("deserializeFields"))
+        .count();
+    Assert.assertTrue(skipMethodCount > 1, "Expected the skip switch to be split, found " + skipMethodCount + " helper methods");
+    Assert.assertTrue(deserializeMethodCount > 1,
+        "Expected the deserialize switch to be split, found " + deserializeMethodCount + " helper methods");
+    // reading the last field skips all the others
+    Assert.assertEquals(lazyRecord.get("array39"), Arrays.asList(39L, 40L));
+    Assert.assertEquals(lazyRecord.get("int0"), 0);
+    Assert.assertEquals(lazyRecord.get("string21").toString(), "string21");
+    Assert.assertEquals(lazyRecord.toString(), decodeRecordSlow(schema, schema, genericDataAsDecoder(record)).toString());
+    Assert.assertThrows(IndexOutOfBoundsException.class,
+        () -> fieldDeserializer.skipField(schema.getFields().size(), genericDataAsDecoder(record)));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldSkipWideRecordsRejectedByAFilterInHelperMethods() throws Exception {
+    // given
+    Schema schema = createWideRecordSchema("WideFilteredRecord", 40);
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    GenericDatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(schema);
+    for (int i = 0; i < 4; i++) {
+      datumWriter.write(createWideRecord(schema, 40, i), encoder);
+    }
+    encoder.flush();
+    byte[] bytes = baos.toByteArray();
+
+    FastGenericDeserializerGenerator<GenericRecord> generator = new FastGenericDeserializerGenerator<>(schema, schema,
+        tempDir, classLoader, null, FastSerdeFilter.in("int0", Arrays.asList(1, 3)));
+    generator.setMethodSizeBudget(200);
+
+    // when
+    FastDeserializer<GenericRecord> deserializer = generator.generateDeserializer();
+    Decoder decoder = AvroCompatibilityHelper.newBinaryDecoder(bytes, 0, bytes.length, null);
+    List<GenericRecord> results = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      results.add(deserializer.deserialize(null, decoder));
+    }
+
+    // then
+    long skipMethodCount = Arrays.stream(deserializer.getClass().getDeclaredMethods())
+        .filter(method -> method.getName().startsWith("skipWideFilteredRecordFields"))
+        .count();
+    Assert.assertTrue(skipMethodCount > 1, "Expected the skipped fields to be split, found " + skipMethodCount + " helper methods");
+    Assert.assertNull(results.get(0));
+    Assert.assertNull(results.get(2));
+    Assert.assertEquals(results.get(1).toString(), createWideRecord(schema, 40, 1).toString());
+    Assert.assertEquals(results.get(3).toString(), createWideRecord(schema, 40, 3).toString());
+    Assert.assertTrue(((BinaryDecoder) decoder).isEnd());
+  }
+
+  private static Schema createWideRecordSchema(String name, int fieldGroupCount) {
+    StringBuilder fields = new StringBuilder();
+    for (int i = 0; i < fieldGroupCount; i++) {
+      fields.append(i > 0 ? "," : "").append(String.format("{\"name\":\"int%1$d\",\"type\":\"int\"},"
+          + "{\"name\":\"string%1$d\",\"type\":[\"null\",\"string\"]},"
+          + "{\"name\":\"array%1$d\",\"type\":{\"type\":\"array\",\"items\":\"long\"}}", i));
+    }
+    return AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"" + name + "\",\"fields\":[" + fields + "]}");
+  }
+
+  private static GenericRecord createWideRecord(Schema schema, int fieldGroupCount, int offset) {
+    GenericData.Record record = new GenericData.Record(schema);
+    for (int i = 0; i < fieldGroupCount; i++) {
+      record.put("int" + i, i + offset);
+      record.put("string" + i, i % 2 == 0 ? null : new Utf8("string" + i));
+      record.put("array" + i, Arrays.asList((long) i, (long) i + 1));
+    }
+    return record;
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReadProjectedFields() throws Exception {
+    // given
+    Schema writerSchema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"ProjectedRecord\",\"fields\":["
+        + "{\"name\":\"id\",\"type\":\"long\"},"
+        + "{\"name\":\"payload\",\"type\":\"string\"},"
+        + "{\"name\":\"header\",\"type\":{\"type\":\"record\",\"name\":\"Header\",\"fields\":["
+        + "{\"name\":\"time\",\"type\":\"long\"},{\"name\":\"host\",\"type\":\"string\"}]}},"
+        + "{\"name\":\"items\",\"type\":{\"type\":\"array\",\"items\":[\"null\",{\"type\":\"record\",\"name\":\"Item\",\"fields\":["
+        + "{\"name\":\"name\",\"type\":\"string\"},{\"name\":\"tags\",\"type\":{\"type\":\"map\",\"values\":\"string\"}}]}]}},"
+        + "{\"name\":\"attributes\",\"type\":{\"type\":\"map\",\"values\":\"Header\"}}]}");
+    Schema readerSchema = FastSerdeProjection.project(writerSchema, Arrays.asList("id", "header.time", "items.name"));
+
+    GenericData.Record header = new GenericData.Record(writerSchema.getField("header").schema());
+    header.put("time", 1L);
+    header.put("host", "host");
+    GenericData.Record item = new GenericData.Record(writerSchema.getField("items").schema().getElementType().getTypes().get(1));
+    item.put("name", "item");
+    item.put("tags", Collections.singletonMap("tag", "value"));
+    GenericData.Record record = new GenericData.Record(writerSchema);
+    record.put("id", 42L);
+    record.put("payload", "payload");
+    record.put("header", header);
+    record.put("items", Collections.singletonList(item));
+    record.put("attributes", Collections.singletonMap("attribute", header));
+
+    // when
+    GenericRecord fastRecord = decodeRecordWarmFast(writerSchema, readerSchema, genericDataAsDecoder(record));
+    GenericRecord slowRecord = decodeRecordSlow(writerSchema, readerSchema, genericDataAsDecoder(record));
+
+    // then
+    Assert.assertEquals(readerSchema.getFields().size(), 3);
+    Assert.assertEquals(readerSchema.getField("header").schema().getFields().size(), 1);
+    Assert.assertEquals(fastRecord.get("id"), 42L);
+    Assert.assertEquals(((GenericRecord) fastRecord.get("header")).get("time"), 1L);
+    Assert.assertEquals(((GenericRecord) ((List<?>) fastRecord.get("items")).get(0)).get("name").toString(), "item");
+    Assert.assertEquals(fastRecord.toString(), slowRecord.toString());
+  }
+
+  @Test(groups = {"deserializationTest"}, expectedExceptions = IllegalArgumentException.class)
+  public void shouldRejectProjectionOfUnknownField() {
+    Schema schema = createRecord(createField("header", createRecord("Header", createPrimitiveUnionFieldSchema("time", Schema.Type.LONG))));
+    FastSerdeProjection.project(schema, Collections.singleton("header.host"));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldDecodeLazyRecordFieldsOnAccess() throws Exception {
+    // given
+    Schema schema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"LazyRecord\",\"fields\":["
+        + "{\"name\":\"id\",\"type\":\"long\"},"
+        + "{\"name\":\"tags\",\"type\":{\"type\":\"array\",\"items\":\"string\"}},"
+        + "{\"name\":\"attributes\",\"type\":{\"type\":\"map\",\"values\":[\"null\",\"int\"]}},"
+        + "{\"name\":\"header\",\"type\":{\"type\":\"record\",\"name\":\"Header\",\"fields\":["
+        + "{\"name\":\"time\",\"type\":\"long\"},{\"name\":\"host\",\"type\":[\"null\",\"string\"]}]}},"
+        + "{\"name\":\"payload\",\"type\":[\"null\",\"string\",\"bytes\"]},"
+        + "{\"name\":\"score\",\"type\":\"double\"}]}");
+
+    GenericData.Record header = new GenericData.Record(schema.getField("header").schema());
+    header.put("time", 1L);
+    header.put("host", "host");
+    GenericData.Record record = new GenericData.Record(schema);
+    record.put("id", 42L);
+    record.put("tags", Arrays.asList("a", "b"));
+    record.put("attributes", Collections.singletonMap("attribute", 7));
+    record.put("header", header);
+    record.put("payload", "payload");
+    record.put("score", 0.5);
+    byte[] bytes = genericDataAsBytes(record);
+
+    FastFieldDeserializer<GenericRecord> fieldDeserializer =
+        new FastGenericFieldDeserializerGenerator<GenericRecord>(schema, tempDir, classLoader, null)
+            .generateFieldDeserializer();
+
+    // when
+    LazyGenericRecord lazyRecord = new LazyGenericRecord(schema, fieldDeserializer, bytes, 0, bytes.length, null);
+    GenericRecord slowRecord = decodeRecordSlow(schema, schema, genericDataAsDecoder(record));
+
+    // then
+    Assert.assertEquals(lazyRecord.get("score"), 0.5);
+    Assert.assertEquals(lazyRecord.get("id"), 42L);
+    Assert.assertEquals(lazyRecord.toString(), slowRecord.toString());
+    // lazy records are only equal to lazy records, so that equality stays symmetric
+    LazyGenericRecord otherLazyRecord = new LazyGenericRecord(schema, fieldDeserializer, bytes, 0, bytes.length, null);
+    Assert.assertFalse(lazyRecord.equals(slowRecord));
+    Assert.assertFalse(slowRecord.equals(lazyRecord));
+    Assert.assertTrue(lazyRecord.equals(otherLazyRecord));
+    Assert.assertEquals(lazyRecord.hashCode(), otherLazyRecord.hashCode());
+    // checking equality doesn't hand out the values of the fields
+    Assert.assertFalse(lazyRecord.isModified());
+    Assert.assertFalse(otherLazyRecord.isModified());
+    Assert.assertEquals(((GenericRecord) lazyRecord.get("header")).get("host").toString(), "host");
+    Assert.assertEquals(((Map<?, ?>) lazyRecord.get("attributes")).get(new Utf8("attribute")), 7);
+    // the nested record and the map could have been modified in place
+    Assert.assertTrue(lazyRecord.isModified());
+    Assert.assertEquals(decodeRecordFast(fieldDeserializer, genericDataAsDecoder(record)).toString(),
+        slowRecord.toString());
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReadSlicedBytesWithoutCopying() throws Exception {
+    // given
+    Schema writerSchema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"SlicedRecord\",\"fields\":["
+        + "{\"name\":\"id\",\"type\":\"long\"},"
+        + "{\"name\":\"blob\",\"type\":\"bytes\"},"
+        + "{\"name\":\"thumbnail\",\"type\":[\"null\",\"bytes\"]}]}");
+    Schema readerSchema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"SlicedRecord\",\"fields\":["
+        + "{\"name\":\"id\",\"type\":\"long\"},"
+        + "{\"name\":\"blob\",\"type\":{\"type\":\"bytes\",\"avro.fastserde.slice\":true}},"
+        + "{\"name\":\"thumbnail\",\"type\":[\"null\",{\"type\":\"bytes\",\"avro.fastserde.slice\":true}]}]}");
+
+    byte[] blobBytes = new byte[64];
+    Arrays.fill(blobBytes, (byte) 1);
+    GenericData.Record record = new GenericData.Record(writerSchema);
+    record.put("id", 42L);
+    record.put("blob", ByteBuffer.wrap(blobBytes));
+    record.put("thumbnail", ByteBuffer.wrap(new byte[]{5, 6}));
+    byte[] bytes = genericDataAsBytes(record);
+
+    FastDeserializer<GenericRecord> deserializer =
+        new FastGenericDeserializerGenerator<GenericRecord>(writerSchema, readerSchema, tempDir, classLoader, null)
+            .generateDeserializer();
+
+    // when
+    GenericRecord fromArray =
+        deserializer.deserialize(AvroCompatibilityHelper.newBinaryDecoder(bytes, 0, bytes.length, null));
+    GenericRecord fromStream = deserializer.deserialize(genericDataAsDecoder(record));
+
+    // then
+    ByteBuffer blob = (ByteBuffer) fromArray.get("blob");
+    Assert.assertEquals(blob, ByteBuffer.wrap(blobBytes));
+    Assert.assertSame(blob.array(), bytes);
+    ByteBuffer thumbnail = (ByteBuffer) fromArray.get("thumbnail");
+    Assert.assertEquals(thumbnail, ByteBuffer.wrap(new byte[]{5, 6}));
+    Assert.assertEquals(genericDataAsBytes(fromArray, writerSchema), bytes);
+    Assert.assertEquals(fromStream.get("blob"), ByteBuffer.wrap(blobBytes));
+    Assert.assertEquals(fromStream.get("thumbnail"), ByteBuffer.wrap(new byte[]{5, 6}));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReadNullBranchesOfUnionsInArraysAndMaps() throws Exception {
+    // given
+    Schema schema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"NullElementsRecord\",\"fields\":["
+        + "{\"name\":\"names\",\"type\":{\"type\":\"array\",\"items\":[\"null\",\"string\"]}},"
+        + "{\"name\":\"counts\",\"type\":{\"type\":\"map\",\"values\":[\"null\",\"int\"]}}]}");
+    GenericData.Record record = new GenericData.Record(schema);
+    record.put("names", Arrays.asList("a", null, "b", null));
+    Map<String, Integer> counts = new HashMap<>();
+    counts.put("one", 1);
+    counts.put("none", null);
+    record.put("counts", counts);
+
+    // when
+    GenericRecord fastRecord = decodeRecordFast(
+        new FastGenericDeserializerGenerator<GenericRecord>(schema, schema, tempDir, classLoader, null)
+            .generateDeserializer(), genericDataAsDecoder(record));
+
+    // then
+    Assert.assertEquals(fastRecord.get("names"), Arrays.asList(new Utf8("a"), null, new Utf8("b"), null));
+    Map<?, ?> fastCounts = (Map<?, ?>) fastRecord.get("counts");
+    Assert.assertEquals(fastCounts.size(), 2);
+    Assert.assertTrue(fastCounts.containsKey(new Utf8("none")));
+    Assert.assertNull(fastCounts.get(new Utf8("none")));
+    Assert.assertEquals(fastCounts.get(new Utf8("one")), 1);
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldOverwriteReusedValuesWithNullBranchesOfUnions() throws Exception {
+    // given
+    Schema schema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"NullReuseRecord\",\"fields\":["
+        + "{\"name\":\"name\",\"type\":[\"null\",\"string\"]},"
+        + "{\"name\":\"child\",\"type\":[\"null\",{\"type\":\"record\",\"name\":\"NullReuseChild\",\"fields\":["
+        + "{\"name\":\"id\",\"type\":\"int\"}]}]},"
+        + "{\"name\":\"names\",\"type\":{\"type\":\"array\",\"items\":[\"null\",\"string\"]}}]}");
+    GenericData.Record child = new GenericData.Record(schema.getField("child").schema().getTypes().get(1));
+    child.put("id", 1);
+    GenericData.Record first = new GenericData.Record(schema);
+    first.put("name", "first");
+    first.put("child", child);
+    first.put("names", Arrays.asList("a", "b"));
+    GenericData.Record second = new GenericData.Record(schema);
+    second.put("name", null);
+    second.put("child", null);
+    second.put("names", Arrays.asList(null, "c"));
+
+    FastDeserializer<GenericRecord> deserializer =
+        new FastGenericDeserializerGenerator<GenericRecord>(schema, schema, tempDir, classLoader, null)
+            .generateDeserializer();
+
+    // when
+    GenericRecord firstResult = deserializer.deserialize(null, genericDataAsDecoder(first));
+    Assert.assertEquals(firstResult.get("name"), new Utf8("first"));
+    GenericRecord secondResult = deserializer.deserialize(firstResult, genericDataAsDecoder(second));
+
+    // then
+    Assert.assertSame(secondResult, firstResult);
+    Assert.assertNull(secondResult.get("name"));
+    Assert.assertNull(secondResult.get("child"));
+    Assert.assertEquals(secondResult.get("names"), Arrays.asList(null, new Utf8("c")));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReuseTheObjectsOfAnArena() throws Exception {
+    // given
+    Schema schema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"ArenaRecord\",\"fields\":["
+        + "{\"name\":\"name\",\"type\":\"string\"},"
+        + "{\"name\":\"items\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\","
+        + "\"name\":\"ArenaItem\",\"fields\":[{\"name\":\"id\",\"type\":\"int\"}]}}},"
+        + "{\"name\":\"tags\",\"type\":{\"type\":\"map\",\"values\":\"long\"}},"
+        + "{\"name\":\"child\",\"type\":[\"null\",\"ArenaItem\"]}]}");
+    Schema itemSchema = schema.getField("items").schema().getElementType();
+
+    GenericData.Record first = new GenericData.Record(schema);
+    first.put("name", "first");
+    GenericData.Record firstItem = new GenericData.Record(itemSchema);
+    firstItem.put("id", 1);
+    GenericData.Record secondItem = new GenericData.Record(itemSchema);
+    secondItem.put("id", 2);
+    first.put("items", Arrays.asList(firstItem, secondItem));
+    first.put("tags", Collections.singletonMap("a", 1L));
+    first.put("child", secondItem);
+
+    GenericData.Record second = new GenericData.Record(schema);
+    second.put("name", "second");
+    GenericData.Record thirdItem = new GenericData.Record(itemSchema);
+    thirdItem.put("id", 3);
+    second.put("items", Collections.singletonList(thirdItem));
+    second.put("tags", Collections.singletonMap("b", 2L));
+    second.put("child", null);
+
+    FastDeserializer<GenericRecord> deserializer =
+        new FastGenericDeserializerGenerator<GenericRecord>(schema, schema, tempDir, classLoader, null)
+            .generateDeserializer();
+    RecordArena arena = new RecordArena();
+
+    // when
+    GenericRecord firstResult = deserializer.deserialize(null, genericDataAsDecoder(first), arena);
+    List<GenericRecord> firstItems = new ArrayList<>((List<GenericRecord>) firstResult.get("items"));
+    Object firstTags = firstResult.get("tags");
+    arena.reset();
+    GenericRecord secondResult = deserializer.deserialize(null, genericDataAsDecoder(second), arena);
+
+    // then
+    Assert.assertSame(secondResult, firstResult);
+    Assert.assertEquals(secondResult.get("name").toString(), "second");
+    List<GenericRecord> secondItems = (List<GenericRecord>) secondResult.get("items");
+    Assert.assertEquals(secondItems.size(), 1);
+    Assert.assertSame(secondItems.get(0), firstItems.get(0));
+    Assert.assertEquals(secondItems.get(0).get("id"), 3);
+    Assert.assertSame(secondResult.get("tags"), firstTags);
+    Assert.assertEquals(((Map<?, ?>) secondResult.get("tags")).size(), 1);
+    Assert.assertEquals(((Map<?, ?>) secondResult.get("tags")).get(new Utf8("b")), 2L);
+    Assert.assertNull(secondResult.get("child"));
+
+    // and objects are not handed out twice before a reset
+    GenericRecord thirdResult = deserializer.deserialize(null, genericDataAsDecoder(first), arena);
+    Assert.assertNotSame(thirdResult, secondResult);
+    Assert.assertEquals(thirdResult.get("child"), secondItem);
+    Assert.assertEquals(((List<?>) thirdResult.get("items")).size(), 2);
+    Assert.assertFalse(((List<?>) thirdResult.get("items")).contains(secondItems.get(0)));
+    Assert.assertThrows(IllegalStateException.class, () ->
+        new FastGenericDeserializerGenerator<GenericRecord>(schema, schema, tempDir, classLoader, null)
+            .generateDeserializer().deserialize(null, genericDataAsDecoder(first), arena));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldSkipTheRecordsRejectedByAFilter() throws Exception {
+    // given
+    Schema writerSchema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"FilteredRecord\",\"fields\":["
+        + "{\"name\":\"country\",\"type\":\"string\"},"
+        + "{\"name\":\"tags\",\"type\":{\"type\":\"array\",\"items\":\"string\"}},"
+        + "{\"name\":\"score\",\"type\":[\"null\",\"double\"]},"
+        + "{\"name\":\"nested\",\"type\":{\"type\":\"record\",\"name\":\"FilteredNested\",\"fields\":["
+        + "{\"name\":\"id\",\"type\":\"long\"}]}}]}");
+    Schema readerSchema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"FilteredRecord\",\"fields\":["
+        + "{\"name\":\"country\",\"type\":\"string\"},"
+        + "{\"name\":\"tags\",\"type\":{\"type\":\"array\",\"items\":\"string\"}},"
+        + "{\"name\":\"score\",\"type\":[\"null\",\"double\"]},"
+        + "{\"name\":\"nested\",\"type\":{\"type\":\"record\",\"name\":\"FilteredNested\",\"fields\":["
+        + "{\"name\":\"id\",\"type\":\"long\"}]}},"
+        + "{\"name\":\"source\",\"type\":\"string\",\"default\":\"web\"}]}");
+    Schema nestedSchema = writerSchema.getField("nested").schema();
+    FastSerdeFilter filter = FastSerdeFilter.in("country", Arrays.asList("US", "FR"))
+        .and(FastSerdeFilter.between("score", 0.5, 1))
+        .and(FastSerdeFilter.equalTo("source", "web"));
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    GenericDatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(writerSchema);
+    Object[][] values = {{"US", 0.7}, {"DE", 0.7}, {"FR", null}, {"FR", 1.0}, {"US", 0.2}};
+    for (int i = 0; i < values.length; i++) {
+      GenericData.Record record = new GenericData.Record(writerSchema);
+      record.put("country", values[i][0]);
+      record.put("tags", Arrays.asList("tag" + i, "other"));
+      record.put("score", values[i][1]);
+      GenericData.Record nested = new GenericData.Record(nestedSchema);
+      nested.put("id", (long) i);
+      record.put("nested", nested);
+      datumWriter.write(record, encoder);
+    }
+    encoder.flush();
+    byte[] bytes = baos.toByteArray();
+
+    FastDeserializer<GenericRecord> deserializer =
+        new FastGenericDeserializerGenerator<GenericRecord>(writerSchema, readerSchema, tempDir, classLoader, null,
+            filter).generateDeserializer();
+    Decoder decoder = AvroCompatibilityHelper.newBinaryDecoder(bytes, 0, bytes.length, null);
+
+    // when
+    List<GenericRecord> results = new ArrayList<>();
+    for (int i = 0; i < values.length; i++) {
+      results.add(deserializer.deserialize(null, decoder));
+    }
+
+    // then
+    Assert.assertEquals(results.get(0).get("country"), new Utf8("US"));
+    Assert.assertEquals(((GenericRecord) results.get(0).get("nested")).get("id"), 0L);
+    Assert.assertEquals(results.get(0).get("source"), new Utf8("web"));
+    Assert.assertNull(results.get(1));
+    Assert.assertNull(results.get(2));
+    Assert.assertEquals(results.get(3).get("tags"), Arrays.asList(new Utf8("tag3"), new Utf8("other")));
+    Assert.assertEquals(((GenericRecord) results.get(3).get("nested")).get("id"), 3L);
+    Assert.assertNull(results.get(4));
+    Assert.assertTrue(((BinaryDecoder) decoder).isEnd());
+    Assert.assertThrows(FastDeserializerGeneratorException.class, () ->
+        new FastGenericDeserializerGenerator<GenericRecord>(writerSchema, readerSchema, tempDir, classLoader, null,
+            FastSerdeFilter.isNull("missing")).generateDeserializer());
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldMatchStringsWhetherExpectedAsUtf8OrString() {
+    // given
+    FastSerdeFilter utf8Filter = FastSerdeFilter.equalTo("country", new Utf8("US"));
+    FastSerdeFilter mixedFilter = FastSerdeFilter.in("country", Arrays.asList(new Utf8("US"), "FR"));
+
+    // then
+    Assert.assertTrue(utf8Filter.test(0, new Utf8("US")));
+    Assert.assertTrue(utf8Filter.test(0, "US"));
+    Assert.assertFalse(utf8Filter.test(0, new Utf8("FR")));
+    Assert.assertEquals(utf8Filter, FastSerdeFilter.equalTo("country", "US"));
+    Assert.assertTrue(mixedFilter.test(0, new Utf8("US")));
+    Assert.assertTrue(mixedFilter.test(0, "US"));
+    Assert.assertTrue(mixedFilter.test(0, new Utf8("FR")));
+    Assert.assertFalse(mixedFilter.test(0, "DE"));
+  }
+
   private static <T> T decodeRecordColdFast(Schema writerSchema, Schema readerSchema, Decoder decoder) {
     FastDeserializer<T> deserializer =
         new FastSerdeCache.FastDeserializerWithAvroGenericImpl<>(writerSchema, readerSchema);
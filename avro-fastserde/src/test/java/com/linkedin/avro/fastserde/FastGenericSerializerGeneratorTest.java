@@ -5,6 +5,10 @@ import com.linkedin.avro.fastserde.coldstart.ColdPrimitiveDoubleList;
 import com.linkedin.avro.fastserde.coldstart.ColdPrimitiveFloatList;
 import com.linkedin.avro.fastserde.coldstart.ColdPrimitiveIntList;
 import com.linkedin.avro.fastserde.coldstart.ColdPrimitiveLongList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveDoubleArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveFloatArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveIntArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveLongArrayList;
 import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -21,6 +25,7 @@ import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericContainer;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.Decoder;
 import org.apache.avro.io.DecoderFactory;
@@ -104,6 +109,55 @@ public class FastGenericSerializerGeneratorTest {
     Assert.assertEquals(ByteBuffer.wrap(new byte[]{0x01, 0x02}), record.get("testBytesUnion"));
   }
 
+  @Test(groups = {"serializationTest"})
+  public void shouldWriteWideRecordSplitIntoHelperMethods() throws Exception {
+    // given
+    Schema.Field[] fields = new Schema.Field[120];
+    for (int i = 0; i < 40; i++) {
+      fields[3 * i] = createField("int" + i, Schema.create(Schema.Type.INT));
+      fields[3 * i + 1] = createPrimitiveUnionFieldSchema("string" + i, Schema.Type.STRING);
+      fields[3 * i + 2] = createArrayFieldSchema("array" + i, Schema.create(Schema.Type.LONG));
+    }
+    Schema recordSchema = createRecord("WideRecord", fields);
+
+    GenericData.Record record = new GenericData.Record(recordSchema);
+    for (int i = 0; i < 40; i++) {
+      record.put("int" + i, i);
+      record.put("string" + i, i % 2 == 0 ? null : "string" + i);
+      record.put("array" + i, Arrays.asList((long) i, (long) i + 1));
+    }
+
+    FastGenericSerializerGenerator<GenericRecord> generator =
+        new FastGenericSerializerGenerator<>(recordSchema, tempDir, classLoader, null);
+    generator.setMethodSizeBudget(200);
+    FastSerializer<GenericRecord> serializer = generator.generateSerializer();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+
+    // when
+    serializer.serialize(record, encoder);
+    encoder.flush();
+    GenericRecord decodedRecord =
+        decodeRecord(recordSchema, DecoderFactory.defaultFactory().createBinaryDecoder(baos.toByteArray(), null));
+
+    // then
+    long helperMethodCount = Arrays.stream(serializer.getClass().getDeclaredMethods())
+        .filter(method -> method.getName().startsWith("serializeWideRecordFields"))
+        .count();
+    Assert.assertTrue(helperMethodCount > 1, "Expected the record to be split, found " + helperMethodCount + " helper methods");
+    Assert.assertEquals(decodedRecord.toString(), record.toString());
+
+    // the helper methods copy the unmodified fields of lazy records too
+    LazyGenericRecord lazyRecord =
+        new LazyGenericRecordReader(recordSchema, new FastSerdeCache(Runnable::run)).read(baos.toByteArray());
+    lazyRecord.put("int39", 390);
+    record.put("int39", 390);
+    baos.reset();
+    serializer.serialize(lazyRecord, encoder);
+    encoder.flush();
+    Assert.assertEquals(baos.toByteArray(), genericDataAsBytes(record));
+  }
+
   public GenericData.Fixed newFixed(Schema fixedSchema, byte[] bytes) {
     GenericData.Fixed fixed = new GenericData.Fixed(fixedSchema);
     fixed.bytes(bytes);
@@ -529,6 +583,199 @@ public class FastGenericSerializerGeneratorTest {
     Assert.assertTrue(primitiveApiCalled.get());
   }
 
+  @Test(groups = {"serializationTest"})
+  public void shouldWriteLargePrimitiveListsInBulk() throws Exception {
+    // given, more elements than fit in the scratch buffer of the bulk writes
+    int size = 3000;
+    PrimitiveFloatArrayList floats = new PrimitiveFloatArrayList(size);
+    PrimitiveDoubleArrayList doubles = new PrimitiveDoubleArrayList(size);
+    PrimitiveIntArrayList ints = new PrimitiveIntArrayList(size);
+    PrimitiveLongArrayList longs = new PrimitiveLongArrayList(size);
+    for (int i = 0; i < size; i++) {
+      floats.addPrimitive(i % 3 == 0 ? Float.NaN : -i / 7f);
+      doubles.addPrimitive(i % 3 == 0 ? Double.MAX_VALUE : i / 7d);
+      ints.addPrimitive(i % 3 == 0 ? Integer.MIN_VALUE : i * (i % 2 == 0 ? 1 : -1) << (i % 24));
+      longs.addPrimitive(i % 3 == 0 ? Long.MAX_VALUE : (long) i * (i % 2 == 0 ? 1 : -1) << (i % 56));
+    }
+
+    // then
+    for (List<?> list : Arrays.asList(floats, doubles, ints, longs)) {
+      Schema arraySchema = ((GenericContainer) list).getSchema();
+      Assert.assertEquals(serialize(list, arraySchema), serializeWithVanillaAvro(new ArrayList<>(list), arraySchema));
+    }
+
+    // floats and doubles read as byte buffers are written from them, unless modified
+    Schema floatArraySchema = Schema.createArray(Schema.create(Schema.Type.FLOAT));
+    Schema doubleArraySchema = Schema.createArray(Schema.create(Schema.Type.DOUBLE));
+    byte[] floatBytes = serializeWithVanillaAvro(new ArrayList<>(floats), floatArraySchema);
+    byte[] doubleBytes = serializeWithVanillaAvro(new ArrayList<>(doubles), doubleArraySchema);
+    ByteBufferBackedPrimitiveFloatList readFloats = (ByteBufferBackedPrimitiveFloatList)
+        ByteBufferBackedPrimitiveFloatList.readPrimitiveFloatArray(null,
+            DecoderFactory.defaultFactory().createBinaryDecoder(floatBytes, null));
+    ByteBufferBackedPrimitiveDoubleList readDoubles = (ByteBufferBackedPrimitiveDoubleList)
+        ByteBufferBackedPrimitiveDoubleList.readPrimitiveDoubleArray(null,
+            DecoderFactory.defaultFactory().createBinaryDecoder(doubleBytes, null));
+    Assert.assertEquals(serialize(readFloats, floatArraySchema), floatBytes);
+    Assert.assertEquals(serialize(readDoubles, doubleArraySchema), doubleBytes);
+
+    readFloats.setPrimitive(1, 42f);
+    readDoubles.setPrimitive(1, 42d);
+    Assert.assertEquals(serialize(readFloats, floatArraySchema),
+        serializeWithVanillaAvro(new ArrayList<>(readFloats), floatArraySchema));
+    Assert.assertEquals(serialize(readDoubles, doubleArraySchema),
+        serializeWithVanillaAvro(new ArrayList<>(readDoubles), doubleArraySchema));
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldWriteStringsOfDedupSchemasFromTheirCachedEncoding() throws Exception {
+    // given
+    Schema dedupSchema = Schema.parse("{\"type\":\"string\",\"avro.fastserde.dedup\":true}");
+    Schema singleSlotDedupSchema = Schema.parse("{\"type\":\"string\",\"avro.fastserde.dedup\":\"1\"}");
+    Schema recordSchema = createRecord(createField("country", dedupSchema),
+        createUnionFieldWithNull("device", singleSlotDedupSchema), createArrayFieldSchema("tags", dedupSchema));
+    FastSerializer<GenericRecord> serializer =
+        new FastGenericSerializerGenerator<GenericRecord>(recordSchema, tempDir, classLoader, null).generateSerializer();
+    StringBuilder longString = new StringBuilder();
+    for (int i = 0; i <= StringDedupCache.MAX_LENGTH; i++) {
+      longString.append('\u00e9');
+    }
+
+    // then, writing strings, equal strings, Utf8s and strings colliding with the cached ones
+    String[][] values = {
+        {"US", "mobile", "a"},
+        {new String("US"), "desktop", longString.toString()},
+        {"CA", null, "\u00e9t\u00e9"},
+        {"US", "mobile", "a"}
+    };
+    for (String[] recordValues : values) {
+      GenericRecord record = new GenericData.Record(recordSchema);
+      record.put("country", recordValues[0]);
+      record.put("device", recordValues[1]);
+      record.put("tags", Arrays.asList(recordValues[2], new Utf8(recordValues[2]), recordValues[0]));
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+      serializer.serialize(record, encoder);
+      encoder.flush();
+      Assert.assertEquals(baos.toByteArray(), serializeWithVanillaAvro(record, recordSchema));
+    }
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldComputeTheExactSerializedSize() throws Exception {
+    // given
+    Schema fixedSchema = createFixedSchema("sizeFixed", 3);
+    Schema enumSchema = createEnumSchema("sizeEnum", new String[]{"A", "B"});
+    Schema innerSchema = createRecord("SizeInner", createPrimitiveFieldSchema("id", Schema.Type.LONG));
+    Schema recordSchema = createRecord("SizeRecord",
+        createPrimitiveFieldSchema("int", Schema.Type.INT),
+        createPrimitiveFieldSchema("long", Schema.Type.LONG),
+        createPrimitiveFieldSchema("float", Schema.Type.FLOAT),
+        createPrimitiveFieldSchema("double", Schema.Type.DOUBLE),
+        createPrimitiveFieldSchema("boolean", Schema.Type.BOOLEAN),
+        createPrimitiveUnionFieldSchema("string", Schema.Type.STRING),
+        createPrimitiveFieldSchema("bytes", Schema.Type.BYTES),
+        createField("fixed", fixedSchema),
+        createField("enum", enumSchema),
+        createUnionFieldWithNull("inner", innerSchema),
+        createArrayFieldSchema("longs", Schema.create(Schema.Type.LONG)),
+        createMapFieldSchema("strings", Schema.create(Schema.Type.STRING)));
+    FastSerializer<GenericRecord> serializer =
+        new FastGenericSerializerGenerator<GenericRecord>(recordSchema, tempDir, classLoader, null).generateSerializer();
+    // ascii, 2 and 3 bytes characters, a surrogate pair and an unpaired surrogate
+    String[] strings = {"", "avro", "d\u00e9j\u00e0 vu", "\u20ac\u4e2d", "\ud83d\ude00", "\ud83d!"};
+
+    // then
+    for (int i = 0; i < strings.length; i++) {
+      GenericRecord inner = new GenericData.Record(innerSchema);
+      inner.put("id", Long.MIN_VALUE >> (i * 10));
+      GenericRecord record = new GenericData.Record(recordSchema);
+      record.put("int", i % 2 == 0 ? Integer.MAX_VALUE >> (i * 5) : -i * 1000);
+      record.put("long", i % 2 == 0 ? Long.MAX_VALUE >> (i * 10) : -i * 100000L);
+      record.put("float", (float) i);
+      record.put("double", (double) i);
+      record.put("boolean", i % 2 == 0);
+      record.put("string", i % 2 == 0 ? strings[i] : new Utf8(strings[i]));
+      record.put("bytes", ByteBuffer.wrap(new byte[i * 100]));
+      record.put("fixed", newFixed(fixedSchema, new byte[]{1, 2, (byte) i}));
+      record.put("enum", AvroCompatibilityHelper.newEnumSymbol(enumSchema, i % 2 == 0 ? "A" : "B"));
+      record.put("inner", i % 3 == 0 ? null : inner);
+      List<Long> longs = new ArrayList<>();
+      Map<String, String> stringMap = new HashMap<>();
+      for (int j = 0; j < i * 30; j++) {
+        longs.add((long) j << j);
+        stringMap.put(String.valueOf(j), strings[j % strings.length]);
+      }
+      record.put("longs", longs);
+      record.put("strings", stringMap);
+
+      byte[] expectedBytes = serializeWithVanillaAvro(record, recordSchema);
+      Assert.assertEquals(serializer.computeSerializedSize(record), expectedBytes.length);
+      Assert.assertEquals(serializer.serializeToBytes(record), expectedBytes);
+    }
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldSerializeIntoDirectByteBuffers() throws Exception {
+    // given
+    Schema recordSchema = createRecord("ByteBufferRecord",
+        createPrimitiveUnionFieldSchema("name", Schema.Type.STRING),
+        createArrayFieldSchema("scores", Schema.create(Schema.Type.DOUBLE)),
+        createMapFieldSchema("counts", Schema.create(Schema.Type.LONG)));
+    PrimitiveDoubleArrayList scores = new PrimitiveDoubleArrayList(1000);
+    Map<String, Long> counts = new HashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      scores.addPrimitive(i / 3d);
+      counts.put("key" + i, (long) i << (i % 60));
+    }
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("name", "d\u00e9j\u00e0 vu");
+    record.put("scores", scores);
+    record.put("counts", counts);
+    FastSerializer<GenericRecord> serializer =
+        new FastGenericSerializerGenerator<GenericRecord>(recordSchema, tempDir, classLoader, null).generateSerializer();
+    byte[] expectedBytes = serializeWithVanillaAvro(record, recordSchema);
+
+    // when, into a single buffer and into a chain of small ones
+    ByteBuffer buffer = ByteBuffer.allocateDirect(expectedBytes.length);
+    serializer.serialize(record, AvroCompatibilityHelper.newByteBufferEncoder(buffer));
+    List<ByteBuffer> chain = new ArrayList<>();
+    chain.add(ByteBuffer.allocateDirect(100));
+    serializer.serialize(record, AvroCompatibilityHelper.newByteBufferEncoder(chain.get(0), full -> {
+      chain.add(ByteBuffer.allocateDirect(100));
+      return chain.get(chain.size() - 1);
+    }));
+
+    // then
+    Assert.assertFalse(buffer.hasRemaining());
+    buffer.flip();
+    Assert.assertEquals(buffer, ByteBuffer.wrap(expectedBytes));
+    ByteBuffer chained = ByteBuffer.allocate(expectedBytes.length);
+    for (ByteBuffer chainedBuffer : chain) {
+      chainedBuffer.flip();
+      chained.put(chainedBuffer);
+    }
+    chained.flip();
+    Assert.assertEquals(chained, ByteBuffer.wrap(expectedBytes));
+    Assert.assertEquals(serializer.serializeToBytes(record), expectedBytes);
+  }
+
+  private <T> byte[] serialize(T data, Schema schema) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder binaryEncoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    new FastGenericSerializerGenerator<T>(schema, tempDir, classLoader, null).generateSerializer()
+        .serialize(data, binaryEncoder);
+    binaryEncoder.flush();
+    return baos.toByteArray();
+  }
+
+  private <T> byte[] serializeWithVanillaAvro(T data, Schema schema) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder binaryEncoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    new GenericDatumWriter<T>(schema).write(data, binaryEncoder);
+    binaryEncoder.flush();
+    return baos.toByteArray();
+  }
+
   private <E> void shouldWriteArrayOfPrimitives(Schema.Type elementType, List<E> data) {
     // given
     Schema elementSchema = Schema.create(elementType);
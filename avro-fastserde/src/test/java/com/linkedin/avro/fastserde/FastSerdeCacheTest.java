@@ -1,14 +1,44 @@
 package com.linkedin.avro.fastserde;
 
 import com.linkedin.avro.fastserde.generated.avro.TestRecord;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.linkedin.avroutil1.compatibility.SchemaNormalization;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JMod;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.avro.AvroTypeException;
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import static com.linkedin.avro.fastserde.FastSerdeTestsSupport.*;
+
 
 public class FastSerdeCacheTest {
 
@@ -68,4 +98,626 @@ public class FastSerdeCacheTest {
     FastSerdeCache cache = FastSerdeCache.getDefaultInstance();
     cache.buildFastSpecificDeserializer(TestRecord.SCHEMA$, TestRecord.SCHEMA$);
   }
+
+  @Test(groups = "deserializationTest")
+  public void testBuildFastGenericDeserializerInMemory() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache(null, null, true);
+    Schema recordSchema = createRecord("in_memory_record", createPrimitiveFieldSchema("testInt", Schema.Type.INT),
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING));
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("testInt", 1);
+    record.put("testString", "abc");
+
+    FastDeserializer<GenericRecord> deserializer =
+        (FastDeserializer<GenericRecord>) cache.buildFastGenericDeserializer(recordSchema, recordSchema);
+    Assert.assertTrue(deserializer.getClass().getClassLoader() instanceof InMemoryClassLoader);
+
+    GenericRecord deserializedRecord = deserializer.deserialize(genericDataAsDecoder(record));
+    Assert.assertEquals(deserializedRecord.get("testInt"), 1);
+    Assert.assertEquals(deserializedRecord.get("testString"), new Utf8("abc"));
+  }
+
+  @Test(groups = "serializationTest")
+  public void testBuildFastGenericSerializerInMemory() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache(null, null, true);
+    Schema recordSchema = createRecord("in_memory_record", createPrimitiveFieldSchema("testInt", Schema.Type.INT),
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING));
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("testInt", 1);
+    record.put("testString", "abc");
+
+    FastSerializer<GenericRecord> serializer = (FastSerializer<GenericRecord>) cache.buildFastGenericSerializer(recordSchema);
+    Assert.assertTrue(serializer.getClass().getClassLoader() instanceof InMemoryClassLoader);
+
+    ByteArrayOutputStream fastOutput = new ByteArrayOutputStream();
+    Encoder fastEncoder = AvroCompatibilityHelper.newBinaryEncoder(fastOutput, true, null);
+    serializer.serialize(record, fastEncoder);
+    fastEncoder.flush();
+
+    ByteArrayOutputStream vanillaOutput = new ByteArrayOutputStream();
+    Encoder vanillaEncoder = AvroCompatibilityHelper.newBinaryEncoder(vanillaOutput, true, null);
+    new GenericDatumWriter<GenericRecord>(recordSchema).write(record, vanillaEncoder);
+    vanillaEncoder.flush();
+
+    Assert.assertEquals(fastOutput.toByteArray(), vanillaOutput.toByteArray());
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testCodeGenerationPropsSeparateTheGeneratedClasses() throws Exception {
+    String schemaFormat = "{\"type\":\"record\",\"name\":\"props_record\",\"fields\":["
+        + "{\"name\":\"name\",\"type\":%s}]}";
+    Schema plainSchema = AvroCompatibilityHelper.parse(String.format(schemaFormat, "\"string\""));
+    Schema dedupSchema = AvroCompatibilityHelper.parse(
+        String.format(schemaFormat, "{\"type\":\"string\",\"avro.fastserde.dedup\":true}"));
+    File storeDir = Files.createTempDirectory("fastserde-class-store").toFile();
+    FastSerdeCache cache = new FastSerdeCache.Builder().setCompileInMemory(true).setClassStoreDir(storeDir).build();
+
+    FastDeserializer<?> plainDeserializer = cache.buildFastGenericDeserializer(plainSchema, plainSchema);
+    FastDeserializer<?> dedupDeserializer = cache.buildFastGenericDeserializer(dedupSchema, dedupSchema);
+    // a fresh cache sharing the store directory must not mix them up either
+    FastDeserializer<?> storedDedupDeserializer = new FastSerdeCache.Builder().setClassStoreDir(storeDir).build()
+        .buildFastGenericDeserializer(dedupSchema, dedupSchema);
+
+    Assert.assertNotEquals(Utils.getSchemaFingerprint(dedupSchema), Utils.getSchemaFingerprint(plainSchema));
+    Assert.assertNotEquals(dedupDeserializer.getClass().getName(), plainDeserializer.getClass().getName());
+    Assert.assertEquals(storedDedupDeserializer.getClass().getName(), dedupDeserializer.getClass().getName());
+    // schemas without such props keep the fingerprint of their parsing canonical form
+    Assert.assertEquals(Utils.getSchemaFingerprint(plainSchema).longValue(),
+        SchemaNormalization.parsingFingerprint64(plainSchema));
+  }
+
+  @Test(groups = "serializationTest")
+  public void testBuildFastGenericSerializerFromClassStore() throws Exception {
+    File storeDir = Files.createTempDirectory("fastserde-class-store").toFile();
+    Schema recordSchema = createRecord("class_store_record", createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+
+    FastSerializer<?> compiledSerializer =
+        new FastSerdeCache.Builder().setCompileInMemory(true).setClassStoreDir(storeDir).build()
+            .buildFastGenericSerializer(recordSchema);
+
+    // a fresh cache sharing the store directory must load the class instead of compiling it again
+    FastSerializer<?> storedSerializer =
+        new FastSerdeCache.Builder().setClassStoreDir(storeDir).build().buildFastGenericSerializer(recordSchema);
+    Assert.assertEquals(storedSerializer.getClass().getName(), compiledSerializer.getClass().getName());
+    Assert.assertNotSame(storedSerializer.getClass(), compiledSerializer.getClass());
+    Assert.assertTrue(storedSerializer.getClass().getClassLoader() instanceof InMemoryClassLoader);
+
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("testInt", 42);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(output, true, null);
+    ((FastSerializer<GenericRecord>) storedSerializer).serialize(record, encoder);
+    encoder.flush();
+    Assert.assertEquals(output.toByteArray(), new byte[]{84});
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testCorruptClassStoreEntryIsCompiledAgain() throws Exception {
+    File storeDir = Files.createTempDirectory("fastserde-class-store").toFile();
+    Schema recordSchema = createRecord("corrupt_class_store_record", createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+
+    new FastSerdeCache.Builder().setCompileInMemory(true).setClassStoreDir(storeDir).build()
+        .buildFastGenericDeserializer(recordSchema, recordSchema);
+    Path entry;
+    try (Stream<Path> files = Files.walk(storeDir.toPath())) {
+      entry = files.filter(path -> path.toString().endsWith(".entry")).findFirst().get();
+    }
+    Files.write(entry, new byte[]{1, 2, 3});
+
+    FastDeserializer<?> deserializer = new FastSerdeCache.Builder().setCompileInMemory(true).setClassStoreDir(storeDir)
+        .build().buildFastGenericDeserializer(recordSchema, recordSchema);
+    GenericRecord record = (GenericRecord) deserializer.deserialize(null,
+        AvroCompatibilityHelper.newBinaryDecoder(new byte[]{84}));
+    Assert.assertEquals(record.get("testInt"), 42);
+    // the corrupt entry is replaced by the newly compiled class
+    Assert.assertTrue(Files.size(entry) > 3);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testGetFastGenericDeserializerFromClassStoreOnTheExecutor() throws Exception {
+    File storeDir = Files.createTempDirectory("fastserde-class-store").toFile();
+    Schema recordSchema = createRecord("async_class_store_record", createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    new FastSerdeCache.Builder().setCompileInMemory(true).setClassStoreDir(storeDir).build()
+        .buildFastGenericDeserializer(recordSchema, recordSchema);
+    Path staleVersionDir = storeDir.toPath().resolve(Utils.getRuntimeAvroVersion().name()).resolve("stale");
+    Files.createDirectories(staleVersionDir);
+    Files.write(staleVersionDir.resolve("stale.entry"), new byte[]{1, 2, 3});
+
+    List<Runnable> tasks = new ArrayList<>();
+    FastSerdeCache cache = new FastSerdeCache.Builder().setExecutor(tasks::add).setClassStoreDir(storeDir).build();
+    // nothing is read from the disk on the caller thread
+    Assert.assertTrue(cache.getFastGenericDeserializer(recordSchema, recordSchema)
+        instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl);
+    Assert.assertTrue(Files.exists(staleVersionDir));
+
+    while (!tasks.isEmpty()) {
+      tasks.remove(0).run();
+    }
+    Assert.assertFalse(Files.exists(staleVersionDir));
+    FastDeserializer<?> deserializer = cache.getFastGenericDeserializer(recordSchema, recordSchema);
+    Assert.assertTrue(deserializer.getClass().getClassLoader() instanceof InMemoryClassLoader);
+    GenericRecord record = (GenericRecord) deserializer.deserialize(null,
+        AvroCompatibilityHelper.newBinaryDecoder(new byte[]{84}));
+    Assert.assertEquals(record.get("testInt"), 42);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testGetFastGenericDeserializerFromAotIndex() throws Exception {
+    Schema recordSchema = createRecord("aot_record", createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    File jarFile = File.createTempFile("fastserde-aot", ".jar");
+    FastSerdeAotGenerator aotGenerator = new FastSerdeAotGenerator(null);
+    aotGenerator.addSchema(recordSchema, false);
+    aotGenerator.writeJar(jarFile);
+
+    ClassLoader aotClassLoader = new URLClassLoader(new URL[]{jarFile.toURI().toURL()}, getClass().getClassLoader());
+    FastSerdeCache cache = new FastSerdeCache.Builder().setAotClassLoader(aotClassLoader).build();
+
+    // indexed classes are served right away, without going through the cold deserializer
+    FastDeserializer<?> deserializer = cache.getFastGenericDeserializer(recordSchema, recordSchema);
+    Assert.assertSame(deserializer.getClass().getClassLoader(), aotClassLoader);
+    GenericRecord record = (GenericRecord) deserializer.deserialize(null,
+        AvroCompatibilityHelper.newBinaryDecoder(new byte[]{84}));
+    Assert.assertEquals(record.get("testInt"), 42);
+
+    FastSerializer<?> serializer = cache.getFastGenericSerializer(recordSchema);
+    Assert.assertSame(serializer.getClass().getClassLoader(), aotClassLoader);
+  }
+
+  @Test(groups = "serializationTest")
+  public void testBatchCompilationIsolatesFailures() throws Exception {
+    InMemoryClassLoader classLoader = new InMemoryClassLoader(getClass().getClassLoader());
+    FastSerdeBatchCompiler batchCompiler = new FastSerdeBatchCompiler(getClass().getClassLoader(), null, 10_000, 3,
+        new FastSerdeCompileScheduler(Runnable::run));
+    Schema firstSchema = createRecord("batch_record_1", createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    Schema secondSchema = createRecord("batch_record_2", createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    Schema brokenSchema = createRecord("batch_record_3", createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+
+    CompletableFuture<FastDeserializer<?>> deserializerFuture =
+        batchCompiler.submit(new FastGenericDeserializerGenerator<>(firstSchema, firstSchema, null, classLoader, null),
+            () -> 0);
+    CompletableFuture<FastSerializer<?>> serializerFuture =
+        batchCompiler.submit(new FastGenericSerializerGenerator<>(secondSchema, null, classLoader, null), () -> 0);
+    // the third request fills the batch, which gets compiled right away
+    CompletableFuture<FastSerializer<?>> brokenFuture =
+        batchCompiler.submit(new FastGenericSerializerGenerator<GenericRecord>(brokenSchema, null, classLoader, null) {
+          @Override
+          String generateClassCode() {
+            String className = super.generateClassCode();
+            generatedClass.field(JMod.PRIVATE, int.class, "broken", JExpr.direct("doesNotExist()"));
+            return className;
+          }
+        }, () -> 0);
+
+    try {
+      brokenFuture.get(1, TimeUnit.MINUTES);
+      Assert.fail("The broken class should not compile");
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof FastSerdeGeneratorException);
+    }
+
+    FastDeserializer<?> deserializer = deserializerFuture.get(1, TimeUnit.MINUTES);
+    Assert.assertTrue(deserializer.getClass().getClassLoader() instanceof InMemoryClassLoader);
+    GenericRecord record = (GenericRecord) deserializer.deserialize(null,
+        AvroCompatibilityHelper.newBinaryDecoder(new byte[]{84}));
+    Assert.assertEquals(record.get("testInt"), 42);
+
+    FastSerializer<?> serializer = serializerFuture.get(1, TimeUnit.MINUTES);
+    // the classes of a batch share the same class loader
+    Assert.assertSame(serializer.getClass().getClassLoader(), deserializer.getClass().getClassLoader());
+  }
+
+  @Test(groups = "serializationTest")
+  public void testBatchCompilationTakesTheHottestRequestsOnTheCacheExecutor() throws Exception {
+    InMemoryClassLoader classLoader = new InMemoryClassLoader(getClass().getClassLoader());
+    List<Runnable> compileTasks = new ArrayList<>();
+    FastSerdeBatchCompiler batchCompiler = new FastSerdeBatchCompiler(getClass().getClassLoader(), null, 10_000, 2,
+        new FastSerdeCompileScheduler(compileTasks::add));
+    List<CompletableFuture<FastSerializer<?>>> futures = new ArrayList<>();
+    long[] hotness = {1, 5, 3};
+    for (int i = 0; i < hotness.length; i++) {
+      Schema schema = createRecord("hot_batch_record_" + i, createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+      long requestHotness = hotness[i];
+      futures.add(batchCompiler.submit(new FastGenericSerializerGenerator<>(schema, null, classLoader, null),
+          () -> requestHotness));
+    }
+
+    // nothing is compiled outside of the executor
+    Assert.assertFalse(compileTasks.isEmpty());
+    futures.forEach(future -> Assert.assertFalse(future.isDone()));
+
+    compileTasks.remove(0).run();
+    Assert.assertFalse(futures.get(0).isDone());
+    Assert.assertNotNull(futures.get(1).get(1, TimeUnit.MINUTES));
+    Assert.assertNotNull(futures.get(2).get(1, TimeUnit.MINUTES));
+
+    // the coldest request is left for the next batch
+    while (!compileTasks.isEmpty()) {
+      compileTasks.remove(0).run();
+    }
+    Assert.assertNotNull(futures.get(0).get(1, TimeUnit.MINUTES));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testCompileThreshold() throws Exception {
+    AtomicInteger compilations = new AtomicInteger();
+    FastSerdeCache cache = new FastSerdeCache.Builder()
+        .setExecutor(task -> {
+          compilations.incrementAndGet();
+          task.run();
+        })
+        .setCompileInMemory(true)
+        .setCompileThreshold(3)
+        .build();
+    Schema recordSchema = createRecord("threshold_record", createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+
+    FastDeserializer<?> coldDeserializer = cache.getFastGenericDeserializer(recordSchema, recordSchema);
+    Assert.assertTrue(coldDeserializer instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl);
+    for (int i = 0; i < 2; i++) {
+      coldDeserializer.deserialize(null, AvroCompatibilityHelper.newBinaryDecoder(new byte[]{84}));
+      Assert.assertEquals(compilations.get(), 0);
+    }
+    coldDeserializer.deserialize(null, AvroCompatibilityHelper.newBinaryDecoder(new byte[]{84}));
+    Assert.assertEquals(((FastSerdeCache.FastDeserializerWithAvroGenericImpl<?>) coldDeserializer).getInvocationCount(), 3);
+    Assert.assertEquals(compilations.get(), 1);
+    Assert.assertFalse(cache.getFastGenericDeserializer(recordSchema, recordSchema)
+        instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testCompileSchedulerRunsHottestFirst() {
+    List<Runnable> executorQueue = new ArrayList<>();
+    FastSerdeCompileScheduler scheduler = new FastSerdeCompileScheduler(executorQueue::add);
+    List<String> runOrder = new ArrayList<>();
+    scheduler.executorFor(() -> 1).execute(() -> runOrder.add("cold"));
+    scheduler.executorFor(() -> 100).execute(() -> runOrder.add("hot"));
+    scheduler.executorFor(() -> 10).execute(() -> runOrder.add("warm"));
+
+    executorQueue.forEach(Runnable::run);
+    Assert.assertEquals(runOrder, Arrays.asList("hot", "warm", "cold"));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testBoundedCacheEvictsLeastRecentlyUsed() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache.Builder()
+        .setExecutor(Runnable::run)
+        .setCompileInMemory(true)
+        .setMaxCacheSize(2)
+        .build();
+    Schema firstSchema = createRecord("bounded_record_1", createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    Schema secondSchema = createRecord("bounded_record_2", createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    Schema thirdSchema = createRecord("bounded_record_3", createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+
+    // the executor compiles synchronously, so the second lookup returns the generated deserializer
+    cache.getFastGenericDeserializer(firstSchema, firstSchema);
+    FastDeserializer<?> firstDeserializer = cache.getFastGenericDeserializer(firstSchema, firstSchema);
+    cache.getFastGenericDeserializer(secondSchema, secondSchema);
+    FastDeserializer<?> secondDeserializer = cache.getFastGenericDeserializer(secondSchema, secondSchema);
+    // every generated class gets its own class loader
+    Assert.assertNotSame(firstDeserializer.getClass().getClassLoader(), secondDeserializer.getClass().getClassLoader());
+    // access times are only updated once per millisecond
+    Thread.sleep(5);
+    Assert.assertSame(cache.getFastGenericDeserializer(firstSchema, firstSchema), firstDeserializer);
+
+    cache.getFastGenericDeserializer(thirdSchema, thirdSchema);
+    Assert.assertEquals(cache.getEvictionCount(), 1);
+    Assert.assertSame(cache.getFastGenericDeserializer(firstSchema, firstSchema), firstDeserializer);
+    Assert.assertNotSame(cache.getFastGenericDeserializer(secondSchema, secondSchema), secondDeserializer);
+    Assert.assertEquals(cache.getMissCount(), 4);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testBoundedCacheEvictsTheLeastRecentlyUsedOfASample() throws Exception {
+    FastAvroLruCache<Integer, String> lruCache = new FastAvroLruCache<>(FastAvroLruCache.EVICTION_SAMPLE_SIZE);
+    for (int i = 0; i < FastAvroLruCache.EVICTION_SAMPLE_SIZE; i++) {
+      lruCache.put(i, "value" + i);
+    }
+    Thread.sleep(5);
+    Assert.assertEquals(lruCache.get(0), "value0");
+
+    // the whole cache fits in the sample, so the least recently used entry is evicted
+    lruCache.putIfAbsent(FastAvroLruCache.EVICTION_SAMPLE_SIZE, "new");
+    Assert.assertEquals(lruCache.size(), FastAvroLruCache.EVICTION_SAMPLE_SIZE);
+    Assert.assertEquals(lruCache.getEvictionCount(), 1);
+    Assert.assertEquals(lruCache.get(0), "value0");
+    Assert.assertNull(lruCache.get(1));
+    Assert.assertEquals(lruCache.get(FastAvroLruCache.EVICTION_SAMPLE_SIZE), "new");
+
+    // replacing a value doesn't count as an insertion
+    lruCache.put(0, "replaced");
+    Assert.assertEquals(lruCache.size(), FastAvroLruCache.EVICTION_SAMPLE_SIZE);
+    for (int i = 0; i < 100; i++) {
+      lruCache.computeIfAbsent(100 + i, key -> "computed" + key);
+      Assert.assertEquals(lruCache.size(), FastAvroLruCache.EVICTION_SAMPLE_SIZE);
+    }
+    Assert.assertEquals(lruCache.getEvictionCount(), 101);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testWarmUpCompilesRegardlessOfThreshold() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache.Builder()
+        .setCompileInMemory(true)
+        .setCompileThreshold(Long.MAX_VALUE)
+        .build();
+    Schema recordSchema = createRecord("warm_up_record", createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    Schema stringSchema = Schema.create(Schema.Type.STRING);
+    List<Integer> progress = Collections.synchronizedList(new ArrayList<>());
+
+    FastSerdeWarmUp.Result result = new FastSerdeWarmUp(cache)
+        .addGenericDeserializer(recordSchema, recordSchema)
+        .addGenericSerializer(recordSchema)
+        .addGenericDeserializer(stringSchema, stringSchema)
+        .setProgressListener((entry, completedCount, totalCount) -> {
+          Assert.assertEquals(totalCount, 3);
+          progress.add(completedCount);
+        })
+        .start()
+        .get(1, TimeUnit.MINUTES);
+
+    Assert.assertEquals(result.getEntries(FastSerdeWarmUp.Status.FAST).size(), 2);
+    Assert.assertEquals(result.getEntries(FastSerdeWarmUp.Status.UNSUPPORTED).size(), 1);
+    Assert.assertFalse(result.isAllFast());
+    Assert.assertEquals(new HashSet<>(progress), new HashSet<>(Arrays.asList(1, 2, 3)));
+    Assert.assertFalse(cache.getFastGenericDeserializer(recordSchema, recordSchema)
+        instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl);
+    Assert.assertFalse(cache.getFastGenericSerializer(recordSchema)
+        instanceof FastSerdeCache.FastSerializerWithAvroGenericImpl);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testProjectedDeserializersAreCachedPerProjection() {
+    FastSerdeCache cache = new FastSerdeCache.Builder().setExecutor(Runnable::run).setCompileInMemory(true).build();
+    Schema recordSchema = createRecord("projected_record", createPrimitiveFieldSchema("testInt", Schema.Type.INT),
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING));
+
+    Schema projectedSchema = cache.getProjectedSchema(recordSchema, new HashSet<>(Arrays.asList("testInt")));
+    cache.getFastGenericDeserializer(recordSchema, recordSchema, Collections.singleton("testInt"));
+    cache.getFastGenericDeserializer(recordSchema, recordSchema);
+
+    Assert.assertSame(cache.getProjectedSchema(recordSchema, Collections.singleton("testInt")), projectedSchema);
+    Assert.assertEquals(projectedSchema.getFields().size(), 1);
+    Assert.assertSame(cache.getFastGenericDeserializer(recordSchema, projectedSchema),
+        cache.getFastGenericDeserializer(recordSchema, recordSchema, Collections.singleton("testInt")));
+    Assert.assertNotSame(cache.getFastGenericDeserializer(recordSchema, recordSchema),
+        cache.getFastGenericDeserializer(recordSchema, projectedSchema));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testProjectedSchemasOfABoundedCacheAreEvicted() {
+    FastSerdeCache cache = new FastSerdeCache.Builder().setExecutor(Runnable::run).setMaxCacheSize(2).build();
+    Schema recordSchema = createRecord("bounded_projected_record",
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT), createPrimitiveFieldSchema("testLong", Schema.Type.LONG),
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING));
+
+    Schema intSchema = cache.getProjectedSchema(recordSchema, Collections.singleton("testInt"));
+    Assert.assertSame(cache.getProjectedSchema(recordSchema, Collections.singleton("testInt")), intSchema);
+    cache.getProjectedSchema(recordSchema, Collections.singleton("testLong"));
+    cache.getProjectedSchema(recordSchema, Collections.singleton("testString"));
+
+    // a projection evicted from the cache is computed again
+    Assert.assertNotSame(cache.getProjectedSchema(recordSchema, Collections.singleton("testInt")), intSchema);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testFilteredDeserializersAreCachedPerFilter() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache.Builder().setExecutor(Runnable::run).setCompileInMemory(true).build();
+    Schema recordSchema = createRecord("filtered_record", createPrimitiveFieldSchema("testInt", Schema.Type.INT),
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING));
+    GenericData.Record record = new GenericData.Record(recordSchema);
+    record.put("testInt", 7);
+    record.put("testString", "value");
+    byte[] bytes = genericDataAsBytes(record);
+
+    FastSerdeFilter filter = FastSerdeFilter.between("testInt", 0, 10);
+    FastDeserializer<GenericRecord> coldDeserializer =
+        (FastDeserializer<GenericRecord>) cache.getFastGenericDeserializer(recordSchema, recordSchema, filter);
+    FastDeserializer<GenericRecord> fastDeserializer =
+        (FastDeserializer<GenericRecord>) cache.getFastGenericDeserializer(recordSchema, recordSchema,
+            FastSerdeFilter.between("testInt", 0, 10));
+    FastDeserializer<GenericRecord> rejectingDeserializer =
+        (FastDeserializer<GenericRecord>) cache.getFastGenericDeserializer(recordSchema, recordSchema,
+            FastSerdeFilter.equalTo("testString", "other"));
+
+    Assert.assertTrue(coldDeserializer instanceof FastSerdeCache.FilteringDeserializer);
+    Assert.assertFalse(fastDeserializer instanceof FastSerdeCache.FilteringDeserializer);
+    Assert.assertSame(cache.getFastGenericDeserializer(recordSchema, recordSchema, filter), fastDeserializer);
+    Assert.assertNotSame(rejectingDeserializer, fastDeserializer);
+    Assert.assertEquals(coldDeserializer.deserialize(null, genericDataAsDecoder(record)).get("testInt"), 7);
+    Assert.assertEquals(fastDeserializer.deserialize(null, genericDataAsDecoder(record)).get("testInt"), 7);
+    Assert.assertNull(rejectingDeserializer.deserialize(null,
+        AvroCompatibilityHelper.newBinaryDecoder(bytes, 0, bytes.length, null)));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> cache.getFastGenericDeserializer(recordSchema, recordSchema, FastSerdeFilter.isNull("missing")));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testSkippersFindTheBoundariesOfRecords() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache.Builder().setExecutor(Runnable::run).setCompileInMemory(true).build();
+    Schema enumSchema = createEnumSchema("skipped_enum", new String[]{"A", "B"});
+    Schema recordSchema = createRecord("skipped_record", createPrimitiveFieldSchema("testLong", Schema.Type.LONG),
+        createArrayFieldSchema("testFloats", Schema.create(Schema.Type.FLOAT)),
+        createArrayFieldSchema("testDoubles", Schema.create(Schema.Type.DOUBLE)),
+        createArrayFieldSchema("testStrings", Schema.create(Schema.Type.STRING)),
+        createMapFieldSchema("testMap", Schema.create(Schema.Type.LONG)),
+        createField("testFixed", createFixedSchema("skipped_fixed", 3)),
+        createField("testEnum", enumSchema),
+        createPrimitiveUnionFieldSchema("testUnion", Schema.Type.STRING));
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    int[] lengths = new int[3];
+    for (int i = 0; i < lengths.length; i++) {
+      GenericData.Record record = new GenericData.Record(recordSchema);
+      record.put("testLong", (long) i << 40);
+      record.put("testFloats", Collections.nCopies(i * 10, 1.5f));
+      record.put("testDoubles", Collections.nCopies(i, 2.5));
+      record.put("testStrings", Collections.nCopies(i, "value"));
+      record.put("testMap", Collections.singletonMap("key" + i, (long) i));
+      record.put("testFixed", new GenericData.Fixed(recordSchema.getField("testFixed").schema(), new byte[]{1, 2, 3}));
+      record.put("testEnum", AvroCompatibilityHelper.newEnumSymbol(enumSchema, i % 2 == 0 ? "A" : "B"));
+      record.put("testUnion", i % 2 == 0 ? null : "value");
+      byte[] recordBytes = genericDataAsBytes(record);
+      lengths[i] = recordBytes.length;
+      baos.write(recordBytes);
+    }
+    byte[] bytes = baos.toByteArray();
+
+    FastSkipper coldSkipper = cache.getFastSkipper(recordSchema);
+    FastSkipper fastSkipper = cache.getFastSkipper(recordSchema);
+    Assert.assertTrue(coldSkipper instanceof FastSerdeCache.FastSkipperWithAvroGenericImpl);
+    Assert.assertFalse(fastSkipper instanceof FastSerdeCache.FastSkipperWithAvroGenericImpl);
+    Assert.assertSame(cache.getFastSkipper(recordSchema), fastSkipper);
+
+    for (FastSkipper skipper : Arrays.asList(coldSkipper, fastSkipper)) {
+      Assert.assertEquals(skipper.count(bytes, 0, bytes.length), lengths.length);
+      BinaryDecoder decoder = AvroCompatibilityHelper.newBinaryDecoder(bytes, 0, bytes.length, null);
+      for (int length : lengths) {
+        Assert.assertEquals(skipper.skipAndGetLength(decoder), length);
+      }
+      Assert.assertTrue(decoder.isEnd());
+      Assert.assertThrows(EOFException.class, () -> skipper.count(bytes, 0, bytes.length - 2));
+    }
+
+    // enum index 2 of a 2 symbols enum
+    Schema enumRecordSchema = createRecord("skipped_enum_record", createField("testEnum", enumSchema));
+    cache.getFastSkipper(enumRecordSchema);
+    Assert.assertThrows(AvroTypeException.class,
+        () -> cache.getFastSkipper(enumRecordSchema).count(new byte[]{4}, 0, 1));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testSkippersFailOnCorruptBlockCounts() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache.Builder().setExecutor(Runnable::run).setCompileInMemory(true).build();
+    Schema recordSchema = createRecord("corrupt_block_record",
+        createArrayFieldSchema("testFloats", Schema.create(Schema.Type.FLOAT)));
+
+    // a block of 2^30 + 1 floats, whose size in bytes truncated to an int would be 4, followed by a single float
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    encoder.writeLong((1L << 30) + 1);
+    encoder.writeFloat(1.5f);
+    encoder.writeLong(0);
+    encoder.flush();
+    byte[] bytes = baos.toByteArray();
+
+    cache.getFastSkipper(recordSchema);
+    FastSkipper fastSkipper = cache.getFastSkipper(recordSchema);
+    Assert.assertFalse(fastSkipper instanceof FastSerdeCache.FastSkipperWithAvroGenericImpl);
+    Assert.assertThrows(ArithmeticException.class, () -> fastSkipper.count(bytes, 0, bytes.length));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testColumnarDeserializersFillTheColumnsOfABatch() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache.Builder().setExecutor(Runnable::run).setCompileInMemory(true).build();
+    Schema enumSchema = createEnumSchema("columnar_enum", new String[]{"A", "B"});
+    Schema fixedSchema = createFixedSchema("columnar_fixed", 2);
+    Schema recordSchema = createRecord("columnar_record", createPrimitiveFieldSchema("testInt", Schema.Type.INT),
+        createArrayFieldSchema("testSkippedArray", Schema.create(Schema.Type.STRING)),
+        createPrimitiveFieldSchema("testLong", Schema.Type.LONG),
+        createPrimitiveUnionFieldSchema("testOptionalDouble", Schema.Type.DOUBLE),
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING),
+        createPrimitiveUnionFieldSchema("testOptionalString", Schema.Type.STRING),
+        createPrimitiveFieldSchema("testBoolean", Schema.Type.BOOLEAN),
+        createPrimitiveFieldSchema("testFloat", Schema.Type.FLOAT),
+        createPrimitiveFieldSchema("testBytes", Schema.Type.BYTES),
+        createField("testEnum", enumSchema), createField("testFixed", fixedSchema),
+        createPrimitiveUnionFieldSchema("testSkippedUnion", Schema.Type.INT, Schema.Type.STRING));
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    int numberOfRecords = 5;
+    for (int i = 0; i < numberOfRecords; i++) {
+      GenericData.Record record = new GenericData.Record(recordSchema);
+      record.put("testInt", i);
+      record.put("testSkippedArray", Collections.nCopies(i, "skipped"));
+      record.put("testLong", (long) i << 40);
+      record.put("testOptionalDouble", i % 2 == 0 ? null : i * 0.5);
+      record.put("testString", "string" + i);
+      record.put("testOptionalString", i % 2 == 0 ? "optional" + i : null);
+      record.put("testBoolean", i % 2 == 0);
+      record.put("testFloat", i * 1.5f);
+      record.put("testBytes", ByteBuffer.wrap(new byte[]{(byte) i}));
+      record.put("testEnum", AvroCompatibilityHelper.newEnumSymbol(enumSchema, i % 2 == 0 ? "A" : "B"));
+      record.put("testFixed", new GenericData.Fixed(fixedSchema, new byte[]{(byte) i, (byte) -i}));
+      record.put("testSkippedUnion", i % 2 == 0 ? (Object) i : "skipped");
+      baos.write(genericDataAsBytes(record));
+    }
+    byte[] bytes = baos.toByteArray();
+
+    FastColumnarDeserializer coldDeserializer = cache.getFastColumnarDeserializer(recordSchema);
+    FastColumnarDeserializer fastDeserializer = cache.getFastColumnarDeserializer(recordSchema);
+    Assert.assertTrue(coldDeserializer instanceof FastSerdeCache.FastColumnarDeserializerWithAvroGenericImpl);
+    Assert.assertFalse(fastDeserializer instanceof FastSerdeCache.FastColumnarDeserializerWithAvroGenericImpl);
+    Assert.assertSame(cache.getFastColumnarDeserializer(recordSchema), fastDeserializer);
+
+    ColumnBatch batch = new ColumnBatch(recordSchema);
+    for (FastColumnarDeserializer deserializer : Arrays.asList(coldDeserializer, fastDeserializer)) {
+      batch.clear();
+      Assert.assertEquals(deserializer.deserializeAll(batch, bytes, 0, bytes.length), numberOfRecords);
+      Assert.assertEquals(batch.size(), numberOfRecords);
+      Assert.assertFalse(batch.hasColumn("testSkippedArray"));
+      Assert.assertFalse(batch.hasColumn("testSkippedUnion"));
+      for (int i = 0; i < numberOfRecords; i++) {
+        Assert.assertEquals(batch.getIntColumn("testInt").getPrimitive(i), i);
+        Assert.assertEquals(batch.getLongColumn("testLong").getPrimitive(i), (long) i << 40);
+        Assert.assertEquals(batch.isNull("testOptionalDouble", i), i % 2 == 0);
+        Assert.assertEquals(batch.getDoubleColumn("testOptionalDouble").getPrimitive(i), i % 2 == 0 ? 0 : i * 0.5);
+        Assert.assertEquals(batch.getBytesColumn("testString").getString(i), "string" + i);
+        Assert.assertEquals(batch.isNull("testOptionalString", i), i % 2 != 0);
+        Assert.assertEquals(batch.getBytesColumn("testOptionalString").getString(i), i % 2 == 0 ? "optional" + i : "");
+        Assert.assertEquals(batch.getBooleanColumn("testBoolean").getPrimitive(i), i % 2 == 0);
+        Assert.assertEquals(batch.getFloatColumn("testFloat").getPrimitive(i), i * 1.5f);
+        Assert.assertEquals(batch.getBytesColumn("testBytes").getBytes(i), new byte[]{(byte) i});
+        Assert.assertEquals(batch.getIntColumn("testEnum").getPrimitive(i), i % 2);
+        Assert.assertEquals(batch.getBytesColumn("testFixed").getBytes(i), new byte[]{(byte) i, (byte) -i});
+      }
+    }
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> batch.getLongColumn("testInt"));
+    Assert.assertThrows(IllegalArgumentException.class, () -> fastDeserializer.deserializeAll(
+        new ColumnBatch(createRecord("other_record", createPrimitiveFieldSchema("testInt", Schema.Type.INT))), bytes, 0,
+        bytes.length));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testColumnarDeserializersLeaveTheBatchUnchangedOnFailure() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache.Builder().setExecutor(Runnable::run).setCompileInMemory(true).build();
+    Schema recordSchema = createRecord("failed_columnar_record", createPrimitiveFieldSchema("testInt", Schema.Type.INT),
+        createPrimitiveUnionFieldSchema("testOptionalString", Schema.Type.STRING),
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING),
+        createPrimitiveFieldSchema("testLong", Schema.Type.LONG));
+
+    GenericData.Record record = new GenericData.Record(recordSchema);
+    record.put("testInt", 1);
+    record.put("testOptionalString", "optional");
+    record.put("testString", "string");
+    record.put("testLong", 2L);
+    byte[] recordBytes = genericDataAsBytes(record);
+    record.put("testOptionalString", null);
+    byte[] failingRecordBytes = genericDataAsBytes(record);
+    // cut in the middle of testString, after testInt and the null testOptionalString were appended
+    byte[] bytes = Arrays.copyOf(recordBytes, recordBytes.length + 4);
+    System.arraycopy(failingRecordBytes, 0, bytes, recordBytes.length, 4);
+
+    FastColumnarDeserializer coldDeserializer = cache.getFastColumnarDeserializer(recordSchema);
+    FastColumnarDeserializer fastDeserializer = cache.getFastColumnarDeserializer(recordSchema);
+    Assert.assertFalse(fastDeserializer instanceof FastSerdeCache.FastColumnarDeserializerWithAvroGenericImpl);
+
+    for (FastColumnarDeserializer deserializer : Arrays.asList(coldDeserializer, fastDeserializer)) {
+      ColumnBatch batch = new ColumnBatch(recordSchema);
+      Assert.assertThrows(EOFException.class, () -> deserializer.deserializeAll(batch, bytes, 0, bytes.length));
+      Assert.assertEquals(batch.size(), 1);
+      Assert.assertEquals(batch.getIntColumn("testInt").size(), 1);
+      Assert.assertEquals(batch.getBytesColumn("testOptionalString").size(), 1);
+      Assert.assertFalse(batch.isNull("testOptionalString", 1));
+      Assert.assertEquals(batch.getBytesColumn("testString").size(), 1);
+      Assert.assertEquals(batch.getLongColumn("testLong").size(), 1);
+
+      // the next rows go right after the last committed one
+      Assert.assertEquals(deserializer.deserializeAll(batch, failingRecordBytes, 0, failingRecordBytes.length), 1);
+      Assert.assertEquals(batch.size(), 2);
+      Assert.assertEquals(batch.getIntColumn("testInt").getPrimitive(1), 1);
+      Assert.assertTrue(batch.isNull("testOptionalString", 1));
+      Assert.assertEquals(batch.getBytesColumn("testString").getString(1), "string");
+      Assert.assertEquals(batch.getBytesColumn("testString").getOffset(1), "string".length());
+      Assert.assertEquals(batch.getLongColumn("testLong").getPrimitive(1), 2L);
+    }
+  }
 }
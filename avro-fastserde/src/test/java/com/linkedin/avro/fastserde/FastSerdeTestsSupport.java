@@ -168,6 +168,14 @@ public final class FastSerdeTestsSupport {
   }
 
   public static <T> Decoder genericDataAsDecoder(T data, Schema schema) {
+    return DecoderFactory.defaultFactory().createBinaryDecoder(genericDataAsBytes(data, schema), null);
+  }
+
+  public static <T extends GenericContainer> byte[] genericDataAsBytes(T data) {
+    return genericDataAsBytes(data, data.getSchema());
+  }
+
+  public static <T> byte[] genericDataAsBytes(T data, Schema schema) {
     ByteArrayOutputStream baos = new ByteArrayOutputStream();
     Encoder binaryEncoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
 
@@ -179,7 +187,7 @@ public final class FastSerdeTestsSupport {
       throw new RuntimeException(e);
     }
 
-    return DecoderFactory.defaultFactory().createBinaryDecoder(baos.toByteArray(), null);
+    return baos.toByteArray();
   }
 
   public static <T extends SpecificRecord> Decoder specificDataAsDecoder(T record) {
@@ -255,6 +255,57 @@ public class FastStringableTest {
   }
 
 
+  @Test(groups = {"deserializationTest"})
+  public void dedupPropertyTest() throws IOException {
+    Schema dedupUtf8Schema = Schema.parse("{\"type\":\"string\",\"avro.fastserde.dedup\":true}");
+    Schema dedupJavaStringSchema = Schema.parse(
+        "{\"type\":\"string\",\"avro.java.string\":\"String\",\"avro.fastserde.dedup\":\"16\"}");
+    Schema schema = createRecord(
+        createField("dedupUtf8", dedupUtf8Schema),
+        createField("dedupJavaString", dedupJavaStringSchema),
+        createArrayFieldSchema("dedupArray", dedupUtf8Schema)
+    );
+    FastDeserializer<GenericRecord> deserializer =
+        new FastGenericDeserializerGenerator<GenericRecord>(schema, schema, tempDir, classLoader, null).generateDeserializer();
+
+    StringBuilder longString = new StringBuilder();
+    for (int i = 0; i <= StringDedupCache.MAX_LENGTH; i++) {
+      longString.append('x');
+    }
+    GenericRecord record = new GenericData.Record(schema);
+    record.put("dedupUtf8", "US");
+    record.put("dedupJavaString", "mobile");
+    GenericData.Array<String> stringArray = new GenericData.Array<>(0, schema.getField("dedupArray").schema());
+    stringArray.add("US");
+    stringArray.add(longString.toString());
+    stringArray.add("US");
+    record.put("dedupArray", stringArray);
+
+    GenericRecord first = deserializer.deserialize(writeWithFastAvro(record, schema, false));
+    GenericRecord second = deserializer.deserialize(writeWithFastAvro(record, schema, false));
+
+    Assert.assertEquals(first.get("dedupUtf8"), new Utf8("US"));
+    Assert.assertSame(second.get("dedupUtf8"), first.get("dedupUtf8"));
+    Assert.assertEquals(first.get("dedupJavaString").toString(), "mobile");
+    Assert.assertSame(second.get("dedupJavaString"), first.get("dedupJavaString"));
+    if (Utils.isAbleToSupportJavaStrings()) {
+      Assert.assertTrue(first.get("dedupJavaString") instanceof String);
+    }
+    List<?> firstArray = (List<?>) first.get("dedupArray");
+    List<?> secondArray = (List<?>) second.get("dedupArray");
+    Assert.assertSame(firstArray.get(2), firstArray.get(0));
+    Assert.assertSame(secondArray.get(0), firstArray.get(0));
+    // strings too long to be deduplicated are still read
+    Assert.assertEquals(secondArray.get(1).toString(), longString.toString());
+    Assert.assertNotSame(secondArray.get(1), firstArray.get(1));
+
+    // a shared value must not be overwritten when the record holding it is reused
+    record.put("dedupUtf8", "CA");
+    GenericRecord third = deserializer.deserialize(second, writeWithFastAvro(record, schema, false));
+    Assert.assertEquals(third.get("dedupUtf8"), new Utf8("CA"));
+    Assert.assertEquals(first.get("dedupUtf8"), new Utf8("US"));
+  }
+
   @Test(groups = {"deserializationTest"}, dataProvider = "SlowFastDeserializer")
   public void deserializeStringableFields(Boolean whetherUseFastDeserializer)
       throws URISyntaxException, MalformedURLException {
@@ -11,6 +11,7 @@ import java.io.InputStream;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
@@ -46,6 +47,12 @@ public interface AvroAdapter {
   BinaryDecoder newBinaryDecoder(byte[] bytes, int offset,
       int length, BinaryDecoder reuse);
 
+  void readInts(Decoder decoder, int[] dest, int offset, int count) throws IOException;
+
+  void readLongs(Decoder decoder, long[] dest, int offset, int count) throws IOException;
+
+  ByteBuffer readBytesSlice(Decoder decoder) throws IOException;
+
   JsonEncoder newJsonEncoder(Schema schema, OutputStream out, boolean pretty) throws IOException;
 
   Encoder newJsonEncoder(Schema schema, OutputStream out, boolean pretty, AvroVersion jsonFormat) throws IOException;
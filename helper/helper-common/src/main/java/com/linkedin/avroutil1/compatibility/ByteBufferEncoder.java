@@ -0,0 +1,351 @@
+/*
+ * Copyright 2020 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.UnaryOperator;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * an {@link Encoder} that writes the avro binary encoding straight into a {@link ByteBuffer}, heap or direct,
+ * without any intermediate byte[] or {@link OutputStream}. values are written from the current position of the
+ * buffer, which is advanced as they are written.
+ * <br>
+ * when the buffer is full, the encoder asks for the next buffer to write into, if given a way to do so, so that
+ * data can be written into a chain of (for example pooled) buffers. values may span several buffers.
+ * <br>
+ * like avro's binary encoders, this encoder does not frame the items of arrays and maps. it does not depend on the
+ * version of avro, and does not need to be flushed.
+ */
+public class ByteBufferEncoder extends Encoder {
+  private final UnaryOperator<ByteBuffer> nextBuffer;
+  private ByteBuffer buffer;
+  private boolean littleEndian;
+  private long bytesWritten;
+
+  /**
+   * @param buffer buffer to write into, from its position up to its limit
+   */
+  public ByteBufferEncoder(ByteBuffer buffer) {
+    this(buffer, null);
+  }
+
+  /**
+   * @param buffer first buffer to write into, from its position up to its limit
+   * @param nextBuffer given the buffer just filled, returns the next one to write into. null if data should not
+   *                   be written beyond the limit of the first buffer
+   */
+  public ByteBufferEncoder(ByteBuffer buffer, UnaryOperator<ByteBuffer> nextBuffer) {
+    this.nextBuffer = nextBuffer;
+    setBuffer(buffer);
+  }
+
+  private void setBuffer(ByteBuffer buffer) {
+    this.buffer = buffer;
+    this.littleEndian = ByteOrder.LITTLE_ENDIAN.equals(buffer.order());
+  }
+
+  /**
+   * @return the buffer currently written into (the last of the chain)
+   */
+  public ByteBuffer getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * @return number of bytes written so far, across all buffers
+   */
+  public long getBytesWritten() {
+    return bytesWritten + buffer.position();
+  }
+
+  /**
+   * makes sure at least the given number of bytes can be written into the current buffer, moving to the next one
+   * if the current one is full
+   * @return true if the bytes fit in the current buffer, false if they have to be split across buffers
+   */
+  private boolean ensureRemaining(int length) {
+    if (buffer.remaining() >= length) {
+      return true;
+    }
+    if (!buffer.hasRemaining()) {
+      nextBuffer();
+      return buffer.remaining() >= length;
+    }
+    return false;
+  }
+
+  private void nextBuffer() {
+    if (nextBuffer == null) {
+      throw new BufferOverflowException();
+    }
+    int position = buffer.position();
+    ByteBuffer next = nextBuffer.apply(buffer);
+    if (next == null || !next.hasRemaining()) {
+      throw new BufferOverflowException();
+    }
+    bytesWritten += position;
+    setBuffer(next);
+  }
+
+  /**
+   * this method is abstract in avro 1.4 only, where encoders could be pointed at another stream
+   */
+  public void init(OutputStream out) throws IOException {
+    throw new UnsupportedOperationException("ByteBufferEncoder writes into a ByteBuffer");
+  }
+
+  @Override
+  public void writeNull() throws IOException {
+    //nothing to write
+  }
+
+  @Override
+  public void writeBoolean(boolean b) throws IOException {
+    writeByte(b ? 1 : 0);
+  }
+
+  @Override
+  public void writeInt(int n) throws IOException {
+    int value = (n << 1) ^ (n >> 31);
+    if (!ensureRemaining(VarIntUtil.MAX_INT_LENGTH)) {
+      //close to the end of the buffer, write a byte at a time
+      while ((value & ~0x7F) != 0) {
+        writeByte((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      writeByte(value);
+      return;
+    }
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  @Override
+  public void writeLong(long n) throws IOException {
+    long value = (n << 1) ^ (n >> 63);
+    if (!ensureRemaining(VarIntUtil.MAX_LONG_LENGTH)) {
+      while ((value & ~0x7FL) != 0) {
+        writeByte((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      writeByte((int) value);
+      return;
+    }
+    while ((value & ~0x7FL) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  @Override
+  public void writeFloat(float f) throws IOException {
+    int bits = Float.floatToRawIntBits(f);
+    if (!ensureRemaining(4)) {
+      for (int i = 0; i < 4; i++) {
+        writeByte(bits >>> (8 * i));
+      }
+      return;
+    }
+    //avro writes little-endian, whatever the order of the buffer
+    buffer.putInt(littleEndian ? bits : Integer.reverseBytes(bits));
+  }
+
+  @Override
+  public void writeDouble(double d) throws IOException {
+    long bits = Double.doubleToRawLongBits(d);
+    if (!ensureRemaining(8)) {
+      for (int i = 0; i < 8; i++) {
+        writeByte((int) (bits >>> (8 * i)));
+      }
+      return;
+    }
+    buffer.putLong(littleEndian ? bits : Long.reverseBytes(bits));
+  }
+
+  @Override
+  public void writeString(Utf8 utf8) throws IOException {
+    writeBytes(utf8.getBytes(), 0, utf8.getByteLength());
+  }
+
+  @Override
+  public void writeString(String str) throws IOException {
+    int utf8Length = getUtf8Length(str);
+    writeInt(utf8Length);
+    int length = str.length();
+    int i = 0;
+    if (ensureRemaining(utf8Length)) {
+      //the leading ascii characters go straight into the current buffer
+      while (i < length && str.charAt(i) < 0x80) {
+        buffer.put((byte) str.charAt(i++));
+      }
+    }
+    for (; i < length; i++) {
+      char c = str.charAt(i);
+      if (c < 0x80) {
+        writeByte(c);
+      } else if (c < 0x800) {
+        writeByte(0xC0 | (c >> 6));
+        writeByte(0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, str.charAt(++i));
+        writeByte(0xF0 | (codePoint >> 18));
+        writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+        writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+        writeByte(0x80 | (codePoint & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        //unpaired surrogates are replaced, like String.getBytes() does
+        writeByte('?');
+      } else {
+        writeByte(0xE0 | (c >> 12));
+        writeByte(0x80 | ((c >> 6) & 0x3F));
+        writeByte(0x80 | (c & 0x3F));
+      }
+    }
+  }
+
+  @Override
+  public void writeString(CharSequence charSequence) throws IOException {
+    if (charSequence instanceof Utf8) {
+      writeString((Utf8) charSequence);
+    } else {
+      writeString(charSequence.toString());
+    }
+  }
+
+  @Override
+  public void writeBytes(ByteBuffer bytes) throws IOException {
+    int length = bytes.remaining();
+    writeInt(length);
+    if (bytes.hasArray()) {
+      writeFixed(bytes.array(), bytes.arrayOffset() + bytes.position(), length);
+      return;
+    }
+    //not moving the position of the given buffer
+    ByteBuffer source = bytes.duplicate();
+    while (source.hasRemaining()) {
+      ensureRemaining(source.remaining());
+      if (source.remaining() <= buffer.remaining()) {
+        buffer.put(source);
+      } else {
+        ByteBuffer part = source.duplicate();
+        part.limit(part.position() + buffer.remaining());
+        source.position(part.limit());
+        buffer.put(part);
+      }
+    }
+  }
+
+  @Override
+  public void writeBytes(byte[] bytes, int start, int len) throws IOException {
+    writeInt(len);
+    writeFixed(bytes, start, len);
+  }
+
+  @Override
+  public void writeFixed(byte[] bytes, int start, int len) throws IOException {
+    int offset = start;
+    int remaining = len;
+    while (!ensureRemaining(remaining)) {
+      int part = buffer.remaining();
+      buffer.put(bytes, offset, part);
+      offset += part;
+      remaining -= part;
+    }
+    buffer.put(bytes, offset, remaining);
+  }
+
+  @Override
+  public void writeEnum(int e) throws IOException {
+    writeInt(e);
+  }
+
+  @Override
+  public void writeArrayStart() throws IOException {
+    //nothing to write
+  }
+
+  @Override
+  public void setItemCount(long itemCount) throws IOException {
+    if (itemCount > 0) {
+      writeLong(itemCount);
+    }
+  }
+
+  @Override
+  public void startItem() throws IOException {
+    //nothing to write
+  }
+
+  @Override
+  public void writeArrayEnd() throws IOException {
+    writeByte(0);
+  }
+
+  @Override
+  public void writeMapStart() throws IOException {
+    //nothing to write
+  }
+
+  @Override
+  public void writeMapEnd() throws IOException {
+    writeByte(0);
+  }
+
+  @Override
+  public void writeIndex(int unionIndex) throws IOException {
+    writeInt(unionIndex);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    //nothing buffered
+  }
+
+  private void writeByte(int b) {
+    if (!buffer.hasRemaining()) {
+      nextBuffer();
+    }
+    buffer.put((byte) b);
+  }
+
+  /**
+   * @return length of the utf-8 encoding of the given string, in which unpaired surrogates are replaced by '?' like
+   *         {@link String#getBytes(java.nio.charset.Charset)} does. this is the length this encoder writes strings
+   *         with, and the one to use to size buffers for them
+   */
+  public static int getUtf8Length(String str) {
+    int length = str.length();
+    int utf8Length = length;
+    for (int i = 0; i < length; i++) {
+      char c = str.charAt(i);
+      if (c < 0x80) {
+        continue;
+      }
+      if (c < 0x800) {
+        utf8Length++;
+      } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+        //4 bytes for the 2 chars of the pair
+        utf8Length += 2;
+        i++;
+      } else if (!Character.isSurrogate(c)) {
+        utf8Length += 2;
+      }
+    }
+    return utf8Length;
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import java.io.IOException;
+import org.apache.avro.io.Decoder;
+
+
+/**
+ * utility methods for decoding blocks of zig-zag encoded variable-length ints and longs (the avro binary encoding
+ * of int and long values) straight out of a byte buffer.
+ *
+ * the block decoding methods do not check the bounds of the buffer: callers are expected to only decode as many
+ * values as the buffer can hold at their maximum encoded length, which takes a single check for the whole block.
+ */
+public final class VarIntUtil {
+  /**
+   * maximum length of a varint-encoded int, in bytes
+   */
+  public static final int MAX_INT_LENGTH = 5;
+  /**
+   * maximum length of a varint-encoded long, in bytes
+   */
+  public static final int MAX_LONG_LENGTH = 10;
+
+  private VarIntUtil() {
+    //util class
+  }
+
+  /**
+   * decodes the given number of ints out of the given buffer. the buffer must hold at least
+   * count * {@link #MAX_INT_LENGTH} bytes from the given position.
+   * @param buf buffer holding the encoded ints
+   * @param pos position of the first encoded int in the buffer
+   * @param dest array to decode the ints into
+   * @param offset index in dest of the first decoded int
+   * @param count number of ints to decode
+   * @return position in the buffer right after the last decoded int
+   * @throws IOException if an int is encoded on more than {@link #MAX_INT_LENGTH} bytes
+   */
+  public static int decodeInts(byte[] buf, int pos, int[] dest, int offset, int count) throws IOException {
+    for (int end = offset + count; offset < end; offset++) {
+      int b = buf[pos++];
+      int n;
+      if (b >= 0) {
+        //most common case for small values: a single byte
+        n = b;
+      } else {
+        n = b & 0x7f;
+        b = buf[pos++];
+        n ^= (b & 0x7f) << 7;
+        if (b < 0) {
+          b = buf[pos++];
+          n ^= (b & 0x7f) << 14;
+          if (b < 0) {
+            b = buf[pos++];
+            n ^= (b & 0x7f) << 21;
+            if (b < 0) {
+              b = buf[pos++];
+              n ^= (b & 0x7f) << 28;
+              if (b < 0) {
+                throw new IOException("Invalid int encoding");
+              }
+            }
+          }
+        }
+      }
+      dest[offset] = (n >>> 1) ^ -(n & 1);
+    }
+    return pos;
+  }
+
+  /**
+   * decodes the given number of longs out of the given buffer. the buffer must hold at least
+   * count * {@link #MAX_LONG_LENGTH} bytes from the given position.
+   * @param buf buffer holding the encoded longs
+   * @param pos position of the first encoded long in the buffer
+   * @param dest array to decode the longs into
+   * @param offset index in dest of the first decoded long
+   * @param count number of longs to decode
+   * @return position in the buffer right after the last decoded long
+   * @throws IOException if a long is encoded on more than {@link #MAX_LONG_LENGTH} bytes
+   */
+  public static int decodeLongs(byte[] buf, int pos, long[] dest, int offset, int count) throws IOException {
+    for (int end = offset + count; offset < end; offset++) {
+      int b = buf[pos++];
+      long l;
+      if (b >= 0) {
+        //most common case for small values: a single byte
+        l = b;
+      } else {
+        //the first 4 bytes fit in an int, like in avro's own BinaryDecoder.readLong()
+        int n = b & 0x7f;
+        b = buf[pos++];
+        n ^= (b & 0x7f) << 7;
+        if (b < 0) {
+          b = buf[pos++];
+          n ^= (b & 0x7f) << 14;
+          if (b < 0) {
+            b = buf[pos++];
+            n ^= (b & 0x7f) << 21;
+          }
+        }
+        l = n;
+        for (int shift = 28; b < 0; shift += 7) {
+          if (shift > 63) {
+            throw new IOException("Invalid long encoding");
+          }
+          b = buf[pos++];
+          l ^= (b & 0x7fL) << shift;
+        }
+      }
+      dest[offset] = (l >>> 1) ^ -(l & 1);
+    }
+    return pos;
+  }
+
+  /**
+   * reads the given number of ints one at a time, for decoders whose buffer is not accessible
+   * @param decoder decoder to read from
+   * @param dest array to read the ints into
+   * @param offset index in dest of the first int read
+   * @param count number of ints to read
+   * @throws IOException on io errors
+   */
+  public static void readInts(Decoder decoder, int[] dest, int offset, int count) throws IOException {
+    for (int end = offset + count; offset < end; offset++) {
+      dest[offset] = decoder.readInt();
+    }
+  }
+
+  /**
+   * reads the given number of longs one at a time, for decoders whose buffer is not accessible
+   * @param decoder decoder to read from
+   * @param dest array to read the longs into
+   * @param offset index in dest of the first long read
+   * @param count number of longs to read
+   * @throws IOException on io errors
+   */
+  public static void readLongs(Decoder decoder, long[] dest, int offset, int count) throws IOException {
+    for (int end = offset + count; offset < end; offset++) {
+      dest[offset] = decoder.readLong();
+    }
+  }
+}
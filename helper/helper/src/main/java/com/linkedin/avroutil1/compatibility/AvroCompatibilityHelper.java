@@ -21,8 +21,10 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.OutputStream;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.function.UnaryOperator;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.IndexedRecord;
@@ -130,6 +132,29 @@ public class AvroCompatibilityHelper {
     return ADAPTER.newBinaryEncoder(out);
   }
 
+  /**
+   * constructs an {@link Encoder} writing the avro binary encoding straight into the given {@link ByteBuffer},
+   * which may be direct, from its position up to its limit. see {@link ByteBufferEncoder}
+   * @param buffer a byte buffer
+   * @return an encoder writing into the given buffer
+   */
+  public static ByteBufferEncoder newByteBufferEncoder(ByteBuffer buffer) {
+    assertAvroAvailable();
+    return new ByteBufferEncoder(buffer);
+  }
+
+  /**
+   * constructs an {@link Encoder} writing the avro binary encoding straight into a chain of {@link ByteBuffer}s,
+   * which may be direct. see {@link ByteBufferEncoder}
+   * @param buffer the first buffer to write into, from its position up to its limit
+   * @param nextBuffer given the buffer just filled, returns the next buffer to write into
+   * @return an encoder writing into the given buffers
+   */
+  public static ByteBufferEncoder newByteBufferEncoder(ByteBuffer buffer, UnaryOperator<ByteBuffer> nextBuffer) {
+    assertAvroAvailable();
+    return new ByteBufferEncoder(buffer, nextBuffer);
+  }
+
   /**
    * constructs a {@link BinaryDecoder} on top of the given input stream
    * @param in an input stream
@@ -189,6 +214,52 @@ public class AvroCompatibilityHelper {
     return ADAPTER.newBinaryDecoder(in);
   }
 
+  /**
+   * reads the given number of avro ints from the given {@link Decoder}, as if by calling
+   * {@link Decoder#readInt()} that many times. binary decoders backed by a buffer decode the whole
+   * run out of the buffer at once.
+   * @param decoder a {@link Decoder}
+   * @param dest array to read the ints into
+   * @param offset index in dest of the first int read
+   * @param count number of ints to read
+   * @throws IOException on io errors
+   */
+  public static void readInts(Decoder decoder, int[] dest, int offset, int count) throws IOException {
+    assertAvroAvailable();
+    ADAPTER.readInts(decoder, dest, offset, count);
+  }
+
+  /**
+   * reads the given number of avro longs from the given {@link Decoder}, as if by calling
+   * {@link Decoder#readLong()} that many times. binary decoders backed by a buffer decode the whole
+   * run out of the buffer at once.
+   * @param decoder a {@link Decoder}
+   * @param dest array to read the longs into
+   * @param offset index in dest of the first long read
+   * @param count number of longs to read
+   * @throws IOException on io errors
+   */
+  public static void readLongs(Decoder decoder, long[] dest, int offset, int count) throws IOException {
+    assertAvroAvailable();
+    ADAPTER.readLongs(decoder, dest, offset, count);
+  }
+
+  /**
+   * reads an avro bytes value from the given {@link Decoder}, like {@link Decoder#readBytes(ByteBuffer)} would.
+   * if the decoder reads from a byte array (see {@link #newBinaryDecoder(byte[], int, int, BinaryDecoder)}) the
+   * value is returned as a slice of that array, without copying it. such a slice shares the array: it is only valid
+   * as long as the array is not modified, and writing to it modifies the array. (avro decodes the last few bytes of
+   * an array, and with some versions very small arrays, out of a copy of its own, which the slice then shares
+   * instead.)
+   * @param decoder a {@link Decoder}
+   * @return the bytes value, possibly backed by the array the decoder reads from
+   * @throws IOException on io errors
+   */
+  public static ByteBuffer readBytesSlice(Decoder decoder) throws IOException {
+    assertAvroAvailable();
+    return ADAPTER.readBytesSlice(decoder);
+  }
+
   /**
    * constructs a {@link JsonEncoder} on top of the given {@link OutputStream} for the given {@link Schema}
    * @param schema a schema
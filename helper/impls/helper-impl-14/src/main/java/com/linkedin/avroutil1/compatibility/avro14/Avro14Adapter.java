@@ -20,6 +20,7 @@ import com.linkedin.avroutil1.compatibility.SchemaParseResult;
 import com.linkedin.avroutil1.compatibility.SchemaValidator;
 import com.linkedin.avroutil1.compatibility.SkipDecoder;
 import com.linkedin.avroutil1.compatibility.StringRepresentation;
+import com.linkedin.avroutil1.compatibility.VarIntUtil;
 import com.linkedin.avroutil1.compatibility.avro14.backports.Avro14DefaultValuesCache;
 import com.linkedin.avroutil1.compatibility.avro14.backports.Avro18BufferedBinaryEncoder;
 import com.linkedin.avroutil1.compatibility.avro14.codec.BoundedMemoryDecoder;
@@ -33,6 +34,7 @@ import java.io.InputStream;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -128,6 +130,36 @@ public class Avro14Adapter implements AvroAdapter {
     return Avro14BinaryDecoderAccessUtil.newBinaryDecoder(bytes, offset, length, reuse);
   }
 
+  @Override
+  public void readInts(Decoder decoder, int[] dest, int offset, int count) throws IOException {
+    if (decoder instanceof com.linkedin.avroutil1.compatibility.avro14.codec.BinaryDecoder) {
+      ((com.linkedin.avroutil1.compatibility.avro14.codec.BinaryDecoder) decoder).readInts(dest, offset, count);
+    } else if (decoder.getClass() == BinaryDecoder.class) {
+      Avro14BinaryDecoderAccessUtil.readInts((BinaryDecoder) decoder, dest, offset, count);
+    } else {
+      VarIntUtil.readInts(decoder, dest, offset, count);
+    }
+  }
+
+  @Override
+  public void readLongs(Decoder decoder, long[] dest, int offset, int count) throws IOException {
+    if (decoder instanceof com.linkedin.avroutil1.compatibility.avro14.codec.BinaryDecoder) {
+      ((com.linkedin.avroutil1.compatibility.avro14.codec.BinaryDecoder) decoder).readLongs(dest, offset, count);
+    } else if (decoder.getClass() == BinaryDecoder.class) {
+      Avro14BinaryDecoderAccessUtil.readLongs((BinaryDecoder) decoder, dest, offset, count);
+    } else {
+      VarIntUtil.readLongs(decoder, dest, offset, count);
+    }
+  }
+
+  @Override
+  public ByteBuffer readBytesSlice(Decoder decoder) throws IOException {
+    if (decoder.getClass() == BinaryDecoder.class) {
+      return Avro14BinaryDecoderAccessUtil.readBytesSlice((BinaryDecoder) decoder);
+    }
+    return decoder.readBytes(null);
+  }
+
   @Override
   public JsonEncoder newJsonEncoder(Schema schema, OutputStream out, boolean pretty) throws IOException {
     return new JsonEncoder(schema, out);
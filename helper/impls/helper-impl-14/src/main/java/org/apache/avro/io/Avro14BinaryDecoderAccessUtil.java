@@ -6,6 +6,11 @@
 
 package org.apache.avro.io;
 
+import com.linkedin.avroutil1.compatibility.VarIntUtil;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.avro.AvroRuntimeException;
+
 /**
  * this class exists to allow us access to package-private classes and methods on class {@link BinaryDecoder}
  *
@@ -13,6 +18,19 @@ package org.apache.avro.io;
  * is that this method supports configuring custom BinaryDecoder since it does not check class type of BinaryDecoder.
  */
 public class Avro14BinaryDecoderAccessUtil {
+  /**
+   * class of the byte source of decoders reading from a byte array, which is private to {@link BinaryDecoder}
+   */
+  private static final Class<?> BYTE_ARRAY_SOURCE_CLASS;
+
+  static {
+    try {
+      BYTE_ARRAY_SOURCE_CLASS = Class.forName(BinaryDecoder.class.getName() + "$ByteArrayByteSource");
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   public static BinaryDecoder newBinaryDecoder(byte[] bytes, int offset,
       int length, BinaryDecoder reuse) {
     if (null != reuse) {
@@ -22,4 +40,84 @@ public class Avro14BinaryDecoderAccessUtil {
       return new BinaryDecoder(bytes, offset, length);
     }
   }
+
+  /**
+   * reads the given number of ints into the given array. as long as the buffer of the decoder holds enough bytes
+   * for the longest possible encoding of the ints left to read, they are decoded straight out of that buffer
+   * with a single bounds check.
+   * @param decoder decoder to read from
+   * @param dest array to read the ints into
+   * @param offset index in dest of the first int read
+   * @param count number of ints to read
+   * @throws IOException on io errors
+   */
+  public static void readInts(BinaryDecoder decoder, int[] dest, int offset, int count) throws IOException {
+    BinaryDecoder.BufferAccessor accessor = decoder.getBufferAccessor();
+    while (count > 0) {
+      byte[] buf = accessor.getBuf();
+      int pos = accessor.getPos();
+      int limit = accessor.getLim();
+      int batch = buf == null ? 0 : Math.min(count, (limit - pos) / VarIntUtil.MAX_INT_LENGTH);
+      if (batch == 0) {
+        //not enough buffered bytes to be safe, let readInt() refill the buffer
+        dest[offset++] = decoder.readInt();
+        count--;
+      } else {
+        accessor.setPos(VarIntUtil.decodeInts(buf, pos, dest, offset, batch));
+        offset += batch;
+        count -= batch;
+      }
+    }
+  }
+
+  /**
+   * reads the given number of longs into the given array. as long as the buffer of the decoder holds enough bytes
+   * for the longest possible encoding of the longs left to read, they are decoded straight out of that buffer
+   * with a single bounds check.
+   * @param decoder decoder to read from
+   * @param dest array to read the longs into
+   * @param offset index in dest of the first long read
+   * @param count number of longs to read
+   * @throws IOException on io errors
+   */
+  public static void readLongs(BinaryDecoder decoder, long[] dest, int offset, int count) throws IOException {
+    BinaryDecoder.BufferAccessor accessor = decoder.getBufferAccessor();
+    while (count > 0) {
+      byte[] buf = accessor.getBuf();
+      int pos = accessor.getPos();
+      int limit = accessor.getLim();
+      int batch = buf == null ? 0 : Math.min(count, (limit - pos) / VarIntUtil.MAX_LONG_LENGTH);
+      if (batch == 0) {
+        //not enough buffered bytes to be safe, let readLong() refill the buffer
+        dest[offset++] = decoder.readLong();
+        count--;
+      } else {
+        accessor.setPos(VarIntUtil.decodeLongs(buf, pos, dest, offset, batch));
+        offset += batch;
+        count -= batch;
+      }
+    }
+  }
+
+  /**
+   * reads an avro bytes value. if the decoder reads from a byte array, the value is returned as a slice of that
+   * array, without copying it, otherwise it is read like {@link BinaryDecoder#readBytes(java.nio.ByteBuffer)} does.
+   * @param decoder decoder to read from
+   * @return the bytes value, possibly backed by the array the decoder reads from
+   * @throws IOException on io errors
+   */
+  public static ByteBuffer readBytesSlice(BinaryDecoder decoder) throws IOException {
+    if (decoder.inputStream().getClass() != BYTE_ARRAY_SOURCE_CLASS) {
+      return decoder.readBytes(null);
+    }
+    int length = decoder.readInt();
+    BinaryDecoder.BufferAccessor accessor = decoder.getBufferAccessor();
+    byte[] buf = accessor.getBuf();
+    int pos = accessor.getPos();
+    if (length < 0 || length > accessor.getLim() - pos) {
+      throw new AvroRuntimeException("Malformed data. Length is out of bounds: " + length);
+    }
+    accessor.setPos(pos + length);
+    return ByteBuffer.wrap(buf, pos, length).slice();
+  }
 }
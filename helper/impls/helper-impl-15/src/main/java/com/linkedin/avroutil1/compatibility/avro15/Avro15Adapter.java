@@ -21,6 +21,7 @@ import com.linkedin.avroutil1.compatibility.SchemaParseResult;
 import com.linkedin.avroutil1.compatibility.SchemaValidator;
 import com.linkedin.avroutil1.compatibility.SkipDecoder;
 import com.linkedin.avroutil1.compatibility.StringRepresentation;
+import com.linkedin.avroutil1.compatibility.VarIntUtil;
 import com.linkedin.avroutil1.compatibility.avro15.backports.Avro15DefaultValuesCache;
 import com.linkedin.avroutil1.compatibility.avro15.codec.CachedResolvingDecoder;
 import com.linkedin.avroutil1.compatibility.avro15.codec.CompatibleJsonDecoder;
@@ -33,6 +34,7 @@ import java.io.InputStream;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -131,6 +133,36 @@ public class Avro15Adapter implements AvroAdapter {
     return Avro15BinaryDecoderAccessUtil.newBinaryDecoder(bytes, offset, length, reuse);
   }
 
+  @Override
+  public void readInts(Decoder decoder, int[] dest, int offset, int count) throws IOException {
+    if (decoder instanceof com.linkedin.avroutil1.compatibility.avro15.codec.BinaryDecoder) {
+      ((com.linkedin.avroutil1.compatibility.avro15.codec.BinaryDecoder) decoder).readInts(dest, offset, count);
+    } else if (decoder.getClass() == BinaryDecoder.class) {
+      Avro15BinaryDecoderAccessUtil.readInts((BinaryDecoder) decoder, dest, offset, count);
+    } else {
+      VarIntUtil.readInts(decoder, dest, offset, count);
+    }
+  }
+
+  @Override
+  public void readLongs(Decoder decoder, long[] dest, int offset, int count) throws IOException {
+    if (decoder instanceof com.linkedin.avroutil1.compatibility.avro15.codec.BinaryDecoder) {
+      ((com.linkedin.avroutil1.compatibility.avro15.codec.BinaryDecoder) decoder).readLongs(dest, offset, count);
+    } else if (decoder.getClass() == BinaryDecoder.class) {
+      Avro15BinaryDecoderAccessUtil.readLongs((BinaryDecoder) decoder, dest, offset, count);
+    } else {
+      VarIntUtil.readLongs(decoder, dest, offset, count);
+    }
+  }
+
+  @Override
+  public ByteBuffer readBytesSlice(Decoder decoder) throws IOException {
+    if (decoder.getClass() == BinaryDecoder.class) {
+      return Avro15BinaryDecoderAccessUtil.readBytesSlice((BinaryDecoder) decoder);
+    }
+    return decoder.readBytes(null);
+  }
+
   @Override
   public JsonEncoder newJsonEncoder(Schema schema, OutputStream out, boolean pretty) throws IOException {
     return EncoderFactory.get().jsonEncoder(schema, out);
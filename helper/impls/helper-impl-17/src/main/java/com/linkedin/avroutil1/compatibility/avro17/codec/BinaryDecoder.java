@@ -24,6 +24,7 @@
 
 package com.linkedin.avroutil1.compatibility.avro17.codec;
 
+import com.linkedin.avroutil1.compatibility.VarIntUtil;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -214,6 +215,52 @@ public class BinaryDecoder extends Decoder {
     return l;
   }
 
+  /**
+   * reads the given number of ints into the given array. as long as the buffer holds enough bytes for the
+   * longest possible encoding of the ints left to read, they are decoded with a single bounds check.
+   * @param dest array to read the ints into
+   * @param offset index in dest of the first int read
+   * @param count number of ints to read
+   * @throws IOException on io errors
+   */
+  public void readInts(int[] dest, int offset, int count) throws IOException {
+    while (count > 0) {
+      int batch = Math.min(count, (this.limit - this.pos) / VarIntUtil.MAX_INT_LENGTH);
+      if (batch == 0) {
+        //not enough buffered bytes to be safe, let readInt() refill the buffer
+        dest[offset++] = readInt();
+        count--;
+      } else {
+        this.pos = VarIntUtil.decodeInts(this.buf, this.pos, dest, offset, batch);
+        offset += batch;
+        count -= batch;
+      }
+    }
+  }
+
+  /**
+   * reads the given number of longs into the given array. as long as the buffer holds enough bytes for the
+   * longest possible encoding of the longs left to read, they are decoded with a single bounds check.
+   * @param dest array to read the longs into
+   * @param offset index in dest of the first long read
+   * @param count number of longs to read
+   * @throws IOException on io errors
+   */
+  public void readLongs(long[] dest, int offset, int count) throws IOException {
+    while (count > 0) {
+      int batch = Math.min(count, (this.limit - this.pos) / VarIntUtil.MAX_LONG_LENGTH);
+      if (batch == 0) {
+        //not enough buffered bytes to be safe, let readLong() refill the buffer
+        dest[offset++] = readLong();
+        count--;
+      } else {
+        this.pos = VarIntUtil.decodeLongs(this.buf, this.pos, dest, offset, batch);
+        offset += batch;
+        count -= batch;
+      }
+    }
+  }
+
   public float readFloat() throws IOException {
     this.ensureBounds(4);
     int len = 1;
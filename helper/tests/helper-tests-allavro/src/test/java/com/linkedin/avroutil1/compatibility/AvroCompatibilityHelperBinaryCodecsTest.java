@@ -8,9 +8,15 @@ package com.linkedin.avroutil1.compatibility;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import org.apache.avro.io.BinaryDecoder;
@@ -58,6 +64,146 @@ public class AvroCompatibilityHelperBinaryCodecsTest {
     runBinaryEncodeDecodeCycle(null, null, null, null, false, false, false, false);
   }
 
+  @Test
+  public void testBulkIntAndLongReads() throws Exception {
+    //enough values for buffered decoders to run out of buffer halfway through
+    Random random = new Random(42L);
+    int[] ints = new int[5000];
+    long[] longs = new long[5000];
+    for (int i = 0; i < ints.length; i++) {
+      switch (i % 4) {
+        case 0:
+          ints[i] = i % 8 == 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+          longs[i] = i % 8 == 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+          break;
+        case 1:
+          ints[i] = random.nextInt(128) - 64;
+          longs[i] = random.nextInt(128) - 64;
+          break;
+        default:
+          ints[i] = random.nextInt();
+          longs[i] = random.nextLong() >> random.nextInt(64);
+      }
+    }
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(os, false, null);
+    for (int value : ints) {
+      encoder.writeInt(value);
+    }
+    for (long value : longs) {
+      encoder.writeLong(value);
+    }
+    encoder.writeString("end");
+    encoder.flush();
+    byte[] data = os.toByteArray();
+
+    List<Decoder> decoders = Arrays.asList(
+        AvroCompatibilityHelper.newBinaryDecoder(data),
+        AvroCompatibilityHelper.newBinaryDecoder(data, 0, data.length, null),
+        AvroCompatibilityHelper.newBinaryDecoder(new ByteArrayInputStream(data), true, null),
+        AvroCompatibilityHelper.newBinaryDecoder(new ByteArrayInputStream(data), false, null),
+        AvroCompatibilityHelper.newBoundedMemoryDecoder(data)
+    );
+    for (Decoder decoder : decoders) {
+      int[] readInts = new int[ints.length + 1];
+      long[] readLongs = new long[longs.length + 1];
+      AvroCompatibilityHelper.readInts(decoder, readInts, 1, 3);
+      AvroCompatibilityHelper.readInts(decoder, readInts, 4, ints.length - 3);
+      AvroCompatibilityHelper.readLongs(decoder, readLongs, 1, longs.length);
+      Assert.assertEquals(Arrays.copyOfRange(readInts, 1, readInts.length), ints, decoder.getClass().getName());
+      Assert.assertEquals(Arrays.copyOfRange(readLongs, 1, readLongs.length), longs, decoder.getClass().getName());
+      Assert.assertEquals(decoder.readString(null).toString(), "end", decoder.getClass().getName());
+    }
+  }
+
+  @Test
+  public void testBytesSlices() throws Exception {
+    byte[] blob = new byte[100];
+    new Random(42L).nextBytes(blob);
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    os.write(new byte[] {7, 7}); //so the encoded values don't start at the beginning of the array
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(os, false, null);
+    encoder.writeBytes(new byte[] {});
+    encoder.writeBytes(new byte[] {1, 2, 3});
+    encoder.writeBytes(blob);
+    encoder.writeString("end");
+    encoder.flush();
+    byte[] data = os.toByteArray();
+
+    BinaryDecoder arrayDecoder = AvroCompatibilityHelper.newBinaryDecoder(data, 2, data.length - 2, null);
+    Assert.assertEquals(AvroCompatibilityHelper.readBytesSlice(arrayDecoder), ByteBuffer.wrap(new byte[] {}));
+    Assert.assertEquals(AvroCompatibilityHelper.readBytesSlice(arrayDecoder), ByteBuffer.wrap(new byte[] {1, 2, 3}));
+    ByteBuffer slice = AvroCompatibilityHelper.readBytesSlice(arrayDecoder);
+    Assert.assertEquals(slice, ByteBuffer.wrap(blob));
+    Assert.assertSame(slice.array(), data, "bytes should not have been copied");
+    Assert.assertEquals(arrayDecoder.readString(null).toString(), "end");
+
+    BinaryDecoder streamDecoder = AvroCompatibilityHelper.newBinaryDecoder(
+        new ByteArrayInputStream(data, 2, data.length - 2), true, null);
+    Assert.assertEquals(AvroCompatibilityHelper.readBytesSlice(streamDecoder), ByteBuffer.wrap(new byte[] {}));
+    Assert.assertEquals(AvroCompatibilityHelper.readBytesSlice(streamDecoder), ByteBuffer.wrap(new byte[] {1, 2, 3}));
+    slice = AvroCompatibilityHelper.readBytesSlice(streamDecoder);
+    Assert.assertEquals(slice, ByteBuffer.wrap(blob));
+    Assert.assertNotSame(slice.array(), data);
+    Assert.assertEquals(streamDecoder.readString(null).toString(), "end");
+  }
+
+  @Test
+  public void testByteBufferEncoders() throws Exception {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    Encoder binaryEncoder = AvroCompatibilityHelper.newBinaryEncoder(os, false, null);
+    writeValues(binaryEncoder);
+    binaryEncoder.writeString("d\u00e9j\u00e0 vu \u20ac \ud83d\ude00 \ud83d");
+    binaryEncoder.writeBytes(ByteBuffer.allocate(50)); //old avro can't write direct buffers
+    binaryEncoder.flush();
+    byte[] expected = os.toByteArray();
+
+    List<ByteBuffer> buffers = Arrays.asList(
+        ByteBuffer.allocate(expected.length + 10),
+        ByteBuffer.allocateDirect(expected.length + 10),
+        ByteBuffer.allocate(expected.length + 10).order(ByteOrder.LITTLE_ENDIAN)
+    );
+    for (ByteBuffer buffer : buffers) {
+      ByteBufferEncoder encoder = AvroCompatibilityHelper.newByteBufferEncoder(buffer);
+      writeValues(encoder);
+      encoder.writeString("d\u00e9j\u00e0 vu \u20ac \ud83d\ude00 \ud83d");
+      encoder.writeBytes(ByteBuffer.allocateDirect(50));
+      Assert.assertEquals(encoder.getBytesWritten(), expected.length);
+      buffer.flip();
+      byte[] written = new byte[buffer.remaining()];
+      buffer.get(written);
+      Assert.assertEquals(written, expected, buffer.toString());
+    }
+
+    //a chain of small direct buffers, so that values get split across them
+    List<ByteBuffer> chain = new ArrayList<>();
+    chain.add(ByteBuffer.allocateDirect(3));
+    ByteBufferEncoder encoder = AvroCompatibilityHelper.newByteBufferEncoder(chain.get(0), full -> {
+      ByteBuffer next = ByteBuffer.allocateDirect(3);
+      chain.add(next);
+      return next;
+    });
+    writeValues(encoder);
+    encoder.writeString("d\u00e9j\u00e0 vu \u20ac \ud83d\ude00 \ud83d");
+    encoder.writeBytes(ByteBuffer.allocateDirect(50));
+    Assert.assertEquals(encoder.getBytesWritten(), expected.length);
+    ByteArrayOutputStream chained = new ByteArrayOutputStream();
+    for (ByteBuffer buffer : chain) {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        chained.write(buffer.get());
+      }
+    }
+    Assert.assertEquals(chained.toByteArray(), expected);
+
+    try {
+      AvroCompatibilityHelper.newByteBufferEncoder(ByteBuffer.allocate(3)).writeLong(Long.MAX_VALUE);
+      Assert.fail("expected BufferOverflowException");
+    } catch (BufferOverflowException expectedException) {
+      //expected
+    }
+  }
+
   private void runBinaryEncodeDecodeCycle(
       AtomicReference<BinaryEncoder> bufferedEncoderRef,
       AtomicReference<BinaryEncoder> directEncoderRef,
@@ -125,60 +271,7 @@ public class AvroCompatibilityHelperBinaryCodecsTest {
     ByteArrayOutputStream os = new ByteArrayOutputStream();
     Encoder encoder = encoderFactory.apply(os);
 
-    encoder.writeNull();
-    encoder.writeBoolean(true);
-    encoder.writeBoolean(false);
-    encoder.writeInt(Integer.MIN_VALUE);
-    encoder.writeInt(-1);
-    encoder.writeInt(0);
-    encoder.writeInt(1);
-    encoder.writeInt(Integer.MAX_VALUE);
-    encoder.writeLong(Long.MIN_VALUE);
-    encoder.writeLong(((long)Integer.MIN_VALUE) - 1L);
-    encoder.writeLong(-1);
-    encoder.writeLong(0);
-    encoder.writeLong(1);
-    encoder.writeLong(((long)Integer.MAX_VALUE) + 1L);
-    encoder.writeLong(Long.MAX_VALUE);
-    encoder.writeFloat(-Float.MAX_VALUE);
-    encoder.writeFloat(-Float.MIN_VALUE);
-    encoder.writeFloat(0);
-    encoder.writeFloat(Float.MIN_VALUE);
-    encoder.writeFloat(Float.MAX_VALUE);
-    encoder.writeDouble(-Double.MAX_VALUE);
-    encoder.writeDouble(-Double.MIN_VALUE);
-    encoder.writeDouble(0);
-    encoder.writeDouble(Double.MIN_VALUE);
-    encoder.writeDouble(Double.MAX_VALUE);
-    encoder.writeString(new Utf8());
-    encoder.writeString(new Utf8(""));
-    encoder.writeString(new Utf8("whatever"));
-    encoder.writeString("");
-    encoder.writeString("woha");
-    encoder.writeBytes(ByteBuffer.wrap(new byte[] {}));
-    encoder.writeBytes(ByteBuffer.wrap(new byte[] {1, 2, 3}));
-    encoder.writeBytes(new byte[] {});
-    encoder.writeBytes(new byte[] {6, 6, 6});
-    encoder.writeBytes(new byte[] {1, 2, 3, 6, 7, 7, 7, 8}, 4, 3);
-    encoder.writeFixed(new byte[] {9, 9, 9});
-    encoder.writeEnum(42);
-    encoder.writeArrayStart();
-    encoder.setItemCount(0);
-    encoder.writeArrayEnd();
-    encoder.writeArrayStart();
-    encoder.setItemCount(1);
-    encoder.startItem();
-    encoder.writeString("item1");
-    encoder.writeArrayEnd();
-    encoder.writeMapStart();
-    encoder.setItemCount(1);
-    encoder.startItem();
-    encoder.writeString("key");
-    encoder.writeString("value");
-    encoder.writeMapEnd();
-    encoder.writeIndex(7);
-    encoder.writeString("8th union branch");
-
+    writeValues(encoder);
     encoder.flush();
     byte[] data = os.toByteArray();
 
@@ -233,4 +326,60 @@ public class AvroCompatibilityHelperBinaryCodecsTest {
     Assert.assertEquals(decoder.readIndex(), 7);
     Assert.assertEquals(decoder.readString(null).toString(), "8th union branch");
   }
+
+  private static void writeValues(Encoder encoder) throws IOException {
+    encoder.writeNull();
+    encoder.writeBoolean(true);
+    encoder.writeBoolean(false);
+    encoder.writeInt(Integer.MIN_VALUE);
+    encoder.writeInt(-1);
+    encoder.writeInt(0);
+    encoder.writeInt(1);
+    encoder.writeInt(Integer.MAX_VALUE);
+    encoder.writeLong(Long.MIN_VALUE);
+    encoder.writeLong(((long)Integer.MIN_VALUE) - 1L);
+    encoder.writeLong(-1);
+    encoder.writeLong(0);
+    encoder.writeLong(1);
+    encoder.writeLong(((long)Integer.MAX_VALUE) + 1L);
+    encoder.writeLong(Long.MAX_VALUE);
+    encoder.writeFloat(-Float.MAX_VALUE);
+    encoder.writeFloat(-Float.MIN_VALUE);
+    encoder.writeFloat(0);
+    encoder.writeFloat(Float.MIN_VALUE);
+    encoder.writeFloat(Float.MAX_VALUE);
+    encoder.writeDouble(-Double.MAX_VALUE);
+    encoder.writeDouble(-Double.MIN_VALUE);
+    encoder.writeDouble(0);
+    encoder.writeDouble(Double.MIN_VALUE);
+    encoder.writeDouble(Double.MAX_VALUE);
+    encoder.writeString(new Utf8());
+    encoder.writeString(new Utf8(""));
+    encoder.writeString(new Utf8("whatever"));
+    encoder.writeString("");
+    encoder.writeString("woha");
+    encoder.writeBytes(ByteBuffer.wrap(new byte[] {}));
+    encoder.writeBytes(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+    encoder.writeBytes(new byte[] {});
+    encoder.writeBytes(new byte[] {6, 6, 6});
+    encoder.writeBytes(new byte[] {1, 2, 3, 6, 7, 7, 7, 8}, 4, 3);
+    encoder.writeFixed(new byte[] {9, 9, 9});
+    encoder.writeEnum(42);
+    encoder.writeArrayStart();
+    encoder.setItemCount(0);
+    encoder.writeArrayEnd();
+    encoder.writeArrayStart();
+    encoder.setItemCount(1);
+    encoder.startItem();
+    encoder.writeString("item1");
+    encoder.writeArrayEnd();
+    encoder.writeMapStart();
+    encoder.setItemCount(1);
+    encoder.startItem();
+    encoder.writeString("key");
+    encoder.writeString("value");
+    encoder.writeMapEnd();
+    encoder.writeIndex(7);
+    encoder.writeString("8th union branch");
+  }
 }